@@ -28,4 +28,25 @@ public interface Calculable {
 	 *            the value of the variable
 	 */
 	public void setVariable(Variable var);
+
+	/**
+	 * set a scalar variable value for the calculation
+	 * 
+	 * @param name
+	 *            the name of the variable
+	 * @param value
+	 *            the value of the variable
+	 */
+	public default void setVariable(String name, double value) {
+		setVariable(new Variable(name, value));
+	}
+
+	/**
+	 * calculate the scalar result of the expression
+	 * 
+	 * @return the result of the calculation
+	 */
+	public default double calculateDouble() {
+		return calculate().getDoubleValue();
+	}
 }
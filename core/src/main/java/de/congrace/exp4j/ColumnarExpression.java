@@ -0,0 +1,170 @@
+package de.congrace.exp4j;
+
+import java.util.Arrays;
+
+/**
+ * Evaluates an expression over entire columns of variable values at once.
+ * <p>
+ * The postfix expression is compiled to a flat program, and each instruction is applied
+ * to a block of rows in a tight loop over primitive arrays, instead of pushing and popping
+ * a {@link Variable} for every token and every row.  The expression only has scalar
+ * variables; range-valued variables are not supported.
+ * <p>
+ * Instances are immutable, and {@link #calculate(double[][], int, int, double[])} may be
+ * called by several threads at the same time, e.g. for different ranges of rows.
+ */
+public final class ColumnarExpression {
+
+	/** Number of rows evaluated by each instruction at a time. */
+	private static final int BLOCK_SIZE = 1024;
+
+	private final Program program;
+
+	private ColumnarExpression(Program program) {
+		this.program = program;
+	}
+
+	/**
+	 * Compile a {@link Calculable} built by {@link ExpressionBuilder} for columnar evaluation.
+	 *
+	 * @param calculable
+	 *            the built expression
+	 * @return the columnar expression
+	 * @throws IllegalArgumentException
+	 *             if the expression cannot be compiled
+	 */
+	public static ColumnarExpression compile(Calculable calculable) {
+		if (calculable instanceof CompiledExpression) {
+			Program program = ((CompiledExpression) calculable).getProgram();
+			if (program == null) {
+				throw new IllegalArgumentException("Invalid expression " + calculable.getExpression());
+			}
+			return new ColumnarExpression(program);
+		}
+		if (!(calculable instanceof PostfixExpression)) {
+			throw new IllegalArgumentException("Unsupported expression type " + calculable.getClass().getName());
+		}
+		return new ColumnarExpression(Program.compile(((PostfixExpression) calculable).getTokens()));
+	}
+
+	/**
+	 * get the names of the variables used in the expression, in the order in which the
+	 * columns are passed to {@link #calculate(double[][], int, int, double[])}
+	 *
+	 * @return the variable names
+	 */
+	public String[] getVariableNames() {
+		return program.variableNames.clone();
+	}
+
+	/**
+	 * Calculate the expression for a range of rows.
+	 *
+	 * @param columns
+	 *            the values of each variable, in the order of {@link #getVariableNames()}.
+	 *            A <code>null</code> column has the value NaN in every row.
+	 * @param from
+	 *            the first row, inclusive
+	 * @param to
+	 *            the last row, exclusive
+	 * @param result
+	 *            the array to store the results in, at the same rows as the columns
+	 */
+	public void calculate(double[][] columns, int from, int to, double[] result) {
+		final int[] codes = program.codes;
+		final double[][] stack = new double[program.maxDepth][BLOCK_SIZE];
+		final double[] args = new double[maxArgumentCount()];
+
+		for (int start = from; start < to; start += BLOCK_SIZE) {
+			final int n = Math.min(BLOCK_SIZE, to - start);
+			int sp = 0;
+			for (int pc = 0; pc < codes.length; pc++) {
+				switch (codes[pc]) {
+					case Program.CONSTANT -> Arrays.fill(stack[sp++], 0, n, program.constants[pc]);
+					case Program.VARIABLE -> {
+						double[] column = columns[program.slots[pc]];
+						if (column == null) {
+							Arrays.fill(stack[sp], 0, n, Double.NaN);
+						} else {
+							System.arraycopy(column, start, stack[sp], 0, n);
+						}
+						sp++;
+					}
+					case Program.ADD -> {
+						double[] a = stack[sp - 2], b = stack[--sp];
+						for (int i = 0; i < n; i++) {
+							a[i] += b[i];
+						}
+					}
+					case Program.SUBTRACT -> {
+						double[] a = stack[sp - 2], b = stack[--sp];
+						for (int i = 0; i < n; i++) {
+							a[i] -= b[i];
+						}
+					}
+					case Program.MULTIPLY -> {
+						double[] a = stack[sp - 2], b = stack[--sp];
+						for (int i = 0; i < n; i++) {
+							a[i] *= b[i];
+						}
+					}
+					case Program.DIVIDE -> {
+						double[] a = stack[sp - 2], b = stack[--sp];
+						for (int i = 0; i < n; i++) {
+							a[i] /= b[i];
+						}
+					}
+					case Program.MODULO -> {
+						double[] a = stack[sp - 2], b = stack[--sp];
+						for (int i = 0; i < n; i++) {
+							a[i] %= b[i];
+						}
+					}
+					case Program.POWER -> {
+						double[] a = stack[sp - 2], b = stack[--sp];
+						for (int i = 0; i < n; i++) {
+							a[i] = Math.pow(a[i], b[i]);
+						}
+					}
+					case Program.NEGATE -> {
+						double[] a = stack[sp - 1];
+						for (int i = 0; i < n; i++) {
+							a[i] = -a[i];
+						}
+					}
+					case Program.FUNCTION -> {
+						FunctionToken function = (FunctionToken) program.functions[pc];
+						double[] a = stack[sp - 1];
+						for (int i = 0; i < n; i++) {
+							a[i] = function.applyFunction(a[i]);
+						}
+					}
+					case Program.CUSTOM_FUNCTION -> {
+						CustomFunction function = (CustomFunction) program.functions[pc];
+						int argc = program.slots[pc];
+						int base = sp - argc;
+						for (int i = 0; i < n; i++) {
+							for (int j = 0; j < argc; j++) {
+								args[j] = stack[base + j][i];
+							}
+							stack[base][i] = Program.applyCustomFunction(function, args, argc);
+						}
+						sp = base + 1;
+					}
+					default -> throw new IllegalStateException("Unknown instruction " + codes[pc]);
+				}
+			}
+			System.arraycopy(stack[sp - 1], 0, result, start, n);
+		}
+	}
+
+	private int maxArgumentCount() {
+		int max = 0;
+		for (int pc = 0; pc < program.codes.length; pc++) {
+			if (program.codes[pc] == Program.CUSTOM_FUNCTION) {
+				max = Math.max(max, program.slots[pc]);
+			}
+		}
+		return max;
+	}
+}
@@ -0,0 +1,189 @@
+package de.congrace.exp4j;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link Calculable} that evaluates a compiled, flat program on a reusable primitive
+ * operand stack.
+ * <p>
+ * Unlike {@link PostfixExpression#calculate()} the evaluation of scalar values does not
+ * allocate a {@link java.util.Stack} or a {@link Variable} for every token; using
+ * {@link #setVariable(String, double)} and {@link #calculateDouble()} it does not allocate
+ * at all, unless the expression uses a {@link CustomFunction}.
+ * <p>
+ * Range-valued variables (arrays) are evaluated by the original postfix interpreter, which
+ * expands the operations element by element.
+ * <p>
+ * Instances are created using {@link ExpressionBuilder#buildCompiled()} and are not thread-safe.
+ */
+public final class CompiledExpression implements Calculable {
+
+	private final PostfixExpression delegate;
+	private final Program program;
+	private final Map<String, Integer> slots = new HashMap<>();
+	private final double[] values;
+	private final Variable[] arrays;
+	private final double[] stack;
+	private final double[] args;
+	private int arrayCount = 0;
+
+	/**
+	 * Construct a compiled expression.
+	 *
+	 * @param delegate
+	 *            the postfix expression, used for range-valued variables
+	 */
+	CompiledExpression(PostfixExpression delegate) {
+		this.delegate = delegate;
+
+		Program compiled;
+		try {
+			compiled = Program.compile(delegate.getTokens());
+		} catch (IllegalArgumentException e) {
+			// Invalid expression, the postfix interpreter reports the error when calculating
+			compiled = null;
+		}
+		this.program = compiled;
+
+		int variableCount = (program == null) ? 0 : program.variableNames.length;
+		values = new double[variableCount];
+		arrays = new Variable[variableCount];
+		for (int i = 0; i < variableCount; i++) {
+			slots.put(program.variableNames[i], i);
+			values[i] = Double.NaN;
+		}
+		stack = new double[(program == null) ? 0 : program.maxDepth];
+
+		int argc = 0;
+		if (program != null) {
+			for (int pc = 0; pc < program.codes.length; pc++) {
+				if (program.codes[pc] == Program.CUSTOM_FUNCTION) {
+					argc = Math.max(argc, program.slots[pc]);
+				}
+			}
+		}
+		args = new double[argc];
+	}
+
+	/**
+	 * @return the compiled program, or <code>null</code> if the expression is invalid
+	 */
+	Program getProgram() {
+		return program;
+	}
+
+	@Override
+	public String getExpression() {
+		return delegate.getExpression();
+	}
+
+	@Override
+	public void setVariable(Variable var) {
+		Integer slot = slots.get(var.getName());
+		if (slot == null) {
+			return;
+		}
+		if (var.getPrimary() == Variable.Primary.ARRAY) {
+			if (arrays[slot] == null) {
+				arrayCount++;
+			}
+			arrays[slot] = var;
+			delegate.setVariable(var);
+		} else {
+			setScalar(slot, var.getDoubleValue());
+		}
+	}
+
+	@Override
+	public void setVariable(String name, double value) {
+		Integer slot = slots.get(name);
+		if (slot == null) {
+			return;
+		}
+		setScalar(slot, value);
+	}
+
+	private void setScalar(int slot, double value) {
+		if (arrays[slot] != null) {
+			arrays[slot] = null;
+			arrayCount--;
+		}
+		values[slot] = value;
+	}
+
+	@Override
+	public Variable calculate() {
+		if (program == null || arrayCount > 0) {
+			return calculateRange();
+		}
+		return new Variable("result", run());
+	}
+
+	@Override
+	public double calculateDouble() {
+		if (program == null || arrayCount > 0) {
+			return calculateRange().getDoubleValue();
+		}
+		return run();
+	}
+
+	/**
+	 * Evaluate using the postfix interpreter, which supports range-valued variables.
+	 */
+	private Variable calculateRange() {
+		// Scalar values set without a Variable are not known by the delegate
+		for (int i = 0; i < values.length; i++) {
+			if (arrays[i] == null) {
+				delegate.setVariable(new Variable(program.variableNames[i], values[i]));
+			}
+		}
+		return delegate.calculate();
+	}
+
+	private double run() {
+		final int[] codes = program.codes;
+		final double[] stack = this.stack;
+		int sp = 0;
+		for (int pc = 0; pc < codes.length; pc++) {
+			switch (codes[pc]) {
+				case Program.CONSTANT -> stack[sp++] = program.constants[pc];
+				case Program.VARIABLE -> stack[sp++] = values[program.slots[pc]];
+				case Program.ADD -> {
+					sp--;
+					stack[sp - 1] += stack[sp];
+				}
+				case Program.SUBTRACT -> {
+					sp--;
+					stack[sp - 1] -= stack[sp];
+				}
+				case Program.MULTIPLY -> {
+					sp--;
+					stack[sp - 1] *= stack[sp];
+				}
+				case Program.DIVIDE -> {
+					sp--;
+					stack[sp - 1] /= stack[sp];
+				}
+				case Program.MODULO -> {
+					sp--;
+					stack[sp - 1] %= stack[sp];
+				}
+				case Program.POWER -> {
+					sp--;
+					stack[sp - 1] = Math.pow(stack[sp - 1], stack[sp]);
+				}
+				case Program.NEGATE -> stack[sp - 1] = -stack[sp - 1];
+				case Program.FUNCTION -> stack[sp - 1] = ((FunctionToken) program.functions[pc]).applyFunction(stack[sp - 1]);
+				case Program.CUSTOM_FUNCTION -> {
+					int argc = program.slots[pc];
+					sp -= argc;
+					System.arraycopy(stack, sp, args, 0, argc);
+					stack[sp++] = Program.applyCustomFunction((CustomFunction) program.functions[pc], args, argc);
+				}
+				default -> throw new IllegalStateException("Unknown instruction " + codes[pc]);
+			}
+		}
+		return stack[sp - 1];
+	}
+}
@@ -63,6 +63,26 @@ public class ExpressionBuilder {
 		return delegate;
 	}
 
+	/**
+	 * build a new {@link CompiledExpression} from the expression using the supplied
+	 * variables.  The compiled expression evaluates scalar values on a primitive
+	 * operand stack instead of the postfix interpreter.
+	 * 
+	 * @return the {@link Calculable} which can be used to evaluate the
+	 *         expression
+	 * @throws UnknownFunctionException
+	 *             when an unrecognized function name is used in the expression
+	 * @throws UnparsableExpressionException
+	 *             if the expression could not be parsed
+	 */
+	public CompiledExpression buildCompiled() throws UnknownFunctionException, UnparsableExpressionException {
+		CompiledExpression compiled = new CompiledExpression((PostfixExpression) build());
+		for (Variable var : variables) {
+			compiled.setVariable(var);
+		}
+		return compiled;
+	}
+
 	/**
 	 * add a custom function instance for the evaluator to recognize
 	 * 
@@ -0,0 +1,139 @@
+package de.congrace.exp4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A postfix expression compiled to a flat list of instructions on double values.
+ * <p>
+ * Each token of the postfix expression becomes one instruction: an instruction code,
+ * and depending on the code a constant, a variable slot or the function to apply.
+ * Variables are numbered in the order of their first use.  The program is immutable,
+ * so it can be evaluated by several threads at the same time.
+ */
+final class Program {
+
+	static final int CONSTANT = 0;
+	static final int VARIABLE = 1;
+	static final int ADD = 2;
+	static final int SUBTRACT = 3;
+	static final int MULTIPLY = 4;
+	static final int DIVIDE = 5;
+	static final int MODULO = 6;
+	static final int POWER = 7;
+	static final int NEGATE = 8;
+	static final int FUNCTION = 9;
+	static final int CUSTOM_FUNCTION = 10;
+
+	final int[] codes;
+	final double[] constants;
+	final int[] slots;
+	final CalculationToken[] functions;
+	final String[] variableNames;
+	final int maxDepth;
+
+	private Program(int[] codes, double[] constants, int[] slots, CalculationToken[] functions,
+			String[] variableNames, int maxDepth) {
+		this.codes = codes;
+		this.constants = constants;
+		this.slots = slots;
+		this.functions = functions;
+		this.variableNames = variableNames;
+		this.maxDepth = maxDepth;
+	}
+
+	/**
+	 * Compile the tokens of a postfix expression.
+	 *
+	 * @param tokens
+	 *            the tokens in postfix order
+	 * @return the compiled program
+	 * @throws IllegalArgumentException
+	 *             if the tokens do not form a valid postfix expression
+	 */
+	static Program compile(Token[] tokens) {
+		int n = tokens.length;
+		int[] codes = new int[n];
+		double[] constants = new double[n];
+		int[] slots = new int[n];
+		CalculationToken[] functions = new CalculationToken[n];
+		List<String> variableNames = new ArrayList<>();
+
+		int count = 0;
+		int depth = 0;
+		int maxDepth = 0;
+		for (Token token : tokens) {
+			int pop, push = 1;
+			if (token instanceof NumberToken) {
+				codes[count] = CONSTANT;
+				constants[count] = Double.parseDouble(token.getValue());
+				pop = 0;
+			} else if (token instanceof VariableToken) {
+				int slot = variableNames.indexOf(token.getValue());
+				if (slot < 0) {
+					slot = variableNames.size();
+					variableNames.add(token.getValue());
+				}
+				codes[count] = VARIABLE;
+				slots[count] = slot;
+				pop = 0;
+			} else if (token instanceof OperatorToken) {
+				OperatorToken operator = (OperatorToken) token;
+				pop = operator.getOperandCount();
+				switch (operator.getOperation()) {
+					case ADDITION -> codes[count] = ADD;
+					case SUBTRACTION -> codes[count] = SUBTRACT;
+					case MULTIPLICATION -> codes[count] = MULTIPLY;
+					case DIVISION -> codes[count] = DIVIDE;
+					case MODULO -> codes[count] = MODULO;
+					case EXPONENTIATION -> codes[count] = POWER;
+					case UNARY_MINUS -> codes[count] = NEGATE;
+					case UNARY_PLUS -> {
+						// Leaves the operand unchanged, no instruction needed
+						if (depth < 1) {
+							throw new IllegalArgumentException("Missing operand for unary plus");
+						}
+						continue;
+					}
+				}
+			} else if (token instanceof FunctionToken) {
+				codes[count] = FUNCTION;
+				functions[count] = (FunctionToken) token;
+				pop = 1;
+			} else if (token instanceof CustomFunction) {
+				codes[count] = CUSTOM_FUNCTION;
+				functions[count] = (CustomFunction) token;
+				pop = ((CustomFunction) token).getArgumentCount();
+				slots[count] = pop;
+			} else {
+				throw new IllegalArgumentException("Unexpected token '" + token.getValue() + "' in postfix expression");
+			}
+
+			if (depth < pop) {
+				throw new IllegalArgumentException("Missing operand for '" + token.getValue() + "'");
+			}
+			depth += push - pop;
+			maxDepth = Math.max(maxDepth, depth);
+			count++;
+		}
+		if (depth < 1) {
+			throw new IllegalArgumentException("Empty expression");
+		}
+
+		return new Program(Arrays.copyOf(codes, count), Arrays.copyOf(constants, count),
+				Arrays.copyOf(slots, count), Arrays.copyOf(functions, count),
+				variableNames.toArray(new String[0]), maxDepth);
+	}
+
+	/**
+	 * Apply a custom function to scalar arguments.
+	 */
+	static double applyCustomFunction(CustomFunction function, double[] args, int argc) {
+		List<Variable> vars = new ArrayList<>(argc);
+		for (int i = 0; i < argc; i++) {
+			vars.add(new Variable("argument", args[i]));
+		}
+		return function.applyFunction(vars).getDoubleValue();
+	}
+}
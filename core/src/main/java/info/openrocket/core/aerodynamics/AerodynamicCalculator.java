@@ -48,6 +48,25 @@ public interface AerodynamicCalculator extends Monitorable {
 	public AerodynamicForces getAerodynamicForces(FlightConfiguration configuration,
 			FlightConditions conditions, WarningSet warnings);
 
+	/**
+	 * Calculate the aerodynamic forces acting upon the rocket into an existing object.
+	 * This allows callers that evaluate the forces repeatedly, such as the simulation
+	 * steppers, to avoid creating a new object for every evaluation.
+	 * <p>
+	 * The default implementation ignores <code>result</code> and returns a new object.
+	 * 
+	 * @param configuration the rocket configuration.
+	 * @param conditions    the flight conditions.
+	 * @param warnings      the set in which to place warnings, or
+	 *                      <code>null</code>.
+	 * @param result        the object in which to store the forces.
+	 * @return the aerodynamic forces acting upon the rocket, normally <code>result</code>.
+	 */
+	public default AerodynamicForces getAerodynamicForces(FlightConfiguration configuration,
+			FlightConditions conditions, WarningSet warnings, AerodynamicForces result) {
+		return getAerodynamicForces(configuration, conditions, warnings);
+	}
+
 	/**
 	 * Calculate the aerodynamic forces acting upon the rocket with a component
 	 * analysis.
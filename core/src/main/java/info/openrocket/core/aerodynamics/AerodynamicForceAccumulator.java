@@ -0,0 +1,159 @@
+package info.openrocket.core.aerodynamics;
+
+import java.util.Arrays;
+
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.MathUtil;
+
+/**
+ * A flat, preallocated accumulator for the non-axial aerodynamic coefficients of
+ * the components of a rocket.  Each component owns a slot in the accumulator, and
+ * an additional slot holds the total of all components.
+ * <p>
+ * This is used by the totals-only path of {@link BarrowmanCalculator}, so that no
+ * per-component {@link AerodynamicForces} objects or maps need to be created for
+ * every evaluation.  The arithmetic, including the CP averaging of
+ * {@link Coordinate#average(Coordinate)}, is performed in the same order as when
+ * merging <code>AerodynamicForces</code> objects, so the results are identical.
+ * <p>
+ * This class is not thread-safe.
+ */
+final class AerodynamicForceAccumulator {
+
+	private final int totalSlot;
+
+	private final double[] cpX;
+	private final double[] cpY;
+	private final double[] cpZ;
+	private final double[] cpWeight;
+	private final double[] CNa;
+	private final double[] CN;
+	private final double[] Cm;
+	private final double[] Cside;
+	private final double[] Cyaw;
+	private final double[] Croll;
+	private final double[] CrollDamp;
+	private final double[] CrollForce;
+
+	/**
+	 * @param componentSlots the number of component slots.
+	 */
+	AerodynamicForceAccumulator(int componentSlots) {
+		this.totalSlot = componentSlots;
+		int n = componentSlots + 1;
+		cpX = new double[n];
+		cpY = new double[n];
+		cpZ = new double[n];
+		cpWeight = new double[n];
+		CNa = new double[n];
+		CN = new double[n];
+		Cm = new double[n];
+		Cside = new double[n];
+		Cyaw = new double[n];
+		Croll = new double[n];
+		CrollDamp = new double[n];
+		CrollForce = new double[n];
+	}
+
+	/**
+	 * @return the slot holding the total of all component slots.
+	 */
+	int getTotalSlot() {
+		return totalSlot;
+	}
+
+	/**
+	 * Zero all slots, corresponding to {@link AerodynamicForces#zero()}.
+	 */
+	void zero() {
+		Arrays.fill(cpX, 0);
+		Arrays.fill(cpY, 0);
+		Arrays.fill(cpZ, 0);
+		Arrays.fill(cpWeight, 0);
+		Arrays.fill(CNa, 0);
+		Arrays.fill(CN, 0);
+		Arrays.fill(Cm, 0);
+		Arrays.fill(Cside, 0);
+		Arrays.fill(Cyaw, 0);
+		Arrays.fill(Croll, 0);
+		Arrays.fill(CrollDamp, 0);
+		Arrays.fill(CrollForce, 0);
+	}
+
+	/**
+	 * Merge the forces of a single component instance into a slot.  The CP of the instance is given
+	 * separately, as it is transformed to absolute coordinates by the caller.
+	 *
+	 * @param slot     the slot to merge into.
+	 * @param x        the x-coordinate of the instance CP.
+	 * @param y        the y-coordinate of the instance CP.
+	 * @param z        the z-coordinate of the instance CP.
+	 * @param weight   the weight of the instance CP.
+	 * @param cm       the pitch moment coefficient of the instance.
+	 * @param instance the forces of the instance.
+	 */
+	void addInstance(int slot, double x, double y, double z, double weight, double cm, AerodynamicForces instance) {
+		averageCP(slot, x, y, z, weight);
+		CNa[slot] += instance.getCNa();
+		CN[slot] += instance.getCN();
+		Cm[slot] += cm;
+		Cside[slot] += instance.getCside();
+		Cyaw[slot] += instance.getCyaw();
+		Croll[slot] += instance.getCroll();
+		CrollDamp[slot] += instance.getCrollDamp();
+		CrollForce[slot] += instance.getCrollForce();
+	}
+
+	/**
+	 * Merge a component slot into the total slot.
+	 *
+	 * @param slot the component slot.
+	 */
+	void addToTotal(int slot) {
+		averageCP(totalSlot, cpX[slot], cpY[slot], cpZ[slot], cpWeight[slot]);
+		CNa[totalSlot] += CNa[slot];
+		CN[totalSlot] += CN[slot];
+		Cm[totalSlot] += Cm[slot];
+		Cside[totalSlot] += Cside[slot];
+		Cyaw[totalSlot] += Cyaw[slot];
+		Croll[totalSlot] += Croll[slot];
+		CrollDamp[totalSlot] += CrollDamp[slot];
+		CrollForce[totalSlot] += CrollForce[slot];
+	}
+
+	/**
+	 * Store the non-axial values of a slot into an <code>AerodynamicForces</code> object.
+	 *
+	 * @param slot   the slot to store.
+	 * @param forces the forces object to store the values in.
+	 */
+	void store(int slot, AerodynamicForces forces) {
+		forces.setCP(new Coordinate(cpX[slot], cpY[slot], cpZ[slot], cpWeight[slot]));
+		forces.setCNa(CNa[slot]);
+		forces.setCN(CN[slot]);
+		forces.setCm(Cm[slot]);
+		forces.setCside(Cside[slot]);
+		forces.setCyaw(Cyaw[slot]);
+		forces.setCroll(Croll[slot]);
+		forces.setCrollDamp(CrollDamp[slot]);
+		forces.setCrollForce(CrollForce[slot]);
+	}
+
+	/**
+	 * Weighted average of the slot CP and the given CP, see {@link Coordinate#average(Coordinate)}.
+	 */
+	private void averageCP(int slot, double x, double y, double z, double weight) {
+		double w1 = cpWeight[slot] + weight;
+		if (Math.abs(w1) < MathUtil.pow2(MathUtil.EPSILON)) {
+			cpX[slot] = (cpX[slot] + x) / 2;
+			cpY[slot] = (cpY[slot] + y) / 2;
+			cpZ[slot] = (cpZ[slot] + z) / 2;
+			cpWeight[slot] = 0;
+		} else {
+			cpX[slot] = (cpX[slot] * cpWeight[slot] + x * weight) / w1;
+			cpY[slot] = (cpY[slot] * cpWeight[slot] + y * weight) / w1;
+			cpZ[slot] = (cpZ[slot] * cpWeight[slot] + z * weight) / w1;
+			cpWeight[slot] = w1;
+		}
+	}
+}
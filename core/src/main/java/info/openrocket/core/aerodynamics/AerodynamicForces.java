@@ -68,6 +68,11 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 	private double pitchDampingMoment = Double.NaN;
 	private double yawDampingMoment = Double.NaN;
 
+	/**
+	 * The modification ID, or <code>null</code> if the values have changed since it was last queried.
+	 * The ID is created lazily so that the setters do not allocate when the forces are recalculated
+	 * many times per simulation step.
+	 */
 	private ModID modID = ModID.INVALID;
 
 	private boolean axisymmetric = true;
@@ -81,7 +86,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		this.axisymmetric = isSym;
-		modID = new ModID();
+		modID = null;
 	}
 
 	/**
@@ -95,7 +100,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		this.component = component;
-		modID = new ModID();
+		modID = null;
 	}
 
 	/**
@@ -111,7 +116,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		this.cp = cp;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public Coordinate getCP() {
@@ -123,7 +128,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		CNa = cNa;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public double getCNa() {
@@ -135,7 +140,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		CN = cN;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public double getCN() {
@@ -147,7 +152,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		Cm = cm;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public double getCm() {
@@ -159,7 +164,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		Cside = cside;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public double getCside() {
@@ -171,7 +176,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		Cyaw = cyaw;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public double getCyaw() {
@@ -183,7 +188,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		Croll = croll;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public double getCroll() {
@@ -195,7 +200,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		CrollDamp = crollDamp;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public double getCrollDamp() {
@@ -207,7 +212,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		CrollForce = crollForce;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public double getCrollForce() {
@@ -231,7 +236,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		CD = cD;
-		modID = new ModID();
+		modID = null;
 	}
 
 	/**
@@ -258,7 +263,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		this.pressureCD = pressureCD;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public double getPressureCD() {
@@ -276,7 +281,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		this.baseCD = baseCD;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public double getBaseCD() {
@@ -294,7 +299,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		this.frictionCD = frictionCD;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public double getFrictionCD() {
@@ -312,7 +317,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		this.overrideCD = overrideCD;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public double getOverrideCD() {
@@ -330,7 +335,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		
 		this.pitchDampingMoment = pitchDampingMoment;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public double getPitchDampingMoment() {
@@ -342,7 +347,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 			return;
 		   
 		this.yawDampingMoment = yawDampingMoment;
-		modID = new ModID();
+		modID = null;
 	}
 
 	public double getYawDampingMoment() {
@@ -472,6 +477,9 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 
 	@Override
 	public ModID getModID() {
+		if (modID == null) {
+			modID = new ModID();
+		}
 		return modID;
 	}
 
@@ -486,7 +494,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 		this.CrollDamp = CrollDamp + other.getCrollDamp();
 		this.CrollForce = CrollForce + other.getCrollForce();
 
-		modID = new ModID();
+		modID = null;
 
 		return this;
 	}
@@ -52,6 +52,21 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	private static final String BARROWMAN_SUFFIX = "Calc";
 	
 	private Map<RocketComponent, RocketComponentCalc> calcMap = null;
+
+	// Slots of the components in the force accumulator, built together with calcMap
+	private Map<RocketComponent, Integer> slotMap = null;
+	private AerodynamicForceAccumulator accumulator = null;
+
+	// Scratch objects of the totals-only path, reused between evaluations
+	private final AerodynamicForces instanceForces = new AerodynamicForces();
+	private final AerodynamicForces cpForces = new AerodynamicForces();
+	private final double[] roughnessLimited = new double[Finish.values().length];
+
+	// Geometry warnings of the latest configuration, see checkGeometryCached()
+	private WarningSet geometryWarnings = null;
+	private FlightConfiguration geometryConfiguration = null;
+	private ModID geometryModID = ModID.INVALID;
+	private ModID geometryRocketModID = ModID.INVALID;
 	
 	private double cacheDiameter = -1;
 	private double cacheLength = -1;
@@ -90,7 +105,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	public Coordinate getCP(FlightConfiguration configuration, FlightConditions conditions,
 			WarningSet warnings) {
 		checkCache(configuration);
-		AerodynamicForces forces = calculateNonAxialForces(configuration, conditions, warnings);
+		AerodynamicForces forces = calculateNonAxialForces(configuration, conditions, warnings, cpForces);
 		return forces.getCP();
 	}
 	
@@ -220,13 +235,19 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	@Override
 	public AerodynamicForces getAerodynamicForces(FlightConfiguration configuration,
 			FlightConditions conditions, WarningSet warnings) {
+		return getAerodynamicForces(configuration, conditions, warnings, new AerodynamicForces());
+	}
+
+	@Override
+	public AerodynamicForces getAerodynamicForces(FlightConfiguration configuration,
+			FlightConditions conditions, WarningSet warnings, AerodynamicForces result) {
 		checkCache(configuration);
 		
 		if (warnings == null)
 			warnings = ignoreWarningSet;
 		
 		// Calculate non-axial force data
-		AerodynamicForces total = calculateNonAxialForces(configuration, conditions, warnings);
+		AerodynamicForces total = calculateNonAxialForces(configuration, conditions, warnings, result);
 		
 		// Calculate friction data
 		total.setFrictionCD(calculateFrictionCD(configuration, conditions, null, warnings));
@@ -279,10 +300,15 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	}
 
 	/**
-	 * Perform the actual CP calculation.
+	 * Perform the actual CP calculation.  This is the totals-only path: the forces of the
+	 * component instances are summed in the preallocated force accumulator instead of
+	 * per-component <code>AerodynamicForces</code> objects.
+	 *
+	 * @param result the object to store the total non-axial forces in
+	 * @return <code>result</code>
 	 */
 	private AerodynamicForces calculateNonAxialForces(FlightConfiguration configuration, FlightConditions conditions,
-			WarningSet warnings) {
+			WarningSet warnings, AerodynamicForces result) {
 
 		checkCache(configuration);
 
@@ -292,28 +318,63 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		if (calcMap == null)
 			buildCalcMap(configuration);
 
-		checkGeometry(configuration, configuration.getRocket(), warnings);
+		checkGeometryCached(configuration, warnings);
 		
 		final InstanceMap imap = configuration.getActiveInstances();
 
-		// across the _entire_ assembly -- like a rocket, or a stage
-		final AerodynamicForces assemblyForces = new AerodynamicForces().zero();
-
+		accumulator.zero();
 		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> mapEntry : imap.entrySet()) {
 			final RocketComponent comp = mapEntry.getKey();
-			final List<InstanceContext> contextList = mapEntry.getValue();
 
-			RocketComponentCalc calcObj = calcMap.get(comp);
+			final RocketComponentCalc calcObj = calcMap.get(comp);
 			if (null != calcObj) {
-				// calculated across all component instances
-				final AerodynamicForces componentForces = calculateComponentNonAxialForces(conditions, comp, calcObj,
-						contextList, warnings);
+				final int slot = slotMap.get(comp);
+
+				// iterate across component instances
+				for (InstanceContext context : mapEntry.getValue()) {
+					instanceForces.zero();
+					calcObj.calculateNonaxialForces(conditions, context.transform, instanceForces, warnings);
+
+					// only the axial position of the CP is retained, as in calculateComponentNonAxialForces()
+					final Coordinate cp = instanceForces.getCP();
+					final double cpx = context.transform.transformX(cp);
+					final double cm = instanceForces.getCN() * cpx / conditions.getRefLength();
+					accumulator.addInstance(slot, cpx, 0, 0, cp.weight, cm, instanceForces);
+				}
 
-				assemblyForces.merge(componentForces);
+				accumulator.addToTotal(slot);
 			}
 		}
 
-		return assemblyForces;
+		result.zero();
+		accumulator.store(accumulator.getTotalSlot(), result);
+		return result;
+	}
+
+	/**
+	 * Add the geometry warnings of the configuration to the warning set.  The geometry check only
+	 * depends on the rocket and the configuration, so its result is cached until either of them changes
+	 * instead of re-checking the geometry on every aerodynamic evaluation.  Any change of the rocket
+	 * invalidates the cache, not only functional ones, since the warnings include component names.
+	 */
+	private void checkGeometryCached(FlightConfiguration configuration, WarningSet warnings) {
+		if (warnings == ignoreWarningSet) {
+			return;
+		}
+
+		if (geometryWarnings == null || geometryConfiguration != configuration ||
+				geometryModID != configuration.getModID() ||
+				geometryRocketModID != configuration.getRocket().getModID()) {
+			geometryWarnings = new WarningSet();
+			checkGeometry(configuration, configuration.getRocket(), geometryWarnings);
+			geometryConfiguration = configuration;
+			geometryModID = configuration.getModID();
+			geometryRocketModID = configuration.getRocket().getModID();
+		}
+
+		for (Warning w : geometryWarnings) {
+			warnings.add(w);
+		}
 	}
 
 	@Override
@@ -498,7 +559,6 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		double bodyFrictionCD = 0;
 		double maxR = 0, minX = Double.MAX_VALUE, maxX = 0;
 		
-		double[] roughnessLimited = new double[Finish.values().length];
 		Arrays.fill(roughnessLimited, Double.NaN);
 
 		final InstanceMap imap = configuration.getActiveInstances();
@@ -1061,6 +1121,10 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		super.voidAerodynamicCache();
 		
 		calcMap = null;
+		slotMap = null;
+		accumulator = null;
+		geometryWarnings = null;
+		geometryConfiguration = null;
 		cacheDiameter = -1;
 		cacheLength = -1;
 	}
@@ -1068,6 +1132,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	
 	private void buildCalcMap(FlightConfiguration configuration) {
 		calcMap = new HashMap<>();
+		slotMap = new HashMap<>();
 
 		for (RocketComponent comp : configuration.getAllComponents()) {
 			if (!comp.isAerodynamic() && !(comp instanceof ComponentAssembly)) {
@@ -1078,7 +1143,10 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 					BARROWMAN_SUFFIX, comp);
 
 			calcMap.put(comp, calcObj);
+			slotMap.put(comp, slotMap.size());
 		}
+
+		accumulator = new AerodynamicForceAccumulator(slotMap.size());
 	}
 	
 	@Override
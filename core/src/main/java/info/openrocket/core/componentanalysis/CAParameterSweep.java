@@ -5,6 +5,7 @@ import info.openrocket.core.aerodynamics.AerodynamicForces;
 import info.openrocket.core.aerodynamics.FlightConditions;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.rocketcomponent.FinSet;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.util.MathUtil;
@@ -12,12 +13,25 @@ import info.openrocket.core.util.MathUtil;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class CAParameterSweep {
+	/**
+	 * Number of leaf tasks per pool thread that a multi-dimensional sweep is split into.
+	 * More leaves balance better when some sweep points (e.g. transonic Mach numbers) are more expensive than others.
+	 */
+	private static final int TASKS_PER_THREAD = 8;
+
 	private final CAParameters parameters;
 	private final AerodynamicCalculator aerodynamicCalculator;
 	private final Rocket rocket;
 
+	private volatile boolean cancelled = false;
+
 	public CAParameterSweep(CAParameters parameters, AerodynamicCalculator aerodynamicCalculator, Rocket rocket) {
 		this.parameters = parameters.clone();
 		this.aerodynamicCalculator = aerodynamicCalculator;
@@ -45,10 +59,7 @@ public class CAParameterSweep {
 			dataBranch.addPoint();
 			addDomainData(dataBranch, sweepParameter, value);
 
-			addComponentData(dataBranch, aeroData, value);
-			addStabilityData(dataBranch, aeroData, value);
-			addDragData(dataBranch, aeroData, value);
-			addRollData(dataBranch, aeroData, value);
+			addForceData(dataBranch, aeroData);
 		}
 
 		// Reset the parameter to its original value
@@ -57,19 +68,139 @@ public class CAParameterSweep {
 		return dataBranch;
 	}
 
-	private List<Double> generateSweepValues(double min, double max, double delta) {
+	/**
+	 * Perform a multi-dimensional parameter sweep over the full grid spanned by the given dimensions, using the
+	 * common fork-join pool.
+	 * @see #sweep(List, ForkJoinPool, SweepProgress)
+	 */
+	public CADataBranch sweep(List<SweepDimension> dimensions, SweepProgress progress) {
+		return sweep(dimensions, ForkJoinPool.commonPool(), progress);
+	}
+
+	/**
+	 * Perform a multi-dimensional parameter sweep (e.g. Mach x AOA x roll rate) over the full grid spanned by the
+	 * given dimensions.  The sweep points are split across the given fork-join pool; each worker uses its own
+	 * aerodynamic calculator and flight configuration clone.  The parameters that are not swept keep their current
+	 * value.
+	 * <p>
+	 * The points are stored in the data branch in sweep order, with the last dimension varying fastest.
+	 *
+	 * @param dimensions the dimensions to sweep, each parameter type at most once
+	 * @param pool the pool to evaluate the sweep points in
+	 * @param progress the progress listener, or <code>null</code>.  It may be called from any worker thread.
+	 * @return a data branch containing the results of the sweep
+	 * @throws CancellationException if the sweep was cancelled through {@link #cancel()}
+	 */
+	public CADataBranch sweep(List<SweepDimension> dimensions, ForkJoinPool pool, SweepProgress progress) {
+		if (dimensions.isEmpty()) {
+			throw new IllegalArgumentException("No sweep dimensions specified");
+		}
+		for (int i = 0; i < dimensions.size(); i++) {
+			for (int j = i + 1; j < dimensions.size(); j++) {
+				if (dimensions.get(i).getType().equals(dimensions.get(j).getType())) {
+					throw new IllegalArgumentException("Parameter type swept twice: " + dimensions.get(i).getType());
+				}
+			}
+		}
+		if (cancelled) {
+			throw new CancellationException("Parameter sweep cancelled");
+		}
+
+		final double[][] points = generateSweepPoints(dimensions);
+		final int total = points.length;
+		@SuppressWarnings("unchecked")
+		final Map<RocketComponent, AerodynamicForces>[] results = new Map[total];
+		final AtomicInteger completed = new AtomicInteger();
+
+		if (total > 0) {
+			final FlightConfiguration configuration = rocket.getSelectedConfiguration();
+
+			// Evaluate the first point on the calling thread, this primes the lazily computed component
+			// properties so that the workers only read the shared component tree.
+			SweepWorker first = new SweepWorker(aerodynamicCalculator.newInstance(), configuration.clone());
+			results[0] = first.evaluate(dimensions, points[0]);
+			reportProgress(progress, completed.incrementAndGet(), total);
+
+			ConcurrentLinkedQueue<SweepWorker> workers = new ConcurrentLinkedQueue<>();
+			workers.add(first);
+			for (int i = 1; i < pool.getParallelism(); i++) {
+				workers.add(new SweepWorker(aerodynamicCalculator.newInstance(), configuration.clone()));
+			}
+
+			int threshold = Math.max(1, total / (pool.getParallelism() * TASKS_PER_THREAD));
+			pool.invoke(new SweepTask(dimensions, points, results, 1, total, threshold, workers, completed, progress));
+		}
+
+		if (cancelled) {
+			throw new CancellationException("Parameter sweep cancelled");
+		}
+
+		CADataBranch dataBranch = new CADataBranch("Parameter Sweep");
+		for (SweepDimension dimension : dimensions) {
+			dataBranch.addType(dimension.getType());
+		}
+		for (int i = 0; i < total; i++) {
+			dataBranch.addPoint();
+			for (int d = 0; d < dimensions.size(); d++) {
+				addDomainData(dataBranch, dimensions.get(d).getType(), points[i][d]);
+			}
+			addForceData(dataBranch, results[i]);
+		}
+
+		return dataBranch;
+	}
+
+	/**
+	 * Cancel a running multi-dimensional sweep.  Points that are already being evaluated are finished, the
+	 * remaining points are skipped.  A sweep that is started after the cancellation is cancelled as well, so
+	 * a new CAParameterSweep is needed to sweep again.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Return the points of the grid spanned by the dimensions, the last dimension varying fastest.
+	 */
+	private static double[][] generateSweepPoints(List<SweepDimension> dimensions) {
+		int total = 1;
+		for (SweepDimension dimension : dimensions) {
+			total *= dimension.getValues().size();
+		}
+
+		double[][] points = new double[total][dimensions.size()];
+		for (int i = 0; i < total; i++) {
+			int index = i;
+			for (int d = dimensions.size() - 1; d >= 0; d--) {
+				List<Double> values = dimensions.get(d).getValues();
+				points[i][d] = values.get(index % values.size());
+				index /= values.size();
+			}
+		}
+		return points;
+	}
+
+	private static void reportProgress(SweepProgress progress, int completed, int total) {
+		if (progress != null) {
+			progress.setProgress(completed, total);
+		}
+	}
+
+	private static List<Double> generateSweepValues(double min, double max, double delta) {
 		List<Double> values = new ArrayList<>();
 		int scale = determineScale(delta);
 		double multiplier = Math.pow(10, scale);
 
-		for (double value = min; value <= max; value += delta) {
-			double roundedValue = Math.round(value * multiplier) / multiplier;
+		// Compute each value from its index, adding up the steps would drift past the last value
+		int steps = (int) Math.floor((max - min) / delta + 1e-9);
+		for (int i = 0; i <= steps; i++) {
+			double roundedValue = Math.round((min + i * delta) * multiplier) / multiplier;
 			values.add(roundedValue);
 		}
 		return values;
 	}
 
-	private int determineScale(double delta) {
+	private static int determineScale(double delta) {
 		String deltaStr = Double.toString(Math.abs(delta));
 		int indexOfDecimal = deltaStr.indexOf(".");
 		if (indexOfDecimal == -1) {
@@ -103,11 +234,34 @@ public class CAParameterSweep {
 		return conditions;
 	}
 
+	private static void applyParameterValue(FlightConditions conditions, CADomainDataType parameterType, double value) {
+		if (parameterType.equals(CADomainDataType.MACH)) {
+			conditions.setMach(value);
+		} else if (parameterType.equals(CADomainDataType.AOA)) {
+			conditions.setAOA(value);
+		} else if (parameterType.equals(CADomainDataType.ROLL_RATE)) {
+			conditions.setRollRate(value);
+		} else if (parameterType.equals(CADomainDataType.WIND_DIRECTION)) {
+			conditions.setTheta(value);
+		}
+		// Add more cases here as more parameter types are implemented
+		else {
+			throw new IllegalArgumentException("Unsupported parameter type: " + parameterType);
+		}
+	}
+
 	private static void addDomainData(CADataBranch dataBranch, CADomainDataType sweepParameter, Double value) {
 		dataBranch.setDomainValue(sweepParameter, value);
 	}
 
-	private void addComponentData(CADataBranch dataBranch, Map<RocketComponent, AerodynamicForces> aeroData, double sweepValue) {
+	private void addForceData(CADataBranch dataBranch, Map<RocketComponent, AerodynamicForces> aeroData) {
+		addComponentData(dataBranch, aeroData);
+		addStabilityData(dataBranch, aeroData);
+		addDragData(dataBranch, aeroData);
+		addRollData(dataBranch, aeroData);
+	}
+
+	private void addComponentData(CADataBranch dataBranch, Map<RocketComponent, AerodynamicForces> aeroData) {
 		for (Map.Entry<RocketComponent, AerodynamicForces> entry : aeroData.entrySet()) {
 			RocketComponent component = entry.getKey();
 			AerodynamicForces forces = entry.getValue();
@@ -141,7 +295,7 @@ public class CAParameterSweep {
 		}
 	}
 
-	private void addStabilityData(CADataBranch dataBranch, Map<RocketComponent, AerodynamicForces> aeroData, double sweepValue) {
+	private void addStabilityData(CADataBranch dataBranch, Map<RocketComponent, AerodynamicForces> aeroData) {
 		AerodynamicForces totalForces = aeroData.get(rocket);
 		if (totalForces != null && totalForces.getCP() != null) {
 			dataBranch.setValue(CADataType.CP_X, rocket, totalForces.getCP().x);
@@ -149,7 +303,7 @@ public class CAParameterSweep {
 		}
 	}
 
-	private void addDragData(CADataBranch dataBranch, Map<RocketComponent, AerodynamicForces> aeroData, double sweepValue) {
+	private void addDragData(CADataBranch dataBranch, Map<RocketComponent, AerodynamicForces> aeroData) {
 		AerodynamicForces totalForces = aeroData.get(rocket);
 		if (totalForces != null) {
 			dataBranch.setValue(CADataType.PRESSURE_CD, rocket, totalForces.getPressureCD());
@@ -160,7 +314,7 @@ public class CAParameterSweep {
 		}
 	}
 
-	private void addRollData(CADataBranch dataBranch, Map<RocketComponent, AerodynamicForces> aeroData, double sweepValue) {
+	private void addRollData(CADataBranch dataBranch, Map<RocketComponent, AerodynamicForces> aeroData) {
 		double totalRollForce = 0;
 		double totalRollDamping = 0;
 
@@ -176,4 +330,130 @@ public class CAParameterSweep {
 		dataBranch.setValue(CADataType.ROLL_DAMPING_COEFFICIENT, rocket, totalRollDamping);
 		dataBranch.setValue(CADataType.TOTAL_ROLL_COEFFICIENT, rocket, totalRollForce + totalRollDamping);
 	}
+
+	/**
+	 * One dimension of a multi-dimensional parameter sweep.
+	 */
+	public static class SweepDimension {
+		private final CADomainDataType type;
+		private final List<Double> values;
+
+		/**
+		 * @param type the parameter to sweep (e.g. MACH)
+		 * @param min the minimum value of the parameter
+		 * @param max the maximum value of the parameter
+		 * @param delta the step size of the parameter
+		 */
+		public SweepDimension(CADomainDataType type, double min, double max, double delta) {
+			if (delta <= 0) {
+				throw new IllegalArgumentException("Sweep step must be positive, was " + delta);
+			}
+			this.type = type;
+			this.values = generateSweepValues(min, max, delta);
+		}
+
+		public CADomainDataType getType() {
+			return type;
+		}
+
+		public List<Double> getValues() {
+			return values;
+		}
+	}
+
+	/**
+	 * Progress callback of a multi-dimensional parameter sweep.
+	 */
+	public interface SweepProgress {
+		/**
+		 * Called each time a sweep point has been evaluated.
+		 *
+		 * @param completed the number of points evaluated so far
+		 * @param total the total number of points in the sweep
+		 */
+		void setProgress(int completed, int total);
+	}
+
+	/**
+	 * The per-thread state of a sweep: an aerodynamic calculator and a configuration that are used by one
+	 * thread at a time only.
+	 */
+	private class SweepWorker {
+		private final AerodynamicCalculator calculator;
+		private final FlightConfiguration configuration;
+
+		private SweepWorker(AerodynamicCalculator calculator, FlightConfiguration configuration) {
+			this.calculator = calculator;
+			this.configuration = configuration;
+		}
+
+		private Map<RocketComponent, AerodynamicForces> evaluate(List<SweepDimension> dimensions, double[] point) {
+			FlightConditions conditions = new FlightConditions(configuration);
+			conditions.setAOA(parameters.getAOA());
+			conditions.setTheta(parameters.getTheta());
+			conditions.setMach(parameters.getMach());
+			conditions.setRollRate(parameters.getRollRate());
+			for (int d = 0; d < dimensions.size(); d++) {
+				applyParameterValue(conditions, dimensions.get(d).getType(), point[d]);
+			}
+			return calculator.getForceAnalysis(configuration, conditions, new WarningSet());
+		}
+	}
+
+	/**
+	 * Fork-join task evaluating the sweep points in the index range [from, to).
+	 */
+	private class SweepTask extends RecursiveAction {
+		private final List<SweepDimension> dimensions;
+		private final double[][] points;
+		private final Map<RocketComponent, AerodynamicForces>[] results;
+		private final int from;
+		private final int to;
+		private final int threshold;
+		private final ConcurrentLinkedQueue<SweepWorker> workers;
+		private final AtomicInteger completed;
+		private final SweepProgress progress;
+
+		private SweepTask(List<SweepDimension> dimensions, double[][] points,
+						  Map<RocketComponent, AerodynamicForces>[] results, int from, int to, int threshold,
+						  ConcurrentLinkedQueue<SweepWorker> workers, AtomicInteger completed, SweepProgress progress) {
+			this.dimensions = dimensions;
+			this.points = points;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+			this.workers = workers;
+			this.completed = completed;
+			this.progress = progress;
+		}
+
+		@Override
+		protected void compute() {
+			if (cancelled) {
+				return;
+			}
+
+			if (to - from > threshold) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new SweepTask(dimensions, points, results, from, mid, threshold, workers, completed, progress),
+						new SweepTask(dimensions, points, results, mid, to, threshold, workers, completed, progress));
+				return;
+			}
+
+			SweepWorker worker = workers.poll();
+			if (worker == null) {
+				// More leaves running than pool threads (e.g. compensation threads), create a private worker
+				worker = new SweepWorker(aerodynamicCalculator.newInstance(), rocket.getSelectedConfiguration().clone());
+			}
+			try {
+				for (int i = from; i < to && !cancelled; i++) {
+					results[i] = worker.evaluate(dimensions, points[i]);
+					reportProgress(progress, completed.incrementAndGet(), points.length);
+				}
+			} finally {
+				workers.add(worker);
+			}
+		}
+	}
 }
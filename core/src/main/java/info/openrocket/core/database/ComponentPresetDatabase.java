@@ -1,8 +1,12 @@
 package info.openrocket.core.database;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -11,10 +15,17 @@ import org.slf4j.LoggerFactory;
 import info.openrocket.core.preset.ComponentPreset;
 import info.openrocket.core.startup.Application;
 
+/**
+ * The component preset database.  The presets are indexed by type and by part number, so
+ * that listing the presets of a type or finding a part does not scan all presets.  The
+ * indexes are rebuilt on the first query after the database has changed.
+ */
 public class ComponentPresetDatabase extends Database<ComponentPreset> implements ComponentPresetDao {
 
 	private static final Logger logger = LoggerFactory.getLogger(ComponentPresetDatabase.class);
 
+	private volatile Index index = null;
+
 	public ComponentPresetDatabase() {
 		super();
 	}
@@ -27,6 +38,7 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 	@Override
 	public void insert(ComponentPreset preset) {
 		list.add(preset);
+		index = null;
 	}
 
 	@Override
@@ -35,15 +47,7 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 			return Collections.emptyList();
 		}
 
-		List<ComponentPreset> result = new ArrayList<>(list.size() / 6);
-
-		for (ComponentPreset preset : list) {
-			if (preset.get(ComponentPreset.TYPE).equals(type)) {
-				result.add(preset);
-			}
-		}
-		return result;
-
+		return new ArrayList<>(getIndex().forType(type));
 	}
 
 	/**
@@ -61,12 +65,13 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 			return listForType(type);
 		}
 
-		List<ComponentPreset> result = new ArrayList<>(list.size() / 6);
+		List<ComponentPreset> presets = getIndex().forType(type);
+		List<ComponentPreset> result = new ArrayList<>();
 
 		Set<String> favorites = Application.getPreferences().getComponentFavorites(type);
 
-		for (ComponentPreset preset : list) {
-			if (preset.get(ComponentPreset.TYPE).equals(type) && favorites.contains(preset.preferenceKey())) {
+		for (ComponentPreset preset : presets) {
+			if (favorites.contains(preset.preferenceKey())) {
 				result.add(preset);
 			}
 		}
@@ -83,20 +88,7 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 			return listForType(type[0]);
 		}
 
-		List<ComponentPreset> result = new ArrayList<>(list.size() / 6);
-
-		for (ComponentPreset preset : list) {
-			ComponentPreset.Type presetType = preset.get(ComponentPreset.TYPE);
-			typeLoop:
-			for (ComponentPreset.Type value : type) {
-				if (presetType.equals(value)) {
-					result.add(preset);
-					break typeLoop; // from inner loop.
-				}
-			}
-
-		}
-		return result;
+		return getIndex().forTypes(type);
 	}
 
 	@Override
@@ -107,14 +99,98 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 	@Override
 	public List<ComponentPreset> find(String manufacturer, String partNo) {
 		List<ComponentPreset> presets = new ArrayList<>();
-		for (ComponentPreset preset : list) {
-			if (preset.getManufacturer().matches(manufacturer) && preset.getPartNo().equals(partNo)) {
+		for (ComponentPreset preset : getIndex().forPartNo(partNo)) {
+			if (preset.getManufacturer().matches(manufacturer)) {
 				presets.add(preset);
 			}
 		}
 		return presets;
 	}
 
+	@Override
+	protected void fireAddEvent(ComponentPreset element) {
+		index = null;
+		super.fireAddEvent(element);
+	}
+
+	@Override
+	protected void fireRemoveEvent(ComponentPreset element) {
+		index = null;
+		super.fireRemoveEvent(element);
+	}
+
+	private Index getIndex() {
+		Index idx = index;
+		if (idx == null) {
+			idx = new Index(list);
+			index = idx;
+		}
+		return idx;
+	}
+
+	/**
+	 * An immutable index of the presets by type and part number.  The lists keep the order of the database.
+	 */
+	private static final class Index {
+		private final ComponentPreset[] presets;
+		private final Map<ComponentPreset.Type, List<ComponentPreset>> byType = new EnumMap<>(ComponentPreset.Type.class);
+		private final Map<ComponentPreset.Type, int[]> typePositions = new EnumMap<>(ComponentPreset.Type.class);
+		private final Map<String, List<ComponentPreset>> byPartNo = new HashMap<>();
+
+		Index(List<ComponentPreset> list) {
+			presets = list.toArray(new ComponentPreset[0]);
+			Map<ComponentPreset.Type, List<Integer>> positions = new EnumMap<>(ComponentPreset.Type.class);
+			for (int i = 0; i < presets.length; i++) {
+				ComponentPreset preset = presets[i];
+				ComponentPreset.Type type = preset.get(ComponentPreset.TYPE);
+				byType.computeIfAbsent(type, t -> new ArrayList<>()).add(preset);
+				positions.computeIfAbsent(type, t -> new ArrayList<>()).add(i);
+				byPartNo.computeIfAbsent(preset.getPartNo(), p -> new ArrayList<>()).add(preset);
+			}
+			for (Map.Entry<ComponentPreset.Type, List<Integer>> entry : positions.entrySet()) {
+				typePositions.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+			}
+		}
+
+		List<ComponentPreset> forType(ComponentPreset.Type type) {
+			return byType.getOrDefault(type, Collections.emptyList());
+		}
+
+		/**
+		 * Return the presets of several types in database order, by merging the positions of the types.
+		 */
+		List<ComponentPreset> forTypes(ComponentPreset.Type... types) {
+			Set<ComponentPreset.Type> selected = Collections.newSetFromMap(new EnumMap<>(ComponentPreset.Type.class));
+			int count = 0;
+			for (ComponentPreset.Type type : types) {
+				if (type != null && selected.add(type)) {
+					count += forType(type).size();
+				}
+			}
+
+			int[] merged = new int[count];
+			int n = 0;
+			for (ComponentPreset.Type type : selected) {
+				int[] positions = typePositions.get(type);
+				if (positions != null) {
+					System.arraycopy(positions, 0, merged, n, positions.length);
+					n += positions.length;
+				}
+			}
+			Arrays.sort(merged);
+
+			List<ComponentPreset> result = new ArrayList<>(count);
+			for (int position : merged) {
+				result.add(presets[position]);
+			}
+			return result;
+		}
+
+		List<ComponentPreset> forPartNo(String partNo) {
+			return byPartNo.getOrDefault(partNo, Collections.emptyList());
+		}
+	}
+
 	@Override
 	public void setFavorite(ComponentPreset preset, ComponentPreset.Type type, boolean favorite) {
 		Application.getPreferences().setComponentFavorite(preset, type, favorite);
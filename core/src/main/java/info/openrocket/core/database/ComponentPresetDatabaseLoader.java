@@ -1,18 +1,39 @@
 package info.openrocket.core.database;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import info.openrocket.core.arch.SystemInfo;
 import info.openrocket.core.file.iterator.DirectoryIterator;
 import info.openrocket.core.file.iterator.FileIterator;
 import info.openrocket.core.gui.util.SimpleFileFilter;
 import info.openrocket.core.preset.ComponentPreset;
 import info.openrocket.core.preset.xml.OpenRocketComponentLoader;
 import info.openrocket.core.startup.Application;
+import info.openrocket.core.util.BugException;
 import info.openrocket.core.util.Pair;
+import info.openrocket.core.util.TextUtil;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +41,11 @@ import org.slf4j.LoggerFactory;
 /**
  * 
  * Loader that gets all component preset from the database in subdirectories of datafiles/components
+ * <p>
+ * The bundled preset files are parsed in parallel.  The parsed presets are stored in a
+ * serialized snapshot in the cache directory, keyed by a hash of the contents of the bundled
+ * files and the locale of the material names, so that later startups with the same files
+ * do not need to parse any XML.
  *
  */
 public class ComponentPresetDatabaseLoader extends AsynchronousDatabaseLoader {
@@ -27,6 +53,11 @@ public class ComponentPresetDatabaseLoader extends AsynchronousDatabaseLoader {
 	private final static Logger log = LoggerFactory.getLogger(ComponentPresetDatabaseLoader.class);
 	
 	private static final String SYSTEM_PRESET_DIR = "datafiles/components";
+	private static final String SNAPSHOT_FILE = "component-presets.ser";
+	private static final int SNAPSHOT_VERSION = 1;
+
+	private final File cacheDirectory;
+	private volatile Locale locale;
 	private int fileCount = 0;
 	private int presetCount = 0;
 
@@ -34,9 +65,29 @@ public class ComponentPresetDatabaseLoader extends AsynchronousDatabaseLoader {
 	private final ComponentPresetDatabase componentPresetDao = new ComponentPresetDatabase();
 	
 	public ComponentPresetDatabaseLoader() {
+		this(new File(SystemInfo.getUserApplicationDirectory(), "Cache"));
+	}
+
+	/**
+	 * @param cacheDirectory	the directory for the preset snapshot, or <code>null</code> to not use a snapshot.
+	 */
+	public ComponentPresetDatabaseLoader(File cacheDirectory) {
 		super(0);
+		this.cacheDirectory = cacheDirectory;
 	}
 	
+	/**
+	 * Start loading the presets, whose material names are translated to the given locale.
+	 * The translator must already use the locale, as the materials are translated while parsing.
+	 * Loading with {@link #startLoading()} uses the default locale at the time the presets are read.
+	 *
+	 * @param locale	the locale of the translator.
+	 */
+	public void startLoading(Locale locale) {
+		this.locale = locale;
+		startLoading();
+	}
+
 	/**
 	 * Returns the loaded database.  If the database has not fully loaded,
 	 * this blocks until it is.
@@ -94,12 +145,147 @@ public class ComponentPresetDatabaseLoader extends AsynchronousDatabaseLoader {
 		if (iterator == null)
 			return;
 
-		while (iterator.hasNext()) {
-			Pair<File, InputStream> f = iterator.next();
-			Collection<ComponentPreset> presets = loadFile(f.getU().getName(), f.getV());
-			componentPresetDao.addAll(presets);
-			fileCount++;
-			presetCount += presets.size();
+		// Read the files first, their contents are hashed for the snapshot
+		List<String> names = new ArrayList<>();
+		List<byte[]> contents = new ArrayList<>();
+		try {
+			while (iterator.hasNext()) {
+				Pair<File, InputStream> f = iterator.next();
+				try (InputStream is = f.getV()) {
+					names.add(f.getU().getName());
+					contents.add(is.readAllBytes());
+				}
+			}
+		} catch (IOException e) {
+			throw new BugException("Unable to read component preset files", e);
+		}
+		fileCount += names.size();
+
+		String hash = computeHash(names, contents, locale != null ? locale : Locale.getDefault());
+		List<ComponentPreset> presets = readSnapshot(hash);
+		if (presets == null) {
+			presets = parseFiles(names, contents);
+			writeSnapshot(hash, presets);
+		}
+		componentPresetDao.addAll(presets);
+		presetCount += presets.size();
+	}
+
+	/**
+	 * Parse preset files in parallel.
+	 *
+	 * @param names		the file names
+	 * @param contents	the file contents
+	 * @return	the presets of all files, in file order
+	 */
+	private List<ComponentPreset> parseFiles(List<String> names, List<byte[]> contents) {
+		int threads = Math.max(1, Math.min(names.size(), Runtime.getRuntime().availableProcessors()));
+		ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, "ComponentPresetLoader");
+			t.setDaemon(true);
+			return t;
+		});
+		try {
+			List<Future<Collection<ComponentPreset>>> futures = new ArrayList<>(names.size());
+			for (int i = 0; i < names.size(); i++) {
+				final String name = names.get(i);
+				final byte[] data = contents.get(i);
+				futures.add(executor.submit(() -> loadFile(name, new ByteArrayInputStream(data))));
+			}
+
+			List<ComponentPreset> presets = new ArrayList<>();
+			for (Future<Collection<ComponentPreset>> future : futures) {
+				presets.addAll(future.get());
+			}
+			return presets;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BugException("Interrupted while loading component presets", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new BugException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Compute the hash identifying a set of preset files and the locale they are parsed in.
+	 */
+	private static String computeHash(List<String> names, List<byte[]> contents, Locale locale) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			// Material names are localized while parsing
+			digest.update(("v" + SNAPSHOT_VERSION + " " + locale).getBytes(StandardCharsets.UTF_8));
+			for (int i = 0; i < names.size(); i++) {
+				digest.update(names.get(i).getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) 0);
+				digest.update(contents.get(i));
+			}
+			return TextUtil.hexString(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new BugException(e);
+		}
+	}
+
+	/**
+	 * Read the preset snapshot.
+	 *
+	 * @param hash	the hash of the current preset files
+	 * @return	the presets, or <code>null</code> if there is no valid snapshot for the hash
+	 */
+	@SuppressWarnings("unchecked")
+	private List<ComponentPreset> readSnapshot(String hash) {
+		if (cacheDirectory == null) {
+			return null;
+		}
+		File file = new File(cacheDirectory, SNAPSHOT_FILE);
+		if (!file.isFile()) {
+			return null;
+		}
+		try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (!hash.equals(ois.readUTF())) {
+				log.info("Component preset snapshot is out of date");
+				return null;
+			}
+			List<ComponentPreset> presets = (List<ComponentPreset>) ois.readObject();
+			log.info("Read " + presets.size() + " component presets from snapshot " + file);
+			return presets;
+		} catch (Exception e) {
+			log.warn("Unable to read component preset snapshot " + file + ": " + e);
+			return null;
+		}
+	}
+
+	/**
+	 * Write the preset snapshot.  The snapshot is written to a temporary file first, so that a
+	 * concurrently starting instance never reads a partial snapshot.
+	 */
+	private void writeSnapshot(String hash, List<ComponentPreset> presets) {
+		if (cacheDirectory == null) {
+			return;
+		}
+		if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+			log.warn("Unable to create cache directory " + cacheDirectory);
+			return;
+		}
+		File file = new File(cacheDirectory, SNAPSHOT_FILE);
+		File tmp = null;
+		try {
+			tmp = File.createTempFile("component-presets", ".tmp", cacheDirectory);
+			try (ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				oos.writeUTF(hash);
+				oos.writeObject(new ArrayList<>(presets));
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			log.info("Wrote " + presets.size() + " component presets to snapshot " + file);
+		} catch (IOException e) {
+			log.warn("Unable to write component preset snapshot " + file + ": " + e);
+			if (tmp != null) {
+				tmp.delete();
+			}
 		}
 	}
 	
@@ -7,6 +7,9 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
 import java.util.List;
 
@@ -19,6 +22,7 @@ import info.openrocket.core.file.iterator.DirectoryIterator;
 import info.openrocket.core.file.iterator.FileIterator;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
 import info.openrocket.core.gui.util.SimpleFileFilter;
+import info.openrocket.core.motor.CompactMotorDatabase;
 import info.openrocket.core.motor.ThrustCurveMotor;
 import info.openrocket.core.startup.Application;
 import info.openrocket.core.util.BugException;
@@ -40,6 +44,8 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 	private final static Logger log = LoggerFactory.getLogger(MotorDatabaseLoader.class);
 
 	private static final String THRUSTCURVE_DIRECTORY = "datafiles/thrustcurves/";
+	private static final String COMPACT_EXTENSION = "bin";
+	private static final String LEGACY_EXTENSION = "ser";
 	private static final long STARTUP_DELAY = 0;
 	
 	private final ThrustCurveMotorSetDatabase database = new ThrustCurveMotorSetDatabase();
@@ -83,34 +89,105 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 
 	/**
 	 * Loads the default, with established serialized manufacturing and data
-	 * uses directory "datafiles/thrustcurves" for data  
+	 * uses directory "datafiles/thrustcurves" for data.  The {@link CompactMotorDatabase}
+	 * files (".bin") are read if there are any, otherwise the legacy Java serialized
+	 * files (".ser").
 	 */
 	private void loadSerializedMotorDatabase() {
 		log.info("Starting reading serialized motor database");
-		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY, new SimpleFileFilter("", false, "ser"));
+		long start = System.nanoTime();
+		if (!loadSerializedFiles(COMPACT_EXTENSION)) {
+			loadSerializedFiles(LEGACY_EXTENSION);
+		}
+		log.info("Ending reading serialized motor database, motorCount=" + motorCount + ", time=" +
+				(System.nanoTime() - start) / 1000000 + " ms");
+	}
+	
+	
+	/**
+	 * Loads the serialized motor files with an extension.
+	 *
+	 * @return	whether any files were found
+	 */
+	private boolean loadSerializedFiles(String extension) {
+		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY,
+				new SimpleFileFilter("", false, extension));
+		if (iterator == null) {
+			return false;
+		}
+		boolean found = false;
 		while (iterator.hasNext()) {
 			Pair<File, InputStream> f = iterator.next();
 			loadSerialized(f);
+			found = true;
 		}
-		log.info("Ending reading serialized motor database, motorCount=" + motorCount);
+		return found;
 	}
 	
 	
 	/**
-	 * loads a serailized motor data from an stream
+	 * loads a serailized motor data from an stream.  The data is either in the
+	 * {@link CompactMotorDatabase} format, whose thrust curves are decoded lazily,
+	 * or a Java serialized list of motors.
 	 * 
 	 * @param f	the pair of a File (for logging) and the input stream
 	 */
 	@SuppressWarnings("unchecked")
 	private void loadSerialized(Pair<File, InputStream> f) {
 		log.debug("Reading motors from file " + f.getU().getPath());
-		try (ObjectInputStream ois = new ObjectInputStream(f.getV())) {
-			List<ThrustCurveMotor> motors = (List<ThrustCurveMotor>) ois.readObject();
-			addMotors(motors);
+		try (InputStream is = f.getV()) {
+			ByteBuffer buffer = readDatabaseBuffer(f.getU(), is);
+			if (CompactMotorDatabase.isCompactDatabase(buffer)) {
+				addMotors(CompactMotorDatabase.read(buffer));
+				return;
+			}
+			try (ObjectInputStream ois = new ObjectInputStream(new ByteBufferInputStream(buffer))) {
+				List<ThrustCurveMotor> motors = (List<ThrustCurveMotor>) ois.readObject();
+				addMotors(motors);
+			}
 		} catch (Exception ex) {
 			throw new BugException(ex);
 		}
 	}
+
+	/**
+	 * Return the contents of a motor database file.  Files on the file system are memory-mapped,
+	 * other files (e.g. inside the application JAR) are read from the stream.
+	 */
+	private static ByteBuffer readDatabaseBuffer(File file, InputStream is) throws IOException {
+		if (file.isFile()) {
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+		}
+		return ByteBuffer.wrap(is.readAllBytes());
+	}
+
+	/**
+	 * An input stream reading the remaining bytes of a buffer.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer.slice();
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			len = Math.min(len, buffer.remaining());
+			buffer.get(b, off, len);
+			return len;
+		}
+	}
 	
 	/**
 	 * loads a single motor file into the database using a simple file handler object
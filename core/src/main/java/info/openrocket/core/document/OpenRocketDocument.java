@@ -90,9 +90,10 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 	
 	/** 
 	 * The undo history of the rocket.   Whenever a new undo position is created while the
-	 * rocket is in "dirty" state, the rocket is copied here.
+	 * rocket is in "dirty" state, a snapshot of the rocket is stored here.  Consecutive
+	 * snapshots share the states of the components that have not changed.
 	 */
-	private final LinkedList<Rocket> undoHistory = new LinkedList<>();
+	private final LinkedList<RocketSnapshot> undoHistory = new LinkedList<>();
 	private final LinkedList<String> undoDescription = new LinkedList<>();
 	
 	/**
@@ -548,12 +549,24 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 	 */
 	private void addStateToUndoHistory(String description) {
 		// Add the current state to the undo history
-		undoHistory.add(rocket.copyWithOriginalID());
-		undoDescription.add(null);
+		addSnapshotToUndoHistory();
 		nextDescription = description;
 		undoPosition++;
 	}
 
+	/**
+	 * Add a snapshot of the current rocket to the end of the undo history, sharing the
+	 * unchanged component states with the latest snapshot.
+	 */
+	private void addSnapshotToUndoHistory() {
+		RocketSnapshot previous = undoHistory.isEmpty() ? null : undoHistory.getLast();
+		RocketSnapshot snapshot = RocketSnapshot.capture(rocket, previous);
+		log.debug("Undo snapshot copied " + snapshot.getCopiedComponentCount() + " of " +
+				snapshot.getComponentCount() + " components");
+		undoHistory.add(snapshot);
+		undoDescription.add(null);
+	}
+
 	/**
 	 * checks if there was or not modification, and logs
 	 * 
@@ -637,8 +650,7 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 		undoHistory.clear();
 		undoDescription.clear();
 		
-		undoHistory.add(rocket.copyWithOriginalID());
-		undoDescription.add(null);
+		addSnapshotToUndoHistory();
 		undoPosition = 0;
 		
 		fireUndoRedoChangeEvent();
@@ -758,12 +770,11 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 				logUndoError("undo position inconsistency");
 			}
 			// Modifications have been made, save the state and restore previous state
-			undoHistory.add(rocket.copyWithOriginalID());
-			undoDescription.add(null);
+			addSnapshotToUndoHistory();
 		}
 		
 		rocket.checkComponentStructure();
-		rocket.loadFrom(undoHistory.get(undoPosition));
+		rocket.loadFrom(undoHistory.get(undoPosition).toRocket());
 		rocket.checkComponentStructure();
 	}
 	
@@ -785,7 +796,7 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 		
 		undoPosition++;
 		
-		rocket.loadFrom(undoHistory.get(undoPosition).copyWithOriginalID());
+		rocket.loadFrom(undoHistory.get(undoPosition).toRocket());
 	}
 	
 	
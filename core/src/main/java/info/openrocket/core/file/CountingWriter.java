@@ -0,0 +1,42 @@
+package info.openrocket.core.file;
+
+import java.io.Writer;
+
+/**
+ * A Writer that discards the written characters and only counts them.  Used for
+ * estimating the size of an export without building it in memory.
+ */
+public class CountingWriter extends Writer {
+
+	private long count = 0;
+
+	/**
+	 * @return	the number of characters written.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	@Override
+	public void write(int c) {
+		count++;
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) {
+		count += len;
+	}
+
+	@Override
+	public void write(String str, int off, int len) {
+		count += len;
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	@Override
+	public void close() {
+	}
+}
@@ -0,0 +1,130 @@
+package info.openrocket.core.file;
+
+import java.io.Writer;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes an XML document element by element through an {@link XMLStreamWriter}, for exporters
+ * that walk their model and write it as they go instead of building it in memory first.
+ * <p>
+ * Nested elements are indented by four spaces per level.  An element without any content
+ * is written as an empty element, and the document is written without an XML declaration.
+ */
+public class XMLElementWriter {
+
+	private static final XMLOutputFactory FACTORY = XMLOutputFactory.newDefaultFactory();
+
+	private static final String INDENT = "    ";
+
+	private final XMLStreamWriter out;
+
+	/** The depth of the current element, 0 outside the root element. */
+	private int depth = 0;
+	/** The name of the started element whose start tag has not been written yet, or null. */
+	private String pending = null;
+	/** Whether the current element contains child elements. */
+	private boolean nested = false;
+
+	/**
+	 * @param writer	the writer to write the document to; it is not closed.
+	 */
+	public XMLElementWriter(Writer writer) throws XMLStreamException {
+		this.out = FACTORY.createXMLStreamWriter(writer);
+	}
+
+	/**
+	 * Start an element.  It needs to be ended with {@link #end()}.
+	 *
+	 * @param name	the element name
+	 */
+	public void start(String name) throws XMLStreamException {
+		writePending();
+		if (depth > 0) {
+			indent(depth);
+		}
+		pending = name;
+		nested = false;
+		depth++;
+	}
+
+	/**
+	 * End the element that was started last.
+	 */
+	public void end() throws XMLStreamException {
+		depth--;
+		if (pending != null) {
+			out.writeEmptyElement(pending);
+			pending = null;
+		} else {
+			if (nested) {
+				indent(depth);
+			}
+			out.writeEndElement();
+		}
+		nested = true;
+	}
+
+	/**
+	 * Write an element containing only text.  Nothing is written if the text is null.
+	 *
+	 * @param name	the element name
+	 * @param text	the element text, escaped as needed
+	 */
+	public void element(String name, String text) throws XMLStreamException {
+		if (text == null) {
+			return;
+		}
+		start(name);
+		writePending();
+		out.writeCharacters(text);
+		end();
+	}
+
+	/**
+	 * Write an element containing an integer.
+	 */
+	public void element(String name, int value) throws XMLStreamException {
+		element(name, Integer.toString(value));
+	}
+
+	/**
+	 * Write an element containing a double in the lexical form of XML Schema, which spells
+	 * the infinities as INF and -INF.
+	 */
+	public void element(String name, double value) throws XMLStreamException {
+		final String text;
+		if (value == Double.POSITIVE_INFINITY) {
+			text = "INF";
+		} else if (value == Double.NEGATIVE_INFINITY) {
+			text = "-INF";
+		} else {
+			text = Double.toString(value);
+		}
+		element(name, text);
+	}
+
+	/**
+	 * End the document and flush the written XML to the underlying writer.
+	 */
+	public void finish() throws XMLStreamException {
+		out.writeCharacters("\n");
+		out.flush();
+	}
+
+	private void writePending() throws XMLStreamException {
+		if (pending != null) {
+			out.writeStartElement(pending);
+			pending = null;
+		}
+	}
+
+	private void indent(int level) throws XMLStreamException {
+		out.writeCharacters("\n");
+		for (int i = 0; i < level; i++) {
+			out.writeCharacters(INDENT);
+		}
+	}
+}
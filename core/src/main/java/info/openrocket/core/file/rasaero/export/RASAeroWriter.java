@@ -0,0 +1,946 @@
+package info.openrocket.core.file.rasaero.export;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.file.XMLElementWriter;
+import info.openrocket.core.file.rasaero.RASAeroCommonConstants;
+import info.openrocket.core.file.rasaero.RASAeroCommonConstants.NoseConeShapeSettings;
+import info.openrocket.core.file.rasaero.RASAeroMotorsLoader;
+import info.openrocket.core.file.rasaero.export.RASAeroSaver.RASAeroExportException;
+import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.logging.ErrorSet;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.masscalc.MassCalculator;
+import info.openrocket.core.masscalc.RigidBody;
+import info.openrocket.core.motor.Motor;
+import info.openrocket.core.motor.MotorConfiguration;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.preferences.ApplicationPreferences;
+import info.openrocket.core.rocketcomponent.AxialStage;
+import info.openrocket.core.rocketcomponent.BodyTube;
+import info.openrocket.core.rocketcomponent.DeploymentConfiguration;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.FlightConfigurationId;
+import info.openrocket.core.rocketcomponent.LaunchLug;
+import info.openrocket.core.rocketcomponent.MotorMount;
+import info.openrocket.core.rocketcomponent.NoseCone;
+import info.openrocket.core.rocketcomponent.Parachute;
+import info.openrocket.core.rocketcomponent.RailButton;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.rocketcomponent.StageSeparationConfiguration;
+import info.openrocket.core.rocketcomponent.SymmetricComponent;
+import info.openrocket.core.rocketcomponent.Transition;
+import info.openrocket.core.rocketcomponent.TrapezoidFinSet;
+import info.openrocket.core.rocketcomponent.position.AxialMethod;
+import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.startup.Application;
+import info.openrocket.core.util.MathUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.Writer;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes an OpenRocket design as RASAero XML. Each part is converted and written as soon as it is
+ * reached, so the design is never held as a separate tree of objects. A part that cannot be exported
+ * is left out and its error is added to the error set, like before any of it is written.
+ * The written XML is the same as that of the RASAero DTO classes.
+ */
+final class RASAeroWriter {
+    private static final Logger log = LoggerFactory.getLogger(RASAeroWriter.class);
+    private static final Translator trans = Application.getTranslator();
+
+    private static final String FILE_VERSION = "2";
+
+    private final XMLElementWriter out;
+    private final WarningSet warnings;
+    private final ErrorSet errors;
+
+    /** RASAero has 4 decimal precision. */
+    private final DecimalFormat decimalFormat = new DecimalFormat("#.####", new DecimalFormatSymbols(Locale.US));
+
+    /** The surface finish of the design, taken from the nose cone. */
+    private String surface = RASAeroCommonConstants.FINISH_SMOOTH;
+
+    /**
+     * @param writer   the writer to write the XML to; it is not closed.
+     * @param warnings set to add export warnings to
+     * @param errors   set to add export errors to
+     */
+    RASAeroWriter(Writer writer, WarningSet warnings, ErrorSet errors) throws XMLStreamException {
+        this.out = new XMLElementWriter(writer);
+        this.warnings = warnings;
+        this.errors = errors;
+    }
+
+    /**
+     * Write the design, its launch site and recovery settings, and its simulations.
+     *
+     * @param document the OR design
+     */
+    void write(OpenRocketDocument document) throws XMLStreamException {
+        out.start(RASAeroCommonConstants.RASAERO_DOCUMENT);
+        out.element(RASAeroCommonConstants.FILE_VERSION, FILE_VERSION);
+        writeRocketDesign(document.getRocket());
+        writeLaunchSite(document);
+        writeRecovery(document.getRocket());
+        out.element(RASAeroCommonConstants.MACH_ALT, "");   // Currently not implemented
+        writeSimulationList(document);
+        out.end();
+        out.finish();
+    }
+
+    private void writeRocketDesign(Rocket rocket) throws XMLStreamException {
+        out.start(RASAeroCommonConstants.ROCKET_DESIGN);
+
+        if (rocket.getChildCount() > 3) {
+            warnings.add(trans.get("RASAeroExport.warning10"));
+        }
+
+        if (writeSustainerParts(rocket, rocket.getStage(0))) {
+            // Export components from other stages
+            for (int i = 1; i < Math.min(rocket.getChildCount(), 3); i++) {
+                try {
+                    writeBooster(rocket, (AxialStage) rocket.getChild(i));
+                } catch (RASAeroExportException e) {
+                    errors.add(e.getMessage());
+                }
+            }
+        }
+
+        out.element(RASAeroCommonConstants.SURFACE_FINISH, surface);
+        writeDouble(RASAeroCommonConstants.CD, 0.0d);
+        writeBoolean(RASAeroCommonConstants.MODIFIED_BARROWMAN, false);
+        writeBoolean(RASAeroCommonConstants.TURBULENCE, false);
+        writeDouble(RASAeroCommonConstants.SUSTAINER_NOZZLE, 0.0d);
+        writeDouble(RASAeroCommonConstants.BOOSTER1_NOZZLE, 0.0d);
+        writeDouble(RASAeroCommonConstants.BOOSTER2_NOZZLE, 0.0d);
+        writeBoolean(RASAeroCommonConstants.USE_BOOSTER1, rocket.getChildCount() >= 2);
+        writeBoolean(RASAeroCommonConstants.USE_BOOSTER2, rocket.getChildCount() == 3);
+        out.element(RASAeroCommonConstants.COMMENTS, rocket.getComment());
+
+        out.end();
+    }
+
+    /**
+     * Write the components of the sustainer.
+     *
+     * @return false if the sustainer can not be exported, in which case the boosters are not exported either
+     */
+    private boolean writeSustainerParts(Rocket rocket, AxialStage sustainer) throws XMLStreamException {
+        for (int i = 0; i < sustainer.getChildCount(); i++) {
+            try {
+                RocketComponent component = sustainer.getChild(i);
+                if (i == 0 && !(component instanceof NoseCone)) {
+                    errors.add(trans.get("RASAeroExport.error22"));
+                    return false;
+                } else if (i == 1 && !(component instanceof BodyTube ||
+                        (component instanceof Transition && !(component instanceof NoseCone)
+                                && (i == sustainer.getChildCount() - 1)))) {
+                    errors.add(trans.get("RASAeroExport.error23"));
+                    return false;
+                }
+
+                if (component instanceof BodyTube) {
+                    writeBodyTube((BodyTube) component);
+                } else if (component instanceof NoseCone) {
+                    if (i != 0) {
+                        errors.add(trans.get("RASAeroExport.error24"));
+                        return false;
+                    }
+                    writeNoseCone((NoseCone) component);
+                    // Set the global surface finish to that of the first nose cone
+                    surface = RASAeroCommonConstants.OPENROCKET_TO_RASAERO_SURFACE(((NoseCone) component).getFinish(),
+                            warnings);
+                } else if (component instanceof Transition) {
+                    // If there is only a sustainer & this is the last child of the sustainer, it's a boattail
+                    if (rocket.getChildCount() == 1 && (i == sustainer.getChildCount() - 1)) {
+                        writeTransition((Transition) component, RASAeroCommonConstants.BOATTAIL);
+                    } else {
+                        writeTransition((Transition) component, RASAeroCommonConstants.TRANSITION);
+                    }
+                } else {
+                    throw new RASAeroExportException(
+                            String.format(trans.get("RASAeroExport.error33"), component.getComponentName()));
+                }
+            } catch (RASAeroExportException e) {
+                errors.add(e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void writeBodyTube(BodyTube bodyTube) throws RASAeroExportException, XMLStreamException {
+        final double diameter = getDiameter(bodyTube,
+                bodyTube.getOuterRadius() * 2 * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH);
+        final double length = getLength(bodyTube);
+        final TubeSettings settings = new TubeSettings(true);
+        settings.apply(bodyTube);
+
+        out.start(RASAeroCommonConstants.BODY_TUBE);
+        out.element(RASAeroCommonConstants.PART_TYPE, RASAeroCommonConstants.BODY_TUBE);
+        writeDouble(RASAeroCommonConstants.LENGTH, length);
+        writeDouble(RASAeroCommonConstants.DIAMETER, diameter);
+        writeDouble(RASAeroCommonConstants.LAUNCH_LUG_DIAMETER, settings.launchLugDiameter);
+        writeDouble(RASAeroCommonConstants.LAUNCH_LUG_LENGTH, settings.launchLugLength);
+        writeDouble(RASAeroCommonConstants.RAIL_GUIDE_DIAMETER, settings.railGuideDiameter);
+        writeDouble(RASAeroCommonConstants.RAIL_GUIDE_HEIGHT, settings.railGuideHeight);
+        writeDouble(RASAeroCommonConstants.LAUNCH_SHOE_AREA, 0.0d);     // Currently not available in OR
+        writeLocationAndColor(bodyTube);
+        writeDouble(RASAeroCommonConstants.BOATTAIL_LENGTH, 0.0d);
+        writeDouble(RASAeroCommonConstants.BOATTAIL_REAR_DIAMETER, 0.0d);
+        writeDouble(RASAeroCommonConstants.BOATTAIL_OFFSET, 0.0d);
+        writeDouble(RASAeroCommonConstants.OVERHANG, 0.0d);
+        if (settings.fin != null) {
+            settings.fin.write();
+        }
+        out.end();
+    }
+
+    private void writeNoseCone(NoseCone noseCone) throws RASAeroExportException, XMLStreamException {
+        if (noseCone.isFlipped()) {
+            throw new RASAeroExportException(trans.get("RASAeroExport.warning1"));
+        }
+        final double diameter = getDiameter(noseCone,
+                noseCone.getAftRadius() * 2 * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH);
+        final double length = getLength(noseCone);
+        final NoseConeShapeSettings shapeSettings = RASAeroCommonConstants
+                .OPENROCKET_TO_RASAERO_SHAPE(noseCone.getShapeType(), noseCone.getShapeParameter());
+
+        out.start(RASAeroCommonConstants.NOSE_CONE);
+        out.element(RASAeroCommonConstants.PART_TYPE, RASAeroCommonConstants.NOSE_CONE);
+        writeDouble(RASAeroCommonConstants.LENGTH, length);
+        writeDouble(RASAeroCommonConstants.DIAMETER, diameter);
+        out.element(RASAeroCommonConstants.SHAPE, shapeSettings.getShape());
+        writeDouble(RASAeroCommonConstants.BLUNT_RADIUS, 0.0d);
+        writeLocationAndColor(noseCone);
+        writeDouble(RASAeroCommonConstants.POWER_LAW, shapeSettings.getShapeParameter());
+        out.end();
+    }
+
+    /**
+     * Write a transition, either as a transition or as a boattail.
+     *
+     * @param name the RASAero part type, {@link RASAeroCommonConstants#TRANSITION} or
+     *             {@link RASAeroCommonConstants#BOATTAIL}
+     */
+    private void writeTransition(Transition transition, String name) throws RASAeroExportException,
+            XMLStreamException {
+        // This is a bit strange: I would expect diameter to be the fore radius, since you also have a rearDiameter
+        // field for transitions, but okay
+        final double diameter = getDiameter(transition,
+                transition.getAftRadius() * 2 * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH);
+        final double length = getLength(transition);
+
+        if (!transition.getShapeType().equals(Transition.Shape.CONICAL)) {
+            throw new RASAeroExportException(trans.get("RASAeroExport.error26"));
+        }
+        SymmetricComponent previousComp = transition.getPreviousSymmetricComponent();
+        if (previousComp == null) {
+            throw new RASAeroExportException(String.format(trans.get("RASAeroExport.error27"), transition.getName()));
+        }
+        if (!MathUtil.equals(transition.getForeRadius(), previousComp.getAftRadius())) {
+            throw new RASAeroExportException(
+                    String.format(trans.get("RASAeroExport.error28"),
+                            transition.getName(), previousComp.getAftRadius(), transition.getForeRadius()));
+        }
+        final double rearDiameter = transition.getAftRadius() * 2 * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+        if (rearDiameter < 0.0001) {
+            throw new RASAeroExportException(
+                    String.format("'%s' rear diameter must be greater than 0.0001 inch", transition));
+        }
+
+        out.start(name);
+        out.element(RASAeroCommonConstants.PART_TYPE, name);
+        writeDouble(RASAeroCommonConstants.LENGTH, length);
+        writeDouble(RASAeroCommonConstants.DIAMETER, diameter);
+        writeDouble(RASAeroCommonConstants.REAR_DIAMETER, rearDiameter);
+        writeLocationAndColor(transition);
+        out.end();
+    }
+
+    /**
+     * Write a booster stage. RASAero describes a booster by its first body tube, which can have a shoulder
+     * (a transition in front of it) and a boattail.
+     */
+    private void writeBooster(Rocket rocket, AxialStage stage) throws RASAeroExportException, XMLStreamException {
+        int stageNr = rocket.getChildPosition(stage); // Use this instead of stage.getStageNumber() in case there are
+                                                      // parallel stages in the design
+        if (stageNr != 1 && stageNr != 2) {
+            throw new RASAeroExportException(
+                    String.format(trans.get("RASAeroExport.error9"), stageNr, stage.getName()));
+        }
+        if (stage.getChildCount() == 0) {
+            throw new RASAeroExportException(String.format(trans.get("RASAeroExport.error10"), stage.getName()));
+        }
+        RocketComponent firstChild = stage.getChild(0);
+        if (!(firstChild instanceof BodyTube) &&
+                !(firstChild instanceof Transition && !(firstChild instanceof NoseCone))) {
+            throw new RASAeroExportException(String.format(trans.get("RASAeroExport.error11"), stage.getName()));
+        }
+
+        final BodyTube firstTube;
+        Double insideDiameter = null;
+        Double shoulderLength = null;
+        if (firstChild instanceof Transition) {
+            if (stage.getChildCount() == 1 || !(stage.getChild(1) instanceof BodyTube)) {
+                throw new RASAeroExportException(
+                        String.format(trans.get("RASAeroExport.error12"), stage.getName()));
+            }
+            Transition transition = (Transition) firstChild;
+            SymmetricComponent previousComponent = transition.getPreviousSymmetricComponent();
+            if (previousComponent == null) {
+                throw new RASAeroExportException(String.format(trans.get("RASAeroExport.error13"),
+                        firstChild.getName(), stage.getName()));
+            }
+            if (!MathUtil.equals(transition.getForeRadius(), previousComponent.getAftRadius())) {
+                throw new RASAeroExportException(
+                        String.format(trans.get("RASAeroExport.error14"),
+                                transition.getName(), stage.getName(), previousComponent.getName()));
+            }
+            firstTube = (BodyTube) stage.getChild(1);
+            if (!MathUtil.equals(firstTube.getOuterRadius(), transition.getAftRadius())) {
+                throw new RASAeroExportException(
+                        String.format(trans.get("RASAeroExport.error15"),
+                                firstTube.getName(), stage.getName(), transition.getName()));
+            }
+            shoulderLength = firstChild.getLength() * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+            getBoosterDiameter(stage, firstTube);
+            insideDiameter = transition.getForeRadius() * 2 * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+            if (MathUtil.equals(insideDiameter, 0)) {
+                throw new RASAeroExportException(String.format(trans.get("RASAeroExport.error19"), stage.getName()));
+            }
+        } else {
+            firstTube = (BodyTube) stage.getChild(0);
+        }
+
+        TrapezoidFinSet finSet = getFinSetFromBodyTube(firstTube);
+        double tubeLength = firstTube.getLength();
+        double finLocationOffset = 0;
+        Double boattailLength = null;
+        Double boattailRearDiameter = null;
+
+        // Aggregate same-sized body tubes
+        for (int i = stage.getChildPosition(firstTube) + 1; i < stage.getChildCount(); i++) {
+            RocketComponent comp = stage.getChild(i);
+            if (comp instanceof BodyTube &&
+                    MathUtil.equals(((BodyTube) comp).getOuterRadius(), firstTube.getOuterRadius())) {
+                // Aggregate the tubes by combining the lengths
+                tubeLength += comp.getLength();
+                // If no fin set in firstTube, add fin from new tube
+                if (finSet == null) {
+                    finSet = getFinSetFromBodyTube((BodyTube) comp);
+                }
+                // We need an offset to the fin location, since the fin axial offset is referenced to its parent tube,
+                // which can be different from the bottom of the aggregate tubes
+                else {
+                    finLocationOffset += comp.getLength();
+                }
+            } else {
+                // If this booster is the last stage, and the last component is a transition, it could be a boattail
+                boolean isBoattail = (comp instanceof Transition && !(comp instanceof NoseCone))
+                        && i == stage.getChildCount() - 1;
+                if (stageNr == rocket.getChildCount() - 1 && isBoattail) {
+                    Transition transition = (Transition) comp;
+                    boattailLength = transition.getLength() * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+                    if (boattailLength == 0) {
+                        throw new RASAeroExportException(trans.get("RASAeroExport.error29"));
+                    }
+                    boattailRearDiameter = transition.getAftRadius() * 2 *
+                            RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+                    if (boattailRearDiameter == 0) {
+                        throw new RASAeroExportException(trans.get("RASAeroExport.error30"));
+                    }
+                    break;
+                }
+                String msg = String.format(trans.get("RASAeroExport.error31"), stage.getName());
+                if (isBoattail) {
+                    msg = "<html>" + msg + "<br>&nbsp;" + trans.get("RASAeroExport.error32") + "</html>";
+                }
+                errors.add(msg);
+                break;
+            }
+        }
+
+        final TubeSettings settings = new TubeSettings(false);
+        settings.apply(firstTube);
+
+        if (finSet == null) {
+            throw new RASAeroExportException(
+                    String.format(trans.get("RASAeroExport.error16"),
+                            firstTube.getName(), stage.getName()));
+        }
+        final Fin fin = new Fin(finSet);
+        fin.location += finLocationOffset * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+
+        Double length = tubeLength * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+        if (MathUtil.equals(length, 0)) {
+            errors.add(String.format(trans.get("RASAeroExport.error17"), stage.getName()));
+            length = null;
+        }
+        final double diameter = getBoosterDiameter(stage, firstTube);
+
+        out.start(RASAeroCommonConstants.BOOSTER);
+        out.element(RASAeroCommonConstants.PART_TYPE, RASAeroCommonConstants.BOOSTER);
+        writeDouble(RASAeroCommonConstants.LENGTH, length);
+        writeDouble(RASAeroCommonConstants.DIAMETER, diameter);
+        writeDouble(RASAeroCommonConstants.INSIDE_DIAMETER, insideDiameter);
+        writeDouble(RASAeroCommonConstants.LAUNCH_LUG_DIAMETER, settings.launchLugDiameter);
+        writeDouble(RASAeroCommonConstants.LAUNCH_LUG_LENGTH, settings.launchLugLength);
+        writeDouble(RASAeroCommonConstants.RAIL_GUIDE_DIAMETER, settings.railGuideDiameter);
+        writeDouble(RASAeroCommonConstants.RAIL_GUIDE_HEIGHT, settings.railGuideHeight);
+        writeDouble(RASAeroCommonConstants.LAUNCH_SHOE_AREA, 0.0d);     // Currently not available in OR
+        writeDouble(RASAeroCommonConstants.LOCATION,
+                firstChild.getAxialOffset(AxialMethod.ABSOLUTE) * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH);
+        out.element(RASAeroCommonConstants.COLOR, RASAeroCommonConstants.OPENROCKET_TO_RASAERO_COLOR(firstTube.getColor()));
+        writeDouble(RASAeroCommonConstants.SHOULDER_LENGTH, shoulderLength);
+        writeDouble(RASAeroCommonConstants.NOZZLE_EXIT_DIAMETER, 0.0d);
+        writeDouble(RASAeroCommonConstants.BOATTAIL_LENGTH, boattailLength);
+        writeDouble(RASAeroCommonConstants.BOATTAIL_REAR_DIAMETER, boattailRearDiameter);
+        fin.write();
+        out.end();
+    }
+
+    private static double getBoosterDiameter(AxialStage stage, BodyTube firstTube) throws RASAeroExportException {
+        double diameter = firstTube.getOuterRadius() * 2 * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+        if (MathUtil.equals(diameter, 0)) {
+            throw new RASAeroExportException(String.format(trans.get("RASAeroExport.error18"), stage.getName()));
+        }
+        return diameter;
+    }
+
+    private static TrapezoidFinSet getFinSetFromBodyTube(BodyTube bodyTube) {
+        for (RocketComponent child : bodyTube.getChildren()) {
+            if (child instanceof TrapezoidFinSet) {
+                return (TrapezoidFinSet) child;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the diameter of a part, checked to be non-zero
+     */
+    private static double getDiameter(RocketComponent component, double diameter) throws RASAeroExportException {
+        if (MathUtil.equals(diameter, 0)) {
+            throw new RASAeroExportException(String.format(trans.get("RASAeroExport.error3"), component.getName()));
+        }
+        return diameter;
+    }
+
+    /**
+     * @return the length of a part, checked to be non-zero
+     */
+    private static double getLength(RocketComponent component) throws RASAeroExportException {
+        double length = component.getLength() * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+        if (MathUtil.equals(length, 0)) {
+            throw new RASAeroExportException(String.format(trans.get("RASAeroExport.error2"), component.getName()));
+        }
+        return length;
+    }
+
+    private void writeLocationAndColor(RocketComponent component) throws XMLStreamException {
+        writeDouble(RASAeroCommonConstants.LOCATION,
+                component.getAxialOffset(AxialMethod.ABSOLUTE) * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH);
+        out.element(RASAeroCommonConstants.COLOR, RASAeroCommonConstants.OPENROCKET_TO_RASAERO_COLOR(component.getColor()));
+    }
+
+    private void writeLaunchSite(OpenRocketDocument document) throws XMLStreamException {
+        double altitude;
+        double pressure;
+        double temperature;
+        double rodAngle;
+        double rodLength;
+        double windSpeed;
+
+        SimulationOptions options = null;
+        for (Simulation sim : document.getSimulations()) {
+            options = sim.getSimulatedConditions();
+            if (options != null) {
+                break;
+            }
+        }
+        if (options != null) {
+            altitude = options.getLaunchAltitude();
+            pressure = options.getLaunchPressure();
+            temperature = options.getLaunchTemperature();
+            rodAngle = options.getLaunchRodAngle();
+            rodLength = options.getLaunchRodLength();
+            windSpeed = options.getAverageWindModel().getAverage();
+        } else {
+            // If we can't get settings from the sims, use the launch site settings from the preferences
+            ApplicationPreferences prefs = Application.getPreferences();
+            altitude = prefs.getLaunchAltitude();
+            pressure = prefs.getLaunchPressure();
+            temperature = prefs.getLaunchTemperature();
+            rodAngle = prefs.getLaunchRodAngle();
+            rodLength = prefs.getLaunchRodLength();
+            windSpeed = prefs.getAverageWindModel().getAverage();
+        }
+
+        out.start(RASAeroCommonConstants.LAUNCH_SITE);
+        writeDouble(RASAeroCommonConstants.LAUNCH_ALTITUDE, altitude * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_ALTITUDE);
+        writeDouble(RASAeroCommonConstants.LAUNCH_PRESSURE, pressure * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_PRESSURE);
+        writeDouble(RASAeroCommonConstants.LAUNCH_ROD_ANGLE, rodAngle * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_ANGLE);
+        // It's a length, but stored in RASAero in feet instead of inches
+        writeDouble(RASAeroCommonConstants.LAUNCH_ROD_LENGTH, rodLength * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_ALTITUDE);
+        writeDouble(RASAeroCommonConstants.LAUNCH_TEMPERATURE,
+                RASAeroCommonConstants.OPENROCKET_TO_RASAERO_TEMPERATURE(temperature));
+        writeDouble(RASAeroCommonConstants.LAUNCH_WIND_SPEED,
+                windSpeed * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_SPEED);
+        out.end();
+    }
+
+    /**
+     * Write the recovery settings. RASAero supports two recovery devices, which are taken from the parachutes
+     * in the body tubes of the stages.
+     */
+    private void writeRecovery(Rocket rocket) throws XMLStreamException {
+        List<Parachute> parachutes = getParachutesFromRocket(rocket);
+        if (parachutes.isEmpty()) {
+            log.debug("No parachutes present");
+        }
+        Parachute device1 = parachutes.size() > 0 ? parachutes.get(0) : null;
+        Parachute device2 = parachutes.size() > 1 ? parachutes.get(1) : null;
+        String eventType1 = getRecoveryEventType(device1);
+        String eventType2 = getRecoveryEventType(device2);
+
+        out.start(RASAeroCommonConstants.RECOVERY);
+        writeDouble(RASAeroCommonConstants.RECOVERY_ALTITUDE + 1, getRecoveryAltitude(device1));
+        writeDouble(RASAeroCommonConstants.RECOVERY_ALTITUDE + 2, getRecoveryAltitude(device2));
+        out.element(RASAeroCommonConstants.RECOVERY_DEVICE_TYPE + 1, device1 != null ? "Parachute" : "None");
+        out.element(RASAeroCommonConstants.RECOVERY_DEVICE_TYPE + 2, device2 != null ? "Parachute" : "None");
+        writeBoolean(RASAeroCommonConstants.RECOVERY_EVENT + 1, device1 != null);
+        writeBoolean(RASAeroCommonConstants.RECOVERY_EVENT + 2, device2 != null);
+        writeDouble(RASAeroCommonConstants.RECOVERY_SIZE + 1, getRecoverySize(device1));
+        writeDouble(RASAeroCommonConstants.RECOVERY_SIZE + 2, getRecoverySize(device2));
+        out.element(RASAeroCommonConstants.RECOVERY_EVENT_TYPE + 1, eventType1);
+        out.element(RASAeroCommonConstants.RECOVERY_EVENT_TYPE + 2, eventType2);
+        // The drag coefficient of the second device has always been exported as that of the first one
+        Parachute cdDevice = device2 != null ? device2 : device1;
+        writeDouble(RASAeroCommonConstants.RECOVERY_CD + 1, cdDevice != null ? cdDevice.getCD() : 0.0d);
+        writeDouble(RASAeroCommonConstants.RECOVERY_CD + 2, 0.0d);
+        out.end();
+    }
+
+    private static List<Parachute> getParachutesFromRocket(Rocket rocket) {
+        List<Parachute> parachutes = new LinkedList<>();
+        for (int i = 0; i < Math.min(rocket.getChildCount(), 3); i++) {
+            AxialStage stage = (AxialStage) rocket.getChild(i);
+            for (RocketComponent stageChild : stage.getChildren()) {
+                if (stageChild instanceof BodyTube) {
+                    for (RocketComponent child : stageChild) {
+                        if (child instanceof Parachute) {
+                            parachutes.add((Parachute) child);
+                            if (parachutes.size() == 2) {
+                                return parachutes;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return parachutes;
+    }
+
+    private static double getRecoveryAltitude(Parachute device) {
+        if (device == null) {
+            return 0.0d;
+        }
+        return device.getDeploymentConfigurations().getDefault().getDeployAltitude() *
+                RASAeroCommonConstants.OPENROCKET_TO_RASAERO_ALTITUDE;
+    }
+
+    private static double getRecoverySize(Parachute device) {
+        if (device == null) {
+            return 0.0d;
+        }
+        return device.getDiameter() * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+    }
+
+    private String getRecoveryEventType(Parachute device) {
+        if (device == null) {
+            return RASAeroCommonConstants.DEPLOYMENT_NONE;
+        }
+        DeploymentConfiguration deployConfig = device.getDeploymentConfigurations().getDefault();
+        if (deployConfig.getDeployEvent() == DeploymentConfiguration.DeployEvent.APOGEE) {
+            return RASAeroCommonConstants.DEPLOYMENT_APOGEE;
+        } else if (deployConfig.getDeployEvent() == DeploymentConfiguration.DeployEvent.ALTITUDE) {
+            return RASAeroCommonConstants.RECOVERY_ALTITUDE;
+        }
+        errors.add(String.format(trans.get("RASAeroExport.error21"),
+                device.getName(), deployConfig.getDeployEvent().toString()));
+        return RASAeroCommonConstants.DEPLOYMENT_NONE;
+    }
+
+    private void writeSimulationList(OpenRocketDocument document) throws XMLStreamException {
+        Map<AxialStage, MotorMount> mounts = new LinkedHashMap<>();
+        Rocket rocket = document.getRocket();
+
+        // Fetch the motor mount of each stage
+        for (RocketComponent child : rocket.getChildren()) {
+            AxialStage stage = (AxialStage) child;
+            MotorMount mount = null;
+            for (RocketComponent stageChild : stage.getChildren()) {
+                if (stageChild instanceof BodyTube) {
+                    // First check if the body tube itself has a motor
+                    if (((BodyTube) stageChild).hasMotor()) {
+                        mount = (BodyTube) stageChild;
+                        break;
+                    }
+                    // Then check if it has an inner tube with a motor
+                    for (RocketComponent tubeChild : stageChild.getChildren()) {
+                        if (tubeChild instanceof MotorMount && ((MotorMount) tubeChild).hasMotor()) {
+                            mount = (MotorMount) tubeChild;
+                            break;
+                        }
+                    }
+                    if (mount != null) {
+                        break;
+                    }
+                }
+            }
+            // A stage without a motor gets a null mount, so that its mass/CG is still exported
+            mounts.put(stage, mount);
+        }
+
+        // Load all RASAero motors
+        List<ThrustCurveMotor> motors = RASAeroMotorsLoader.loadAllRASAeroMotors(warnings);
+
+        out.start(RASAeroCommonConstants.SIMULATION_LIST);
+        for (Simulation simulation : document.getSimulations()) {
+            writeSimulation(rocket, simulation, mounts, motors);
+        }
+        // If there are no simulations, add a default simulation (to have the mass/CG export)
+        if (document.getSimulations().isEmpty()) {
+            writeSimulation(rocket, null, mounts, motors);
+        }
+        out.end();
+
+        motors.clear();
+    }
+
+    /**
+     * Write a simulation, with the motor, launch weight and CG of each stage.
+     *
+     * @param rocket     the rocket
+     * @param simulation the simulation to write, or null for the default simulation
+     * @param mounts     the stages and their motor mount (only 1 mount per stage allowed); a null mount means
+     *                   that stage does not have any motors, but mass/CG export should still take place
+     * @param motors     the RASAero motors
+     */
+    private void writeSimulation(Rocket rocket, Simulation simulation, Map<AxialStage, MotorMount> mounts,
+            List<ThrustCurveMotor> motors) throws XMLStreamException {
+        // Values per RASAero stage: sustainer, booster 1 and booster 2
+        final String[] engine = new String[3];
+        final double[] launchWt = new double[3];
+        final double[] cg = new double[3];
+        final double[] ignitionDelay = new double[3];
+        final double[] separationDelay = new double[3];
+        final boolean[] include = new boolean[3];
+
+        String simulationName = simulation != null ? simulation.getName() : "DEFAULT";
+        FlightConfigurationId fcid = simulation != null ? simulation.getFlightConfigurationId() : null;
+        if (simulation != null && fcid == null) {
+            warnings.add(String.format(trans.get("RASAeroExport.warning11"), simulationName));
+        } else if (mounts.isEmpty()) {
+            warnings.add(String.format(trans.get("RASAeroExport.warning12"), simulationName));
+        } else {
+            calculateStages(rocket, simulationName, fcid, mounts, motors, engine, launchWt, cg, ignitionDelay,
+                    separationDelay, include);
+        }
+
+        out.start(RASAeroCommonConstants.SIMULATION);
+        out.element(RASAeroCommonConstants.SUSTAINER_ENGINE, engine[0]);
+        writeDouble(RASAeroCommonConstants.SUSTAINER_LAUNCH_WT, launchWt[0]);
+        writeDouble(RASAeroCommonConstants.SUSTAINER_NOZZLE_DIAMETER, 0.0d);
+        writeDouble(RASAeroCommonConstants.SUSTAINER_CG, cg[0]);
+        writeDouble(RASAeroCommonConstants.SUSTAINER_IGNITION_DELAY, ignitionDelay[0]);
+        out.element(RASAeroCommonConstants.BOOSTER1_ENGINE, engine[1]);
+        writeDouble(RASAeroCommonConstants.BOOSTER1_LAUNCH_WT, launchWt[1]);
+        writeDouble(RASAeroCommonConstants.BOOSTER1_SEPARATION_DELAY, separationDelay[1]);
+        writeDouble(RASAeroCommonConstants.BOOSTER1_IGNITION_DELAY, ignitionDelay[1]);
+        writeDouble(RASAeroCommonConstants.BOOSTER1_CG, cg[1]);
+        writeDouble(RASAeroCommonConstants.BOOSTER1_NOZZLE_DIAMETER, 0.0d);
+        writeBoolean(RASAeroCommonConstants.INCLUDE_BOOSTER1, include[1]);
+        out.element(RASAeroCommonConstants.BOOSTER2_ENGINE, engine[2]);
+        writeDouble(RASAeroCommonConstants.BOOSTER2_LAUNCH_WT, launchWt[2]);
+        writeDouble(RASAeroCommonConstants.BOOSTER2_SEPARATION_DELAY, separationDelay[2]);
+        writeDouble(RASAeroCommonConstants.BOOSTER2_CG, cg[2]);
+        writeDouble(RASAeroCommonConstants.BOOSTER2_NOZZLE_DIAMETER, 0.0d);
+        writeBoolean(RASAeroCommonConstants.INCLUDE_BOOSTER2, include[2]);
+        writeDouble(RASAeroCommonConstants.FLIGHT_TIME, 0.0d);
+        writeDouble(RASAeroCommonConstants.TIME_TO_APOGEE, 0.0d);
+        writeDouble(RASAeroCommonConstants.MAX_ALTITUDE, 0.0d);
+        writeDouble(RASAeroCommonConstants.MAX_VELOCITY, 0.0d);
+        writeDouble(RASAeroCommonConstants.OPTIMUM_WT, 0.0d);
+        writeDouble(RASAeroCommonConstants.OPTIMUM_MAX_ALT, 0.0d);
+        out.end();
+    }
+
+    /**
+     * Calculate the motor, launch weight, CG and delays of each stage of a simulation. The launch weight and CG
+     * of a booster include the stages above it.
+     */
+    private void calculateStages(Rocket rocket, String simulationName, FlightConfigurationId fcid,
+            Map<AxialStage, MotorMount> mounts, List<ThrustCurveMotor> motors, String[] engine, double[] launchWt,
+            double[] cg, double[] ignitionDelay, double[] separationDelay, boolean[] include) {
+        // Get sustainer motor mass
+        MotorMount sustainerMount = mounts.get((AxialStage) rocket.getChild(0));
+        Motor sustainerMotor = null;
+        double sustainerMotorMass = 0;
+        if (sustainerMount != null) {
+            MotorConfiguration sustainerConfig = sustainerMount.getMotorConfig(fcid);
+            sustainerMotor = sustainerConfig.getMotor();
+            sustainerMotorMass = sustainerMotor != null ? sustainerMotor.getLaunchMass() : 0;
+        }
+
+        for (Map.Entry<AxialStage, MotorMount> mountSet : mounts.entrySet()) {
+            AxialStage stage = mountSet.getKey();
+            MotorMount mount = mountSet.getValue();
+
+            // Get the motor info for this stage
+            MotorConfiguration motorConfig = mount != null ? mount.getMotorConfig(fcid) : null;
+            Motor motor = null;
+            StageSeparationConfiguration separationConfig = null;
+            double motorMass = 0;
+            if (motorConfig != null) {
+                motor = motorConfig.getMotor();
+                motorMass = motor != null ? motor.getLaunchMass() : 0;
+                separationConfig = stage.getSeparationConfigurations().get(fcid);
+            }
+
+            int stageNr = rocket.getChildPosition(stage);
+
+            // Add friendly reminder to user
+            if (motor == null) {
+                warnings.add(String.format(trans.get("RASAeroExport.warning13"), stage.getName()));
+            }
+
+            if (stageNr > 2) {
+                errors.add(String.format(trans.get("RASAeroExport.error25"), stageNr, simulationName));
+                continue;
+            }
+
+            engine[stageNr] = RASAeroCommonConstants.OPENROCKET_TO_RASAERO_MOTOR(motors, motor, warnings);
+
+            // Calculate the mass & CG of this stage and the stages above it combined
+            FlightConfiguration CGCalcConfig = new FlightConfiguration(rocket);
+            CGCalcConfig.setOnlyStage(0);
+            for (int i = 1; i <= stage.getStageNumber() && stageNr > 0; i++) {
+                CGCalcConfig._setStageActive(i, true);
+            }
+            RigidBody calc = MassCalculator.calculateStructure(CGCalcConfig);
+            double totalCG = calc.getCM().x;    // = CG of the stages with no motors
+
+            switch (stageNr) {
+                // Sustainer
+                case 0:
+                    launchWt[0] = (calc.getMass() + motorMass) * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_WEIGHT;
+                    totalCG = addMotorCGToStageCG(totalCG, calc.getMass(), mount, motor, fcid);
+                    ignitionDelay[0] = motorConfig != null ? motorConfig.getIgnitionDelay() : 0;
+                    break;
+                // Booster 1
+                case 1:
+                    launchWt[1] = (calc.getMass() + motorMass + sustainerMotorMass) *
+                            RASAeroCommonConstants.OPENROCKET_TO_RASAERO_WEIGHT;
+                    totalCG = addMotorCGToStageCG(totalCG, calc.getMass(), sustainerMount, sustainerMotor, fcid);
+                    totalCG = addMotorCGToStageCG(totalCG, calc.getMass() + sustainerMotorMass, mount, motor, fcid);
+                    ignitionDelay[1] = motorConfig != null ? motorConfig.getIgnitionDelay() : 0;
+                    // TODO: this could be handled a bit better (look at separation delay, upper stage ignition event etc.)
+                    separationDelay[1] = separationConfig != null ? separationConfig.getSeparationDelay() : 0;
+                    include[1] = mount != null && mount.isMotorMount();
+                    break;
+                // Booster 2
+                default:
+                    // Get booster1 motor mass
+                    double booster1MotorMass = 0;
+                    MotorMount booster1Mount = mounts.get((AxialStage) rocket.getChild(1));
+                    Motor booster1Motor = null;
+                    if (booster1Mount != null) {
+                        MotorConfiguration booster1Config = booster1Mount.getMotorConfig(fcid);
+                        booster1Motor = booster1Config.getMotor();
+                        booster1MotorMass = booster1Motor != null ? booster1Motor.getLaunchMass() : 0;
+                    }
+                    launchWt[2] = (calc.getMass() + motorMass + sustainerMotorMass + booster1MotorMass) *
+                            RASAeroCommonConstants.OPENROCKET_TO_RASAERO_WEIGHT;
+                    totalCG = addMotorCGToStageCG(totalCG, calc.getMass(), sustainerMount, sustainerMotor, fcid);
+                    totalCG = addMotorCGToStageCG(totalCG, calc.getMass() + sustainerMotorMass, booster1Mount,
+                            booster1Motor, fcid);
+                    totalCG = addMotorCGToStageCG(totalCG, calc.getMass() + sustainerMotorMass + booster1MotorMass,
+                            mount, motor, fcid);
+                    // TODO: this could be handled a bit better (look at separation delay, upper stage ignition event etc.)
+                    separationDelay[2] = separationConfig != null ? separationConfig.getSeparationDelay() : 0;
+                    include[2] = mount != null && mount.isMotorMount();
+                    break;
+            }
+            cg[stageNr] = totalCG * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+        }
+    }
+
+    /**
+     * Combines the stage CG with the CG of the motor in that stage.
+     *
+     * @param stageCG The CG of the stage
+     * @param mount   The motor mount of the stage
+     * @param motor   The motor in the stage
+     * @return The combined CG
+     */
+    private static double addMotorCGToStageCG(double stageCG, double stageMass, MotorMount mount, Motor motor,
+            FlightConfigurationId fcid) {
+        if (mount == null || !(motor instanceof ThrustCurveMotor)) {
+            return stageCG;
+        }
+
+        // Calculate the motor CG
+        double motorPositionXRel = mount.getMotorPosition(fcid).x; // Motor position relative to the mount
+        double mountLocationX = mount.getLocations()[0].x;
+        double motorLocationX = mountLocationX + motorPositionXRel;
+        double motorCG = ((ThrustCurveMotor) motor).getCGPoints()[0].x + motorLocationX;
+        double motorMass = motor.getLaunchMass();
+
+        return (stageCG * stageMass + motorCG * motorMass) / (stageMass + motorMass);
+    }
+
+    /**
+     * Write a double with the 4 decimal precision of RASAero. Nothing is written if the value is null.
+     */
+    private void writeDouble(String name, Double value) throws XMLStreamException {
+        if (value != null) {
+            out.element(name, decimalFormat.format(value));
+        }
+    }
+
+    private void writeBoolean(String name, boolean value) throws XMLStreamException {
+        out.element(name, value ? "True" : "False");
+    }
+
+    /**
+     * The launch lug, rail guide and fin settings of a body tube or booster.
+     */
+    private final class TubeSettings {
+        private final boolean checkZero;
+        private double launchLugDiameter = 0.0d;
+        private double launchLugLength = 0.0d;
+        private double railGuideDiameter = 0.0d;
+        private double railGuideHeight = 0.0d;
+        private Fin fin;
+
+        /**
+         * @param checkZero whether a zero launch lug or rail guide size is an error, as it is for a body tube
+         */
+        private TubeSettings(boolean checkZero) {
+            this.checkZero = checkZero;
+        }
+
+        private void apply(BodyTube bodyTube) throws RASAeroExportException {
+            for (RocketComponent child : bodyTube.getChildren()) {
+                if (child instanceof TrapezoidFinSet) {
+                    fin = new Fin((TrapezoidFinSet) child);
+                } else if (child instanceof LaunchLug) {
+                    // only one check on diameter or length should be sufficient, but just to be safe
+                    if (!MathUtil.equals(railGuideDiameter, 0) || !MathUtil.equals(railGuideHeight, 0)) {
+                        warnings.add(String.format(trans.get("RASAeroExport.warning3"), child.getName()));
+                        continue;
+                    }
+
+                    LaunchLug lug = (LaunchLug) child;
+                    launchLugDiameter = check(lug.getOuterRadius() * 2 * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH,
+                            "RASAeroExport.error4");
+                    if (lug.getInstanceCount() == 2) {
+                        launchLugLength = check(lug.getLength() * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH,
+                                "RASAeroExport.error5");
+                    } else {
+                        warnings.add(String.format(trans.get("RASAeroExport.warning5"), lug.getName()));
+                        launchLugLength = check(lug.getLength() * lug.getInstanceCount() / 2
+                                * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH, "RASAeroExport.error5");
+                    }
+                } else if (child instanceof RailButton) {
+                    // only one check on diameter or length should be sufficient, but just to be safe
+                    if (!MathUtil.equals(launchLugDiameter, 0) || !MathUtil.equals(launchLugLength, 0)) {
+                        warnings.add(String.format(trans.get("RASAeroExport.warning6"), child.getName()));
+                        continue;
+                    }
+
+                    RailButton button = (RailButton) child;
+                    railGuideDiameter = check(button.getOuterDiameter() * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH,
+                            "RASAeroExport.error6");
+                    railGuideHeight = check(button.getTotalHeight() * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH,
+                            "RASAeroExport.error7");
+
+                    if (button.getInstanceCount() != 2) {
+                        warnings.add(String.format(trans.get("RASAeroExport.warning8"), button.getName(),
+                                button.getInstanceCount()));
+                    }
+                } else if (child instanceof Parachute) {
+                    // Do nothing, is handled by the recovery settings
+                } else {
+                    warnings.add(String.format(trans.get("RASAeroExport.warning9"), child.getComponentName()));
+                }
+            }
+        }
+
+        private double check(double value, String error) throws RASAeroExportException {
+            if (checkZero && MathUtil.equals(value, 0)) {
+                throw new RASAeroExportException(trans.get(error));
+            }
+            return value;
+        }
+    }
+
+    /**
+     * The settings of a trapezoidal fin set.
+     */
+    private final class Fin {
+        private final int count;
+        private final double chord;
+        private final double span;
+        private final double sweepDistance;
+        private final double tipChord;
+        private final double thickness;
+        private final String airfoilSection;
+        private double location;
+
+        private Fin(TrapezoidFinSet fin) throws RASAeroExportException {
+            count = fin.getFinCount();
+            if (count < 3 || count > 8) {
+                throw new RASAeroExportException(
+                        String.format(trans.get("RASAeroExport.error20"), fin.getName()));
+            }
+            chord = fin.getRootChord() * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+            tipChord = fin.getTipChord() * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+            span = fin.getSpan() * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+            sweepDistance = fin.getSweep() * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+            thickness = fin.getThickness() * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+            airfoilSection = RASAeroCommonConstants.OPENROCKET_TO_RASAERO_FIN_CROSSSECTION(fin.getCrossSection(),
+                    warnings);
+            location = (-fin.getAxialOffset(AxialMethod.BOTTOM) + fin.getLength())
+                    * RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
+        }
+
+        private void write() throws XMLStreamException {
+            out.start(RASAeroCommonConstants.FIN);
+            out.element(RASAeroCommonConstants.FIN_COUNT, count);
+            writeDouble(RASAeroCommonConstants.FIN_CHORD, chord);
+            writeDouble(RASAeroCommonConstants.FIN_SPAN, span);
+            writeDouble(RASAeroCommonConstants.FIN_SWEEP_DISTANCE, sweepDistance);
+            writeDouble(RASAeroCommonConstants.FIN_TIP_CHORD, tipChord);
+            writeDouble(RASAeroCommonConstants.FIN_THICKNESS, thickness);
+            writeDouble(RASAeroCommonConstants.FIN_LE_RADIUS, 0.0d);    // Leading edge radius
+            writeDouble(RASAeroCommonConstants.LOCATION, location);
+            out.element(RASAeroCommonConstants.AIRFOIL_SECTION, airfoilSection);
+            writeDouble(RASAeroCommonConstants.FIN_FX1, 0.0d);
+            writeDouble(RASAeroCommonConstants.FIN_FX3, 0.0d);
+            out.end();
+        }
+    }
+}
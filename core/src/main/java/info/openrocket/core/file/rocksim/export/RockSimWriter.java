@@ -0,0 +1,772 @@
+package info.openrocket.core.file.rocksim.export;
+
+import java.io.Writer;
+
+import javax.xml.stream.XMLStreamException;
+
+import info.openrocket.core.file.TipShapeCode;
+import info.openrocket.core.file.XMLElementWriter;
+import info.openrocket.core.file.rocksim.RockSimCommonConstants;
+import info.openrocket.core.file.rocksim.RockSimDensityType;
+import info.openrocket.core.file.rocksim.RockSimFinishCode;
+import info.openrocket.core.file.rocksim.RockSimLocationMode;
+import info.openrocket.core.file.rocksim.RockSimNoseConeCode;
+import info.openrocket.core.file.rocksim.importt.BaseHandler;
+import info.openrocket.core.masscalc.MassCalculator;
+import info.openrocket.core.material.Material;
+import info.openrocket.core.rocketcomponent.AxialStage;
+import info.openrocket.core.rocketcomponent.BodyTube;
+import info.openrocket.core.rocketcomponent.Bulkhead;
+import info.openrocket.core.rocketcomponent.CenteringRing;
+import info.openrocket.core.rocketcomponent.ComponentAssembly;
+import info.openrocket.core.rocketcomponent.EllipticalFinSet;
+import info.openrocket.core.rocketcomponent.EngineBlock;
+import info.openrocket.core.rocketcomponent.ExternalComponent;
+import info.openrocket.core.rocketcomponent.FinSet;
+import info.openrocket.core.rocketcomponent.FreeformFinSet;
+import info.openrocket.core.rocketcomponent.InnerTube;
+import info.openrocket.core.rocketcomponent.LaunchLug;
+import info.openrocket.core.rocketcomponent.MassObject;
+import info.openrocket.core.rocketcomponent.NoseCone;
+import info.openrocket.core.rocketcomponent.Parachute;
+import info.openrocket.core.rocketcomponent.ParallelStage;
+import info.openrocket.core.rocketcomponent.PodSet;
+import info.openrocket.core.rocketcomponent.RadiusRingComponent;
+import info.openrocket.core.rocketcomponent.RecoveryDevice;
+import info.openrocket.core.rocketcomponent.RingComponent;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.rocketcomponent.Streamer;
+import info.openrocket.core.rocketcomponent.StructuralComponent;
+import info.openrocket.core.rocketcomponent.ThicknessRingComponent;
+import info.openrocket.core.rocketcomponent.TrapezoidFinSet;
+import info.openrocket.core.rocketcomponent.Transition;
+import info.openrocket.core.rocketcomponent.TubeCoupler;
+import info.openrocket.core.rocketcomponent.TubeFinSet;
+import info.openrocket.core.rocketcomponent.position.AnglePositionable;
+import info.openrocket.core.rocketcomponent.position.AxialMethod;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.MemoryManagement;
+
+/**
+ * Writes an OpenRocket design as RockSim XML.  The component tree is walked and each part is
+ * written as soon as it is reached, so the design is never held as a separate tree of objects.
+ * <p>
+ * RockSim needs the highest part serial number before the parts, so the tree is walked twice.
+ * The first walk numbers the parts and changes the components that RockSim cannot represent
+ * (multi-instance pods, children of tube couplers) on a copy of the rocket; the second walk
+ * writes the parts.  The written XML is the same as that of the RockSim DTO classes.
+ */
+final class RockSimWriter {
+
+	private static final String ROCKET_DESIGN_VERSION = "4";
+
+	/** The usage codes of rings. */
+	private static final int USAGE_CENTERING_RING = 0;
+	private static final int USAGE_BULKHEAD = 1;
+	private static final int USAGE_ENGINE_BLOCK = 2;
+	private static final int USAGE_TUBE_COUPLER = 4;
+
+	private final XMLElementWriter out;
+
+	/** The values common to all parts, reused for each part. */
+	private final PartValues part = new PartValues();
+
+	/** False during the first walk, which only numbers the parts and prepares the design. */
+	private boolean writing;
+
+	private int serialNumber;
+
+	/**
+	 * @param writer	the writer to write the XML to; it is not closed.
+	 */
+	RockSimWriter(Writer writer) throws XMLStreamException {
+		this.out = new XMLElementWriter(writer);
+	}
+
+	/**
+	 * Write the design.  The rocket itself is not modified.
+	 *
+	 * @param rocket	the OR design
+	 */
+	void write(Rocket rocket) throws XMLStreamException {
+		rocket = rocket.copyWithOriginalID();		// Make sure we don't change the original design.
+
+		final double cg = MassCalculator.calculateStructure(rocket.getEmptyConfiguration()).cm.x *
+				RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+		final int stageCount = rocket.getChildCount();
+		final AxialStage stage3 = stageCount > 0 ? rocket.getChild(0).getStage() : null;
+		final AxialStage stage2 = stageCount > 1 ? rocket.getChild(1).getStage() : null;
+		final AxialStage stage1 = stageCount > 2 ? rocket.getChild(2).getStage() : null;
+
+		writing = false;
+		serialNumber = 0;
+		writeStages(stage3, stage2, stage1);
+		final int lastSerialNumber = serialNumber;
+
+		writing = true;
+		serialNumber = 0;
+		out.start(RockSimCommonConstants.ROCK_SIM_DOCUMENT);
+		out.element(RockSimCommonConstants.FILE_VERSION, ROCKET_DESIGN_VERSION);
+		out.start(RockSimCommonConstants.DESIGN_INFORMATION);
+		out.start(RockSimCommonConstants.ROCKET_DESIGN);
+
+		out.element("Name", rocket.getName());
+		out.element("StageCount", stageCount);
+		out.element("DisplayFlags", 7);
+		out.element("ViewType", 0);
+		out.element("ViewStageCount", 3);
+		out.element("ViewTypeEdit", 0);
+		out.element("ViewStageCountEdit", 3);
+		out.element("ZoomFactor", 0.0d);
+		out.element("ZoomFactorEdit", 0.0d);
+		out.element("ScrollPosX", 0);
+		out.element("ScrollPosY", 0);
+		out.element("ScrollPosXEdit", 0);
+		out.element("ScrollPosYEdit", 0);
+		out.element("ThreeDFlags", 0);
+		out.element("ThreeDFlagsEdit", 0);
+		out.element("LastSerialNumber", lastSerialNumber);
+		out.element("Stage3Mass", getStageMass(stage3));
+		out.element("Stage2Mass", getStageMass(stage2));
+		out.element("Stage1Mass", getStageMass(stage1));
+		out.element("Stage3CG", getStageCG(stage3, stageCount != 2 && stageCount != 3 ? cg : 0.0d));
+		out.element("Stage2CGAlone", getStageCG(stage2, 0.0d));
+		out.element("Stage1CGAlone", getStageCG(stage1, 0.0d));
+		out.element("Stage321CG", stageCount == 3 ? cg : 0.0d);
+		out.element("Stage32CG", stageCount == 2 ? cg : 0.0d);
+		out.element("CPCalcFlags", 1);
+		out.element("CPSimFlags", 1);
+		out.element("UseKnownMass", isMassOverridden(stage3) || isMassOverridden(stage2) ||
+				isMassOverridden(stage1) ? 1 : 0);
+
+		writeStages(stage3, stage2, stage1);
+
+		out.end();
+		out.end();
+		out.end();
+		out.finish();
+
+		// Clean up
+		MemoryManagement.collectable(rocket);
+	}
+
+	private static boolean isMassOverridden(AxialStage stage) {
+		return stage != null && stage.isMassOverridden();
+	}
+
+	private static double getStageMass(AxialStage stage) {
+		if (isMassOverridden(stage)) {
+			return stage.getMass() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_MASS;
+		}
+		return 0.0d;
+	}
+
+	private static double getStageCG(AxialStage stage, double defaultCG) {
+		if (stage != null && stage.isCGOverridden()) {
+			return stage.getOverrideCGX() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+		}
+		return defaultCG;
+	}
+
+	/**
+	 * Write the parts of the stages.  RockSim numbers the stages from the bottom, with stage 3 always at the top.
+	 */
+	private void writeStages(AxialStage stage3, AxialStage stage2, AxialStage stage1) throws XMLStreamException {
+		writeStage("Stage3Parts", stage3);
+		writeStage("Stage2Parts", stage2);
+		writeStage("Stage1Parts", stage1);
+	}
+
+	private void writeStage(String name, AxialStage stage) throws XMLStreamException {
+		start(name);
+		if (stage != null) {
+			for (RocketComponent child : stage.getChildren()) {
+				if (child instanceof NoseCone) {
+					writeTransition((NoseCone) child);
+				} else if (child instanceof BodyTube) {
+					writeBodyTube((BodyTube) child);
+				} else if (child instanceof Transition) {
+					writeTransition((Transition) child);
+				}
+			}
+		}
+		end();
+	}
+
+	private void writeBodyTube(BodyTube tube) throws XMLStreamException {
+		if (startPart(RockSimCommonConstants.BODY_TUBE, tube)) {
+			writeTubeValues(tube.getOuterRadius(), tube.getInnerRadius(), tube.isMotorMount(),
+					tube.getMotorMountDiameter(), tube.getMotorOverhang(), false);
+		}
+
+		start(RockSimCommonConstants.ATTACHED_PARTS);
+		for (RocketComponent child : tube.getChildren()) {
+			if (child instanceof InnerTube) {
+				writeInnerTube((InnerTube) child, false);
+			} else if (child instanceof BodyTube) {
+				writeBodyTube((BodyTube) child);
+			} else if (child instanceof Transition) {
+				writeTransition((Transition) child);
+			} else if (child instanceof EngineBlock) {
+				writeRing((EngineBlock) child, USAGE_ENGINE_BLOCK);
+			} else if (child instanceof TubeCoupler) {
+				writeTubeCouplerWithChildren((TubeCoupler) child);
+			} else if (child instanceof CenteringRing) {
+				writeRing((CenteringRing) child, USAGE_CENTERING_RING);
+			} else if (child instanceof Bulkhead) {
+				writeRing((Bulkhead) child, USAGE_BULKHEAD);
+			} else if (child instanceof LaunchLug) {
+				writeLaunchLug((LaunchLug) child);
+			} else if (child instanceof Streamer) {
+				writeStreamer((Streamer) child);
+			} else if (child instanceof Parachute) {
+				writeParachute((Parachute) child);
+			} else if (child instanceof MassObject) {
+				writeMassObject((MassObject) child);
+			} else if (child instanceof FreeformFinSet) {
+				writeFinSet((FreeformFinSet) child);
+			} else if (child instanceof FinSet) {
+				writeFinSet((FinSet) child);
+			} else if (child instanceof TubeFinSet) {
+				writeTubeFinSet((TubeFinSet) child);
+			} else if (child instanceof PodSet) {
+				writePods((PodSet) child, false);
+			} else if (child instanceof ParallelStage) {
+				writePods((ParallelStage) child, true);
+			}
+		}
+		end();
+
+		endPart();
+	}
+
+	/**
+	 * Write an inner tube.  RockSim has no clusters, so each tube of a cluster is written as a separate tube.
+	 *
+	 * @param tube			the inner tube
+	 * @param withCluster	whether a clustered tube is also written as one tube after the separate tubes
+	 */
+	private void writeInnerTube(InnerTube tube, boolean withCluster) throws XMLStreamException {
+		if (tube.getClusterConfiguration().getClusterCount() > 1) {
+			Coordinate[] coords = tube.getLocations();
+			for (int x = 0; x < coords.length; x++) {
+				writeInnerTubePart(InnerTube.makeIndividualClusterComponent(coords[x], tube.getName() + " #" + (x + 1),
+						tube));
+			}
+		}
+		if (withCluster || tube.getInstanceCount() == 1) {
+			writeInnerTubePart(tube);
+		}
+	}
+
+	private void writeInnerTubePart(InnerTube tube) throws XMLStreamException {
+		if (startPart(RockSimCommonConstants.BODY_TUBE, tube)) {
+			writeTubeValues(tube.getOuterRadius(), tube.getInnerRadius(), tube.isMotorMount(),
+					tube.getMotorMountDiameter(), tube.getMotorOverhang(), true);
+		}
+
+		start(RockSimCommonConstants.ATTACHED_PARTS);
+		for (RocketComponent child : tube.getChildren()) {
+			if (child instanceof InnerTube) {
+				writeInnerTube((InnerTube) child, false);
+			} else if (child instanceof BodyTube) {
+				writeBodyTube((BodyTube) child);
+			} else if (child instanceof Transition) {
+				writeTransition((Transition) child);
+			} else if (child instanceof EngineBlock) {
+				writeRing((EngineBlock) child, USAGE_ENGINE_BLOCK);
+			} else if (child instanceof TubeCoupler) {
+				writeRing((TubeCoupler) child, USAGE_TUBE_COUPLER);
+			} else if (child instanceof CenteringRing) {
+				writeRing((CenteringRing) child, USAGE_CENTERING_RING);
+			} else if (child instanceof Bulkhead) {
+				writeRing((Bulkhead) child, USAGE_BULKHEAD);
+			} else if (child instanceof Streamer) {
+				writeStreamer((Streamer) child);
+			} else if (child instanceof Parachute) {
+				writeParachute((Parachute) child);
+			} else if (child instanceof MassObject) {
+				writeMassObject((MassObject) child);
+			}
+		}
+		end();
+
+		endPart();
+	}
+
+	private void writeTubeValues(double outerRadius, double innerRadius, boolean motorMount, double motorMountDiameter,
+			double motorOverhang, boolean insideTube) throws XMLStreamException {
+		out.element(RockSimCommonConstants.OD, outerRadius * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+		out.element(RockSimCommonConstants.ID, innerRadius * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+		out.element(RockSimCommonConstants.IS_MOTOR_MOUNT, motorMount ? 1 : 0);
+		out.element(RockSimCommonConstants.MOTOR_DIA,
+				(motorMountDiameter / 2) * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+		out.element(RockSimCommonConstants.ENGINE_OVERHANG,
+				motorOverhang * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH);
+		out.element(RockSimCommonConstants.IS_INSIDE_TUBE, insideTube ? 1 : 0);
+	}
+
+	/**
+	 * Write a nose cone or transition.  A flipped nose cone is written as a transition.
+	 */
+	private void writeTransition(Transition transition) throws XMLStreamException {
+		final boolean noseCone = transition instanceof NoseCone && !((NoseCone) transition).isFlipped();
+
+		if (startPart(noseCone ? RockSimCommonConstants.NOSE_CONE : RockSimCommonConstants.TRANSITION, transition)) {
+			Transition.Shape shape = transition.getShapeType();
+			out.element(RockSimCommonConstants.SHAPE_CODE, RockSimNoseConeCode.toCode(shape));
+			out.element(RockSimCommonConstants.CONSTRUCTION_TYPE, transition.isFilled() ? 0 : 1);
+			out.element(RockSimCommonConstants.WALL_THICKNESS,
+					transition.getThickness() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH);
+			if (Transition.Shape.POWER.equals(shape) ||
+					Transition.Shape.HAACK.equals(shape) ||
+					Transition.Shape.PARABOLIC.equals(shape)) {
+				out.element(RockSimCommonConstants.SHAPE_PARAMETER, transition.getShapeParameter());
+			} else {
+				out.element(RockSimCommonConstants.SHAPE_PARAMETER, 0.0d);
+			}
+		}
+
+		start(RockSimCommonConstants.ATTACHED_PARTS);
+		for (RocketComponent child : transition.getChildren()) {
+			if (child instanceof InnerTube) {
+				writeInnerTube((InnerTube) child, true);
+			} else if (child instanceof BodyTube) {
+				writeBodyTube((BodyTube) child);
+			} else if (child instanceof Transition) {
+				writeTransition((Transition) child);
+			} else if (child instanceof EngineBlock) {
+				writeRing((EngineBlock) child, USAGE_ENGINE_BLOCK);
+			} else if (child instanceof TubeCoupler) {
+				writeTubeCouplerWithChildren((TubeCoupler) child);
+			} else if (child instanceof CenteringRing) {
+				writeRing((CenteringRing) child, USAGE_CENTERING_RING);
+			} else if (child instanceof Bulkhead) {
+				writeRing((Bulkhead) child, USAGE_BULKHEAD);
+			} else if (child instanceof Parachute) {
+				writeParachute((Parachute) child);
+			} else if (child instanceof MassObject) {
+				writeMassObject((MassObject) child);
+			} else if (child instanceof FreeformFinSet) {
+				writeFinSet((FreeformFinSet) child);
+			} else if (child instanceof FinSet) {
+				writeFinSet((FinSet) child);
+			}
+		}
+		end();
+
+		if (writing) {
+			if (noseCone) {
+				out.element(RockSimCommonConstants.BASE_DIA,
+						transition.getAftRadius() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+				out.element(RockSimCommonConstants.SHOULDER_LEN,
+						transition.getAftShoulderLength() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH);
+				out.element(RockSimCommonConstants.SHOULDER_OD,
+						transition.getAftShoulderRadius() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+			} else {
+				out.element(RockSimCommonConstants.FRONT_SHOULDER_LEN,
+						transition.getForeShoulderLength() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH);
+				out.element(RockSimCommonConstants.REAR_SHOULDER_LEN,
+						transition.getAftShoulderLength() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH);
+				out.element(RockSimCommonConstants.FRONT_SHOULDER_DIA,
+						transition.getForeShoulderRadius() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+				out.element(RockSimCommonConstants.REAR_SHOULDER_DIA,
+						transition.getAftShoulderRadius() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+				out.element(RockSimCommonConstants.FRONT_DIA,
+						transition.getForeRadius() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+				out.element(RockSimCommonConstants.REAR_DIA,
+						transition.getAftRadius() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+			}
+		}
+
+		endPart();
+	}
+
+	/**
+	 * Write a tube coupler followed by its children.  RockSim does not allow children in a tube coupler, so they are
+	 * written next to it, positioned absolutely.
+	 */
+	private void writeTubeCouplerWithChildren(TubeCoupler coupler) throws XMLStreamException {
+		writeRing(coupler, USAGE_TUBE_COUPLER);
+
+		for (RocketComponent child : coupler.getChildren()) {
+			if (!writing) {
+				child.setAxialMethod(AxialMethod.ABSOLUTE);
+			}
+			if (child instanceof InnerTube) {
+				writeInnerTube((InnerTube) child, true);
+			} else if (child instanceof EngineBlock) {
+				writeRing((EngineBlock) child, USAGE_ENGINE_BLOCK);
+			} else if (child instanceof TubeCoupler) {
+				writeTubeCouplerWithChildren((TubeCoupler) child);
+			} else if (child instanceof CenteringRing) {
+				writeRing((CenteringRing) child, USAGE_CENTERING_RING);
+			} else if (child instanceof Bulkhead) {
+				writeRing((Bulkhead) child, USAGE_BULKHEAD);
+			} else if (child instanceof Parachute) {
+				writeParachute((Parachute) child);
+			} else if (child instanceof Streamer) {
+				writeStreamer((Streamer) child);
+			} else if (child instanceof MassObject) {
+				writeMassObject((MassObject) child);
+			}
+		}
+	}
+
+	private void writeRing(RadiusRingComponent ring, int usageCode) throws XMLStreamException {
+		writeRing(ring, ring.getOuterRadius(), ring.getInnerRadius(), usageCode);
+	}
+
+	private void writeRing(ThicknessRingComponent ring, int usageCode) throws XMLStreamException {
+		writeRing(ring, ring.getOuterRadius(), ring.getInnerRadius(), usageCode);
+	}
+
+	private void writeRing(RingComponent ring, double outerRadius, double innerRadius, int usageCode)
+			throws XMLStreamException {
+		if (startPart(RockSimCommonConstants.RING, ring)) {
+			out.element(RockSimCommonConstants.OD, outerRadius * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+			out.element(RockSimCommonConstants.ID, innerRadius * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+			out.element(RockSimCommonConstants.USAGE_CODE, usageCode);
+			out.element(RockSimCommonConstants.AUTO_SIZE, 0);
+		}
+		endPart();
+	}
+
+	private void writeLaunchLug(LaunchLug lug) throws XMLStreamException {
+		part.set(lug);
+		part.radialAngle = lug.getAngleOffset();
+		if (startPart(RockSimCommonConstants.LAUNCH_LUG)) {
+			out.element(RockSimCommonConstants.OD,
+					lug.getOuterRadius() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+			out.element(RockSimCommonConstants.ID,
+					lug.getInnerRadius() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+		}
+		endPart();
+	}
+
+	private void writeStreamer(Streamer streamer) throws XMLStreamException {
+		if (startPart(RockSimCommonConstants.STREAMER, streamer)) {
+			out.element(RockSimCommonConstants.WIDTH,
+					streamer.getStripWidth() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH);
+			out.element(RockSimCommonConstants.DRAG_COEFFICIENT, streamer.getCD());
+		}
+		endPart();
+	}
+
+	private void writeParachute(Parachute parachute) throws XMLStreamException {
+		if (startPart(RockSimCommonConstants.PARACHUTE, parachute)) {
+			Material lineMaterial = parachute.getLineMaterial();
+			out.element(RockSimCommonConstants.DIAMETER,
+					parachute.getDiameter() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH);
+			out.element(RockSimCommonConstants.SHROUD_LINE_COUNT, parachute.getLineCount());
+			out.element(RockSimCommonConstants.THICKNESS, 0.0d);
+			out.element(RockSimCommonConstants.SHROUD_LINE_LEN,
+					parachute.getLineLength() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH);
+			out.element(RockSimCommonConstants.CHUTE_COUNT, 1);
+			out.element(RockSimCommonConstants.SHROUD_LINE_MASS_PER_MM,
+					lineMaterial.getDensity() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LINE_DENSITY);
+			out.element(RockSimCommonConstants.SHROUD_LINE_MATERIAL, toRockSimMaterialName(lineMaterial));
+			out.element(RockSimCommonConstants.DRAG_COEFFICIENT, parachute.getCD());
+		}
+		endPart();
+	}
+
+	private void writeMassObject(MassObject massObject) throws XMLStreamException {
+		part.set(massObject);
+		part.radialAngle = massObject.getRadialDirection();
+		part.radialLoc = massObject.getRadialPosition() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+		part.calcMass = 0.0d;
+		part.calcCG = 0.0d;
+		part.knownCG = part.xb;
+		part.useKnownCG = 1;
+		if (startPart(RockSimCommonConstants.MASS_OBJECT)) {
+			out.element(RockSimCommonConstants.TYPE_CODE, 0);
+		}
+		endPart();
+	}
+
+	/**
+	 * Write a fin set.  A freeform fin set is written as a custom fin set with its points.
+	 */
+	private void writeFinSet(FinSet finSet) throws XMLStreamException {
+		final boolean freeform = finSet instanceof FreeformFinSet;
+
+		part.set(finSet);
+		part.radialAngle = finSet.getBaseRotation();
+		if (startPart(freeform ? RockSimCommonConstants.CUSTOM_FIN_SET : RockSimCommonConstants.FIN_SET)) {
+			double rootChord = 0.0d;
+			double tipChord = 0.0d;
+			double semiSpan = 0.0d;
+			double sweepDistance = 0.0d;
+			int shapeCode = 0;
+			if (finSet instanceof TrapezoidFinSet) {
+				TrapezoidFinSet tfs = (TrapezoidFinSet) finSet;
+				rootChord = finSet.getLength() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+				semiSpan = tfs.getHeight() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+				tipChord = tfs.getTipChord() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+				sweepDistance = tfs.getSweep() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+			} else if (finSet instanceof EllipticalFinSet) {
+				EllipticalFinSet efs = (EllipticalFinSet) finSet;
+				shapeCode = 1;
+				rootChord = finSet.getLength() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+				semiSpan = efs.getHeight() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+			} else if (freeform) {
+				shapeCode = 2;
+			}
+
+			out.element(RockSimCommonConstants.FIN_COUNT, finSet.getFinCount());
+			out.element(RockSimCommonConstants.ROOT_CHORD, rootChord);
+			out.element(RockSimCommonConstants.TIP_CHORD, tipChord);
+			out.element(RockSimCommonConstants.SEMI_SPAN, semiSpan);
+			out.element(RockSimCommonConstants.SWEEP_DISTANCE, sweepDistance);
+			out.element(RockSimCommonConstants.THICKNESS,
+					finSet.getThickness() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH);
+			out.element(RockSimCommonConstants.SHAPE_CODE, shapeCode);
+			out.element(RockSimCommonConstants.TIP_SHAPE_CODE, TipShapeCode.convertTipShapeCode(finSet.getCrossSection()));
+			out.element(RockSimCommonConstants.TAB_LENGTH,
+					finSet.getTabLength() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH);
+			out.element(RockSimCommonConstants.TAB_DEPTH,
+					finSet.getTabHeight() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH);
+			out.element(RockSimCommonConstants.TAB_OFFSET,
+					finSet.getTabOffset(AxialMethod.TOP) * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH);
+			out.element(RockSimCommonConstants.SWEEP_MODE, 1);
+			out.element(RockSimCommonConstants.CANT_ANGLE, finSet.getCantAngle());
+			if (freeform) {
+				out.element(RockSimCommonConstants.POINT_LIST, toPointList(finSet.getFinPoints()));
+			}
+		}
+		endPart();
+	}
+
+	/**
+	 * @return the points of a freeform fin in the reverse order, as RockSim wants them.
+	 */
+	private static String toPointList(Coordinate[] points) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = points.length - 1; i >= 0; i--) {
+			Coordinate point = points[i];
+			sb.append(point.x * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH).append(",")
+					.append(point.y * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH).append("|");
+		}
+		return sb.toString();
+	}
+
+	private void writeTubeFinSet(TubeFinSet finSet) throws XMLStreamException {
+		part.set(finSet);
+		part.radialAngle = finSet.getBaseRotation();
+		if (startPart(RockSimCommonConstants.TUBE_FIN_SET)) {
+			out.element(RockSimCommonConstants.OD,
+					finSet.getOuterRadius() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+			out.element(RockSimCommonConstants.ID,
+					finSet.getInnerRadius() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_RADIUS);
+			out.element(RockSimCommonConstants.TUBE_COUNT, finSet.getFinCount());
+			out.element(RockSimCommonConstants.MAX_TUBES_ALLOWED, finSet.getFinCount());
+		}
+		endPart();
+	}
+
+	/**
+	 * Write a pod set or parallel stage.  RockSim only has single pods, so the first walk splits a multi-instance
+	 * component into one component per instance, and gives their children the absolute angles that RockSim uses.
+	 */
+	private void writePods(ComponentAssembly pods, boolean detachable) throws XMLStreamException {
+		if (writing) {
+			writePod(pods, detachable);
+			return;
+		}
+
+		for (RocketComponent instance : pods instanceof ParallelStage ? pods.splitInstances(false) :
+				pods.splitInstances()) {
+			addAngleOffsetToChildren(instance, instance.getAngleOffset());
+			writePod((ComponentAssembly) instance, detachable);
+		}
+	}
+
+	private static void addAngleOffsetToChildren(RocketComponent component, double angleOffset) {
+		for (RocketComponent child : component.getChildren()) {
+			if (child instanceof AnglePositionable anglePositionable) {
+				anglePositionable.setAngleOffset(anglePositionable.getAngleOffset() + angleOffset);
+			}
+			// The angle offset of a nested assembly is applied to its children when the assembly itself is split
+			if (!(child instanceof ComponentAssembly)) {
+				addAngleOffsetToChildren(child, angleOffset);
+			}
+		}
+	}
+
+	private void writePod(ComponentAssembly pod, boolean detachable) throws XMLStreamException {
+		part.set(pod);
+		part.radialAngle = pod.getAngleOffset();
+		part.radialLoc = pod.getRadiusMethod().getRadius(pod.getParent(), pod, pod.getRadiusOffset()) *
+				RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+		part.xb = pod.getAxialOffset(AxialMethod.TOP) * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+		if (startPart(RockSimCommonConstants.EXTERNAL_POD)) {
+			// OR always overrides the radial angle and distance
+			out.element(RockSimCommonConstants.AUTO_CALC_RADIAL_DISTANCE, 0);
+			out.element(RockSimCommonConstants.AUTO_CALC_RADIAL_ANGLE, 0);
+			out.element(RockSimCommonConstants.DETACHABLE, detachable ? 1 : 0);
+			out.element(RockSimCommonConstants.REMOVED, 0);
+		}
+
+		start(RockSimCommonConstants.ATTACHED_PARTS);
+		for (RocketComponent child : pod.getChildren()) {
+			if (child instanceof BodyTube) {
+				writeBodyTube((BodyTube) child);
+			} else if (child instanceof Transition) {
+				writeTransition((Transition) child);
+			}
+		}
+		end();
+
+		endPart();
+	}
+
+	/**
+	 * Number the next part and, in the writing walk, start its element and write the values common to all parts.
+	 *
+	 * @return whether the values specific to the part need to be written
+	 */
+	private boolean startPart(String name, RocketComponent component) throws XMLStreamException {
+		if (writing) {
+			part.set(component);
+		}
+		return startPart(name);
+	}
+
+	/**
+	 * Like {@link #startPart(String, RocketComponent)}, with the common values already set to {@link #part}.
+	 */
+	private boolean startPart(String name) throws XMLStreamException {
+		serialNumber++;
+		if (!writing) {
+			return false;
+		}
+
+		out.start(name);
+		out.element(RockSimCommonConstants.KNOWN_MASS, part.knownMass);
+		out.element(RockSimCommonConstants.DENSITY, part.density);
+		out.element(RockSimCommonConstants.MATERIAL, part.material);
+		out.element(RockSimCommonConstants.NAME, part.name);
+		out.element(RockSimCommonConstants.KNOWN_CG, part.knownCG);
+		out.element(RockSimCommonConstants.USE_KNOWN_CG, part.useKnownCG);
+		out.element(RockSimCommonConstants.XB, part.xb);
+		out.element(RockSimCommonConstants.CALC_MASS, part.calcMass);
+		out.element(RockSimCommonConstants.CALC_CG, part.calcCG);
+		out.element(RockSimCommonConstants.DENSITY_TYPE, part.densityType);
+		out.element(RockSimCommonConstants.RADIAL_LOC, part.radialLoc);
+		out.element(RockSimCommonConstants.RADIAL_ANGLE, part.radialAngle);
+		out.element(RockSimCommonConstants.LOCATION_MODE, part.locationMode);
+		out.element(RockSimCommonConstants.LEN, part.len);
+		out.element(RockSimCommonConstants.FINISH_CODE, part.finishCode);
+		out.element(RockSimCommonConstants.SERIAL_NUMBER, serialNumber);
+		return true;
+	}
+
+	private void endPart() throws XMLStreamException {
+		end();
+	}
+
+	private void start(String name) throws XMLStreamException {
+		if (writing) {
+			out.start(name);
+		}
+	}
+
+	private void end() throws XMLStreamException {
+		if (writing) {
+			out.end();
+		}
+	}
+
+	private static String toRockSimMaterialName(Material material) {
+		String name = material.getName();
+		if (name.startsWith(BaseHandler.ROCKSIM_MATERIAL_PREFIX)) {
+			name = name.substring(BaseHandler.ROCKSIM_MATERIAL_PREFIX.length());
+		}
+		return name;
+	}
+
+	/**
+	 * The values that all RockSim parts have.
+	 */
+	private static final class PartValues {
+		private double knownMass;
+		private double density;
+		private String material;
+		private String name;
+		private double knownCG;
+		private int useKnownCG;
+		private double xb;
+		private double calcMass;
+		private double calcCG;
+		private int densityType;
+		private double radialLoc;
+		private double radialAngle;
+		private int locationMode;
+		private double len;
+		private int finishCode;
+
+		/**
+		 * Set the values from a component, with the conversions common to all components.
+		 */
+		private void set(RocketComponent component) {
+			calcCG = component.getCG().x * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+			calcMass = component.getComponentMass() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_MASS;
+			knownCG = component.getOverrideCGX() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+			knownMass = component.getMass() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_MASS;
+			len = component instanceof FinSet ? 0.0d :
+					component.getLength() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+			useKnownCG = component.isCGOverridden() || component.isMassOverridden() ? 1 : 0;
+			name = component.getName();
+
+			// When the relative position is BOTTOM, the position location of the bottom edge of the component is +
+			// to the right of the bottom of the parent, and - to the left.
+			// But in RockSim, it's + to the left and - to the right
+			if (component.getAxialMethod().equals(AxialMethod.BOTTOM)) {
+				xb = (-1 * component.getAxialOffset()) * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+			} else if (component.getAxialMethod().equals(AxialMethod.MIDDLE)) {
+				// Mapped to TOP, so adjust accordingly
+				xb = (component.getAxialOffset() + (component.getParent().getLength() - component.getLength()) / 2)
+						* RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+			} else {
+				xb = component.getAxialOffset() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+			}
+
+			density = 0.0d;
+			densityType = 0;
+			material = "";
+			locationMode = 0;
+			finishCode = 0;
+			if (component instanceof ExternalComponent) {
+				ExternalComponent comp = (ExternalComponent) component;
+				setMaterial(comp.getMaterial(), RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_BULK_DENSITY);
+				locationMode = RockSimLocationMode.toCode(comp.getAxialMethod());
+				finishCode = RockSimFinishCode.toCode(comp.getFinish());
+			} else if (component instanceof StructuralComponent) {
+				StructuralComponent comp = (StructuralComponent) component;
+				setMaterial(comp.getMaterial(), RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_BULK_DENSITY);
+				locationMode = RockSimLocationMode.toCode(comp.getAxialMethod());
+			} else if (component instanceof RecoveryDevice) {
+				RecoveryDevice comp = (RecoveryDevice) component;
+				setMaterial(comp.getMaterial(), RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_SURFACE_DENSITY);
+				locationMode = RockSimLocationMode.toCode(comp.getAxialMethod());
+			}
+
+			if (component instanceof RingComponent) {
+				RingComponent rc = (RingComponent) component;
+				radialAngle = rc.getRadialDirection();
+				radialLoc = rc.getRadialPosition() * RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+			} else {
+				radialAngle = 0;
+				radialLoc = 0;
+			}
+		}
+
+		private void setMaterial(Material material, double densityFactor) {
+			this.density = material.getDensity() * densityFactor;
+			this.densityType = RockSimDensityType.toCode(material.getType());
+			this.material = toRockSimMaterialName(material);
+		}
+	}
+}
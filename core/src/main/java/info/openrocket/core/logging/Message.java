@@ -140,7 +140,10 @@ public abstract class Message implements Cloneable {
 	 */
 	@Override
 	public int hashCode() {
-		return this.getClass().hashCode();
+		int result = this.getClass().hashCode();
+		result = 31 * result + Arrays.hashCode(sources);
+		result = 31 * result + (priority == null ? 0 : priority.hashCode());
+		return result;
 	}
 
 	@Override
@@ -1,6 +1,7 @@
 package info.openrocket.core.logging;
 
 import java.util.AbstractSet;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
@@ -18,6 +19,11 @@ import info.openrocket.core.util.Mutable;
  * same type.  If one is found, then the message left in the set is determined
  * by the method {@link Message#replaceBy(Message)}.
  * <p>
+ * The messages are kept in insertion order, and indexed by their hash code so
+ * that adding a message does not need to compare it to every message in the set.
+ * The modification ID changes only when the contents of the set change, so
+ * adding a message that is already in the set does not count as a change.
+ * <p>
  * A MessageSet can be made immutable by calling {@link #immute()}.
  *
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
@@ -26,6 +32,11 @@ public abstract class MessageSet<E extends Message> extends AbstractSet<E> imple
     /** the actual array of messages */
     protected ArrayList<E> messages = new ArrayList<>();
 
+    /** the positions of the messages in the list, or null if it needs to be rebuilt */
+    private HashMap<E, Integer> index = null;
+    /** the list the index was built for, so that a clone does not use the index of the original */
+    private ArrayList<E> indexedMessages = null;
+
     protected Mutable mutable = new Mutable();
     private ModID modID = ModID.ZERO;
 
@@ -40,22 +51,50 @@ public abstract class MessageSet<E extends Message> extends AbstractSet<E> imple
     public boolean add(E m) {
         mutable.check();
 
-        modID = new ModID();
-        int index = messages.indexOf(m);
+        HashMap<E, Integer> index = getIndex();
+        Integer i = index.get(m);
 
-        if (index < 0) {
+        if (i == null) {
+            index.put(m, messages.size());
             messages.add(m);
+            modID = new ModID();
             return false;
         }
 
-        E old = messages.get(index);
+        E old = messages.get(i);
         if (old.replaceBy(m)) {
-            messages.set(index, m);
+            // The key is equal to the new message, so it can be kept
+            messages.set(i, m);
+            modID = new ModID();
         }
 
         return true;
     }
 
+    /**
+     * Return the index of the messages, rebuilding it if messages have been removed
+     * or the list has been replaced.
+     */
+    private HashMap<E, Integer> getIndex() {
+        if (index == null || indexedMessages != messages) {
+            index = new HashMap<>();
+            for (int i = 0; i < messages.size(); i++) {
+                index.put(messages.get(i), i);
+            }
+            indexedMessages = messages;
+        }
+        return index;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        // Only read the index here, so that sets shared between threads are not modified
+        if (index != null && indexedMessages == messages) {
+            return index.containsKey(o);
+        }
+        return messages.contains(o);
+    }
+
     /**
      * Add a <code>Message</code> with the specified text to the set.
      *
@@ -110,10 +149,26 @@ public abstract class MessageSet<E extends Message> extends AbstractSet<E> imple
 			public void remove() {
 				mutable.check();
 				iterator.remove();
+				index = null;
+				modID = new ModID();
 			}
 		};
     }
 
+    @Override
+    public void clear() {
+        mutable.check();
+        if (!messages.isEmpty()) {
+            messages.clear();
+            if (index != null && indexedMessages == messages) {
+                index.clear();
+            } else {
+                index = null;
+            }
+            modID = new ModID();
+        }
+    }
+
 	/**
 	 * filter out any messages of the given type.  Can't just use remove() inherited from
 	 * AbstractCollection because the Message.equals() depends on message types, sources, and priority.
@@ -377,7 +377,7 @@ public abstract class Warning extends Message {
 		
 		@Override
 		public int hashCode() {
-			return description.hashCode();
+			return 31 * super.hashCode() + description.hashCode();
 		}
 		
 		@Override
@@ -11,20 +11,21 @@ import info.openrocket.core.util.WorldCoordinate;
  */
 public class WGSGravityModel implements GravityModel {
 
-	// Cache the previously computed value
-	private WorldCoordinate lastWorldCoordinate;
-	private double lastg;
+	// Cache the previously computed value.  The coordinate and the value are kept in a
+	// single immutable object, so that the model can be used by several threads.
+	private Gravity last;
 
 	@Override
 	public double getGravity(WorldCoordinate wc) {
 
 		// This is a proxy method to calcGravity, to avoid repeated calculation
-		if (wc != this.lastWorldCoordinate) {
-			this.lastg = calcGravity(wc);
-			this.lastWorldCoordinate = wc;
+		Gravity gravity = this.last;
+		if (gravity == null || wc != gravity.wc) {
+			gravity = new Gravity(wc, calcGravity(wc));
+			this.last = gravity;
 		}
 
-		return this.lastg;
+		return gravity.g;
 
 	}
 
@@ -49,4 +50,14 @@ public class WGSGravityModel implements GravityModel {
 		return g_alt;
 	}
 
+	private static final class Gravity {
+		private final WorldCoordinate wc;
+		private final double g;
+
+		private Gravity(WorldCoordinate wc, double g) {
+			this.wc = wc;
+			this.g = g;
+		}
+	}
+
 }
@@ -186,6 +186,38 @@ public class PinkNoiseWindModel implements WindModel {
 		randomSource = null;
 	}
 
+	/**
+	 * Generate the wind velocity of a pink noise wind model at the sample times
+	 * <code>k * DELTA_T</code>.  The samples are identical to those returned by
+	 * {@link #getWindVelocity(double, double)} of a model constructed with the same seed,
+	 * and linear interpolation between them yields the same intermediate values.
+	 * 
+	 * @param seed              the seed value, as given to {@link #PinkNoiseWindModel(int)}.
+	 * @param average           the average wind speed.
+	 * @param standardDeviation the standard deviation of the wind speed.
+	 * @param direction         the wind direction.
+	 * @param vx                the array in which to store the x-components of the velocity.
+	 * @param vy                the array in which to store the y-components of the velocity.
+	 */
+	static void sampleVelocities(int seed, double average, double standardDeviation, double direction,
+			double[] vx, double[] vy) {
+		PinkNoise source = new PinkNoise(ALPHA, POLES, new Random(seed ^ SEED_RANDOMIZATION));
+		double sin = Math.sin(direction);
+		double cos = Math.cos(direction);
+		for (int k = 0; k < vx.length; k++) {
+			double speed = average + source.nextValue() * standardDeviation / STDDEV;
+			vx[k] = speed * sin;
+			vy[k] = speed * cos;
+		}
+	}
+
+	/**
+	 * @return the seed value, as given to {@link #PinkNoiseWindModel(int)}.
+	 */
+	int getSeed() {
+		return seed ^ SEED_RANDOMIZATION;
+	}
+
 	public void loadFrom(PinkNoiseWindModel source) {
 		this.average = source.average;
 		this.direction = source.direction;
@@ -202,6 +234,8 @@ public class PinkNoiseWindModel implements WindModel {
 		try {
 			PinkNoiseWindModel clone = (PinkNoiseWindModel) super.clone();
 			clone.loadFrom(this);
+			// The clone generates its own noise, which is the same for the same seed
+			clone.randomSource = null;
 			return clone;
 		} catch (CloneNotSupportedException e) {
 			throw new AssertionError(); // This should never happen
@@ -0,0 +1,60 @@
+package info.openrocket.core.models.wind;
+
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.ModID;
+import info.openrocket.core.util.StateChangeListener;
+
+/**
+ * A wind model that reads the wind velocity from a pre-generated {@link WindFieldTable}
+ * instead of generating pink noise during the simulation.  The model is immutable, so
+ * it can be shared between simulations.
+ */
+public class PrecomputedWindModel implements WindModel {
+
+	private final WindFieldTable table;
+
+	public PrecomputedWindModel(WindFieldTable table) {
+		this.table = table;
+	}
+
+	/**
+	 * Create a precomputed version of a wind model, which yields the same wind as the model.
+	 *
+	 * @param model    the wind model to precompute.
+	 * @param duration the time span to precompute (s).
+	 * @return the precomputed wind model.
+	 */
+	public static PrecomputedWindModel of(WindModel model, double duration) {
+		return new PrecomputedWindModel(WindFieldTable.getInstance(model, duration));
+	}
+
+	public WindFieldTable getTable() {
+		return table;
+	}
+
+	@Override
+	public Coordinate getWindVelocity(double time, double altitude) {
+		return table.getWindVelocity(time, altitude);
+	}
+
+	@Override
+	public ModID getModID() {
+		return ModID.ZERO;
+	}
+
+	@Override
+	public PrecomputedWindModel clone() {
+		// Immutable
+		return this;
+	}
+
+	@Override
+	public void addChangeListener(StateChangeListener listener) {
+		// Immutable, never changes
+	}
+
+	@Override
+	public void removeChangeListener(StateChangeListener listener) {
+		// Immutable, never changes
+	}
+}
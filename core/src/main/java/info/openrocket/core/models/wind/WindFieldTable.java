@@ -0,0 +1,199 @@
+package info.openrocket.core.models.wind;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import info.openrocket.core.util.Coordinate;
+
+/**
+ * An immutable table of wind velocities, pre-generated for a number of altitude levels
+ * at fixed time steps of {@link PinkNoiseWindModel#DELTA_T} over the duration of a simulation.
+ * Queries are bilinear interpolations in time and altitude on primitive arrays, so no
+ * pink noise needs to be generated during the simulation.
+ * <p>
+ * The turbulence of each level is generated from the seed of the pink noise wind model the
+ * table replaces, so the table yields the same wind as that model, whatever happened to the
+ * simulation random seed since the model was created.  Tables are cached by their wind
+ * parameters, seeds and duration, so simulations using the same wind (e.g. repeated Monte
+ * Carlo runs) share the same table, and any change of the wind model uses a new table.
+ */
+public final class WindFieldTable {
+
+	/** Maximum number of tables kept in the cache. */
+	private static final int CACHE_SIZE = 8;
+
+	private static final Map<Key, WindFieldTable> cache = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, WindFieldTable> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	private final double[] altitudes;
+	private final double[][] vx;
+	private final double[][] vy;
+	private final int samples;
+
+	private WindFieldTable(double[] altitudes, double[][] vx, double[][] vy, int samples) {
+		this.altitudes = altitudes;
+		this.vx = vx;
+		this.vy = vy;
+		this.samples = samples;
+	}
+
+	/**
+	 * Return the wind field table of a wind model, generating it if an identical table is not cached.
+	 *
+	 * @param model    the wind model, either a {@link PinkNoiseWindModel} or a {@link MultiLevelPinkNoiseWindModel}.
+	 * @param duration the time span the table must cover (s).
+	 * @return the wind field table.
+	 * @throws IllegalArgumentException if the wind model type is not supported.
+	 */
+	public static WindFieldTable getInstance(WindModel model, double duration) {
+		Key key = new Key(model, (int) Math.ceil(duration / PinkNoiseWindModel.DELTA_T) + 2);
+		synchronized (cache) {
+			WindFieldTable table = cache.get(key);
+			if (table == null) {
+				table = generate(key);
+				cache.put(key, table);
+			}
+			return table;
+		}
+	}
+
+	private static WindFieldTable generate(Key key) {
+		int levels = key.parameters.length / Key.LEVEL_PARAMETERS;
+		double[] altitudes = new double[levels];
+		double[][] vx = new double[levels][key.samples];
+		double[][] vy = new double[levels][key.samples];
+
+		for (int i = 0; i < levels; i++) {
+			int p = i * Key.LEVEL_PARAMETERS;
+			altitudes[i] = key.parameters[p];
+			PinkNoiseWindModel.sampleVelocities(key.seeds[i], key.parameters[p + 1], key.parameters[p + 2],
+					key.parameters[p + 3], vx[i], vy[i]);
+		}
+
+		return new WindFieldTable(altitudes, vx, vy, key.samples);
+	}
+
+	/**
+	 * Return the wind velocity at the given time and altitude.  Outside the altitude range the
+	 * outermost level is used, and after the end of the table the last sample is used.
+	 *
+	 * @param time     the simulation time (s).
+	 * @param altitude the altitude (m).
+	 * @return the wind velocity.
+	 */
+	public Coordinate getWindVelocity(double time, double altitude) {
+		if (time < 0) {
+			throw new IllegalArgumentException("Requesting wind speed at t=" + time);
+		}
+		if (altitudes.length == 0) {
+			return Coordinate.ZERO;
+		}
+
+		double pos = time / PinkNoiseWindModel.DELTA_T;
+		int t = (int) pos;
+		double a = pos - t;
+		if (t >= samples - 1) {
+			t = samples - 2;
+			a = 1;
+		}
+
+		int index = Arrays.binarySearch(altitudes, altitude);
+		if (index >= 0) {
+			return sample(index, t, a);
+		}
+		int insertionPoint = -index - 1;
+		if (insertionPoint == 0) {
+			return sample(0, t, a);
+		}
+		if (insertionPoint == altitudes.length) {
+			return sample(altitudes.length - 1, t, a);
+		}
+
+		int lower = insertionPoint - 1;
+		double fraction = (altitude - altitudes[lower]) / (altitudes[insertionPoint] - altitudes[lower]);
+		double x = interpolate(vx[lower], t, a) * (1 - fraction) + interpolate(vx[insertionPoint], t, a) * fraction;
+		double y = interpolate(vy[lower], t, a) * (1 - fraction) + interpolate(vy[insertionPoint], t, a) * fraction;
+		return new Coordinate(x, y, 0);
+	}
+
+	/**
+	 * @return the number of altitude levels in the table.
+	 */
+	public int getLevelCount() {
+		return altitudes.length;
+	}
+
+	/**
+	 * @return the number of time samples per level.
+	 */
+	public int getSampleCount() {
+		return samples;
+	}
+
+	private Coordinate sample(int level, int t, double a) {
+		return new Coordinate(interpolate(vx[level], t, a), interpolate(vy[level], t, a), 0);
+	}
+
+	private static double interpolate(double[] values, int t, double a) {
+		return values[t] * (1 - a) + values[t + 1] * a;
+	}
+
+	/**
+	 * Cache key: the wind parameters (altitude, average, standard deviation and direction of each level),
+	 * the seed of each level and the number of samples.
+	 */
+	private static final class Key {
+		private static final int LEVEL_PARAMETERS = 4;
+
+		private final double[] parameters;
+		private final int[] seeds;
+		private final int samples;
+
+		private Key(WindModel model, int samples) {
+			if (model instanceof PinkNoiseWindModel) {
+				PinkNoiseWindModel pink = (PinkNoiseWindModel) model;
+				this.parameters = new double[] { 0, pink.getAverage(), pink.getStandardDeviation(), pink.getDirection() };
+				this.seeds = new int[] { pink.getSeed() };
+			} else if (model instanceof MultiLevelPinkNoiseWindModel) {
+				List<MultiLevelPinkNoiseWindModel.LevelWindModel> levels = ((MultiLevelPinkNoiseWindModel) model).getLevels();
+				levels.sort((l1, l2) -> Double.compare(l1.getAltitude(), l2.getAltitude()));
+				this.parameters = new double[levels.size() * LEVEL_PARAMETERS];
+				this.seeds = new int[levels.size()];
+				for (int i = 0; i < levels.size(); i++) {
+					MultiLevelPinkNoiseWindModel.LevelWindModel level = levels.get(i);
+					parameters[i * LEVEL_PARAMETERS] = level.getAltitude();
+					parameters[i * LEVEL_PARAMETERS + 1] = level.getSpeed();
+					parameters[i * LEVEL_PARAMETERS + 2] = level.getStandardDeviation();
+					parameters[i * LEVEL_PARAMETERS + 3] = level.getDirection();
+					seeds[i] = level.model.getSeed();
+				}
+			} else {
+				throw new IllegalArgumentException("Unsupported wind model: " + model);
+			}
+			this.samples = samples;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Key)) return false;
+			Key that = (Key) o;
+			return samples == that.samples && Arrays.equals(seeds, that.seeds) &&
+					Arrays.equals(parameters, that.parameters);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = Arrays.hashCode(parameters);
+			result = 31 * result + Arrays.hashCode(seeds);
+			result = 31 * result + samples;
+			return result;
+		}
+	}
+}
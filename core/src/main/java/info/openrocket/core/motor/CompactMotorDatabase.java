@@ -0,0 +1,278 @@
+package info.openrocket.core.motor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import info.openrocket.core.util.Coordinate;
+
+/**
+ * A compact binary format for the built-in thrust curve motor database.
+ * <p>
+ * The file consists of a header table, holding the designation, manufacturer, dimensions,
+ * statistics and digest of every motor, followed by the thrust curve data.  When reading,
+ * the header table is decoded eagerly while the thrust curve of each motor is decoded from
+ * the buffer only when it is first used.  The buffer is typically memory-mapped, so curves
+ * that are never used are never read from disk.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ *   int     MAGIC
+ *   int     VERSION
+ *   int     motor count
+ *   per motor:
+ *     string  manufacturer, designation, code, common name, description, digest, case info, propellant info
+ *     byte    motor type (ordinal)
+ *     byte    available
+ *     double  diameter, length, initial mass, max thrust, burn time, average thrust, total impulse
+ *     int     delay count, followed by the delays as doubles
+ *     int     sample count
+ *     int     offset of the curve data from the start of the file
+ *   per motor:
+ *     double[sample count] time, thrust, CG x, CG y, CG z, CG weight
+ * </pre>
+ * Strings are stored as an unsigned short byte count followed by the UTF-8 bytes.  The byte
+ * count 0xFFFF marks a <code>null</code> string.
+ */
+public final class CompactMotorDatabase {
+
+	/** Magic number at the start of the file ("ORMD"). */
+	public static final int MAGIC = 0x4F524D44;
+	public static final int VERSION = 1;
+
+	private static final int CURVE_ARRAYS = 6;
+	private static final int NULL_STRING = 0xFFFF;
+
+	private CompactMotorDatabase() {
+	}
+
+	/**
+	 * Check whether a buffer starts with the compact motor database magic number.  The buffer
+	 * position is not changed.
+	 *
+	 * @param buffer the buffer to check.
+	 * @return whether the buffer contains a compact motor database.
+	 */
+	public static boolean isCompactDatabase(ByteBuffer buffer) {
+		return buffer.remaining() >= 4 && buffer.getInt(buffer.position()) == MAGIC;
+	}
+
+	/**
+	 * Write motors in the compact format.
+	 *
+	 * @param motors the motors to write.
+	 * @param out    the stream to write to, not closed.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void write(List<ThrustCurveMotor> motors, OutputStream out) throws IOException {
+		// Encode the header table first, as the curve offsets depend on its size
+		List<byte[]> headers = new ArrayList<>(motors.size());
+		int offset = 3 * Integer.BYTES;
+		for (ThrustCurveMotor motor : motors) {
+			byte[] header = encodeHeader(motor);
+			headers.add(header);
+			offset += header.length;
+		}
+
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(motors.size());
+		for (int i = 0; i < motors.size(); i++) {
+			// The curve offset is the last field of the header
+			byte[] header = headers.get(i);
+			ByteBuffer.wrap(header).putInt(header.length - Integer.BYTES, offset);
+			data.write(header);
+			offset += motors.get(i).getSampleSize() * CURVE_ARRAYS * Double.BYTES;
+		}
+
+		for (ThrustCurveMotor motor : motors) {
+			for (double t : motor.getTimePoints()) {
+				data.writeDouble(t);
+			}
+			for (double f : motor.getThrustPoints()) {
+				data.writeDouble(f);
+			}
+			Coordinate[] cg = motor.getCGPoints();
+			for (Coordinate c : cg) {
+				data.writeDouble(c.x);
+			}
+			for (Coordinate c : cg) {
+				data.writeDouble(c.y);
+			}
+			for (Coordinate c : cg) {
+				data.writeDouble(c.z);
+			}
+			for (Coordinate c : cg) {
+				data.writeDouble(c.weight);
+			}
+		}
+		data.flush();
+	}
+
+	private static byte[] encodeHeader(ThrustCurveMotor motor) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		DataOutputStream data = new DataOutputStream(bytes);
+		writeString(data, motor.getManufacturer().getDisplayName());
+		writeString(data, motor.getDesignation());
+		writeString(data, motor.getCode());
+		writeString(data, motor.getCommonName());
+		writeString(data, motor.getDescription());
+		writeString(data, motor.getDigest());
+		writeString(data, motor.getCaseInfo());
+		writeString(data, motor.getPropellantInfo());
+		data.writeByte(motor.getMotorType().ordinal());
+		data.writeByte(motor.isAvailable() ? 1 : 0);
+		data.writeDouble(motor.getDiameter());
+		data.writeDouble(motor.getLength());
+		data.writeDouble(motor.getInitialMass());
+		data.writeDouble(motor.getMaxThrustEstimate());
+		data.writeDouble(motor.getBurnTimeEstimate());
+		data.writeDouble(motor.getAverageThrustEstimate());
+		data.writeDouble(motor.getTotalImpulseEstimate());
+		double[] delays = motor.getStandardDelays();
+		data.writeInt(delays.length);
+		for (double d : delays) {
+			data.writeDouble(d);
+		}
+		data.writeInt(motor.getSampleSize());
+		data.writeInt(0);
+		data.flush();
+		return bytes.toByteArray();
+	}
+
+	private static void writeString(DataOutputStream data, String str) throws IOException {
+		if (str == null) {
+			data.writeShort(NULL_STRING);
+			return;
+		}
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length >= NULL_STRING) {
+			throw new IOException("String too long: " + bytes.length + " bytes");
+		}
+		data.writeShort(bytes.length);
+		data.write(bytes);
+	}
+
+	/**
+	 * Read the motors of a compact motor database.  Only the header table is decoded here; the
+	 * thrust curves are decoded from the buffer when they are first used, so the buffer must
+	 * not be modified afterwards.
+	 *
+	 * @param buffer the buffer containing the database, starting at its position.
+	 * @return the motors.
+	 * @throws IllegalArgumentException if the buffer does not contain a supported compact motor database.
+	 */
+	public static List<ThrustCurveMotor> read(ByteBuffer buffer) {
+		final ByteBuffer data = buffer.slice();
+		if (data.remaining() < 3 * Integer.BYTES || data.getInt() != MAGIC) {
+			throw new IllegalArgumentException("Not a compact motor database");
+		}
+		int version = data.getInt();
+		if (version != VERSION) {
+			throw new IllegalArgumentException("Unsupported compact motor database version " + version);
+		}
+
+		int count = data.getInt();
+		List<ThrustCurveMotor> motors = new ArrayList<>(count);
+		Motor.Type[] types = Motor.Type.values();
+		for (int i = 0; i < count; i++) {
+			ThrustCurveMotor.Builder builder = new ThrustCurveMotor.Builder()
+					.setManufacturer(Manufacturer.getManufacturer(readString(data)))
+					.setDesignation(readString(data))
+					.setCode(readString(data))
+					.setCommonName(readString(data))
+					.setDescription(readString(data))
+					.setDigest(readString(data))
+					.setCaseInfo(readString(data))
+					.setPropellantInfo(readString(data))
+					.setMotorType(types[data.get()])
+					.setAvailability(data.get() != 0)
+					.setDiameter(data.getDouble())
+					.setLength(data.getDouble())
+					.setInitialMass(data.getDouble());
+			double maxThrust = data.getDouble();
+			double burnTime = data.getDouble();
+			double averageThrust = data.getDouble();
+			double totalImpulse = data.getDouble();
+			double[] delays = new double[data.getInt()];
+			for (int j = 0; j < delays.length; j++) {
+				delays[j] = data.getDouble();
+			}
+			builder.setStandardDelays(delays);
+			int samples = data.getInt();
+			int offset = data.getInt();
+
+			motors.add(builder.buildLazy(new BufferCurve(data, offset, samples),
+					maxThrust, burnTime, averageThrust, totalImpulse));
+		}
+		return motors;
+	}
+
+	private static String readString(ByteBuffer data) {
+		int length = data.getShort() & 0xFFFF;
+		if (length == NULL_STRING) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		data.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * The thrust curve of a single motor, decoded with absolute reads from the shared buffer.
+	 */
+	private static final class BufferCurve implements ThrustCurveMotor.CurveSource {
+		private final ByteBuffer buffer;
+		private final int offset;
+		private final int samples;
+
+		private BufferCurve(ByteBuffer buffer, int offset, int samples) {
+			this.buffer = buffer;
+			this.offset = offset;
+			this.samples = samples;
+		}
+
+		@Override
+		public int getSampleCount() {
+			return samples;
+		}
+
+		@Override
+		public double[] getTimePoints() {
+			return readArray(0);
+		}
+
+		@Override
+		public double[] getThrustPoints() {
+			return readArray(1);
+		}
+
+		@Override
+		public Coordinate[] getCGPoints() {
+			double[] x = readArray(2);
+			double[] y = readArray(3);
+			double[] z = readArray(4);
+			double[] weight = readArray(5);
+			Coordinate[] cg = new Coordinate[samples];
+			for (int i = 0; i < samples; i++) {
+				cg[i] = new Coordinate(x[i], y[i], z[i], weight[i]);
+			}
+			return cg;
+		}
+
+		private double[] readArray(int index) {
+			double[] values = new double[samples];
+			int position = offset + index * samples * Double.BYTES;
+			for (int i = 0; i < samples; i++) {
+				values[i] = buffer.getDouble(position + i * Double.BYTES);
+			}
+			return values;
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package info.openrocket.core.motor;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.text.Collator;
 import java.util.Arrays;
@@ -61,6 +63,22 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	private double unitRotationalInertia;
 	private double unitLongitudinalInertia;
 
+	// Source of the time, thrust and CG points if they have not been decoded yet
+	private transient volatile CurveSource curveSource = null;
+
+	/**
+	 * A source of thrust curve data that is decoded on first use, see {@link CompactMotorDatabase}.
+	 */
+	interface CurveSource {
+		int getSampleCount();
+
+		double[] getTimePoints();
+
+		double[] getThrustPoints();
+
+		Coordinate[] getCGPoints();
+	}
+
 	public static class Builder {
 
 		ThrustCurveMotor motor = new ThrustCurveMotor();
@@ -262,6 +280,23 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 			return motor;
 		}
 
+		/**
+		 * Build a motor whose thrust curve is decoded from the curve source on first use.
+		 * The curve must already have been validated, and the statistics are taken as
+		 * given instead of being computed from the curve.
+		 */
+		ThrustCurveMotor buildLazy(CurveSource source, double maxThrust, double burnTimeEstimate,
+				double averageThrust, double totalImpulse) {
+			motor.unitRotationalInertia = Inertia.filledCylinderRotational(motor.diameter / 2);
+			motor.unitLongitudinalInertia = Inertia.filledCylinderLongitudinal(motor.diameter / 2, motor.length);
+			motor.maxThrust = maxThrust;
+			motor.burnTimeEstimate = burnTimeEstimate;
+			motor.averageThrust = averageThrust;
+			motor.totalImpulse = totalImpulse;
+			motor.curveSource = source;
+			return motor;
+		}
+
 	}
 
 	/**
@@ -279,6 +314,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return an array of time points where the thrust is sampled
 	 */
 	public double[] getTimePoints() {
+		decodeCurve();
 		return time.clone();
 	}
 
@@ -295,6 +331,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return a pseudo index to this motor's data.
 	 */
 	protected double getPseudoIndex(final double motorTime) {
+		decodeCurve();
 		if ((time.length == 0) || (0 > motorTime)) {
 			return Double.NaN;
 		}
@@ -345,6 +382,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 
 	@Override
 	public double getAverageThrust(final double startTime, final double endTime) {
+		decodeCurve();
 
 		int timeIndex = 0;
 
@@ -434,6 +472,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return an array of thrust samples
 	 */
 	public double[] getThrustPoints() {
+		decodeCurve();
 		return thrust.clone();
 	}
 
@@ -446,6 +485,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	// }
 
 	public Coordinate[] getCGPoints() {
+		decodeCurve();
 		return cg;
 	}
 
@@ -543,26 +583,31 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 
 	@Override
 	public double getLaunchCGx() {
+		decodeCurve();
 		return cg[0].x;// cgx[0];
 	}
 
 	@Override
 	public double getBurnoutCGx() {
+		decodeCurve();
 		return cg[cg.length - 1].x;// cgx[ cg.length - 1];
 	}
 
 	@Override
 	public double getLaunchMass() {
+		decodeCurve();
 		return cg[0].weight;// mass[0];
 	}
 
 	@Override
 	public double getBurnoutMass() {
+		decodeCurve();
 		return cg[cg.length - 1].weight; // mass[mass.length - 1];
 	}
 
 	@Override
 	public double getBurnTime() {
+		decodeCurve();
 		return time[time.length - 1];
 	}
 
@@ -622,6 +667,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 
 	protected Coordinate interpolateCenterOfMassAtIndex(final double pseudoIndex) {
+		decodeCurve();
 		final double SNAP_TOLERANCE = 0.0001;
 
 		final double upperFrac = pseudoIndex % 1;
@@ -644,7 +690,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 
 	public int getDataSize() {
-		return this.time.length;
+		return getSampleSize();
 	}
 
 	@Override
@@ -673,6 +719,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 
 	public double getCutOffTime() {
+		decodeCurve();
 		return time[time.length - 1];
 	}
 
@@ -811,9 +858,36 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return return the size of the data arrays
 	 */
 	public int getSampleSize() {
+		CurveSource source = curveSource;
+		if (source != null) {
+			return source.getSampleCount();
+		}
 		return time.length;
 	}
 
+	/**
+	 * Decode the thrust curve from the curve source if it has not been decoded yet.
+	 */
+	private void decodeCurve() {
+		if (curveSource != null) {
+			synchronized (this) {
+				CurveSource source = curveSource;
+				if (source != null) {
+					time = source.getTimePoints();
+					thrust = source.getThrustPoints();
+					cg = source.getCGPoints();
+					// Volatile write publishes the arrays to other threads
+					curveSource = null;
+				}
+			}
+		}
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		decodeCurve();
+		out.defaultWriteObject();
+	}
+
 	@Override
 	public int compareTo(ThrustCurveMotor other) {
 
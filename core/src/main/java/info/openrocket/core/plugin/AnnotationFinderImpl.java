@@ -1,24 +1,268 @@
 package info.openrocket.core.plugin;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ScanResult;
 
 /**
- * An AnnotationFinder that uses annotation-detector library to scan
- * the class path. Compatible with the JIJ loader.
+ * An AnnotationFinder that reads the annotated types from index resources
+ * written at build time, and scans only the user plugin jars.  Compatible
+ * with the JIJ loader.
+ * <p>
+ * The index of an annotation is the resource {@link #INDEX_DIRECTORY}
+ * followed by the annotation class name, listing one class name per line.
+ * For {@link Plugin} it is written by the PluginIndexProcessor annotation
+ * processor of the core build, which the core and swing modules run when
+ * compiling.  Each jar or class directory may contain its own index.
+ * <p>
+ * Only the user plugin jars from {@link PluginHelper#getPluginClasspath()}
+ * and the class directories on the classpath are scanned, and only if they
+ * have no index, e.g. plugin jars built without the processor or classes
+ * compiled by an IDE without annotation processing.  Library jars are never
+ * scanned.
  */
 public class AnnotationFinderImpl implements AnnotationFinder {
 
+	private static final Logger log = LoggerFactory.getLogger(AnnotationFinderImpl.class);
+
+	/** The directory of the annotation index resources. */
+	public static final String INDEX_DIRECTORY = "META-INF/openrocket/index/";
+
+	private final ClassLoader loader;
+	private final List<File> pluginClasspath;
+
+	/**
+	 * Find the annotated types using the context class loader and the user plugin classpath.
+	 */
+	public AnnotationFinderImpl() {
+		this(null, null);
+	}
+
+	/**
+	 * @param loader			the class loader to read the index from and load the classes with,
+	 * 							or <code>null</code> to use the context class loader.
+	 * @param pluginClasspath	the plugin files to scan, or <code>null</code> to use
+	 * 							{@link PluginHelper#getPluginClasspath()}.
+	 */
+	public AnnotationFinderImpl(ClassLoader loader, List<File> pluginClasspath) {
+		this.loader = loader;
+		this.pluginClasspath = pluginClasspath;
+	}
+
 	@Override
 	public List<Class<?>> findAnnotatedTypes(Class<? extends Annotation> annotation) {
-		List<Class<?>> classes;
-		try (ScanResult scanResult = new ClassGraph().enableAllInfo().scan()) {
-			classes = new ArrayList<>(scanResult.getClassesWithAnnotation(annotation.getName()).loadClasses());
+		long t0 = System.currentTimeMillis();
+		ClassLoader cl = getClassLoader();
+		Set<String> names = new LinkedHashSet<>();
+
+		Set<File> indexed = readIndex(cl, annotation, names);
+
+		Set<File> unindexed = new LinkedHashSet<>();
+		for (File file : getBuildOutputDirectories()) {
+			if (!indexed.contains(file)) {
+				unindexed.add(file);
+			}
+		}
+		for (File file : getPluginClasspath()) {
+			File canonical = canonicalFile(file);
+			if (!indexed.contains(canonical)) {
+				unindexed.add(canonical);
+			}
 		}
+		Set<File> scanned = new HashSet<>();
+		if (!unindexed.isEmpty()) {
+			scanned = scan(new ClassGraph().overrideClasspath(unindexed).disableModuleScanning(), annotation, names);
+		}
+
+		List<Class<?>> classes = new ArrayList<>();
+		for (String name : names) {
+			Class<?> c = loadClass(cl, name);
+			if (c == null) {
+				continue;
+			}
+			if (!c.isAnnotationPresent(annotation)) {
+				log.warn("Indexed class " + name + " is not annotated with " + annotation.getName());
+				continue;
+			}
+			classes.add(c);
+		}
+
+		log.info("Found " + classes.size() + " types annotated with " + annotation.getName() + " in " +
+				(System.currentTimeMillis() - t0) + " ms, " + indexed.size() + " indexed and " + scanned.size() +
+				" scanned classpath elements");
 		return classes;
 	}
+
+	/**
+	 * Read the class names of all index resources of the annotation.
+	 *
+	 * @return	the jars and class directories containing an index.
+	 */
+	private static Set<File> readIndex(ClassLoader cl, Class<? extends Annotation> annotation, Set<String> names) {
+		String resource = INDEX_DIRECTORY + annotation.getName();
+		Set<File> found = new HashSet<>();
+		try {
+			Enumeration<URL> urls = cl.getResources(resource);
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				File element = getClasspathElement(url, resource);
+				if (element != null) {
+					found.add(element);
+				}
+				try (InputStream is = url.openStream();
+					 BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						line = line.trim();
+						if (line.length() > 0 && !line.startsWith("#")) {
+							names.add(line);
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			log.warn("Unable to read the index of " + annotation.getName(), e);
+		}
+		return found;
+	}
+
+	/**
+	 * Return the jar file or class directory containing a resource, or <code>null</code>
+	 * if it is not a local file.
+	 *
+	 * @param url		the URL of the resource.
+	 * @param resource	the name of the resource.
+	 */
+	static File getClasspathElement(URL url, String resource) {
+		try {
+			switch (url.getProtocol()) {
+				case "file":
+					String path = new File(url.toURI()).getPath();
+					String suffix = resource.replace('/', File.separatorChar);
+					if (!path.endsWith(suffix)) {
+						return null;
+					}
+					return canonicalFile(new File(path.substring(0, path.length() - suffix.length())));
+				case "jar":
+					String spec = url.getPath();
+					int separator = spec.indexOf("!/");
+					if (separator < 0) {
+						return null;
+					}
+					return canonicalFile(new File(new URI(spec.substring(0, separator))));
+				default:
+					return null;
+			}
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Return the class directories on the class and module path and of the class loader,
+	 * i.e. the build output directories of IDE and Gradle runs.  Jars are not included,
+	 * so that the libraries without an index are not scanned.
+	 */
+	private List<File> getBuildOutputDirectories() {
+		Set<File> files = new LinkedHashSet<>();
+		for (String property : new String[] { "java.class.path", "jdk.module.path" }) {
+			String path = System.getProperty(property);
+			if (path == null) {
+				continue;
+			}
+			for (String s : path.split(File.pathSeparator)) {
+				if (s.length() > 0) {
+					files.add(canonicalFile(new File(s)));
+				}
+			}
+		}
+		for (ClassLoader cl = loader; cl != null; cl = cl.getParent()) {
+			if (cl instanceof URLClassLoader) {
+				for (URL url : ((URLClassLoader) cl).getURLs()) {
+					if ("file".equals(url.getProtocol())) {
+						try {
+							files.add(canonicalFile(new File(url.toURI())));
+						} catch (URISyntaxException | IllegalArgumentException e) {
+							// Not a local file
+						}
+					}
+				}
+			}
+		}
+
+		List<File> directories = new ArrayList<>();
+		for (File file : files) {
+			if (file.isDirectory()) {
+				directories.add(file);
+			}
+		}
+		return directories;
+	}
+
+	private static File canonicalFile(File file) {
+		try {
+			return file.getCanonicalFile();
+		} catch (IOException e) {
+			return file.getAbsoluteFile();
+		}
+	}
+
+	/**
+	 * Add the names of the annotated classes found by a ClassGraph scan.  Only the
+	 * names are used so that the classes are loaded by the same class loader as
+	 * the indexed ones.
+	 *
+	 * @return	the scanned jars and class directories.
+	 */
+	private static Set<File> scan(ClassGraph classGraph, Class<? extends Annotation> annotation, Set<String> names) {
+		Set<File> scanned = new HashSet<>();
+		try (ScanResult scanResult = classGraph.enableAnnotationInfo().scan()) {
+			names.addAll(scanResult.getClassesWithAnnotation(annotation.getName()).getNames());
+			for (File file : scanResult.getClasspathFiles()) {
+				scanned.add(canonicalFile(file));
+			}
+		}
+		return scanned;
+	}
+
+	private static Class<?> loadClass(ClassLoader cl, String name) {
+		try {
+			return Class.forName(name, false, cl);
+		} catch (ClassNotFoundException | LinkageError e) {
+			log.warn("Unable to load annotated class " + name, e);
+			return null;
+		}
+	}
+
+	private ClassLoader getClassLoader() {
+		if (loader != null) {
+			return loader;
+		}
+		ClassLoader cl = Thread.currentThread().getContextClassLoader();
+		return cl != null ? cl : AnnotationFinderImpl.class.getClassLoader();
+	}
+
+	private List<File> getPluginClasspath() {
+		return pluginClasspath != null ? pluginClasspath : PluginHelper.getPluginClasspath();
+	}
 }
@@ -2,6 +2,7 @@ package info.openrocket.core.plugin;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -12,6 +13,29 @@ public class PluginHelper {
 
 	private static final String PLUGIN_DIRECTORY = "Plugins";
 	private static final String PLUGIN_EXTENSION = ".jar";
+	private static final String CUSTOM_PLUGIN_PROPERTY = "openrocket.plugins";
+
+	/**
+	 * Return the user plugin classpath, which consists of the jars in the plugin
+	 * directory and the files listed in the system property
+	 * <code>openrocket.plugins</code>.
+	 */
+	public static List<File> getPluginClasspath() {
+		List<File> files = new ArrayList<>(getPluginJars());
+
+		String prop = System.getProperty(CUSTOM_PLUGIN_PROPERTY);
+		if (prop != null) {
+			String[] array = prop.split(File.pathSeparator);
+			for (String s : array) {
+				s = s.trim();
+				if (s.length() > 0) {
+					files.add(new File(s));
+				}
+			}
+		}
+
+		return files;
+	}
 
 	public static List<File> getPluginJars() {
 		File userDir = SystemInfo.getUserApplicationDirectory();
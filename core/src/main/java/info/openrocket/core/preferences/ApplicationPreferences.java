@@ -113,6 +113,7 @@ public abstract class ApplicationPreferences implements ChangeSource, ORPreferen
 	public static final String AUTO_RUN_SIMULATIONS = "AutoRunSimulations";
 	public static final String LAUNCH_ROD_LENGTH = "LaunchRodLength";
 	public static final String LAUNCH_INTO_WIND = "LaunchIntoWind";
+	public static final String PRECOMPUTE_WIND = "PrecomputeWind";
 	public static final String LAUNCH_ROD_ANGLE = "LaunchRodAngle";
 	public static final String LAUNCH_ROD_DIRECTION = "LaunchRodDirection";
 	public static final String WIND_DIRECTION = "WindDirection";
@@ -309,6 +310,14 @@ public abstract class ApplicationPreferences implements ChangeSource, ORPreferen
 		this.putBoolean(LAUNCH_INTO_WIND, check);
 	}
 
+	public final boolean getPrecomputeWind() {
+		return this.getBoolean(PRECOMPUTE_WIND, false);
+	}
+
+	public final void setPrecomputeWind(boolean check) {
+		this.putBoolean(PRECOMPUTE_WIND, check);
+	}
+
 	public final boolean getShowRASAeroFormatWarning() {
 		return this.getBoolean(SHOW_RASAERO_FORMAT_WARNING, true);
 	}
@@ -0,0 +1,317 @@
+package info.openrocket.core.preferences;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.prefs.AbstractPreferences;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A preference node that caches another preference node in memory and writes changes
+ * to it behind the caller's back.
+ * <p>
+ * The values are read from the backing node once, when the node is first accessed, and
+ * after that the in-memory values are authoritative for reads.  Changes are collected
+ * and written to the backing node, followed by a single {@link Preferences#flush()} of
+ * the backing store, a fixed delay after the first change.  All changes made during the
+ * delay are written by the same flush.  Pending changes are also written when the JVM
+ * shuts down and when {@link #flush()} is called explicitly.  A single shutdown hook
+ * writes the changes of all root nodes that have not been closed.
+ * <p>
+ * Changes made directly to the backing node are not seen until {@link #sync()} is called.
+ */
+public class WriteBehindPreferences extends AbstractPreferences {
+	private static final Logger log = LoggerFactory.getLogger(WriteBehindPreferences.class);
+
+	/** Default delay between the first change and writing the changes, in milliseconds. */
+	public static final long DEFAULT_FLUSH_DELAY = 2000;
+
+	private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread t = new Thread(r, "PreferencesFlusher");
+		t.setDaemon(true);
+		return t;
+	});
+
+	/** The root nodes that are not closed, written by the shutdown hook. */
+	private static final Set<WriteBehindPreferences> OPEN_ROOTS =
+			Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(WriteBehindPreferences::flushAll, "PreferencesShutdownFlusher"));
+	}
+
+	private final Preferences backing;
+	private final WriteBehindPreferences root;
+
+	/** The current values of this node. */
+	private final Map<String, String> values = new HashMap<>();
+	/** Changes not yet written to the backing node, a null value for a removed key. */
+	private final Map<String, String> pending = new LinkedHashMap<>();
+
+	// The following fields are only used by the root node
+	private final long flushDelay;
+	private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+	private final AtomicLong writeCount = new AtomicLong();
+	private final AtomicLong flushCount = new AtomicLong();
+	private volatile boolean closed = false;
+
+
+	/**
+	 * Create a write-behind root node over a backing node.
+	 *
+	 * @param backing		the node to store the preferences in.
+	 * @param flushDelay	the delay in milliseconds between the first change and writing
+	 * 						the changes to the backing node.
+	 */
+	public WriteBehindPreferences(Preferences backing, long flushDelay) {
+		super(null, "");
+		this.backing = backing;
+		this.root = this;
+		this.flushDelay = flushDelay;
+		load();
+		OPEN_ROOTS.add(this);
+	}
+
+	/**
+	 * Create a write-behind root node over a backing node using the default delay.
+	 *
+	 * @param backing	the node to store the preferences in.
+	 */
+	public WriteBehindPreferences(Preferences backing) {
+		this(backing, DEFAULT_FLUSH_DELAY);
+	}
+
+	private WriteBehindPreferences(WriteBehindPreferences parent, String name) {
+		super(parent, name);
+		this.backing = parent.backing.node(name);
+		this.root = parent.root;
+		this.flushDelay = 0;
+		load();
+	}
+
+
+	/**
+	 * Return the number of backing store flushes avoided by collecting changes, i.e. the
+	 * number of changes minus the number of flushes that have been done.
+	 *
+	 * @return	the number of avoided flushes.
+	 */
+	public long getAvoidedFlushCount() {
+		return Math.max(0, root.writeCount.get() - root.flushCount.get());
+	}
+
+	/**
+	 * @return	the number of times the backing store has been flushed.
+	 */
+	public long getFlushCount() {
+		return root.flushCount.get();
+	}
+
+	/**
+	 * @return	whether changes are waiting to be written to the backing node.
+	 */
+	public boolean isFlushScheduled() {
+		return root.flushScheduled.get();
+	}
+
+
+	/**
+	 * Write the pending changes and stop writing to the backing node.  Changes made after
+	 * closing are only kept in memory.  Call this before the backing node is removed or
+	 * replaced, so that it is not written to later, e.g. when the JVM shuts down.
+	 */
+	public void close() throws BackingStoreException {
+		root.closed = true;
+		OPEN_ROOTS.remove(root);
+		root.flush();
+		// A flush that is still scheduled does nothing
+		root.flushScheduled.set(false);
+	}
+
+	/**
+	 * @return	whether {@link #close()} has been called.
+	 */
+	public boolean isClosed() {
+		return root.closed;
+	}
+
+
+	/**
+	 * Write all pending changes of this node and its descendants to the backing node,
+	 * and flush the backing node to the persistent store.
+	 */
+	@Override
+	public void flush() throws BackingStoreException {
+		super.flush();
+		backing.flush();
+		root.flushCount.incrementAndGet();
+	}
+
+
+	/**
+	 * Exports from the backing node after writing the pending changes, so that the
+	 * exported paths are those of the backing node.
+	 */
+	@Override
+	public void exportNode(OutputStream os) throws IOException, BackingStoreException {
+		flush();
+		backing.exportNode(os);
+	}
+
+	@Override
+	public void exportSubtree(OutputStream os) throws IOException, BackingStoreException {
+		flush();
+		backing.exportSubtree(os);
+	}
+
+	@Override
+	public String name() {
+		return backing.name();
+	}
+
+	@Override
+	public String absolutePath() {
+		return backing.absolutePath();
+	}
+
+	@Override
+	public boolean isUserNode() {
+		return backing.isUserNode();
+	}
+
+
+	private void load() {
+		try {
+			for (String key : backing.keys()) {
+				String value = backing.get(key, null);
+				if (value != null) {
+					values.put(key, value);
+				}
+			}
+		} catch (BackingStoreException e) {
+			log.warn("Unable to read preferences from " + backing.absolutePath(), e);
+		}
+	}
+
+	private void changed() {
+		root.writeCount.incrementAndGet();
+		if (!root.closed && root.flushScheduled.compareAndSet(false, true)) {
+			TIMER.schedule(root::scheduledFlush, root.flushDelay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void scheduledFlush() {
+		// Changes made from now on schedule a new flush
+		flushScheduled.set(false);
+		if (closed) {
+			return;
+		}
+		flushQuietly();
+		log.debug("Flushed preferences, " + getAvoidedFlushCount() + " flushes avoided this far");
+	}
+
+	/**
+	 * Write the pending changes of all root nodes that are not closed.
+	 */
+	static void flushAll() {
+		List<WriteBehindPreferences> roots;
+		synchronized (OPEN_ROOTS) {
+			roots = new ArrayList<>(OPEN_ROOTS);
+		}
+		for (WriteBehindPreferences root : roots) {
+			root.flushQuietly();
+		}
+	}
+
+	private void flushQuietly() {
+		try {
+			flush();
+		} catch (BackingStoreException | IllegalStateException e) {
+			log.warn("Unable to write preferences to " + backing.absolutePath(), e);
+		}
+	}
+
+
+	@Override
+	protected void putSpi(String key, String value) {
+		if (!value.equals(values.put(key, value))) {
+			pending.put(key, value);
+			changed();
+		}
+	}
+
+	@Override
+	protected String getSpi(String key) {
+		return values.get(key);
+	}
+
+	@Override
+	protected void removeSpi(String key) {
+		if (values.remove(key) != null) {
+			pending.put(key, null);
+			changed();
+		}
+	}
+
+	@Override
+	protected void removeNodeSpi() throws BackingStoreException {
+		values.clear();
+		pending.clear();
+		backing.removeNode();
+		changed();
+	}
+
+	@Override
+	protected String[] keysSpi() {
+		return values.keySet().toArray(new String[0]);
+	}
+
+	@Override
+	protected String[] childrenNamesSpi() throws BackingStoreException {
+		return backing.childrenNames();
+	}
+
+	@Override
+	protected AbstractPreferences childSpi(String name) {
+		return new WriteBehindPreferences(this, name);
+	}
+
+	@Override
+	protected void syncSpi() throws BackingStoreException {
+		flushSpi();
+		backing.sync();
+		values.clear();
+		load();
+	}
+
+	@Override
+	protected void flushSpi() throws BackingStoreException {
+		if (isRemoved() || pending.isEmpty()) {
+			return;
+		}
+		for (Map.Entry<String, String> entry : pending.entrySet()) {
+			if (entry.getValue() == null) {
+				backing.remove(entry.getKey());
+			} else {
+				backing.put(entry.getKey(), entry.getValue());
+			}
+		}
+		pending.clear();
+	}
+}
@@ -0,0 +1,78 @@
+package info.openrocket.core.rocketcomponent;
+
+/**
+ * A batch of component changes, during which the component change events of a rocket are
+ * collected and merged into a single event that is fired when the transaction is closed.
+ * Transactions are created using {@link Rocket#beginTransaction()} and may be nested.
+ */
+public final class ComponentChangeTransaction implements AutoCloseable {
+
+	private final Rocket rocket;
+	private final long startEventCount;
+	private long endEventCount = -1;
+
+	ComponentChangeTransaction(Rocket rocket) {
+		this.rocket = rocket;
+		this.startEventCount = rocket.getTransactionEventCount();
+	}
+
+	/**
+	 * Begin a transaction for an edit of a component that is also applied to its config
+	 * listeners, i.e. an edit of several selected components, so that the edit fires a
+	 * single event.
+	 *
+	 * @param source	the edited object.
+	 * @return			the transaction, or <code>null</code> if the object is not a component of
+	 * 					a rocket with config listeners.
+	 */
+	public static ComponentChangeTransaction beginForConfigListeners(Object source) {
+		if (!(source instanceof RocketComponent)) {
+			return null;
+		}
+		RocketComponent component = (RocketComponent) source;
+		RocketComponent root = component.getRoot();
+		if (component.getConfigListeners().isEmpty() || !(root instanceof Rocket)) {
+			return null;
+		}
+		return ((Rocket) root).beginTransaction();
+	}
+
+	/**
+	 * @return the rocket this transaction applies to.
+	 */
+	public Rocket getRocket() {
+		return rocket;
+	}
+
+	/**
+	 * Return the number of component change events merged into this transaction (including
+	 * the events of nested transactions).
+	 *
+	 * @return the number of events collected so far, or in total if the transaction is closed.
+	 */
+	public int getEventCount() {
+		long end = isClosed() ? endEventCount : rocket.getTransactionEventCount();
+		return (int) (end - startEventCount);
+	}
+
+	/**
+	 * @return whether this transaction has been closed.
+	 */
+	public boolean isClosed() {
+		return endEventCount >= 0;
+	}
+
+	/**
+	 * Close the transaction.  If this is the outermost open transaction of the rocket, the
+	 * collected events are merged and fired as a single event.  Closing a transaction more
+	 * than once has no effect.
+	 */
+	@Override
+	public void close() {
+		if (isClosed()) {
+			return;
+		}
+		endEventCount = rocket.getTransactionEventCount();
+		rocket.endTransaction();
+	}
+}
@@ -64,14 +64,14 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		}
 	}
 
-	/* Cached data */
-	final protected Map<Integer, StageFlags> stages = new HashMap<>(); // Map of stage number to StageFlags of the
+	/* Cached data, replaced by new maps whenever it is recomputed */
+	protected volatile Map<Integer, StageFlags> stages = new HashMap<>(); // Map of stage number to StageFlags of the
 																		// corresponding stage
-	final protected Map<MotorConfigurationId, MotorConfiguration> motors = new HashMap<>();
+	protected volatile Map<MotorConfigurationId, MotorConfiguration> motors = new HashMap<>();
 	private Map<Integer, Boolean> preloadStageActiveness = null;
-	final private Collection<MotorConfiguration> activeMotors = new ConcurrentLinkedQueue<>();
-	final private InstanceMap activeInstances = new InstanceMap();
-	final private InstanceMap extraRenderInstances = new InstanceMap(); // Extra instances to be rendered, besides the
+	private volatile Collection<MotorConfiguration> activeMotors = new ConcurrentLinkedQueue<>();
+	private volatile InstanceMap activeInstances = new InstanceMap();
+	private volatile InstanceMap extraRenderInstances = new InstanceMap(); // Extra instances to be rendered, besides the
 																		// active instances
 
 	private ModID boundsModID = ModID.INVALID;
@@ -85,6 +85,11 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 
 	private ModID modID = ModID.ZERO;
 
+	// Whether the stages, motors and instances need to be recomputed before they are read
+	private volatile boolean dirty = false;
+	// Whether the stages, motors and instances are being recomputed, guarded by this
+	private boolean updating = false;
+
 	/**
 	 * Create a Default configuration with the specified <code>Rocket</code>.
 	 *
@@ -128,6 +133,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	}
 
 	private void _setAllStages(final boolean _active) {
+		ensureUpdated();
 		for (StageFlags cur : stages.values()) {
 			cur.active = _active;
 		}
@@ -136,8 +142,12 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	}
 
 	public void copyStages(FlightConfiguration other) {
+		ensureUpdated();
+		other.ensureUpdated();
+		Map<Integer, StageFlags> stages = new HashMap<>(this.stages);
 		for (StageFlags cur : other.stages.values())
 			stages.put(cur.stageNumber, new StageFlags(cur.stageNumber, cur.stageId, cur.active));
+		this.stages = stages;
 		updateMotors();
 		updateActiveInstances();
 	}
@@ -148,6 +158,8 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	 * @param other the configuration to copy the stage active flags from.
 	 */
 	public void copyStageActiveness(FlightConfiguration other) {
+		ensureUpdated();
+		other.ensureUpdated();
 		for (StageFlags flags : this.stages.values()) {
 			StageFlags otherFlags = other.stages.get(flags.stageNumber);
 			if (otherFlags != null) {
@@ -238,6 +250,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	 *                          be activated as well.
 	 */
 	public void _setStageActive(final int stageNumber, final boolean _active, final boolean activateSubStages) {
+		ensureUpdated();
 		if ((0 <= stageNumber) && (stages.containsKey(stageNumber))) {
 			stages.get(stageNumber).active = _active;
 			if (activateSubStages) {
@@ -265,6 +278,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	}
 
 	public void toggleStage(final int stageNumber) {
+		ensureUpdated();
 		if ((0 <= stageNumber) && (stages.containsKey(stageNumber))) {
 			StageFlags flags = stages.get(stageNumber);
 			flags.active = !flags.active;
@@ -286,6 +300,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		if (-1 == stageNumber) {
 			return true;
 		}
+		ensureUpdated();
 
 		AxialStage stage = rocket.getStage(stageNumber);
 		return stage != null && stage.getChildCount() > 0 && // Stages with no children are marked as inactive
@@ -410,6 +425,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	}
 
 	public InstanceMap getActiveInstances() {
+		ensureUpdated();
 		return activeInstances;
 	}
 
@@ -423,6 +439,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	 *         present in {@link #getActiveInstances()}.
 	 */
 	public InstanceMap getExtraRenderInstances() {
+		ensureUpdated();
 		return extraRenderInstances;
 	}
 
@@ -434,13 +451,15 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	 * ONLY WHEN READY / MATURE!
 	 */
 	private void updateActiveInstances() {
-		activeInstances.clear();
-		extraRenderInstances.clear();
-		getActiveContextListAt(this.rocket, activeInstances, Transformation.IDENTITY);
+		InstanceMap instances = new InstanceMap();
+		InstanceMap extraInstances = new InstanceMap();
+		getActiveContextListAt(this.rocket, instances, extraInstances, Transformation.IDENTITY);
+		activeInstances = instances;
+		extraRenderInstances = extraInstances;
 	}
 
 	private InstanceMap getActiveContextListAt(final RocketComponent component, final InstanceMap results,
-			final Transformation parentTransform) {
+			final InstanceMap extraResults, final Transformation parentTransform) {
 
 		final int instanceCount = component.getInstanceCount();
 		final Coordinate[] allOffsets = component.getInstanceOffsets();
@@ -464,11 +483,11 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 				// Boosters with no children are marked as inactive, but still need to be
 				// rendered.
 				// See GitHub issue #1980 for more information.
-				extraRenderInstances.emplace(component, currentInstanceNumber, currentTransform);
+				extraResults.emplace(component, currentInstanceNumber, currentTransform);
 			}
 
 			for (RocketComponent child : component.getChildren()) {
-				getActiveContextListAt(child, results, currentTransform);
+				getActiveContextListAt(child, results, extraResults, currentTransform);
 			}
 		}
 
@@ -481,6 +500,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	 * @return all the stages in this configuration.
 	 */
 	public List<AxialStage> getAllStages() {
+		ensureUpdated();
 		List<AxialStage> stages = new ArrayList<>();
 		for (StageFlags flags : this.stages.values()) {
 			stages.add(rocket.getStage(flags.stageId));
@@ -489,6 +509,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	}
 
 	public List<AxialStage> getActiveStages() {
+		ensureUpdated();
 		List<AxialStage> activeStages = new ArrayList<>();
 
 		for (StageFlags flags : this.stages.values()) {
@@ -512,6 +533,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	 * @return the component for the bottom-most center, active stage.
 	 */
 	public AxialStage getBottomStage() {
+		ensureUpdated();
 		AxialStage bottomStage = null;
 		for (StageFlags curFlags : this.stages.values()) {
 			if (isStageActive(curFlags.stageNumber)) {
@@ -522,6 +544,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	}
 
 	public int getStageCount() {
+		ensureUpdated();
 		return stages.size();
 	}
 
@@ -559,9 +582,9 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		boundsModID = ModID.INVALID;
 		refLengthModID = ModID.INVALID;
 
-		updateStages();
-		updateMotors();
-		updateActiveInstances();
+		synchronized (this) {
+			rebuild();
+		}
 	}
 
 	/**
@@ -572,8 +595,8 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	}
 
 	private void updateStages() {
-		Map<Integer, FlightConfiguration.StageFlags> stagesBackup = new HashMap<>(this.stages);
-		this.stages.clear();
+		Map<Integer, FlightConfiguration.StageFlags> stagesBackup = this.stages;
+		Map<Integer, FlightConfiguration.StageFlags> stages = new HashMap<>();
 		for (AxialStage curStage : this.rocket.getStageList()) {
 			if (curStage == null)
 				continue;
@@ -585,8 +608,9 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 				}
 			}
 			StageFlags flagsToAdd = new StageFlags(curStage.getStageNumber(), curStage.getID(), active);
-			this.stages.put(curStage.getStageNumber(), flagsToAdd);
+			stages.put(curStage.getStageNumber(), flagsToAdd);
 		}
+		this.stages = stages;
 	}
 
 	public boolean isNameOverridden() {
@@ -646,26 +670,31 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 					new IllegalArgumentException("empty MotorInstance: " + motorConfig.toDebugDetail()));
 		}
 
-		this.motors.put(motorConfig.getID(), motorConfig);
+		ensureUpdated();
+		Map<MotorConfigurationId, MotorConfiguration> motors = new HashMap<>(this.motors);
+		motors.put(motorConfig.getID(), motorConfig);
+		this.motors = motors;
 
 		modID = new ModID();
 	}
 
 	public boolean hasMotors() {
+		ensureUpdated();
 		return (0 < motors.size());
 	}
 
 	public Collection<MotorConfiguration> getAllMotors() {
+		ensureUpdated();
 		return this.motors.values();
 	}
 
 	public Collection<MotorConfiguration> getActiveMotors() {
-
+		ensureUpdated();
 		return activeMotors;
 	}
 
 	private void updateMotors() {
-		motors.clear();
+		Map<MotorConfigurationId, MotorConfiguration> motors = new HashMap<>();
 
 		for (RocketComponent comp : getActiveComponents()) {
 			if ((comp instanceof MotorMount) && (((MotorMount) comp).isMotorMount())) {
@@ -679,19 +708,72 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 			}
 		}
 
-		activeMotors.clear();
+		Collection<MotorConfiguration> activeMotors = new ConcurrentLinkedQueue<>();
 		for (MotorConfiguration config : motors.values()) {
 			if (isComponentActive(config.getMount())) {
 				activeMotors.add(config);
 			}
 		}
+		this.motors = motors;
+		this.activeMotors = activeMotors;
 	}
 
 	@Override
 	public void update() {
-		updateStages();
-		updateMotors();
-		updateActiveInstances();
+		synchronized (this) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Mark the stages, motors and active instances of this configuration as out of date.  Unlike
+	 * {@link #update()}, nothing is recomputed here; the configuration is updated the next time
+	 * one of these is read.  This keeps component edits cheap on rockets with many configurations,
+	 * as only the configurations that are actually used are rebuilt.
+	 */
+	public void invalidate() {
+		boundsModID = ModID.INVALID;
+		refLengthModID = ModID.INVALID;
+		dirty = true;
+	}
+
+	/**
+	 * @return whether the configuration needs to be updated before it is next read.
+	 */
+	public boolean isDirty() {
+		return dirty;
+	}
+
+	/**
+	 * Update the stages, motors and active instances if the configuration has been invalidated.
+	 * Other threads reading the configuration meanwhile wait for the update, or still read the
+	 * previous maps, which the update replaces rather than modifies.
+	 */
+	private void ensureUpdated() {
+		if (dirty) {
+			synchronized (this) {
+				// The update itself reads the stages
+				if (dirty && !updating) {
+					rebuild();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Recompute the stages, motors and active instances.  The caller must hold the lock of
+	 * this configuration.
+	 */
+	private void rebuild() {
+		updating = true;
+		try {
+			updateStages();
+			updateMotors();
+			updateActiveInstances();
+			dirty = false;
+		} finally {
+			updating = false;
+		}
 	}
 
 	/**
@@ -913,6 +995,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		// Note the stages are updated in the constructor call.
 		FlightConfiguration copy = new FlightConfiguration(this.rocket, newId);
 		final FlightConfigurationId copyId = copy.getId();
+		ensureUpdated();
 
 		// copy motor instances.
 		for (final MotorConfiguration sourceMotor : motors.values()) {
@@ -967,6 +1050,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 
 	// DEBUG / DEVEL
 	public String toStageListDetail() {
+		ensureUpdated();
 		StringBuilder buf = new StringBuilder();
 		buf.append(String.format("\nDumping %d stages for config: %s: (%s)(#: %d)\n",
 				stages.size(), getName(), getId().toShortKey(), configurationInstanceId));
@@ -982,6 +1066,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 
 	// DEBUG / DEVEL
 	public String toMotorDetail() {
+		ensureUpdated();
 		StringBuilder buf = new StringBuilder();
 		buf.append(String.format("\nDumping %2d Motors for configuration %s (%s)(#: %s)\n",
 				motors.size(), getName(), getId().toShortKey(), this.configurationInstanceId));
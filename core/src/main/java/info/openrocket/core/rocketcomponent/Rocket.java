@@ -1,15 +1,19 @@
 package info.openrocket.core.rocketcomponent;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EventListener;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import info.openrocket.core.document.OpenRocketDocument;
 import org.slf4j.Logger;
@@ -50,6 +54,30 @@ public class Rocket extends ComponentAssembly {
 	 * When the structure is thawed, a single combined event will be fired.
 	 */
 	private List<ComponentChangeEvent> freezeList = null;
+
+	/**
+	 * When transactionEvents != null, a change transaction is open and events are stored
+	 * in the list.  When the outermost transaction is closed, a single merged event is fired.
+	 */
+	private List<ComponentChangeEvent> transactionEvents = null;
+	/**
+	 * The IDs of the flight configurations changed by the events of the open transaction,
+	 * or <code>null</code> if all configurations were changed.
+	 */
+	private Set<FlightConfigurationId> transactionIds = null;
+	private int transactionDepth = 0;
+	private long transactionEventCount = 0;
+	private long firedEventCount = 0;
+
+	/**
+	 * Changed on events that may modify component states without the components firing
+	 * the event themselves (e.g. motor and event configuration changes).  Component states
+	 * are only shared between {@link RocketSnapshot}s taken with the same epoch.
+	 */
+	private ModID stateEpochModID = new ModID();
+
+	// Used instead of the component tree to resolve stages in copyWithOriginalID()
+	private Function<UUID, RocketComponent> stageLookup = null;
 	
 	
 	private ModID modID;
@@ -400,11 +428,13 @@ public class Rocket extends ComponentAssembly {
 	@Override
 	public Rocket copyWithOriginalID() {
 		final Rocket copyRocket = (Rocket) super.copyWithOriginalID();
+		final Function<UUID, RocketComponent> stages = stageLookup != null ? stageLookup : copyRocket::findComponent;
+		copyRocket.stageLookup = null;
 
 		// Rocket copy is cloned, so non-trivial members must be cloned as well:
 		copyRocket.stageMap = new ConcurrentHashMap<>();
 		for (Map.Entry<Integer,AxialStage> entry : this.stageMap.entrySet()){
-			final AxialStage stage = (AxialStage)copyRocket.findComponent(entry.getValue().getID());
+			final AxialStage stage = (AxialStage) stages.apply(entry.getValue().getID());
 			if (stage == null) {
 				throw new IllegalStateException("Stage not found in copy");
 			}
@@ -424,10 +454,30 @@ public class Rocket extends ComponentAssembly {
 
 		copyRocket.selectedConfiguration = copyRocket.configSet.get( this.getSelectedConfiguration().getId());
 		copyRocket.listenerList = new HashSet<>();
+		copyRocket.transactionEvents = null;
+		copyRocket.transactionIds = null;
+		copyRocket.transactionDepth = 0;
 		
 		return copyRocket;
 	}
 	
+	/**
+	 * Make a copy of the state of this rocket without its children, for {@link RocketSnapshot}.
+	 * The stages of the stage map are resolved from the given component states instead of
+	 * the (non-existent) children of the copy.
+	 *
+	 * @param states	copies of the components of this rocket, by component ID.
+	 * @return a copy of this rocket without children.
+	 */
+	Rocket copyStateWithOriginalID(Map<UUID, RocketComponent> states) {
+		stageLookup = states::get;
+		try {
+			return (Rocket) copyWithOriginalID(Collections.emptyList());
+		} finally {
+			stageLookup = null;
+		}
+	}
+
 	public int getFlightConfigurationCount() {
 		checkState();
 		return this.configSet.size();
@@ -584,6 +634,9 @@ public class Rocket extends ComponentAssembly {
 					functionalModID = modID;
 					updateConfigurationsModID(ids);
 				}
+				if (cce.isMotorChange() || cce.isEventChange() || !(cce.getSource() instanceof RocketComponent)) {
+					stateEpochModID = modID;
+				}
 			}
 
 			// Check whether frozen
@@ -593,6 +646,18 @@ public class Rocket extends ComponentAssembly {
 				return;
 			}
 
+			// Check whether in a change transaction
+			if (transactionEvents != null) {
+				transactionEvents.add(cce);
+				transactionEventCount++;
+				if (ids == null) {
+					transactionIds = null;
+				} else if (transactionIds != null) {
+					Collections.addAll(transactionIds, ids);
+				}
+				return;
+			}
+
 			// Notify all components first
 			Iterator<RocketComponent> iterator = this.iterator(true);
 			while (iterator.hasNext()) {
@@ -602,6 +667,7 @@ public class Rocket extends ComponentAssembly {
 			updateConfigurations(ids);
 
 			notifyAllListeners(cce);
+			firedEventCount++;
 
 		} finally {
 			mutex.unlock("fireComponentChangeEvent");
@@ -661,21 +727,22 @@ public class Rocket extends ComponentAssembly {
 	}
 
 	/**
-	 * Update the flight configurations.
+	 * Invalidate the flight configurations.  The configurations are not updated here, but only
+	 * when they are next read, so that an edit does not rebuild every configuration of the rocket.
 	 *
 	 * @param ids IDs of the flight configurations to update, or null to update all.
 	 */
 	private void updateConfigurations(FlightConfigurationId[] ids) {
 		if (ids == null) {
 			for (FlightConfiguration config : configSet) {
-				config.update();
+				config.invalidate();
 			}
 			return;
 		}
 		for (FlightConfiguration config : configSet) {
 			for (FlightConfigurationId id : ids) {
 				if (config.getId().equals(id)) {
-					config.update();
+					config.invalidate();
 					break;
 				}
 			}
@@ -754,15 +821,99 @@ public class Rocket extends ComponentAssembly {
 		
 		log.debug("Thawing rocket, freezeList=" + freezeList);
 		
+		ComponentChangeEvent event = mergeEvents(freezeList);
+		freezeList = null;
+		
+		fireComponentChangeEvent(event);
+	}
+
+	/**
+	 * Begin a change transaction.  Until the transaction is closed, component change events
+	 * are not dispatched.  When it is closed, the events are merged into a single event whose
+	 * type is the combination of the types of the events fired during the transaction, and
+	 * the source is the last component to have been an event source.  The merged event
+	 * updates the flight configurations updated by any of the events.
+	 * <p>
+	 * Unlike {@link #freeze()}, transactions may be nested; the merged event is fired when
+	 * the outermost transaction is closed.  Use try-with-resources to ensure the transaction
+	 * is closed:
+	 * <pre>
+	 *     try (ComponentChangeTransaction t = rocket.beginTransaction()) {
+	 *         // do stuff
+	 *     }
+	 * </pre>
+	 *
+	 * @return the transaction, which must be closed.
+	 */
+	public ComponentChangeTransaction beginTransaction() {
+		checkState();
+		if (transactionDepth == 0) {
+			transactionEvents = new ArrayList<>();
+			transactionIds = new LinkedHashSet<>();
+		}
+		transactionDepth++;
+		return new ComponentChangeTransaction(this);
+	}
+
+	/**
+	 * Close a change transaction, see {@link ComponentChangeTransaction#close()}.
+	 */
+	void endTransaction() {
+		checkState();
+		if (transactionDepth <= 0) {
+			Application.getExceptionHandler().handleErrorCondition("Attempting to end a change transaction when none is open");
+			return;
+		}
+		transactionDepth--;
+		if (transactionDepth > 0) {
+			return;
+		}
+
+		List<ComponentChangeEvent> events = transactionEvents;
+		Set<FlightConfigurationId> ids = transactionIds;
+		transactionEvents = null;
+		transactionIds = null;
+		if (events.isEmpty()) {
+			return;
+		}
+		log.debug("Committing change transaction, merging " + events.size() + " events");
+		fireComponentChangeEvent(mergeEvents(events),
+				ids == null ? null : ids.toArray(new FlightConfigurationId[0]));
+	}
+
+	/**
+	 * @return the epoch of component states, see {@link RocketSnapshot}.
+	 */
+	ModID getStateEpochModID() {
+		return stateEpochModID;
+	}
+
+	/**
+	 * @return the total number of events that have been merged into change transactions.
+	 */
+	public long getTransactionEventCount() {
+		return transactionEventCount;
+	}
+
+	/**
+	 * @return the total number of component change events dispatched to the listeners.
+	 */
+	public long getFiredEventCount() {
+		return firedEventCount;
+	}
+
+	/**
+	 * Merge events into a single event.  The type is the combination of the event types, and
+	 * the source is the last component to have been an event source.
+	 */
+	private static ComponentChangeEvent mergeEvents(List<ComponentChangeEvent> events) {
 		int type = 0;
 		Object c = null;
-		for (ComponentChangeEvent e : freezeList) {
+		for (ComponentChangeEvent e : events) {
 			type = type | e.getType();
 			c = e.getSource();
 		}
-		freezeList = null;
-		
-		fireComponentChangeEvent(new ComponentChangeEvent((RocketComponent) c, type));
+		return new ComponentChangeEvent((RocketComponent) c, type);
 	}
 	
 	
@@ -149,6 +149,16 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	// If true, component change events will not be fired
 	private boolean bypassComponentChangeEvent = false;
 
+	/**
+	 * Modification ID of the state of this component alone (not its children), changed
+	 * whenever this component fires a change event.  Copies share the ID of the original,
+	 * which allows {@link RocketSnapshot} to share unchanged component states.
+	 */
+	private ModID stateModID = new ModID();
+
+	// Children to use instead of copies of the current children in copyWithOriginalID()
+	private List<RocketComponent> replacementChildren = null;
+
 	/**
 	 * Controls the visibility of the component. If false, the component will not be rendered.
 	 * Visibility does not affect component simulation.
@@ -440,13 +450,21 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 			// Reset all parent/child information
 			clone.parent = null;
 			clone.children = new ArrayList<>();
+			clone.replacementChildren = null;
 			
 			// Add copied children to the structure without firing events.
-			for (RocketComponent child : this.children) {
-				RocketComponent childCopy = child.copyWithOriginalID();
-				// Don't use addChild(...) method since it fires events
-				clone.children.add(childCopy);
-				childCopy.parent = clone;
+			if (this.replacementChildren != null) {
+				for (RocketComponent child : this.replacementChildren) {
+					clone.children.add(child);
+					child.parent = clone;
+				}
+			} else {
+				for (RocketComponent child : this.children) {
+					RocketComponent childCopy = child.copyWithOriginalID();
+					// Don't use addChild(...) method since it fires events
+					clone.children.add(childCopy);
+					childCopy.parent = clone;
+				}
 			}
 			
 			this.checkComponentStructure();
@@ -458,6 +476,33 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 		}
 	}
 
+	/**
+	 * Make a copy of this component while maintaining the component ID, using the given
+	 * components as the children of the copy instead of copies of the current children.
+	 * The given components must not have a parent.  This method does not fire any events.
+	 *
+	 * @param children	the children of the copy.
+	 * @return A copy of this component with the given children.
+	 * @see RocketSnapshot
+	 */
+	final RocketComponent copyWithOriginalID(List<RocketComponent> children) {
+		this.replacementChildren = children;
+		try {
+			return copyWithOriginalID();
+		} finally {
+			this.replacementChildren = null;
+		}
+	}
+
+	/**
+	 * Return the modification ID of the state of this component, excluding its children.
+	 * The ID changes whenever this component fires a change event, and is shared with
+	 * copies of this component.
+	 */
+	ModID getStateModID() {
+		return stateModID;
+	}
+
 	@Override
 	public RocketComponent clone() throws CloneNotSupportedException {
 		RocketComponent clone = (RocketComponent) super.clone();
@@ -1208,54 +1253,51 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	 * @param params    extra parameters to be used in the preset loading
 	 */
 	public final void loadPreset(ComponentPreset preset, Object...params) {
-		for (RocketComponent listener : configListeners) {
-			listener.loadPreset(preset, params);
-		}
-
-		if (presetComponent == preset) {
-			return;
-		}
-		
-		if (preset == null) {
-			clearPreset();
-			return;
-		}
-		
-		// TODO - do we need to this compatibility check?
-		/*
-		if (preset.getComponentClass() != this.getClass()) {
-			throw new IllegalArgumentException("Attempting to load preset of type " + preset.getComponentClass()
-					+ " into component of type " + this.getClass());
-		}
-		 */
-		
+		// Combine the events of this component and its config listeners into a single event
 		RocketComponent root = getRoot();
-		final Rocket rocket;
+		final ComponentChangeTransaction transaction;
 		if (root instanceof Rocket) {
-			rocket = (Rocket) root;
+			transaction = ((Rocket) root).beginTransaction();
 		} else {
-			rocket = null;
+			transaction = null;
 		}
-		
+
 		try {
-			if (rocket != null) {
-				rocket.freeze();
+			for (RocketComponent listener : configListeners) {
+				listener.loadPreset(preset, params);
+			}
+
+			if (presetComponent == preset) {
+				return;
 			}
 
+			if (preset == null) {
+				clearPreset();
+				return;
+			}
+
+			// TODO - do we need to this compatibility check?
+			/*
+			if (preset.getComponentClass() != this.getClass()) {
+				throw new IllegalArgumentException("Attempting to load preset of type " + preset.getComponentClass()
+						+ " into component of type " + this.getClass());
+			}
+			 */
+
 			if (params == null || params.length == 0)
 				loadFromPreset(preset);
 			else
 				loadFromPreset(preset, params);
-			
+
 			this.presetComponent = preset;
-			
+
+			fireComponentChangeEvent(ComponentChangeEvent.NONFUNCTIONAL_CHANGE);
 		} finally {
-			if (rocket != null) {
-				rocket.thaw();
+			if (transaction != null) {
+				transaction.close();
+				log.debug("Loaded preset " + preset + " into " + this + ", merged " + transaction.getEventCount() + " events");
 			}
 		}
-
-		fireComponentChangeEvent(ComponentChangeEvent.NONFUNCTIONAL_CHANGE);
 	}
 
 	public final void loadPreset(ComponentPreset preset) {
@@ -1266,8 +1308,8 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	 * Load component properties from the specified preset.  The preset is guaranteed
 	 * to be of the correct type.
 	 * <p>
-	 * This method should fire the appropriate events related to the changes.  The rocket
-	 * is frozen by the caller, so the events will be automatically combined.
+	 * This method should fire the appropriate events related to the changes.  The caller
+	 * opens a change transaction on the rocket, so the events will be automatically combined.
 	 * <p>
 	 * This method must FIRST perform the preset loading and THEN call super.loadFromPreset().
 	 * This is because mass setting requires the dimensions to be set beforehand.
@@ -2656,6 +2698,9 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	 */
 	protected void fireComponentChangeEvent(ComponentChangeEvent e) {
 		checkState();
+		if (!e.isUndoChange()) {
+			stateModID = new ModID();
+		}
 		if (parent == null || bypassComponentChangeEvent) {
 			/* Ignore if root invalid. */
 			return;
@@ -0,0 +1,192 @@
+package info.openrocket.core.rocketcomponent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import info.openrocket.core.util.ModID;
+
+/**
+ * An immutable snapshot of the state of a rocket, used for the undo/redo history.
+ * <p>
+ * Instead of a deep copy of the entire component tree, the snapshot stores a copy of the
+ * state of each component without its children.  When a snapshot is taken, the states of
+ * the previous snapshot are reused for all components that have not fired a change event
+ * since, so consecutive snapshots share the states of unchanged components, and entire
+ * unchanged subtrees.  Typically an undo position only copies the rocket itself and the
+ * components that were edited.
+ * <p>
+ * Some fields are derived from other components without firing a change event: the length
+ * of component assemblies and the positions of components.  A state is therefore only
+ * reused if these fields are unchanged as well.  Other changes of a component that do not
+ * fire a change event, e.g. edits with change events bypassed or direct field changes, are
+ * not detected, and the snapshot keeps the state from before the change.  Such changes must
+ * be followed by a change event of the component before the next snapshot is taken.
+ * <p>
+ * A rocket is built from the snapshot using {@link #toRocket()} only when it is restored.
+ */
+public final class RocketSnapshot {
+
+	private final Rocket rocketState;
+	private final Node[] children;
+	private final ModID modID;
+	private final ModID stateEpochModID;
+	private final int componentCount;
+	private final int copiedComponentCount;
+
+	private RocketSnapshot(Rocket rocketState, Node[] children, ModID modID, ModID stateEpochModID,
+			int componentCount, int copiedComponentCount) {
+		this.rocketState = rocketState;
+		this.children = children;
+		this.modID = modID;
+		this.stateEpochModID = stateEpochModID;
+		this.componentCount = componentCount;
+		this.copiedComponentCount = copiedComponentCount;
+	}
+
+	/**
+	 * Take a snapshot of a rocket.
+	 *
+	 * @param rocket	the rocket.
+	 * @param previous	a previous snapshot of the same rocket whose component states may be
+	 * 					shared, or <code>null</code> to copy all components.
+	 * @return the snapshot.
+	 */
+	public static RocketSnapshot capture(Rocket rocket, RocketSnapshot previous) {
+		rocket.checkState();
+
+		Map<UUID, Node> previousNodes = new HashMap<>();
+		if (previous != null && previous.stateEpochModID == rocket.getStateEpochModID()) {
+			for (Node node : previous.children) {
+				node.index(previousNodes);
+			}
+		}
+
+		Map<UUID, RocketComponent> states = new HashMap<>();
+		int[] copied = new int[1];
+		Node[] children = captureChildren(rocket, previousNodes, states, copied);
+		Rocket rocketState = rocket.copyStateWithOriginalID(states);
+
+		return new RocketSnapshot(rocketState, children, rocket.getModID(), rocket.getStateEpochModID(),
+				states.size() + 1, copied[0] + 1);
+	}
+
+	private static Node[] captureChildren(RocketComponent component, Map<UUID, Node> previousNodes,
+			Map<UUID, RocketComponent> states, int[] copied) {
+		Node[] nodes = new Node[component.children.size()];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = capture(component.children.get(i), previousNodes, states, copied);
+		}
+		return nodes;
+	}
+
+	private static Node capture(RocketComponent component, Map<UUID, Node> previousNodes,
+			Map<UUID, RocketComponent> states, int[] copied) {
+		Node[] children = captureChildren(component, previousNodes, states, copied);
+
+		Node previous = previousNodes.get(component.getID());
+		RocketComponent state;
+		if (previous != null && isReusable(previous.state, component)) {
+			if (previous.hasChildren(children)) {
+				// The entire subtree is unchanged
+				states.put(previous.state.getID(), previous.state);
+				return previous;
+			}
+			state = previous.state;
+		} else {
+			state = component.copyWithOriginalID(Collections.emptyList());
+			copied[0]++;
+		}
+		states.put(state.getID(), state);
+		return new Node(state, children);
+	}
+
+	/**
+	 * Return whether the state of a previous snapshot can be used for a component, i.e. the
+	 * component has not fired a change event since, and its derived fields are unchanged.
+	 */
+	private static boolean isReusable(RocketComponent state, RocketComponent component) {
+		return state.getStateModID() == component.getStateModID() &&
+				state.getClass() == component.getClass() &&
+				state.length == component.length &&
+				state.position.x == component.position.x &&
+				state.position.y == component.position.y &&
+				state.position.z == component.position.z;
+	}
+
+	/**
+	 * Build a new rocket from this snapshot.  The components of the rocket have the
+	 * original component IDs, and the snapshot is not modified.
+	 *
+	 * @return a new rocket in the state of this snapshot.
+	 */
+	public Rocket toRocket() {
+		return (Rocket) rocketState.copyWithOriginalID(build(children));
+	}
+
+	private static List<RocketComponent> build(Node[] nodes) {
+		List<RocketComponent> components = new ArrayList<>(nodes.length);
+		for (Node node : nodes) {
+			components.add(node.state.copyWithOriginalID(build(node.children)));
+		}
+		return components;
+	}
+
+	/**
+	 * @return the modification ID of the rocket when the snapshot was taken.
+	 */
+	public ModID getModID() {
+		return modID;
+	}
+
+	/**
+	 * @return the number of components in the snapshot, including the rocket.
+	 */
+	public int getComponentCount() {
+		return componentCount;
+	}
+
+	/**
+	 * @return the number of component states that were copied for this snapshot, the
+	 * 			rest are shared with the previous snapshot.
+	 */
+	public int getCopiedComponentCount() {
+		return copiedComponentCount;
+	}
+
+	/**
+	 * The state of a single component and the nodes of its children.  Nodes are never
+	 * modified, so they can be shared between snapshots.
+	 */
+	private static final class Node {
+		private final RocketComponent state;
+		private final Node[] children;
+
+		private Node(RocketComponent state, Node[] children) {
+			this.state = state;
+			this.children = children;
+		}
+
+		private boolean hasChildren(Node[] nodes) {
+			if (nodes.length != children.length) {
+				return false;
+			}
+			for (int i = 0; i < nodes.length; i++) {
+				if (nodes[i] != children[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void index(Map<UUID, Node> nodes) {
+			nodes.put(state.getID(), this);
+			for (Node child : children) {
+				child.index(nodes);
+			}
+		}
+	}
+}
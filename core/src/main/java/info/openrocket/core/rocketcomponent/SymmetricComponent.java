@@ -38,6 +38,7 @@ public abstract class SymmetricComponent extends BodyComponent implements BoxBou
 	protected double longitudinalUnitInertia = Double.NaN;
 	protected double rotationalUnitInertia = Double.NaN;
 	protected Coordinate cg = null;
+	private SymmetricComponentProfile profile = null;
 
 	public SymmetricComponent() {
 		super();
@@ -171,6 +172,19 @@ public abstract class SymmetricComponent extends BodyComponent implements BoxBou
 		clearPreset();
 	}
 
+	/**
+	 * Return the profile of the component sampled at equally spaced stations.  The profile
+	 * is computed when first needed and shared until the shape or mass of the component changes.
+	 *
+	 * @return the profile of the component.
+	 */
+	public final SymmetricComponentProfile getProfile() {
+		if (profile == null) {
+			profile = new SymmetricComponentProfile(this, DIVISIONS);
+		}
+		return profile;
+	}
+
 	/**
 	 * Adds component bounds at a number of points between 0...length.
 	 */
@@ -452,39 +466,24 @@ public abstract class SymmetricComponent extends BodyComponent implements BoxBou
 		}
 
 		// Integrate for volume, CG, wetted area, planform area, and moments of inertia
+		final SymmetricComponentProfile profile = getProfile();
 		for (int n = 0; n < DIVISIONS; n++) {
 			/*
 			 * x1 and x2 are the bounds on this division
-			 * hyp is the length of the hypotenuse from r1 to r2
-			 * height is the y-axis height of the component if not filled
 			 * r1o and r2o are the outer radii
-			 * r1i and r2i are the inner radii
+			 * r1i and r2i are the inner radii (zero if filled)
 			 */
 
 			// get x bounds and length for this division
-			final double x1 = n * getLength() / DIVISIONS;
-			final double x2 = (n + 1) * getLength() / DIVISIONS;
+			final double x1 = profile.getX(n);
+			final double x2 = profile.getX(n + 1);
 			final double l = x2 - x1;
 
 			// get outer and inner radii
-			final double r1o = getRadius(x1);
-			final double r2o = getRadius(x2);
-
-			// use thickness and angle of outer wall to get height of ring
-			final double hyp = MathUtil.hypot(r2o - r1o, l);
-			final double height = thickness * hyp / l;
-
-			// get inner radii.
-			final double r1i;
-			final double r2i;
-			if (filled) {
-				r1i = 0;
-				r2i = 0;
-			} else {
-				// Tiny inaccuracy is introduced on a division where one end is closed and other is open.
-				r1i = MathUtil.max(r1o - height, 0);
-				r2i = MathUtil.max(r2o - height, 0);
-			}
+			final double r1o = profile.getOuterRadius(n);
+			final double r2o = profile.getOuterRadius(n + 1);
+			final double r1i = profile.getForeInnerRadius(n);
+			final double r2i = profile.getAftInnerRadius(n);
 
 			// find volume and CG of (possibly hollow) frustum
 			final Coordinate fullCG = calculateCG(l, r1o, r2o);
@@ -568,6 +567,7 @@ public abstract class SymmetricComponent extends BodyComponent implements BoxBou
 	protected void componentChanged(ComponentChangeEvent e) {
 		super.componentChanged(e);
 		if (e.isAerodynamicChange() || e.isMassChange()) {
+			profile = null;
 			wetArea = Double.NaN;
 			planArea = Double.NaN;
 			planCenter = Double.NaN;
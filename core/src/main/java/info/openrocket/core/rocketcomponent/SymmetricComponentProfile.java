@@ -0,0 +1,108 @@
+package info.openrocket.core.rocketcomponent;
+
+import info.openrocket.core.util.MathUtil;
+
+/**
+ * The profile of a {@link SymmetricComponent} sampled at equally spaced stations along
+ * its length.
+ * <p>
+ * The table holds the outer radius at each station, and for each division between two
+ * stations the inner radii at both ends, taking the wall thickness perpendicular to the
+ * outer wall.  The profile is computed once per component
+ * state by {@link SymmetricComponent#getProfile()} and shared by the mass, aerodynamic and
+ * figure calculations, so that the radius function is evaluated only once per station.
+ * <p>
+ * Instances are immutable.
+ */
+public final class SymmetricComponentProfile {
+
+	private final double length;
+	private final double[] x;
+	private final double[] outerRadius;
+	private final double[] foreInnerRadius;
+	private final double[] aftInnerRadius;
+
+	/**
+	 * Sample the profile of a component.
+	 *
+	 * @param component	the component.
+	 * @param divisions	the number of divisions, one less than the number of stations.
+	 */
+	SymmetricComponentProfile(SymmetricComponent component, int divisions) {
+		this.length = component.getLength();
+		this.x = new double[divisions + 1];
+		this.outerRadius = new double[divisions + 1];
+		this.foreInnerRadius = new double[divisions];
+		this.aftInnerRadius = new double[divisions];
+
+		for (int n = 0; n <= divisions; n++) {
+			x[n] = n * length / divisions;
+			outerRadius[n] = component.getRadius(x[n]);
+		}
+
+		final double thickness = component.thickness;
+		final boolean filled = component.filled;
+		for (int n = 0; n < divisions; n++) {
+			final double l = x[n + 1] - x[n];
+			final double r1 = outerRadius[n];
+			final double r2 = outerRadius[n + 1];
+
+			if (filled) {
+				foreInnerRadius[n] = 0;
+				aftInnerRadius[n] = 0;
+			} else {
+				// use thickness and angle of outer wall to get height of ring.
+				// Tiny inaccuracy is introduced on a division where one end is closed and other is open.
+				final double height = thickness * MathUtil.hypot(r2 - r1, l) / l;
+				foreInnerRadius[n] = MathUtil.max(r1 - height, 0);
+				aftInnerRadius[n] = MathUtil.max(r2 - height, 0);
+			}
+		}
+	}
+
+	/**
+	 * @return the length of the component when the profile was sampled.
+	 */
+	public double getLength() {
+		return length;
+	}
+
+	/**
+	 * @return the number of divisions between the stations.
+	 */
+	public int getDivisions() {
+		return foreInnerRadius.length;
+	}
+
+	/**
+	 * @param station	the station number, 0...divisions.
+	 * @return			the position of the station from the fore end of the component.
+	 */
+	public double getX(int station) {
+		return x[station];
+	}
+
+	/**
+	 * @param station	the station number, 0...divisions.
+	 * @return			the outer radius at the station.
+	 */
+	public double getOuterRadius(int station) {
+		return outerRadius[station];
+	}
+
+	/**
+	 * @param division	the division number, 0...divisions-1.
+	 * @return			the inner radius at the fore end of the division.
+	 */
+	public double getForeInnerRadius(int division) {
+		return foreInnerRadius[division];
+	}
+
+	/**
+	 * @param division	the division number, 0...divisions-1.
+	 * @return			the inner radius at the aft end of the division.
+	 */
+	public double getAftInnerRadius(int division) {
+		return aftInnerRadius[division];
+	}
+}
@@ -1,11 +1,16 @@
 package info.openrocket.core.simulation;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import info.openrocket.core.logging.SimulationAbort;
 import info.openrocket.core.motor.ThrustCurveMotor;
 import info.openrocket.core.simulation.exception.SimulationCalculationException;
+import info.openrocket.core.simulation.exception.SimulationCancelledException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,20 +29,33 @@ import info.openrocket.core.rocketcomponent.RecoveryDevice;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.rocketcomponent.StageSeparationConfiguration;
 import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.SimulationListener;
 import info.openrocket.core.simulation.listeners.SimulationListenerHelper;
 import info.openrocket.core.simulation.listeners.system.OptimumCoastListener;
 import info.openrocket.core.startup.Application;
+import info.openrocket.core.util.BugException;
 import info.openrocket.core.util.Coordinate;
 import info.openrocket.core.util.MathUtil;
 import info.openrocket.core.util.Pair;
 
+/**
+ * A simulation engine that simulates the flight event by event.
+ * <p>
+ * When a stage separates, the separated stage continues as a new flight data branch.  Each
+ * branch is simulated by its own engine instance, so that it has its own steppers, starting
+ * with the integration state of the flight stepper at separation.  Once separated, the
+ * branches are independent of each other, and unless the simulation has user-written
+ * listeners, which may not be thread-safe, they are simulated concurrently on a fork-join
+ * pool.  The branches are added to the flight data in the same order regardless: each
+ * branch is followed by the branches that separated from it, the last separated first.
+ */
 public class BasicEventSimulationEngine implements SimulationEngine {
 	
 	private static final Translator trans = Application.getTranslator();
 	private static final Logger log = LoggerFactory.getLogger(BasicEventSimulationEngine.class);
 	
 	// TODO: MEDIUM: Allow selecting steppers
-	private final SimulationStepper flightStepper = new RK4SimulationStepper();
+	private final RK4SimulationStepper flightStepper = new RK4SimulationStepper();
 	private final SimulationStepper landingStepper = new BasicLandingStepper();
 	private final SimulationStepper tumbleStepper = new BasicTumbleStepper();
 	private final SimulationStepper groundStepper = new GroundStepper();
@@ -51,19 +69,71 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 	private SimulationStepper lastStepper;
 	
 	private SimulationStatus currentStatus;
+
+	// the warnings of the geometry check are not reported, so the same set is reused
+	private final WarningSet geometryWarnings = new WarningSet();
+
+	// originating position and velocity of the branch being simulated
+	private Coordinate origin;
+	private Coordinate originVelocity;
+
+	// checkpoint to continue the next branch from, instead of initializing it
+	private SimulationCheckpoint resumeFrom;
+
+	// whether the listeners are told when the simulation ends, not when resuming a checkpoint
+	// because the listeners were not told that the resumed simulation started
+	private boolean fireEndSimulation = true;
 	
 	private FlightConfigurationId fcid;
 
-	// this is just a list of simulation branches to
-	Deque<SimulationStatus> toSimulate = new ArrayDeque<>();
+	// pool to simulate the separated branches on, or null to simulate them one after another
+	private final ForkJoinPool pool;
+	private boolean concurrent = false;
+
+	// set when the simulation has ended, to stop the separated branches still being simulated
+	private AtomicBoolean cancelled = new AtomicBoolean(false);
+
+	// branches that have separated from the branch being simulated, in order of separation
+	private final List<BranchTask> separated = new ArrayList<>();
 
 	FlightData flightData;
+
+	/**
+	 * Create an engine that simulates the separated branches on the common fork-join pool.
+	 */
+	public BasicEventSimulationEngine() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Create an engine that simulates the separated branches on the given pool.
+	 *
+	 * @param pool	the pool to simulate the separated branches on, or null to simulate them
+	 * 				one after another in the calling thread.
+	 */
+	public BasicEventSimulationEngine(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Create an engine for a branch separated from the branch simulated by another engine.
+	 */
+	private BasicEventSimulationEngine(BasicEventSimulationEngine parent) {
+		this.pool = parent.pool;
+		this.concurrent = parent.concurrent;
+		this.cancelled = parent.cancelled;
+		this.fcid = parent.fcid;
+		this.fireEndSimulation = parent.fireEndSimulation;
+		// only collects the warnings of the branch
+		this.flightData = new FlightData();
+	}
 	
 	@Override
 	public void simulate(SimulationConditions simulationConditions) throws SimulationException {
 
 		// Set up flight data
 		flightData = new FlightData();
+		fireEndSimulation = true;
 			
 		try {
 			// Set up rocket configuration
@@ -110,40 +180,9 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 			}
 			
 			currentStatus.addEvent(new FlightEvent(FlightEvent.Type.LAUNCH, 0, simulationConditions.getRocket()));
-			toSimulate.push(currentStatus);
 		
 			SimulationListenerHelper.fireStartSimulation(currentStatus);
-			do {
-				if (toSimulate.peek() == null) {
-					break;
-				}
-				currentStatus = toSimulate.pop();
-				FlightDataBranch dataBranch = currentStatus.getFlightDataBranch();
-				flightData.addBranch(dataBranch);
-				log.info(">>Starting simulation of branch: " + currentStatus.getFlightDataBranch().getName());
-				
-				simulateLoop(simulationConditions);
-				
-				dataBranch.immute();
-				flightData.getWarningSet().addAll(currentStatus.getWarnings());
-				
-				log.info(String.format("<<Finished simulating branch: %s    curTime:%s    finTime:%s",
-									   dataBranch.getName(),
-									   currentStatus.getSimulationTime(),
-									   dataBranch.getLast(FlightDataType.TYPE_TIME)));
-				
-				
-				// Did the branch generate any data?
-				if (dataBranch.getLength() == 0) {
-					flightData.getWarningSet().add(Warning.EMPTY_BRANCH, dataBranch.getName());
-				}
-			} while (!toSimulate.isEmpty());
-			
-			SimulationListenerHelper.fireEndSimulation(currentStatus, null);
-			
-			if (!flightData.getWarningSet().isEmpty()) {
-				log.info("Warnings at the end of simulation:  " + flightData.getWarningSet());
-			}
+			simulateBranches(simulationConditions);
 			
 		} catch (SimulationException e) {
 			throw e;
@@ -151,29 +190,217 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 			flightData.calculateInterestingValues();
 		}
 	}
+
+	/**
+	 * Take a checkpoint of the branch that is being simulated.  This may be called while
+	 * handling a flight event, e.g. by a simulation listener, and the simulation can be
+	 * continued from the checkpoint with {@link #resume(SimulationCheckpoint, SimulationListener...)}.
+	 * The events handled before the checkpoint at the same simulation time are not handled
+	 * again by the resumed simulation.
+	 *
+	 * @return	a checkpoint of the current simulation branch.
+	 */
+	public SimulationCheckpoint checkpoint() {
+		return new SimulationCheckpoint(currentStatus, phaseOf(currentStepper), phaseOf(lastStepper), flightStepper,
+				origin, originVelocity);
+	}
+
+	/**
+	 * Continue a simulation from a checkpoint.  The branch of the checkpoint is simulated
+	 * to its end, along with any branches that separate from it, and the resulting flight
+	 * data is available from {@link #getFlightData()}.  The flight data branch contains the
+	 * data before the checkpoint as well.  The checkpoint is not modified, and the same
+	 * checkpoint may be resumed several times, also by several engines at the same time.
+	 * <p>
+	 * The resumed simulation continues a simulation that has already been started, so the
+	 * listeners are not told that it starts, e.g. to keep a listener from moving the rocket
+	 * back to its launch position, and consequently not told that it ends either.
+	 *
+	 * @param checkpoint	the checkpoint to continue from.
+	 * @param listeners		additional simulation listeners for the resumed simulation,
+	 * 						e.g. to study alternative events.
+	 * @throws SimulationException	if the simulation fails.
+	 */
+	public void resume(SimulationCheckpoint checkpoint, SimulationListener... listeners) throws SimulationException {
+		flightData = new FlightData();
+		fireEndSimulation = false;
+
+		try {
+			SimulationStatus status = checkpoint.restoreStatus();
+			for (SimulationListener listener : listeners) {
+				status.getSimulationConditions().getSimulationListenerList().add(listener);
+			}
+			this.fcid = status.getSimulationConditions().getFlightConfigurationID();
+
+			currentStatus = status;
+			resumeFrom = checkpoint;
+			simulateBranches(status.getSimulationConditions());
+		} finally {
+			resumeFrom = null;
+			flightData.calculateInterestingValues();
+		}
+	}
+
+	/**
+	 * Simulate the current branch and all branches separating from it, and add them to the
+	 * flight data in order.
+	 */
+	private void simulateBranches(SimulationConditions simulationConditions) throws SimulationException {
+		concurrent = (pool != null) && hasOnlySystemListeners(currentStatus.getSimulationConditions());
+		cancelled = new AtomicBoolean(false);
+		separated.clear();
+
+		SimulationStatus lastStatus = currentStatus;
+		try {
+			flightData.addBranch(currentStatus.getFlightDataBranch());
+			simulateBranch(simulationConditions);
+			lastStatus = currentStatus;
+
+			for (int i = separated.size() - 1; i >= 0; i--) {
+				lastStatus = collectBranches(separated.get(i));
+			}
+		} finally {
+			// Stop the branches still being simulated if the simulation failed
+			cancelled.set(true);
+		}
+		
+		if (fireEndSimulation) {
+			SimulationListenerHelper.fireEndSimulation(lastStatus, null);
+		}
+		
+		if (!flightData.getWarningSet().isEmpty()) {
+			log.info("Warnings at the end of simulation:  " + flightData.getWarningSet());
+		}
+	}
+
+	/**
+	 * Simulate the current branch to its end.  The branches separating from it are
+	 * simulated by their own engines, see {@link #separate}.
+	 */
+	private void simulateBranch(SimulationConditions simulationConditions) throws SimulationException {
+		FlightDataBranch dataBranch = currentStatus.getFlightDataBranch();
+		log.info(">>Starting simulation of branch: " + dataBranch.getName());
+		
+		simulateLoop(simulationConditions);
+		
+		dataBranch.immute();
+		flightData.getWarningSet().addAll(currentStatus.getWarnings());
+		
+		log.info(String.format("<<Finished simulating branch: %s    curTime:%s    finTime:%s",
+							   dataBranch.getName(),
+							   currentStatus.getSimulationTime(),
+							   dataBranch.getLast(FlightDataType.TYPE_TIME)));
+		
+		
+		// Did the branch generate any data?
+		if (dataBranch.getLength() == 0) {
+			flightData.getWarningSet().add(Warning.EMPTY_BRANCH, dataBranch.getName());
+		}
+	}
+
+	/**
+	 * Start simulating a branch that has separated from the current branch.  The branch gets
+	 * its own copies of the models that keep state, so that its result does not depend on
+	 * when it is simulated.  When simulating concurrently, the branch is also given its own
+	 * copy of the rocket and started on the pool right away.  Otherwise it is simulated when
+	 * it is collected after the current branch has ended.
+	 */
+	private void separate(SimulationStatus boosterStatus, SimulationConditions simulationConditions) {
+		// The motors of the separated stages change independently of the current branch
+		if (concurrent) {
+			// The components compute and cache their properties when first needed
+			boosterStatus.copyRocket();
+		} else {
+			boosterStatus.copyMotorStates();
+		}
+
+		// The aerodynamic calculator caches properties of the configuration it was used with
+		SimulationConditions conditions = boosterStatus.getSimulationConditions();
+		conditions.setAerodynamicCalculator(conditions.getAerodynamicCalculator().newInstance());
+		conditions.setWindModel(conditions.getWindModel().clone());
+
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine(this);
+		engine.currentStatus = boosterStatus;
+		engine.flightStepper.copyStateFrom(flightStepper);
+		BranchTask task = new BranchTask(engine, simulationConditions);
+		separated.add(task);
+
+		if (concurrent) {
+			pool.execute(task);
+		}
+	}
+
+	/**
+	 * Wait for a separated branch to be simulated and add it to the flight data, followed by
+	 * the branches that separated from it.
+	 *
+	 * @return	the status of the last branch added.
+	 */
+	private SimulationStatus collectBranches(BranchTask task) throws SimulationException {
+		task.await();
+		BasicEventSimulationEngine engine = task.engine;
+		flightData.addBranch(engine.currentStatus.getFlightDataBranch());
+		flightData.getWarningSet().addAll(engine.flightData.getWarningSet());
+		if (task.failure != null) {
+			throw task.failure;
+		}
+
+		SimulationStatus lastStatus = engine.currentStatus;
+		for (int i = engine.separated.size() - 1; i >= 0; i--) {
+			lastStatus = collectBranches(engine.separated.get(i));
+		}
+		return lastStatus;
+	}
+
+	private static boolean hasOnlySystemListeners(SimulationConditions conditions) {
+		for (SimulationListener listener : conditions.getSimulationListenerList()) {
+			if (!listener.isSystemListener()) {
+				return false;
+			}
+		}
+		return true;
+	}
 	
 	private void simulateLoop(SimulationConditions simulationConditions) throws SimulationException {
-		// Initialize the simulation. We'll use the flight stepper unless we're already
-		// on the ground.
-		if (currentStatus.isLanded())
-			currentStepper = groundStepper;
-		else
-			currentStepper = flightStepper;
-		lastStepper = flightStepper;
-		
-		currentStatus = currentStepper.initialize(currentStatus);
+		final boolean resumed = (resumeFrom != null);
+		if (resumed) {
+			// Continue with the steppers and their state at the checkpoint
+			currentStepper = stepperOf(resumeFrom.getPhase());
+			lastStepper = stepperOf(resumeFrom.getLastPhase());
+			flightStepper.copyStateFrom(resumeFrom.getFlightStepper());
+			origin = resumeFrom.getOrigin();
+			originVelocity = resumeFrom.getOriginVelocity();
+			resumeFrom = null;
+		} else {
+			// Initialize the simulation. We'll use the flight stepper unless we're already
+			// on the ground.
+			if (currentStatus.isLanded())
+				currentStepper = groundStepper;
+			else
+				currentStepper = flightStepper;
+			lastStepper = flightStepper;
+			
+			currentStatus = currentStepper.initialize(currentStatus);
+			
+			// Get originating position (in case listener has modified launch position)
+			origin = currentStatus.getRocketPosition();
+			originVelocity = currentStatus.getRocketVelocity();
+		}
 		double previousSimulationTime = currentStatus.getSimulationTime();
 		
-		// Get originating position (in case listener has modified launch position)
-		Coordinate origin = currentStatus.getRocketPosition();
-		Coordinate originVelocity = currentStatus.getRocketVelocity();
-		
 		try {
 
-			checkGeometry(currentStatus);
+			// The geometry of a resumed branch has already been checked
+			if (!resumed) {
+				checkGeometry(currentStatus);
+			}
 			
 			// Start the simulation
 			while (handleEvents(simulationConditions)) {
+				if (cancelled.get()) {
+					throw new SimulationCancelledException("The simulation was interrupted.");
+				}
+
 				// Take the step
 				double oldAlt = currentStatus.getRocketPosition().z;
 				
@@ -301,7 +528,9 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 			
 		} catch (SimulationException e) {
 			
-			SimulationListenerHelper.fireEndSimulation(currentStatus, e);
+			if (fireEndSimulation) {
+				SimulationListenerHelper.fireEndSimulation(currentStatus, e);
+			}
 
 			// Add FlightEvent for exception.
 			currentStatus.getFlightDataBranch().addEvent(new FlightEvent(FlightEvent.Type.EXCEPTION, currentStatus.getSimulationTime(), currentStatus.getConfiguration().getRocket(), e.getLocalizedMessage()));
@@ -529,7 +758,7 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 						boosterStatus.getConfiguration().clearStagesAbove(stageNumber);
 						boosterStatus.removeUnattachedEvents();
 						
-						toSimulate.push(boosterStatus);
+						separate(boosterStatus, simulationConditions);
 
 					// Make sure upper stages can still be simulated
 					checkGeometry(currentStatus);
@@ -582,16 +811,19 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 					}
 
 					currentStatus.setLiftoff(true);
-					currentStatus.getDeployedRecoveryDevices().add((RecoveryDevice) c);
 
 					// If we haven't already reached apogee, then we need to compute the actual coast time
-					// to determine the optimum altitude.
+					// to determine the optimum altitude.  The coast is computed from this instant, before
+					// the device is deployed.
 					if (!currentStatus.isApogeeReached()) {
 						FlightData coastStatus = computeCoastTime();
-
+						if (coastStatus != null) {
 							currentStatus.getFlightDataBranch().setOptimumAltitude(coastStatus.getMaxAltitude());
 							currentStatus.getFlightDataBranch().setTimeToOptimumAltitude(coastStatus.getTimeToApogee());
 						}
+					}
+
+					currentStatus.getDeployedRecoveryDevices().add((RecoveryDevice) c);
 
 					// switch to landing stepper (unless we're already on the ground)
 					if (!currentStatus.isLanded()) {
@@ -713,10 +945,11 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 		// Can't calculate stability.  If it's the sustainer we'll abort; if a booster
 		// we'll just transition to tumbling (if it's a booster and under thrust code elsewhere
 		// will abort).
+		geometryWarnings.clear();
 		if (currentStatus.getSimulationConditions().getAerodynamicCalculator()
 			.getCP(currentStatus.getConfiguration(),
 				   new FlightConditions(currentStatus.getConfiguration()),
-				   new WarningSet()).weight < MathUtil.EPSILON) {
+				   geometryWarnings).weight < MathUtil.EPSILON) {
 			if (currentStatus.getConfiguration().isStageActive(0)) {
 				currentStatus.abortSimulation(SimulationAbort.Cause.NO_CP);
 			} else {
@@ -748,13 +981,15 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 		}
 	}
 	
+	/**
+	 * Compute the flight without recovery device deployment until apogee, continuing the
+	 * current branch from a checkpoint of the current instant.
+	 */
 	private FlightData computeCoastTime() throws SimulationException {
 		try {
-			SimulationConditions conds = currentStatus.getSimulationConditions().clone();
-			conds.getSimulationListenerList().add(OptimumCoastListener.INSTANCE);
-			BasicEventSimulationEngine coastEngine = new BasicEventSimulationEngine();
+			BasicEventSimulationEngine coastEngine = new BasicEventSimulationEngine(pool);
 		
-			coastEngine.simulate(conds);
+			coastEngine.resume(checkpoint(), OptimumCoastListener.INSTANCE);
 			return coastEngine.getFlightData();
 		} catch (SimulationException e) {
 			throw e;
@@ -764,7 +999,76 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 		}
 	}
 
+	private SimulationCheckpoint.Phase phaseOf(SimulationStepper stepper) {
+		if (stepper == landingStepper) {
+			return SimulationCheckpoint.Phase.LANDING;
+		} else if (stepper == tumbleStepper) {
+			return SimulationCheckpoint.Phase.TUMBLE;
+		} else if (stepper == groundStepper) {
+			return SimulationCheckpoint.Phase.GROUND;
+		}
+		return SimulationCheckpoint.Phase.FLIGHT;
+	}
+
+	private SimulationStepper stepperOf(SimulationCheckpoint.Phase phase) {
+		return switch (phase) {
+			case LANDING -> landingStepper;
+			case TUMBLE -> tumbleStepper;
+			case GROUND -> groundStepper;
+			default -> flightStepper;
+		};
+	}
+
 	public FlightData getFlightData() {
 		return flightData;
 	}
+
+
+	/**
+	 * A branch separated from another branch, simulated by its own engine.
+	 */
+	private static final class BranchTask extends RecursiveAction {
+		private final BasicEventSimulationEngine engine;
+		private final SimulationConditions simulationConditions;
+		private SimulationException failure;
+
+		private BranchTask(BasicEventSimulationEngine engine, SimulationConditions simulationConditions) {
+			this.engine = engine;
+			this.simulationConditions = simulationConditions;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				engine.simulateBranch(simulationConditions);
+			} catch (SimulationException e) {
+				failure = e;
+			}
+		}
+
+		/**
+		 * Wait until the branch has been simulated, or simulate it in this thread if it
+		 * has not been started on the pool.
+		 */
+		private void await() throws SimulationException {
+			if (!engine.concurrent) {
+				invoke();
+				return;
+			}
+			try {
+				get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SimulationCancelledException("The simulation was interrupted.");
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw new BugException(e.getCause());
+			}
+		}
+	}
 }
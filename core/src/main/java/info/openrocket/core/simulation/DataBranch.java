@@ -15,6 +15,12 @@ import java.util.Set;
 
 /**
  * A branch of data / collection of data points for a specific type of data.
+ * <p>
+ * A branch may start with data points shared with other branches, see {@link #shareDataOf}.
+ * The shared points are stored in immutable blocks of primitive arrays, and only the points
+ * added afterwards are stored in {@link #values}.  The methods of this class return the
+ * shared and the own points together, so subclasses that access {@link #values} directly must
+ * take the shared points into account, or call {@link #unshareData()} first.
  * @param <T> the type of data in this branch
  */
 public abstract class DataBranch<T extends DataType> implements Monitorable {
@@ -26,6 +32,10 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	protected final Mutable mutable = new Mutable();
 	protected ModID modID = ModID.INVALID;
 
+	// Data points shared with other branches, preceding the points in values
+	private SharedBlock<T> shared = null;
+	private int sharedLength = 0;
+
 	/**
 	 * Sole constructor.  Defines the name of the DataBranch and at least one variable type.
 	 *
@@ -79,7 +89,7 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 
 		if (list == null) {
 			list = new info.openrocket.core.util.ArrayList<>();
-			int n = getLength();
+			int n = getOwnLength();
 			for (int i = 0; i < n; i++) {
 				list.add(Double.NaN);
 			}
@@ -102,7 +112,7 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 
 		ArrayList<Double> list = values.computeIfAbsent(type, k -> {
 			ArrayList<Double> newList = new ArrayList<>();
-			int n = getLength();
+			int n = getOwnLength();
 			for (int i = 0; i < n; i++) {
 				newList.add(Double.NaN);
 			}
@@ -111,6 +121,11 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 			return newList;
 		});
 
+		// The latest point is shared, so take a copy of it before changing it
+		if (list.isEmpty() && sharedLength > 0) {
+			unshareLastPoint();
+		}
+
 		if (list.size() > 0) {
 			list.set(list.size() - 1, value);
 		}
@@ -139,7 +154,38 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 		ArrayList<Double> list = values.get(type);
 		if (list == null)
 			return null;
-		return list.clone();
+		if (sharedLength == 0)
+			return list.clone();
+
+		double[] sharedValues = new double[sharedLength];
+		shared.copyTo(type, sharedLength, sharedValues);
+		ArrayList<Double> all = new ArrayList<>(sharedLength + list.size());
+		for (double value : sharedValues) {
+			all.add(value);
+		}
+		all.addAll(list);
+		return all;
+	}
+
+	/**
+	 * Return the values for the specified variable type as a primitive array.
+	 *
+	 * @param type	the variable type.
+	 * @return		a new array of the variable values, or <code>null</code> if
+	 * 				the variable type hasn't been added to this branch.
+	 */
+	public double[] getArray(T type) {
+		ArrayList<Double> list = values.get(type);
+		if (list == null)
+			return null;
+		double[] array = new double[sharedLength + list.size()];
+		if (sharedLength > 0) {
+			shared.copyTo(type, sharedLength, array);
+		}
+		for (int i = 0; i < list.size(); i++) {
+			array[sharedLength + i] = list.get(i);
+		}
+		return array;
 	}
 
 	/**
@@ -156,7 +202,37 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 		if (list == null) {
 			return null;
 		}
-		return list.get(index);
+		if (index < sharedLength) {
+			return shared.get(type, index);
+		}
+		return list.get(index - sharedLength);
+	}
+
+	/**
+	 * Return the value of the specified type at the specified index, or NaN if the type
+	 * is unavailable.  The index is not checked.
+	 */
+	double getValue(T type, int index) {
+		ArrayList<Double> list = values.get(type);
+		if (list == null) {
+			return Double.NaN;
+		}
+		if (index < sharedLength) {
+			return shared.get(type, index);
+		}
+		return list.get(index - sharedLength);
+	}
+
+	/**
+	 * Return the shared array holding the value of the specified type at the specified index,
+	 * or null if the point is not shared or the type is unavailable.  Branches that share the
+	 * point return the same array.
+	 */
+	double[] getSharedColumn(T type, int index) {
+		if (index >= sharedLength) {
+			return null;
+		}
+		return shared.getColumn(type, index);
 	}
 
 	/**
@@ -168,8 +244,10 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 */
 	public double getLast(T type) {
 		ArrayList<Double> list = values.get(type);
-		if (list == null || list.isEmpty())
+		if (list == null)
 			return Double.NaN;
+		if (list.isEmpty())
+			return sharedLength > 0 ? shared.get(type, sharedLength - 1) : Double.NaN;
 		return list.get(list.size() - 1);
 	}
 
@@ -205,12 +283,114 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * Return the number of data points in this branch.
 	 */
 	public int getLength() {
+		return sharedLength + getOwnLength();
+	}
+
+	/**
+	 * Return the number of data points stored by this branch, not shared with other branches.
+	 */
+	public int getOwnLength() {
 		for (ArrayList<Double> doubles : values.values()) {
 			return doubles.size();
 		}
 		return 0;
 	}
 
+	/**
+	 * Start this branch with the data points of another branch, without copying them.  The
+	 * points of the other branch are moved into an immutable block that both branches share,
+	 * and the points added to either branch afterwards are stored by that branch only.  This
+	 * branch must not have any data points yet.
+	 *
+	 * @param parent	the branch whose data points to share.
+	 */
+	protected void shareDataOf(DataBranch<T> parent) {
+		parent.freezeOwnData();
+		shared = parent.shared;
+		sharedLength = parent.sharedLength;
+		for (T type : parent.values.keySet()) {
+			if (!values.containsKey(type)) {
+				values.put(type, new ArrayList<>());
+			}
+		}
+		minValues.putAll(parent.minValues);
+		maxValues.putAll(parent.maxValues);
+		modID = new ModID();
+	}
+
+	/**
+	 * Copy the data of this branch into another branch that has no data points.  The shared
+	 * data points are shared by the copy as well.
+	 *
+	 * @param copy	the branch to copy the data to.
+	 */
+	protected void copyDataTo(DataBranch<T> copy) {
+		for (Map.Entry<T, ArrayList<Double>> entry : values.entrySet()) {
+			copy.values.put(entry.getKey(), entry.getValue().clone());
+		}
+		copy.minValues.putAll(minValues);
+		copy.maxValues.putAll(maxValues);
+		copy.shared = shared;
+		copy.sharedLength = sharedLength;
+	}
+
+	/**
+	 * Copy the shared data points into this branch, so that {@link #values} contains all
+	 * data points of the branch.
+	 */
+	protected void unshareData() {
+		if (sharedLength > 0) {
+			double[] sharedValues = new double[sharedLength];
+			for (Map.Entry<T, ArrayList<Double>> entry : values.entrySet()) {
+				shared.copyTo(entry.getKey(), sharedLength, sharedValues);
+				ArrayList<Double> list = new ArrayList<>(sharedLength + entry.getValue().size());
+				for (double value : sharedValues) {
+					list.add(value);
+				}
+				list.addAll(entry.getValue());
+				entry.setValue(list);
+			}
+		}
+		shared = null;
+		sharedLength = 0;
+	}
+
+	/**
+	 * Move the own data points of this branch into a new shared block following the
+	 * current shared points.
+	 */
+	private void freezeOwnData() {
+		int n = getOwnLength();
+		if (n == 0) {
+			return;
+		}
+		Map<T, double[]> columns = new HashMap<>();
+		for (Map.Entry<T, ArrayList<Double>> entry : values.entrySet()) {
+			ArrayList<Double> list = entry.getValue();
+			double[] column = new double[n];
+			for (int i = 0; i < n; i++) {
+				column[i] = list.get(i);
+			}
+			columns.put(entry.getKey(), column);
+			entry.setValue(new ArrayList<>());
+		}
+		shared = new SharedBlock<>(shared, sharedLength, n, columns);
+		sharedLength += n;
+	}
+
+	/**
+	 * Make the last shared data point an own data point of this branch.
+	 */
+	private void unshareLastPoint() {
+		sharedLength--;
+		for (Map.Entry<T, ArrayList<Double>> entry : values.entrySet()) {
+			entry.getValue().add(shared.get(entry.getKey(), sharedLength));
+		}
+		if (sharedLength == 0) {
+			shared = null;
+		}
+	}
+
 	/**
 	 * Return the variable types included in this branch.  The types are sorted in their
 	 * natural order.
@@ -249,4 +429,58 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	public ModID getModID() {
 		return modID;
 	}
+
+
+	/**
+	 * An immutable block of data points shared by one or more branches.  The block holds the
+	 * points following the first <code>offset</code> points of the previous blocks.
+	 */
+	private static final class SharedBlock<T> {
+		private final SharedBlock<T> previous;
+		private final int offset;
+		private final int length;
+		private final Map<T, double[]> columns;
+
+		private SharedBlock(SharedBlock<T> previous, int offset, int length, Map<T, double[]> columns) {
+			this.previous = previous;
+			this.offset = offset;
+			this.length = length;
+			this.columns = columns;
+		}
+
+		private double get(T type, int index) {
+			SharedBlock<T> block = this;
+			while (index < block.offset) {
+				block = block.previous;
+			}
+			double[] column = block.columns.get(type);
+			return column == null ? Double.NaN : column[index - block.offset];
+		}
+
+		private double[] getColumn(T type, int index) {
+			SharedBlock<T> block = this;
+			while (index < block.offset) {
+				block = block.previous;
+			}
+			return block.columns.get(type);
+		}
+
+		/**
+		 * Copy the values of the first n points of the blocks to an array.
+		 */
+		private void copyTo(T type, int n, double[] dest) {
+			if (offset > 0) {
+				previous.copyTo(type, Math.min(n, offset), dest);
+			}
+			int count = Math.min(n - offset, length);
+			if (count > 0) {
+				double[] column = columns.get(type);
+				if (column == null) {
+					Arrays.fill(dest, offset, offset + count, Double.NaN);
+				} else {
+					System.arraycopy(column, 0, dest, offset, count);
+				}
+			}
+		}
+	}
 }
@@ -1,5 +1,6 @@
 package info.openrocket.core.simulation;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -29,6 +30,7 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 	private double optimumAltitude = Double.NaN;
 	private double separationTime = Double.NaN;
 	private final ArrayList<FlightEvent> events = new ArrayList<>();
+	private final Map<FlightDataType, TimeSeriesIndex> timeSeries = new HashMap<>();
 	
 	/**
 	 * Sole constructor.  Defines the name of the FlightDataBranch and at least one variable type.
@@ -41,19 +43,26 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 	}
 
 	/**
-	 * Make a flight data branch with all data points copied from its parent.  Intended for use
+	 * Make a flight data branch with all data points of its parent.  Intended for use
 	 * when creating a new branch upon stage separation, so the data at separation is present
 	 * in both branches (and if the new branch has an immediate exception, it can be plotted)
+	 * <p>
+	 * The data points are not copied, but shared by both branches, see {@link #shareDataOf}.
 	 *
 	 * @param name		the name of the new branch.
 	 * @param srcComponent		the component that is the source of the new branch.
-	 * @param parent			the parent branch to copy data from.
+	 * @param parent			the parent branch to take the data from.
 	 */
 	public FlightDataBranch(String name, RocketComponent srcComponent, FlightDataBranch parent) {
 		super(name);
 
-		// Copy all the values from the parent
-		copyValuesFromBranch(parent, srcComponent);
+		// Need to have at least one type to set up values
+		addType(FlightDataType.TYPE_TIME);
+
+		if (parent != null) {
+			shareDataOf(parent);
+			copyEventsFromBranch(parent, srcComponent);
+		}
 	}
 	
 	/**
@@ -69,30 +78,11 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 
 
 	/**
-	 * Clears all the current values in the branch and copies the values from the given branch.
-	 * @param srcBranch 	the branch to copy values from
-	 * @param srcComponent 	the component that is the source of this branch (used for copying events)
+	 * Copies the flight events of the given branch that belong to this branch.
+	 * @param srcBranch 	the branch to copy events from
+	 * @param srcComponent 	the component that is the source of this branch
 	 */
-	private void copyValuesFromBranch(FlightDataBranch srcBranch, RocketComponent srcComponent) {
-		this.values.clear();
-
-		// Need to have at least one type to set up values
-		values.put(FlightDataType.TYPE_TIME, new ArrayList<>());
-		minValues.put(FlightDataType.TYPE_TIME, Double.NaN);
-		maxValues.put(FlightDataType.TYPE_TIME, Double.NaN);
-
-		if (srcBranch == null) {
-			return;
-		}
-
-		// Copy flight data
-		for (int i = 0; i < srcBranch.getLength(); i++) {
-			this.addPoint();
-			for (FlightDataType type : srcBranch.getTypes()) {
-				this.setValue(type, srcBranch.getByIndex(type, i));
-			}
-		}
-
+	private void copyEventsFromBranch(FlightDataBranch srcBranch, RocketComponent srcComponent) {
 		// Copy flight events belonging to this branch
 		List<FlightEvent> sustainerEvents = srcBranch.getEvents();
 		for (FlightEvent event : sustainerEvents) {
@@ -237,6 +227,60 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 		return separationTime;
 	}
 
+	/**
+	 * Set all the values of a derived data type, such as a custom expression evaluated
+	 * from the stored data.  Any previous values of the type are replaced.
+	 * <p>
+	 * Unlike the other set methods this is allowed on an immutable branch, since derived
+	 * values are computed from the flight data and do not change it.
+	 *
+	 * @param type		the derived data type.
+	 * @param data		the values, one for each data point of the branch.
+	 * @throws IllegalArgumentException	if the number of values does not match the branch length.
+	 */
+	public void setDerivedValues(FlightDataType type, double[] data) {
+		if (data.length != getLength()) {
+			throw new IllegalArgumentException("Derived data length " + data.length + " does not match branch length "
+					+ getLength());
+		}
+
+		// The values of the data points shared with other branches are replaced as well
+		unshareData();
+
+		ArrayList<Double> list = new ArrayList<>(data.length);
+		double min = Double.NaN;
+		double max = Double.NaN;
+		for (double value : data) {
+			list.add(value);
+			if (Double.isNaN(min) || (value < min)) {
+				min = value;
+			}
+			if (Double.isNaN(max) || (value > max)) {
+				max = value;
+			}
+		}
+		values.put(type, list);
+		minValues.put(type, min);
+		maxValues.put(type, max);
+		modID = new ModID();
+
+		TimeSeriesIndex series = timeSeries.get(type);
+		if (series != null) {
+			series.invalidate();
+		}
+	}
+
+	/**
+	 * Return an index of the values of the given type against time, for fast interpolation
+	 * of the values at any time.  The index is kept up to date as data points are added.
+	 *
+	 * @param type	the data type.
+	 * @return		the time series index of the type.
+	 */
+	public TimeSeriesIndex getTimeSeries(FlightDataType type) {
+		return timeSeries.computeIfAbsent(type, t -> new TimeSeriesIndex(this, t));
+	}
+
 	/**
 	 * Return the data index corresponding to the given time.
 	 * @param time the time to search for
@@ -261,11 +305,7 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 	public FlightDataBranch clone() {
 		FlightDataType[] types = getTypes();
 		FlightDataBranch clone = new FlightDataBranch(name, types);
-		for (Map.Entry<FlightDataType, ArrayList<Double>> entry : values.entrySet()) {
-			clone.values.put(entry.getKey(), entry.getValue().clone());
-		}
-		clone.minValues.putAll(minValues);
-		clone.maxValues.putAll(maxValues);
+		copyDataTo(clone);
 		clone.events.addAll(events);
 		clone.timeToOptimumAltitude = timeToOptimumAltitude;
 		clone.optimumAltitude = optimumAltitude;
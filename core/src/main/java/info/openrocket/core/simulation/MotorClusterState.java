@@ -32,6 +32,35 @@ public class MotorClusterState {
 		this.reset();
 	}
 
+	/**
+	 * Copy constructor.  The new object has the same motor and the same current
+	 * state as the original, but changes to either one do not affect the other.
+	 *
+	 * @param orig	the motor cluster state to copy.
+	 */
+	public MotorClusterState(final MotorClusterState orig) {
+		this(orig, orig.config);
+	}
+
+	/**
+	 * Copy a motor cluster state to another motor configuration of the same motor, e.g. the
+	 * motor configuration of the same mount in a copy of the rocket.
+	 *
+	 * @param orig		the motor cluster state to copy.
+	 * @param _config	the motor configuration of the copy.
+	 */
+	public MotorClusterState(final MotorClusterState orig, final MotorConfiguration _config) {
+		this.config = _config;
+		this.motor = orig.motor;
+		this.motorCount = orig.motorCount;
+		this.thrustDuration = orig.thrustDuration;
+
+		this.ignitionTime = orig.ignitionTime;
+		this.cutoffTime = orig.cutoffTime;
+		this.ejectionTime = orig.ejectionTime;
+		this.currentState = orig.currentState;
+	}
+
 	public double getIgnitionTime() {
 		return ignitionTime;
 	}
@@ -0,0 +1,452 @@
+package info.openrocket.core.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.database.motor.ThrustCurveMotorSet;
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.masscalc.MassCalculator;
+import info.openrocket.core.motor.Motor;
+import info.openrocket.core.motor.MotorConfiguration;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.FlightConfigurationId;
+import info.openrocket.core.rocketcomponent.MotorMount;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.SimulationListener;
+import info.openrocket.core.simulation.listeners.system.ApogeeEndListener;
+import info.openrocket.core.util.MathUtil;
+
+/**
+ * Simulates a flight configuration with every motor of the motor database that fits a motor mount,
+ * and ranks the motors by the simulated apogee.
+ * <p>
+ * A motor fits the mount if its diameter matches the mount diameter, if it is not longer than the
+ * mount plus the allowed overhang, and if it is available with the requested ejection delay.  The
+ * motors are simulated in parallel.  The motor is set in a copy of the rocket, one for each parallel
+ * simulation, so the original rocket is not changed; the copies are taken in the calling thread, so the
+ * pool threads never access the original rocket.
+ * <p>
+ * By default the simulations end at apogee, as all the results are known by then.  Motors whose
+ * thrust-to-weight ratio is below a minimum can be skipped without simulating them.
+ */
+public class MotorSweep {
+	private static final Logger log = LoggerFactory.getLogger(MotorSweep.class);
+
+	private static final double GRAVITY_CONSTANT = 9.80665;
+
+	/**
+	 * How much a motor may be wider than the mount, and how much narrower, for it to fit.
+	 */
+	private static final double DIAMETER_TOLERANCE_ABOVE = 0.0005;
+	private static final double DIAMETER_TOLERANCE_BELOW = 0.0015;
+
+	private static final double DELAY_TOLERANCE = 0.01;
+
+	private final FlightConfiguration configuration;
+	private final MotorMount mount;
+	private final SimulationOptions options;
+
+	private double maximumOverhang = 0;
+	private double delay = Double.NaN;
+	private boolean stopAtApogee = true;
+	private double minimumThrustToWeight = 0;
+
+	private volatile boolean cancelled = false;
+
+	/**
+	 * @param configuration the flight configuration to simulate
+	 * @param mount the motor mount to sweep the motors of, a component of the rocket of the configuration
+	 * @param options the simulation options to simulate with
+	 */
+	public MotorSweep(FlightConfiguration configuration, MotorMount mount, SimulationOptions options) {
+		if (!mount.isMotorMount()) {
+			throw new IllegalArgumentException("Component is not a motor mount: " + mount.getDebugName());
+		}
+		if (configuration.getRocket().findComponent(mount.getID()) != mount) {
+			throw new IllegalArgumentException("Motor mount " + mount.getDebugName() + " is not part of the rocket");
+		}
+		this.configuration = configuration;
+		this.mount = mount;
+		this.options = options.clone();
+	}
+
+	/**
+	 * @return how much longer than the mount the motors may be, in meters
+	 */
+	public double getMaximumOverhang() {
+		return maximumOverhang;
+	}
+
+	public void setMaximumOverhang(double maximumOverhang) {
+		this.maximumOverhang = maximumOverhang;
+	}
+
+	/**
+	 * @return the ejection delay the motors must be available with, or NaN if the motors are not
+	 * 			selected by delay
+	 */
+	public double getDelay() {
+		return delay;
+	}
+
+	/**
+	 * Set the ejection delay the motors must be available with.  Motors without any standard delays
+	 * are accepted with any delay.  If the delay is NaN (the default), the motors are not selected by
+	 * delay and are simulated plugged, which does not change the results up to apogee.
+	 */
+	public void setDelay(double delay) {
+		this.delay = delay;
+	}
+
+	public boolean isStopAtApogee() {
+		return stopAtApogee;
+	}
+
+	/**
+	 * Set whether the simulations end at apogee.  This is on by default.
+	 */
+	public void setStopAtApogee(boolean stopAtApogee) {
+		this.stopAtApogee = stopAtApogee;
+	}
+
+	public double getMinimumThrustToWeight() {
+		return minimumThrustToWeight;
+	}
+
+	/**
+	 * Set the minimum thrust-to-weight ratio at launch.  Motors below it are not simulated and not
+	 * included in the results.  The ratio is computed from the average thrust of the motors in the
+	 * mount and the launch mass of the configuration.  Zero (the default) simulates all motors.
+	 */
+	public void setMinimumThrustToWeight(double minimumThrustToWeight) {
+		this.minimumThrustToWeight = minimumThrustToWeight;
+	}
+
+	/**
+	 * Return the motors of the database that fit the mount, one motor of each motor set.
+	 */
+	public List<ThrustCurveMotor> findCandidates(ThrustCurveMotorSetDatabase database) {
+		final double diameter = mount.getMotorMountDiameter();
+		final double length = mount.getLength() + maximumOverhang;
+
+		List<ThrustCurveMotor> candidates = new ArrayList<>();
+		for (ThrustCurveMotorSet set : database.getMotorSets()) {
+			if (set.getMotors().isEmpty()) {
+				continue;
+			}
+			ThrustCurveMotor motor = set.getMotors().get(0);
+			if (motor.getDiameter() > diameter + DIAMETER_TOLERANCE_ABOVE ||
+					motor.getDiameter() < diameter - DIAMETER_TOLERANCE_BELOW) {
+				continue;
+			}
+			if (motor.getLength() > length) {
+				continue;
+			}
+			if (!hasDelay(motor)) {
+				continue;
+			}
+			candidates.add(motor);
+		}
+		return candidates;
+	}
+
+	private boolean hasDelay(ThrustCurveMotor motor) {
+		double[] delays = motor.getStandardDelays();
+		if (Double.isNaN(delay) || delay == Motor.PLUGGED_DELAY || delays.length == 0) {
+			return true;
+		}
+		for (double d : delays) {
+			if (Math.abs(d - delay) < DELAY_TOLERANCE) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Sweep the motors of the database using the common fork-join pool.
+	 * @see #sweep(ThrustCurveMotorSetDatabase, ForkJoinPool, SweepProgress)
+	 */
+	public List<Result> sweep(ThrustCurveMotorSetDatabase database, SweepProgress progress) {
+		return sweep(database, ForkJoinPool.commonPool(), progress);
+	}
+
+	/**
+	 * Simulate the configuration with each motor of the database that fits the mount.  The rocket is
+	 * copied in the calling thread, which must be allowed to read it.
+	 *
+	 * @param database the motors to sweep
+	 * @param pool the pool to simulate the motors in
+	 * @param progress the progress listener, or <code>null</code>.  It may be called from any worker thread.
+	 * @return the results of the simulated motors, highest apogee first.  Motors whose simulation failed
+	 * 			are last.
+	 * @throws CancellationException if the sweep was cancelled through {@link #cancel()}
+	 */
+	public List<Result> sweep(ThrustCurveMotorSetDatabase database, ForkJoinPool pool, SweepProgress progress) {
+		if (cancelled) {
+			throw new CancellationException("Motor sweep cancelled");
+		}
+		long t0 = System.currentTimeMillis();
+
+		List<ThrustCurveMotor> candidates = findCandidates(database);
+		List<Result> results = new ArrayList<>(candidates.size());
+		List<SweepTask> tasks = new ArrayList<>();
+
+		if (!candidates.isEmpty()) {
+			SweepWorker first = new SweepWorker();
+
+			// Precheck the thrust-to-weight ratio against the mass of the configuration without the motor
+			double mass = first.getMassWithoutMotor();
+			int count = mount.getMotorCount();
+			for (ThrustCurveMotor motor : candidates) {
+				double thrustToWeight = count * motor.getAverageThrustEstimate() /
+						((mass + count * motor.getLaunchMass()) * GRAVITY_CONSTANT);
+				if (thrustToWeight >= minimumThrustToWeight) {
+					results.add(new Result(motor, getSimulatedDelay(), thrustToWeight));
+				}
+			}
+
+			// One task per rocket copy, taking the next motor to simulate until all are done
+			AtomicInteger next = new AtomicInteger();
+			AtomicInteger completed = new AtomicInteger();
+			int parallel = Math.min(pool.getParallelism(), results.size());
+			for (int i = 0; i < parallel; i++) {
+				SweepWorker worker = i == 0 ? first : new SweepWorker();
+				tasks.add(new SweepTask(worker, results, next, completed, progress));
+			}
+		}
+
+		if (!tasks.isEmpty()) {
+			pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+		}
+
+		if (cancelled) {
+			throw new CancellationException("Motor sweep cancelled");
+		}
+
+		results.sort(MotorSweep::compareResults);
+		log.info("Motor sweep simulated " + results.size() + " of " + candidates.size() + " fitting motors in " +
+				(System.currentTimeMillis() - t0) + " ms");
+		return results;
+	}
+
+	/**
+	 * Cancel a running sweep.  Motors that are already being simulated are finished, the remaining motors
+	 * are skipped.  A sweep that is started after the cancellation is cancelled as well, so a new MotorSweep
+	 * is needed to sweep again.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	private double getSimulatedDelay() {
+		return Double.isNaN(delay) ? Motor.PLUGGED_DELAY : delay;
+	}
+
+	private static int compareResults(Result a, Result b) {
+		boolean aFailed = Double.isNaN(a.apogee);
+		boolean bFailed = Double.isNaN(b.apogee);
+		if (aFailed || bFailed) {
+			return Boolean.compare(aFailed, bFailed);
+		}
+		return Double.compare(b.apogee, a.apogee);
+	}
+
+	/**
+	 * The result of simulating one motor.  The values are NaN if the simulation failed.
+	 */
+	public static class Result {
+		private final ThrustCurveMotor motor;
+		private final double delay;
+		private final double thrustToWeight;
+
+		private double apogee = Double.NaN;
+		private double maxVelocity = Double.NaN;
+		private double launchRodVelocity = Double.NaN;
+		private double stability = Double.NaN;
+		private SimulationException error = null;
+
+		private Result(ThrustCurveMotor motor, double delay, double thrustToWeight) {
+			this.motor = motor;
+			this.delay = delay;
+			this.thrustToWeight = thrustToWeight;
+		}
+
+		public ThrustCurveMotor getMotor() {
+			return motor;
+		}
+
+		/**
+		 * @return the ejection delay the motor was simulated with
+		 */
+		public double getDelay() {
+			return delay;
+		}
+
+		/**
+		 * @return the thrust-to-weight ratio at launch
+		 */
+		public double getThrustToWeight() {
+			return thrustToWeight;
+		}
+
+		public double getApogee() {
+			return apogee;
+		}
+
+		public double getMaxVelocity() {
+			return maxVelocity;
+		}
+
+		/**
+		 * @return the velocity when leaving the launch rod or rail
+		 */
+		public double getLaunchRodVelocity() {
+			return launchRodVelocity;
+		}
+
+		/**
+		 * @return the stability margin in calibers when leaving the launch rod or rail
+		 */
+		public double getStability() {
+			return stability;
+		}
+
+		/**
+		 * @return the error of the simulation, or <code>null</code> if it succeeded
+		 */
+		public SimulationException getError() {
+			return error;
+		}
+	}
+
+	/**
+	 * Progress callback of a motor sweep.
+	 */
+	public interface SweepProgress {
+		/**
+		 * Called each time a motor has been simulated.
+		 *
+		 * @param completed the number of motors simulated so far
+		 * @param total the total number of motors to simulate
+		 */
+		void setProgress(int completed, int total);
+	}
+
+	/**
+	 * The state of one parallel simulation: a copy of the rocket and a simulation of it, used by one thread
+	 * at a time only.  The motor of the mount copy is replaced for each simulated motor; the simulation
+	 * engine copies the rocket again for each simulation.
+	 */
+	private class SweepWorker {
+		private final FlightConfigurationId fcid = configuration.getFlightConfigurationID();
+		private final Rocket rocket = configuration.getRocket().copyWithOriginalID();
+		private final MotorMount mountCopy = (MotorMount) rocket.findComponent(mount.getID());
+		private final MotorConfiguration template = mount.getMotorConfig(fcid);
+		private final Simulation simulation = new Simulation(rocket);
+
+		private SweepWorker() {
+			simulation.setFlightConfigurationId(fcid);
+			simulation.getOptions().copyConditionsFrom(options);
+		}
+
+		private double getMassWithoutMotor() {
+			mountCopy.setMotorConfig(null, fcid);
+			FlightConfiguration copy = rocket.getFlightConfiguration(fcid);
+			copy.update();
+			return MassCalculator.calculateLaunch(copy).getMass();
+		}
+
+		private void simulate(Result result) {
+			// Keep the ignition settings of the original motor configuration
+			MotorConfiguration motorConfig = new MotorConfiguration(mountCopy, fcid, template);
+			motorConfig.setMotor(result.motor);
+			motorConfig.setEjectionDelay(result.delay);
+			mountCopy.setMotorConfig(motorConfig, fcid);
+			rocket.getFlightConfiguration(fcid).update();
+
+			try {
+				SimulationListener[] listeners = stopAtApogee ?
+						new SimulationListener[] { new ApogeeEndListener() } : new SimulationListener[0];
+				simulation.simulate(listeners);
+			} catch (SimulationException e) {
+				log.debug("Motor sweep simulation of " + result.motor.getDesignation() + " failed", e);
+				result.error = e;
+				return;
+			}
+
+			FlightData data = simulation.getSimulatedData();
+			FlightDataBranch branch = data.getBranch(0);
+			result.apogee = data.getMaxAltitude();
+			result.maxVelocity = data.getMaxVelocity();
+			result.launchRodVelocity = data.getLaunchRodVelocity();
+			for (FlightEvent event : branch.getEvents()) {
+				if (event.getType() == FlightEvent.Type.LAUNCHROD) {
+					result.stability = getStabilityAfter(branch, event.getTime());
+					break;
+				}
+			}
+		}
+
+		/**
+		 * Return the first stability margin at or after the given time.  The stability is not
+		 * computed while on the launch rod, so it cannot be interpolated at the time it is left.
+		 */
+		private double getStabilityAfter(FlightDataBranch branch, double t) {
+			List<Double> time = branch.get(FlightDataType.TYPE_TIME);
+			List<Double> stability = branch.get(FlightDataType.TYPE_STABILITY);
+			if (time == null || stability == null) {
+				return Double.NaN;
+			}
+			for (int i = 0; i < time.size(); i++) {
+				if (time.get(i) >= t - MathUtil.EPSILON && !Double.isNaN(stability.get(i))) {
+					return stability.get(i);
+				}
+			}
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Fork-join task simulating motors with one worker, taking the next motor not yet simulated until
+	 * all motors are done.
+	 */
+	private class SweepTask extends RecursiveAction {
+		private final SweepWorker worker;
+		private final List<Result> results;
+		private final AtomicInteger next;
+		private final AtomicInteger completed;
+		private final SweepProgress progress;
+
+		private SweepTask(SweepWorker worker, List<Result> results, AtomicInteger next, AtomicInteger completed,
+						  SweepProgress progress) {
+			this.worker = worker;
+			this.results = results;
+			this.next = next;
+			this.completed = completed;
+			this.progress = progress;
+		}
+
+		@Override
+		protected void compute() {
+			int i;
+			while (!cancelled && (i = next.getAndIncrement()) < results.size()) {
+				worker.simulate(results.get(i));
+				if (progress != null) {
+					progress.setProgress(completed.incrementAndGet(), results.size());
+				}
+			}
+		}
+	}
+}
@@ -7,6 +7,7 @@ import info.openrocket.core.logging.SimulationAbort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.openrocket.core.aerodynamics.AerodynamicForces;
 import info.openrocket.core.aerodynamics.FlightConditions;
 import info.openrocket.core.logging.Warning;
 import info.openrocket.core.logging.WarningSet;
@@ -63,8 +64,12 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	private static final double MAX_ROLL_RATE_CHANGE = 2 * Math.PI / 180;
 	private static final double MAX_PITCH_YAW_CHANGE = 4 * Math.PI / 180;
 	
-	private Random random;
+	private CopyableRandom random;
 	DataStore store = new DataStore();
+
+	// Reused for every aerodynamic evaluation of this stepper
+	private final AerodynamicForces aerodynamicForces = new AerodynamicForces();
+	private final WarningSet stepWarnings = new WarningSet();
 	
 	@Override
 	public SimulationStatus initialize(SimulationStatus original) {
@@ -80,10 +85,24 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 												  Math.sin(sim.getLaunchRodAngle()) * Math.sin(Math.PI / 2.0 - sim.getLaunchRodDirection()),
 												  Math.cos(sim.getLaunchRodAngle()));
 
-		this.random = new Random(original.getSimulationConditions().getRandomSeed() ^ SEED_RANDOMIZATION);
+		this.random = new CopyableRandom(original.getSimulationConditions().getRandomSeed() ^ SEED_RANDOMIZATION);
 		
 		return status;
 	}
+
+	/**
+	 * Copy the integration state of another stepper into this stepper, so that this stepper
+	 * continues a simulation exactly as the other one would have.  The state consists of the
+	 * launch rod direction, the previous time step and the state of the random generator;
+	 * the rest of the data store is recomputed on every step.
+	 *
+	 * @param other	the stepper to copy the state from.
+	 */
+	void copyStateFrom(RK4SimulationStepper other) {
+		store.launchRodDirection = other.store.launchRodDirection;
+		store.timeStep = other.store.timeStep;
+		random = (other.random == null) ? null : other.random.copy();
+	}
 	
 	
 
@@ -416,11 +435,15 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		 * launch rod or 0.25 seconds after departure, and when the velocity has dropped
 		 * below 20% of the max. velocity.
 		 */
-		WarningSet warnings = status.recordWarnings() ? new WarningSet() : null;
+		WarningSet warnings = null;
+		if (status.recordWarnings()) {
+			warnings = stepWarnings;
+			warnings.clear();
+		}
 
 		// Calculate aerodynamic forces
 		store.forces = status.getSimulationConditions().getAerodynamicCalculator()
-				.getAerodynamicForces(status.getConfiguration(), store.flightConditions, warnings);
+				.getAerodynamicForces(status.getConfiguration(), store.flightConditions, warnings, aerodynamicForces);
 
 		if (null != warnings) {
 			// If this doesn't include the sustainer and either isn't stable or is about
@@ -438,8 +461,11 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 			if (!sustainer && (!stable || recoverySoon)) {
 				warnings.filterOut(Warning.OPEN_AIRFRAME_FORWARD);
 			}
-				
-			status.addWarnings(warnings);
+
+			// Most steps produce no warnings, and the status ignores the ones it already has
+			if (!warnings.isEmpty()) {
+				status.addWarnings(warnings);
+			}
 		}
 
 		// Add very small randomization to yaw & pitch moments to prevent over-perfect flight
@@ -448,12 +474,49 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		store.forces.setCyaw(store.forces.getCyaw() + (PITCH_YAW_RANDOM * 2 * (random.nextDouble() - 0.5)));
 		
 
-		// Call post-listeners
+		// Call post-listeners, which are given a copy of the reused forces
 		store.forces = SimulationListenerHelper.firePostAerodynamicCalculation(status, store.forces);
 	}
 	
 	
 
+	/**
+	 * A {@link Random} whose state can be copied.  It generates the same sequence of values as
+	 * {@link Random} with the same seed, using the linear congruential generator specified by
+	 * {@link Random#next(int)}.  The cached value of {@link Random#nextGaussian()} is not copied.
+	 */
+	static final class CopyableRandom extends Random {
+		private static final long MULTIPLIER = 0x5DEECE66DL;
+		private static final long ADDEND = 0xBL;
+		private static final long MASK = (1L << 48) - 1;
+
+		// Set by setSeed(), which is called by the superclass constructor
+		private long state;
+
+		CopyableRandom(long seed) {
+			super(seed);
+		}
+
+		@Override
+		public synchronized void setSeed(long seed) {
+			super.setSeed(seed);
+			state = (seed ^ MULTIPLIER) & MASK;
+		}
+
+		@Override
+		protected int next(int bits) {
+			state = (state * MULTIPLIER + ADDEND) & MASK;
+			return (int) (state >>> (48 - bits));
+		}
+
+		CopyableRandom copy() {
+			CopyableRandom copy = new CopyableRandom(0);
+			copy.state = state;
+			return copy;
+		}
+	}
+
+
 	private static class RK4Parameters {
 		/** Linear acceleration */
 		public Coordinate a;
@@ -0,0 +1,115 @@
+package info.openrocket.core.simulation;
+
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.util.Coordinate;
+
+/**
+ * A snapshot of a simulation branch at one instant, from which the simulation can be
+ * continued any number of times with {@link BasicEventSimulationEngine#resume}.
+ * <p>
+ * The checkpoint holds a private copy of the {@link SimulationStatus} including the motor
+ * states, the event queue and the warnings, a copy of the flight data branch up to the
+ * checkpoint, which stepper was in use and the integration state of the RK4 stepper (its
+ * previous time step and random generator).  A simulation resumed from a checkpoint
+ * continues exactly as the original simulation would have, unless its conditions or
+ * listeners are changed.
+ * <p>
+ * Checkpoints are created using {@link BasicEventSimulationEngine#checkpoint()}.  They are
+ * immutable, and every resumed simulation works on its own copy of the state.
+ */
+public final class SimulationCheckpoint {
+
+	/**
+	 * The stepper that is in use in a simulation branch.
+	 */
+	enum Phase {
+		FLIGHT, LANDING, TUMBLE, GROUND
+	}
+
+	private final SimulationStatus status;
+	private final Phase phase;
+	private final Phase lastPhase;
+	private final RK4SimulationStepper flightStepper = new RK4SimulationStepper();
+	private final Coordinate origin;
+	private final Coordinate originVelocity;
+
+	SimulationCheckpoint(SimulationStatus status, Phase phase, Phase lastPhase, RK4SimulationStepper flightStepper,
+						 Coordinate origin, Coordinate originVelocity) {
+		this.status = copy(status);
+		this.phase = phase;
+		this.lastPhase = lastPhase;
+		this.flightStepper.copyStateFrom(flightStepper);
+		this.origin = origin;
+		this.originVelocity = originVelocity;
+	}
+
+	/**
+	 * @return	the simulation time of the checkpoint.
+	 */
+	public double getSimulationTime() {
+		return status.getSimulationTime();
+	}
+
+	/**
+	 * @return	the name of the flight data branch that was simulated.
+	 */
+	public String getBranchName() {
+		return status.getFlightDataBranch().getName();
+	}
+
+	/**
+	 * @return	the simulation conditions of the checkpoint.  They must not be modified; the
+	 * 			conditions of a resumed simulation are a copy of them.
+	 */
+	public SimulationConditions getSimulationConditions() {
+		return status.getSimulationConditions();
+	}
+
+	/**
+	 * @return	a new copy of the simulation status, with its own copy of the flight data branch.
+	 */
+	SimulationStatus restoreStatus() {
+		return copy(status);
+	}
+
+	Phase getPhase() {
+		return phase;
+	}
+
+	Phase getLastPhase() {
+		return lastPhase;
+	}
+
+	RK4SimulationStepper getFlightStepper() {
+		return flightStepper;
+	}
+
+	Coordinate getOrigin() {
+		return origin;
+	}
+
+	Coordinate getOriginVelocity() {
+		return originVelocity;
+	}
+
+
+	/**
+	 * Copy a simulation status so that simulating with the copy does not change the
+	 * original.  The copy constructor of SimulationStatus shares the motor states and the
+	 * flight data branch, so these are copied here.
+	 */
+	private static SimulationStatus copy(SimulationStatus orig) {
+		SimulationStatus copy = new SimulationStatus(orig);
+		copy.setMaxAlt(orig.getMaxAlt());
+		copy.setMaxAltTime(orig.getMaxAltTime());
+
+		WarningSet warnings = new WarningSet();
+		warnings.addAll(orig.getWarnings());
+		copy.setWarnings(warnings);
+
+		copy.setFlightDataBranch(orig.getFlightDataBranch().clone());
+		copy.copyMotorStates();
+
+		return copy;
+	}
+}
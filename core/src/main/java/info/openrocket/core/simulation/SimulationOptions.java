@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Random;
 
 import info.openrocket.core.models.wind.MultiLevelPinkNoiseWindModel;
+import info.openrocket.core.models.wind.PrecomputedWindModel;
 import info.openrocket.core.models.wind.WindModel;
 import info.openrocket.core.models.wind.WindModelType;
 import info.openrocket.core.preferences.ApplicationPreferences;
@@ -523,7 +524,12 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 		conditions.setGeodeticComputation(getGeodeticComputation());
 		conditions.setRandomSeed(randomSeed);
 
-		WindModel windModel = getWindModel().clone();
+		WindModel windModel;
+		if (preferences.getPrecomputeWind()) {
+			windModel = PrecomputedWindModel.of(getWindModel(), getMaxSimulationTime());
+		} else {
+			windModel = getWindModel().clone();
+		}
 		conditions.setWindModel(windModel);
 		conditions.setAtmosphericModel(getAtmosphericModel());
 		GravityModel gravityModel = new WGSGravityModel();
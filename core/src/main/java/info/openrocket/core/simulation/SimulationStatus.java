@@ -3,10 +3,12 @@ package info.openrocket.core.simulation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 import info.openrocket.core.aerodynamics.FlightConditions;
 import info.openrocket.core.logging.SimulationAbort;
@@ -16,6 +18,7 @@ import info.openrocket.core.motor.MotorConfiguration;
 import info.openrocket.core.motor.MotorConfigurationId;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.LaunchLug;
+import info.openrocket.core.rocketcomponent.MotorMount;
 import info.openrocket.core.rocketcomponent.RecoveryDevice;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.simulation.exception.SimulationException;
@@ -493,6 +496,79 @@ public class SimulationStatus implements Cloneable, Monitorable {
 			}
 		return false;
 	}
+
+	/**
+	 * Replace the motor states with copies of them, so that the motors of this status can
+	 * change without affecting the status it was copied from.  The events in the queue
+	 * that refer to a motor state are replaced with events referring to its copy.
+	 */
+	void copyMotorStates() {
+		copyState(null);
+	}
+
+	/**
+	 * Replace the configuration with a configuration of a copy of the rocket, so that this
+	 * status can be simulated in another thread than the status it was copied from.  The
+	 * rocket components cache their computed properties without synchronization, so they
+	 * must not be used by several threads.  The motor states are copied as by
+	 * {@link #copyMotorStates()}, and they, the deployed recovery devices and the events in
+	 * the queue are moved to the components of the copy.
+	 */
+	void copyRocket() {
+		final FlightConfiguration orig = configuration;
+		final FlightConfiguration copy = orig.clone(orig.getRocket().copyWithOriginalID());
+		copy.copyStages(orig);
+		setConfiguration(copy);
+
+		Map<UUID, RocketComponent> components = new HashMap<>();
+		for (RocketComponent component : copy.getRocket()) {
+			components.put(component.getID(), component);
+		}
+		copyState(components);
+	}
+
+	/**
+	 * Copy the motor states, and move the state to the components with the same IDs.
+	 *
+	 * @param components	the components by ID, or null to keep the components.
+	 */
+	private void copyState(Map<UUID, RocketComponent> components) {
+		Map<MotorClusterState, MotorClusterState> copies = new IdentityHashMap<>();
+		for (int i = 0; i < motorStateList.size(); i++) {
+			MotorClusterState orig = motorStateList.get(i);
+			MotorClusterState copy;
+			if (components == null) {
+				copy = new MotorClusterState(orig);
+			} else {
+				MotorMount mount = (MotorMount) components.get(((RocketComponent) orig.getMount()).getID());
+				copy = new MotorClusterState(orig, mount.getMotorConfig(configuration.getFlightConfigurationID()));
+			}
+			copies.put(orig, copy);
+			motorStateList.set(i, copy);
+		}
+
+		if (components != null) {
+			List<RecoveryDevice> devices = new ArrayList<>(deployedRecoveryDevices);
+			deployedRecoveryDevices.clear();
+			for (RecoveryDevice device : devices) {
+				deployedRecoveryDevices.add((RecoveryDevice) components.get(device.getID()));
+			}
+		}
+
+		List<FlightEvent> events = new ArrayList<>(eventQueue);
+		eventQueue.clear();
+		for (FlightEvent event : events) {
+			MotorClusterState copy = copies.get(event.getData());
+			RocketComponent source = event.getSource();
+			if (components != null && source != null && components.containsKey(source.getID())) {
+				source = components.get(source.getID());
+			}
+			if (copy != null || source != event.getSource()) {
+				event = new FlightEvent(event, source, (copy != null) ? copy : event.getData());
+			}
+			eventQueue.add(event);
+		}
+	}
 	
 	public void setSimulationConditions(SimulationConditions simulationConditions) {
 		if (this.simulationConditions != null)
@@ -0,0 +1,182 @@
+package info.openrocket.core.simulation;
+
+import java.util.Arrays;
+
+import info.openrocket.core.util.ModID;
+
+/**
+ * An index of the values of one data type against time in a {@link FlightDataBranch},
+ * stored in primitive arrays.
+ * <p>
+ * The index is append-only: when the branch has grown since the last query, only the new
+ * data points (and the latest indexed point, whose values may still have been changed) are
+ * copied to the index, so keeping it up to date during a simulation costs amortized O(1) per
+ * simulation step.  Lookups are O(log n) binary searches; a cursor remembers the position of
+ * the previous lookup, so that monotonically increasing queries are amortized O(1).
+ * <p>
+ * The interpolation has the same semantics as {@link info.openrocket.core.util.LinearInterpolator}:
+ * values outside the time range are clamped to the first or last value, and if several data
+ * points have the same time, the last one is used.
+ * <p>
+ * Instances are obtained using {@link FlightDataBranch#getTimeSeries(FlightDataType)} and are
+ * not thread-safe.
+ */
+public final class TimeSeriesIndex {
+
+	/** Number of points scanned linearly from the cursor before falling back to a binary search. */
+	private static final int CURSOR_SCAN = 8;
+
+	private final FlightDataBranch branch;
+	private final FlightDataType type;
+
+	private double[] times = new double[64];
+	private double[] values = new double[64];
+	private int length = 0;
+	private int cursor = 0;
+	private ModID indexedModID = ModID.INVALID;
+
+	TimeSeriesIndex(FlightDataBranch branch, FlightDataType type) {
+		this.branch = branch;
+		this.type = type;
+	}
+
+	/**
+	 * @return the data type of the values.
+	 */
+	public FlightDataType getType() {
+		return type;
+	}
+
+	/**
+	 * @return the number of data points in the index.
+	 */
+	public int getLength() {
+		update();
+		return length;
+	}
+
+	/**
+	 * @return the time of the last data point, or NaN if there are no data points.
+	 */
+	public double getLastTime() {
+		update();
+		return length == 0 ? Double.NaN : times[length - 1];
+	}
+
+	/**
+	 * Return the value at the given time, linearly interpolated between the surrounding
+	 * data points.
+	 *
+	 * @param time	the time.
+	 * @return		the interpolated value.
+	 * @throws IllegalStateException	if the branch has no data points.
+	 */
+	public double getValue(double time) {
+		update();
+		if (length == 0) {
+			throw new IllegalStateException("No data points in branch " + branch.getName());
+		}
+
+		if (Double.isNaN(time)) {
+			return values[length - 1];
+		}
+		int floor = floorIndex(time);
+		if (floor < 0) {
+			// Before the first data point
+			return values[0];
+		}
+		if (times[floor] == time || floor == length - 1) {
+			return values[floor];
+		}
+
+		// Of several data points with the same time, the last one is used
+		int ceil = search(floor + 1, length - 1, times[floor + 1]);
+		double t1 = times[floor];
+		double t2 = times[ceil];
+		return (time - t1) / (t2 - t1) * (values[ceil] - values[floor]) + values[floor];
+	}
+
+	/**
+	 * Return the index of the last data point whose time is less than or equal to the given time.
+	 *
+	 * @param time	the time.
+	 * @return		the index, or -1 if all data points are later than the time.
+	 */
+	public int floorIndex(double time) {
+		update();
+		if (length == 0 || !(time >= times[0])) {
+			return -1;
+		}
+
+		// Scan forward from the previous position, typical for increasing queries
+		int i = cursor;
+		if (times[i] <= time) {
+			int limit = Math.min(length - 1, i + CURSOR_SCAN);
+			while (i < limit && times[i + 1] <= time) {
+				i++;
+			}
+			if (i < length - 1 && times[i + 1] <= time) {
+				i = search(i + 1, length - 1, time);
+			}
+		} else {
+			i = search(0, i - 1, time);
+		}
+		cursor = i;
+		return i;
+	}
+
+	/**
+	 * Binary search for the last index in [low, high] whose time is at most the given time,
+	 * given that times[low] <= time.
+	 */
+	private int search(int low, int high, double time) {
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (times[mid] <= time) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Discard the indexed data points, when values other than the latest have been replaced.
+	 */
+	void invalidate() {
+		length = 0;
+		cursor = 0;
+		indexedModID = ModID.INVALID;
+	}
+
+	/**
+	 * Copy the data points added to the branch since the last update.
+	 */
+	private void update() {
+		ModID modID = branch.getModID();
+		if (modID == indexedModID) {
+			return;
+		}
+		indexedModID = modID;
+
+		int n = branch.values.containsKey(FlightDataType.TYPE_TIME) ? branch.getLength() : 0;
+		if (n < length) {
+			// The branch does not shrink, but be safe
+			length = 0;
+			cursor = 0;
+		}
+		if (n > times.length) {
+			int capacity = Math.max(n, times.length * 2);
+			times = Arrays.copyOf(times, capacity);
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		// The latest indexed point may have been set after it was indexed
+		for (int i = Math.max(0, length - 1); i < n; i++) {
+			times[i] = branch.getValue(FlightDataType.TYPE_TIME, i);
+			values[i] = branch.getValue(type, i);
+		}
+		length = n;
+	}
+}
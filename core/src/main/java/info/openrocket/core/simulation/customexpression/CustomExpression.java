@@ -18,6 +18,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.ColumnarExpression;
 import de.congrace.exp4j.ExpressionBuilder;
 import de.congrace.exp4j.UnknownFunctionException;
 import de.congrace.exp4j.UnparsableExpressionException;
@@ -384,6 +385,28 @@ public class CustomExpression implements Cloneable {
 		return result;
 	}
 
+	/*
+	 * Builds the expression for evaluation over entire columns of stored flight data.
+	 * Returns null if the expression contains index or range sub-expressions, which
+	 * depend on the simulation time, or in case of error.
+	 */
+	ColumnarExpression buildColumnarExpression() {
+		if (!subExpressions.isEmpty()) {
+			return null;
+		}
+		Calculable calc = buildExpression(builder);
+		if (calc == null) {
+			return null;
+		}
+		try {
+			return ColumnarExpression.compile(calc);
+		} catch (IllegalArgumentException e) {
+			log.info(Markers.USER_MARKER, "Unable to compile custom expression " + this.toString() + ": "
+					+ e.getMessage());
+			return null;
+		}
+	}
+
 	/*
 	 * Builds the expression, done automatically during evaluation. Logs any errors.
 	 * Returns null in case of error.
@@ -399,7 +422,7 @@ public class CustomExpression implements Cloneable {
 	protected Calculable buildExpression(ExpressionBuilder b) {
 		Calculable calc = null;
 		try {
-			calc = b.build();
+			calc = b.buildCompiled();
 		} catch (UnknownFunctionException e1) {
 			log.info(Markers.USER_MARKER, "Unknown function. Could not build custom expression " + this.toString());
 			return null;
@@ -435,12 +458,12 @@ public class CustomExpression implements Cloneable {
 		FlightDataBranch dataBranch = status.getFlightDataBranch();
 		for (FlightDataType type : dataBranch.getTypes()) {
 			double value = dataBranch.getLast(type);
-			calc.setVariable(new Variable(type.getSymbol(), value));
+			calc.setVariable(type.getSymbol(), value);
 		}
 
 		double result = Double.NaN;
 		try {
-			result = calc.calculate().getDoubleValue();
+			result = calc.calculateDouble();
 		} catch (java.util.EmptyStackException e) {
 			log.info(Markers.USER_MARKER,
 					"Unable to calculate expression " + this.expression + " due to empty stack exception");
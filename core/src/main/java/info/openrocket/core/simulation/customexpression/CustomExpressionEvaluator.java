@@ -0,0 +1,257 @@
+package info.openrocket.core.simulation.customexpression;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.congrace.exp4j.ColumnarExpression;
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+
+/**
+ * Evaluates custom expressions over the stored data of simulations that have already been
+ * run, so that a new or edited expression does not require running the simulations again.
+ * <p>
+ * The expression is evaluated over entire data columns at once using a
+ * {@link ColumnarExpression}, and long branches are split across the threads of a fork-join
+ * pool.  The result is stored in each branch as the data type of the expression.
+ * <p>
+ * Expressions containing index or range sub-expressions (e.g. <code>m[0:t]</code>) depend on
+ * the data available at each simulation step, and can only be evaluated by running the
+ * simulation using a {@link CustomExpressionSimulationListener}.
+ */
+public class CustomExpressionEvaluator {
+	private static final Logger log = LoggerFactory.getLogger(CustomExpressionEvaluator.class);
+
+	/** Number of data points evaluated by each fork-join task. */
+	private static final int TASK_SIZE = 8192;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Create an evaluator using the common fork-join pool.
+	 */
+	public CustomExpressionEvaluator() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Create an evaluator using the given fork-join pool.
+	 *
+	 * @param pool	the pool to split long branches across.
+	 */
+	public CustomExpressionEvaluator(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Return whether the expression can be evaluated over stored flight data.
+	 *
+	 * @param expression	the custom expression.
+	 * @return				false if the expression is invalid, or uses index or range sub-expressions.
+	 */
+	public boolean canEvaluate(CustomExpression expression) {
+		return expression.buildColumnarExpression() != null;
+	}
+
+	/**
+	 * Evaluate the expression over the stored data of all simulations of the document.
+	 * Simulations without simulated data are skipped.
+	 *
+	 * @param expression	the custom expression.
+	 * @param document		the document.
+	 * @return				the number of branches the expression was evaluated for, or -1 if
+	 * 						the expression cannot be evaluated over stored data.
+	 */
+	public int evaluate(CustomExpression expression, OpenRocketDocument document) {
+		Evaluation evaluation = prepare(expression, document);
+		if (evaluation == null) {
+			return -1;
+		}
+		evaluation.calculate();
+		return evaluation.apply();
+	}
+
+	/**
+	 * Evaluate the expression over the stored data of a single branch.
+	 *
+	 * @param expression	the custom expression.
+	 * @param branch		the branch.
+	 * @return				whether the expression was evaluated, false if it cannot be evaluated
+	 * 						over stored data.
+	 */
+	public boolean evaluate(CustomExpression expression, FlightDataBranch branch) {
+		ColumnarExpression columnar = expression.buildColumnarExpression();
+		if (columnar == null) {
+			return false;
+		}
+		Evaluation evaluation = new Evaluation(expression, columnar);
+		evaluation.add(branch);
+		evaluation.calculate();
+		evaluation.apply();
+		return true;
+	}
+
+	/**
+	 * Prepare the evaluation of the expression over the stored data of all simulations of the
+	 * document.  Simulations without simulated data are skipped.  This copies the data the
+	 * expression uses, and must be called in the thread owning the simulation data.
+	 *
+	 * @param expression	the custom expression.
+	 * @param document		the document.
+	 * @return				the evaluation, or null if the expression cannot be evaluated over
+	 * 						stored data.
+	 */
+	public Evaluation prepare(CustomExpression expression, OpenRocketDocument document) {
+		ColumnarExpression columnar = expression.buildColumnarExpression();
+		if (columnar == null) {
+			return null;
+		}
+
+		Evaluation evaluation = new Evaluation(expression, columnar);
+		for (Simulation simulation : document.getSimulations()) {
+			FlightData data = simulation.getSimulatedData();
+			if (data == null) {
+				continue;
+			}
+			evaluation.simulations.add(simulation);
+			for (FlightDataBranch branch : data.getBranches()) {
+				evaluation.add(branch);
+			}
+		}
+		return evaluation;
+	}
+
+	/**
+	 * An evaluation of an expression over stored flight data, in three steps: the data used is
+	 * copied when the evaluation is prepared, {@link #calculate()} computes the values without
+	 * accessing the branches, and {@link #apply()} stores the values in the branches.  Only the
+	 * calculation may run outside the thread owning the simulation data.
+	 */
+	public class Evaluation {
+		private final CustomExpression expression;
+		private final ColumnarExpression columnar;
+		private final List<Simulation> simulations = new ArrayList<>();
+		private final List<FlightDataBranch> branches = new ArrayList<>();
+		private final List<double[][]> columns = new ArrayList<>();
+		private final List<double[]> results = new ArrayList<>();
+
+		private Evaluation(CustomExpression expression, ColumnarExpression columnar) {
+			this.expression = expression;
+			this.columnar = columnar;
+		}
+
+		private void add(FlightDataBranch branch) {
+			if (branch.getLength() == 0) {
+				return;
+			}
+			Map<String, FlightDataType> symbols = new HashMap<>();
+			for (FlightDataType t : branch.getTypes()) {
+				symbols.put(t.getSymbol(), t);
+			}
+			String[] names = columnar.getVariableNames();
+			double[][] branchColumns = new double[names.length][];
+			for (int i = 0; i < names.length; i++) {
+				FlightDataType t = symbols.get(names[i]);
+				branchColumns[i] = (t == null) ? null : branch.getArray(t);
+			}
+			branches.add(branch);
+			columns.add(branchColumns);
+		}
+
+		/**
+		 * Compute the values of the expression.  This may be called in any thread.
+		 */
+		public void calculate() {
+			long t0 = System.nanoTime();
+			int points = 0;
+			results.clear();
+			for (int b = 0; b < branches.size(); b++) {
+				int length = branches.get(b).getLength();
+				double[] result = new double[length];
+				if (length <= TASK_SIZE) {
+					columnar.calculate(columns.get(b), 0, length, result);
+				} else {
+					pool.invoke(new EvaluationTask(columnar, columns.get(b), 0, length, result));
+				}
+
+				// Same as CustomExpression.evaluateDouble
+				for (int i = 0; i < length; i++) {
+					if (Double.isInfinite(result[i])) {
+						result[i] = Double.NaN;
+					}
+				}
+				results.add(result);
+				points += length;
+			}
+			log.debug("Evaluated custom expression " + expression + " over " + branches.size() + " branches, " +
+					points + " data points in " + ((System.nanoTime() - t0) / 1000000) + " ms");
+		}
+
+		/**
+		 * Store the computed values in the branches.  This must be called in the thread owning the
+		 * simulation data.  Branches that have changed in length since the evaluation was prepared
+		 * are skipped.
+		 *
+		 * @return	the number of branches the values were stored in.
+		 */
+		public int apply() {
+			int applied = 0;
+			for (int b = 0; b < results.size(); b++) {
+				FlightDataBranch branch = branches.get(b);
+				double[] result = results.get(b);
+				if (branch.getLength() != result.length) {
+					log.debug("Branch " + branch.getName() + " changed while evaluating custom expression " +
+							expression + ", skipping it");
+					continue;
+				}
+				branch.setDerivedValues(expression.getType(), result);
+				applied++;
+			}
+			return applied;
+		}
+
+		/**
+		 * Return the simulations whose data the expression is evaluated over.
+		 */
+		public List<Simulation> getSimulations() {
+			return simulations;
+		}
+	}
+
+	private static class EvaluationTask extends RecursiveAction {
+		private final ColumnarExpression columnar;
+		private final double[][] columns;
+		private final int from;
+		private final int to;
+		private final double[] result;
+
+		private EvaluationTask(ColumnarExpression columnar, double[][] columns, int from, int to, double[] result) {
+			this.columnar = columnar;
+			this.columns = columns;
+			this.from = from;
+			this.to = to;
+			this.result = result;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= TASK_SIZE) {
+				columnar.calculate(columns, from, to, result);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new EvaluationTask(columnar, columns, from, mid, result),
+					new EvaluationTask(columnar, columns, mid, to, result));
+		}
+	}
+}
@@ -1,7 +1,5 @@
 package info.openrocket.core.simulation.customexpression;
 
-import java.util.List;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,7 +10,7 @@ import info.openrocket.core.logging.Markers;
 import info.openrocket.core.simulation.FlightDataBranch;
 import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.SimulationStatus;
-import info.openrocket.core.util.LinearInterpolator;
+import info.openrocket.core.simulation.TimeSeriesIndex;
 
 public class IndexExpression extends CustomExpression {
 
@@ -34,31 +32,29 @@ public class IndexExpression extends CustomExpression {
 			return new Variable("Unknown");
 		}
 
-		// From the given datatype, get the time and function values and make an
-		// interpolator
+		// From the given datatype, get the indexed time history of the values.  The index
+		// is kept by the branch and only extended by the new data points of each step.
 
 		// Note: must get in a way that flight data system will figure out units.
 		// Otherwise there will be a type conflict when we get the new data.
 		FlightDataType myType = FlightDataType.getType(null, getSymbol(), null);
 
 		FlightDataBranch dataBranch = status.getFlightDataBranch();
-		List<Double> data = dataBranch.get(myType);
-		List<Double> time = dataBranch.get(FlightDataType.TYPE_TIME);
-		LinearInterpolator interp = new LinearInterpolator(time, data);
+		TimeSeriesIndex series = dataBranch.getTimeSeries(myType);
 
 		// Set the variables in the expression to evaluate
 		for (FlightDataType etype : dataBranch.getTypes()) {
 			double value = dataBranch.getLast(etype);
-			calc.setVariable(new Variable(etype.getSymbol(), value));
+			calc.setVariable(etype.getSymbol(), value);
 		}
 
 		// Evaluate this expression to get the t value
 		// System.out.println("Evaluating expression to get t value
 		// "+this.getExpressionString());
 		try {
-			double tvalue = calc.calculate().getDoubleValue();
+			double tvalue = calc.calculateDouble();
 			// System.out.println("t = "+tvalue);
-			return new Variable(hash(), interp.getValue(tvalue));
+			return new Variable(hash(), series.getValue(tvalue));
 		} catch (java.util.EmptyStackException e) {
 			log.info(Markers.USER_MARKER, "Unable to calculate time index for indexed expression "
 					+ getExpressionString() + " due to empty stack exception");
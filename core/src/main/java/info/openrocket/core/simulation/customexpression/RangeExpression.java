@@ -4,8 +4,6 @@
 
 package info.openrocket.core.simulation.customexpression;
 
-import java.util.List;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,8 +15,8 @@ import info.openrocket.core.logging.Markers;
 import info.openrocket.core.simulation.FlightDataBranch;
 import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.TimeSeriesIndex;
 import info.openrocket.core.util.ArrayUtils;
-import info.openrocket.core.util.LinearInterpolator;
 import info.openrocket.core.util.MathUtil;
 import info.openrocket.core.util.StringUtils;
 
@@ -71,29 +69,27 @@ public class RangeExpression extends CustomExpression {
 		// Set the variables in the start and end calculators
 		for (FlightDataType type : dataBranch.getTypes()) {
 			double value = dataBranch.getLast(type);
-			startCalc.setVariable(new Variable(type.getSymbol(), value));
-			endCalc.setVariable(new Variable(type.getSymbol(), value));
+			startCalc.setVariable(type.getSymbol(), value);
+			endCalc.setVariable(type.getSymbol(), value);
 		}
 
-		// From the given datatype, get the time and function values and make an
-		// interpolator
+		// From the given datatype, get the indexed time history of the values.  The index
+		// is kept by the branch and only extended by the new data points of each step.
 
 		// Note: must get in a way that flight data system will figure out units.
 		// Otherwise there will be a type conflict when we get the new data.
 		FlightDataType type = FlightDataType.getType(null, getSymbol(), null);
 
-		List<Double> data = dataBranch.get(type);
-		List<Double> time = dataBranch.get(FlightDataType.TYPE_TIME);
-		LinearInterpolator interp = new LinearInterpolator(time, data);
+		TimeSeriesIndex series = dataBranch.getTimeSeries(type);
 
 		// Evaluate the expression to get the start and end of the range
 		double startTime, endTime;
 		try {
-			startTime = startCalc.calculate().getDoubleValue();
+			startTime = startCalc.calculateDouble();
 			startTime = MathUtil.clamp(startTime, 0, Double.MAX_VALUE);
 
-			endTime = endCalc.calculate().getDoubleValue();
-			endTime = MathUtil.clamp(endTime, 0, time.get(time.size() - 1));
+			endTime = endCalc.calculateDouble();
+			endTime = MathUtil.clamp(endTime, 0, series.getLastTime());
 		} catch (java.util.EmptyStackException e) {
 			log.info(Markers.USER_MARKER, "Unable to calculate time index for range expression " + getSymbol()
 					+ " due to empty stack exception");
@@ -106,7 +102,7 @@ public class RangeExpression extends CustomExpression {
 		double[] y = new double[t.length];
 		int i = 0;
 		for (double tval : t) {
-			y[i] = interp.getValue(tval);
+			y[i] = series.getValue(tval);
 			i++;
 		}
 
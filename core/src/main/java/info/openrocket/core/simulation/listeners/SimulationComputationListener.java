@@ -49,6 +49,16 @@ public interface SimulationComputationListener extends SimulationListener {
 	public AerodynamicForces preAerodynamicCalculation(SimulationStatus status)
 			throws SimulationException;
 
+	/**
+	 * Called after the aerodynamic forces have been calculated.
+	 * <p>
+	 * The simulation reuses one forces object for all of its steps, so each call receives
+	 * a copy of it that the listener may keep or modify.
+	 *
+	 * @param status	the simulation status.
+	 * @param forces	a copy of the calculated forces.
+	 * @return			the forces to use instead, or <code>null</code> to use the calculated forces.
+	 */
 	public AerodynamicForces postAerodynamicCalculation(SimulationStatus status, AerodynamicForces forces)
 			throws SimulationException;
 
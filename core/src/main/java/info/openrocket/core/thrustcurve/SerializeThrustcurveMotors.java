@@ -1,12 +1,18 @@
 package info.openrocket.core.thrustcurve;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.xml.sax.SAXException;
 
@@ -14,12 +20,33 @@ import info.openrocket.core.file.iterator.DirectoryIterator;
 import info.openrocket.core.file.iterator.FileIterator;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
 import info.openrocket.core.gui.util.SimpleFileFilter;
+import info.openrocket.core.motor.CompactMotorDatabase;
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.util.BugException;
 import info.openrocket.core.util.Pair;
 
+/**
+ * Fetches the thrust curves from ThrustCurve.org and the local motor files and writes them
+ * to the built-in motor database in the {@link CompactMotorDatabase} format.
+ * <p>
+ * The ThrustCurve.org responses can be cached with the system properties below, so that
+ * a rebuild only downloads the motors that changed, or runs without network access from
+ * a cache or a stand-in directory of responses (see {@link ThrustCurveCache}).
+ */
 public class SerializeThrustcurveMotors {
 
+	/** System property of the directory to cache the ThrustCurve.org responses in. */
+	public static final String CACHE_PROPERTY = "openrocket.thrustcurve.cache";
+	/** System property of a read-only directory of cached responses, used for responses missing from the cache. */
+	public static final String STAND_IN_PROPERTY = "openrocket.thrustcurve.standin";
+	/** System property of the {@link ThrustCurveAPI.CacheMode}: revalidate, prefer-cache or offline. */
+	public static final String MODE_PROPERTY = "openrocket.thrustcurve.mode";
+	/** System property of the maximum number of concurrent downloads. */
+	public static final String THREADS_PROPERTY = "openrocket.thrustcurve.threads";
+
+	private static final int DEFAULT_THREADS = 8;
+
 	private static final String[] manufacturers = {
 			"AeroTech",
 			"Alpha",
@@ -56,7 +83,7 @@ public class SerializeThrustcurveMotors {
 		String inputDir = args[0];
 		String outputFile = args[1];
 
-		final List<Motor> allMotors = new ArrayList<>();
+		final List<ThrustCurveMotor> allMotors = new ArrayList<>();
 
 		loadFromLocalMotorFiles(allMotors, inputDir);
 
@@ -64,27 +91,77 @@ public class SerializeThrustcurveMotors {
 
 		File outFile = new File(outputFile);
 
-		FileOutputStream ofs = new FileOutputStream(outFile);
-		final ObjectOutputStream oos = new ObjectOutputStream(ofs);
-
-		oos.writeObject(allMotors);
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outFile))) {
+			CompactMotorDatabase.write(allMotors, out);
+		}
 
-		oos.flush();
-		ofs.flush();
-		ofs.close();
+	}
 
+	public static void loadFromThrustCurve(List<ThrustCurveMotor> allMotors)
+			throws SAXException, IOException, InterruptedException {
+		loadFromThrustCurve(allMotors, createAPI(), Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS));
 	}
 
-	public static void loadFromThrustCurve(List<Motor> allMotors) throws SAXException, IOException {
+	/**
+	 * Create the ThrustCurve.org client configured by the system properties.
+	 */
+	static ThrustCurveAPI createAPI() {
+		String cacheDir = System.getProperty(CACHE_PROPERTY);
+		String standInDir = System.getProperty(STAND_IN_PROPERTY);
+		String mode = System.getProperty(MODE_PROPERTY);
+
+		ThrustCurveAPI.CacheMode cacheMode = ThrustCurveAPI.CacheMode.REVALIDATE;
+		if (mode != null) {
+			cacheMode = ThrustCurveAPI.CacheMode.valueOf(mode.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+		}
+		if (cacheDir == null && standInDir == null) {
+			return new ThrustCurveAPI(null, cacheMode);
+		}
+		ThrustCurveCache cache = new ThrustCurveCache(cacheDir != null ? new File(cacheDir) : null,
+				standInDir != null ? new File(standInDir) : null);
+		System.out.println("ThrustCurve cache: " + cacheDir + ", stand-in: " + standInDir + ", mode: " + cacheMode);
+		return new ThrustCurveAPI(cache, cacheMode);
+	}
 
+	/**
+	 * Load the motors of ThrustCurve.org.  The burn files are downloaded in parallel.
+	 *
+	 * @param allMotors		the list to add the motors to.
+	 * @param api			the client to use.
+	 * @param threads		the maximum number of concurrent downloads.
+	 */
+	public static void loadFromThrustCurve(List<ThrustCurveMotor> allMotors, ThrustCurveAPI api, int threads)
+			throws SAXException, IOException, InterruptedException {
+
+		List<TCMotor> motors = new ArrayList<>();
 		SearchRequest searchRequest = new SearchRequest();
 		for (String m : manufacturers) {
 			searchRequest.setManufacturer(m);
 			System.out.println("Motors for : " + m);
 
-			SearchResponse res = ThrustCurveAPI.doSearch(searchRequest);
+			SearchResponse res = api.search(searchRequest);
 
 			for (TCMotor mi : res.getResults()) {
+				if (mi.getData_files() == null || mi.getData_files().intValue() == 0) {
+					continue;
+				}
+				motors.add(mi);
+			}
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+			Thread t = new Thread(r, "ThrustCurveDownload");
+			t.setDaemon(true);
+			return t;
+		});
+		try {
+			List<Future<List<MotorBurnFile>>> downloads = new ArrayList<>(motors.size());
+			for (TCMotor mi : motors) {
+				downloads.add(executor.submit(() -> getThrustCurvesForMotor(api, mi)));
+			}
+
+			for (int n = 0; n < motors.size(); n++) {
+				TCMotor mi = motors.get(n);
 				StringBuilder message = new StringBuilder();
 				message.append(mi.getManufacturer_abbr());
 				message.append(" ");
@@ -92,10 +169,6 @@ public class SerializeThrustcurveMotors {
 				message.append(" ");
 				message.append(mi.getMotor_id());
 
-				if (mi.getData_files() == null || mi.getData_files().intValue() == 0) {
-					continue;
-				}
-
 				final Motor.Type type = switch (mi.getType()) {
 					case "SU" -> Motor.Type.SINGLE;
 					case "reload" -> Motor.Type.RELOAD;
@@ -105,7 +178,12 @@ public class SerializeThrustcurveMotors {
 
 				System.out.println(message);
 
-				List<MotorBurnFile> b = getThrustCurvesForMotorId(mi.getMotor_id());
+				List<MotorBurnFile> b;
+				try {
+					b = downloads.get(n).get();
+				} catch (ExecutionException e) {
+					throw new BugException(e.getCause());
+				}
 				for (MotorBurnFile burnFile : b) {
 					try {
 						ThrustCurveMotor.Builder builder = burnFile.getThrustCurveMotor();
@@ -148,29 +226,27 @@ public class SerializeThrustcurveMotors {
 				}
 
 				System.out.println("\t curves: " + b.size());
-
 			}
+		} finally {
+			executor.shutdownNow();
 		}
 	}
 
-	private static List<MotorBurnFile> getThrustCurvesForMotorId(int motorId) {
+	private static List<MotorBurnFile> getThrustCurvesForMotor(ThrustCurveAPI api, TCMotor motor) {
 		String[] formats = new String[] { "RASP", "RockSim" };
 		List<MotorBurnFile> b = new ArrayList<>();
 		for (String format : formats) {
 			try {
-				List<MotorBurnFile> motorData = ThrustCurveAPI.downloadData(motorId, format);
-				if (motorData != null) {
-					b.addAll(motorData);
-				}
+				b.addAll(api.download(motor, format));
 			} catch (Exception ex) {
-				System.out.println(
-						"\tError downloading " + format + " for motorID=" + motorId + ": " + ex.getLocalizedMessage());
+				System.out.println("\tError downloading " + format + " for motorID=" + motor.getMotor_id() + ": "
+						+ ex.getLocalizedMessage());
 			}
 		}
 		return b;
 	}
 
-	private static void loadFromLocalMotorFiles(List<Motor> allMotors, String inputDir) throws IOException {
+	private static void loadFromLocalMotorFiles(List<ThrustCurveMotor> allMotors, String inputDir) throws IOException {
 		GeneralMotorLoader loader = new GeneralMotorLoader();
 		FileIterator iterator = DirectoryIterator.findDirectory(inputDir,
 				new SimpleFileFilter("", false, loader.getSupportedExtensions()));
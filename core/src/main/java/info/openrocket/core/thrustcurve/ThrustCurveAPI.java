@@ -1,46 +1,106 @@
 package info.openrocket.core.thrustcurve;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
 
-public abstract class ThrustCurveAPI {
-
-	public static SearchResponse doSearch(SearchRequest request) throws IOException, SAXException {
+/**
+ * A client of the ThrustCurve.org search and download services.
+ * <p>
+ * The responses can be stored in a {@link ThrustCurveCache}.  How the cache is used is
+ * defined by the {@link CacheMode}.  Downloads of a {@link TCMotor} are keyed by the
+ * digest of its search result, so they are fetched again only when the motor changes.
+ */
+public class ThrustCurveAPI {
+
+	private static final Logger log = LoggerFactory.getLogger(ThrustCurveAPI.class);
+
+	/**
+	 * How cached responses are used.
+	 */
+	public enum CacheMode {
+		/**
+		 * Revalidate the cached responses with the server, and use them if the server
+		 * cannot be reached.
+		 */
+		REVALIDATE,
+		/** Use the cached responses without contacting the server. */
+		PREFER_CACHE,
+		/** Never contact the server.  Requests missing from the cache fail. */
+		OFFLINE
+	}
 
-		String requestString = request.toString();
+	private static final String HOST = "www.thrustcurve.org";
+	private static final String SEARCH = "/servlets/search";
+	private static final String DOWNLOAD = "/servlets/download";
 
-		// Froyo has troubles resolving URLS constructed with protocols. Because of this
-		// we need to do it in parts.
-		URL url = new URL("http", "www.thrustcurve.org", "/servlets/search");
+	private static final int CONNECT_TIMEOUT = 2000;
 
-		OutputStream stream;
+	private final ThrustCurveCache cache;
+	private final CacheMode mode;
 
-		URLConnection conn = url.openConnection();
-		conn.setConnectTimeout(2000);
-		conn.setDoInput(true);
-		conn.setDoOutput(true);
-		conn.setUseCaches(false);
+	/**
+	 * A client without a cache.
+	 */
+	public ThrustCurveAPI() {
+		this(null, CacheMode.REVALIDATE);
+	}
 
-		stream = conn.getOutputStream();
+	/**
+	 * @param cache	the response cache, or <code>null</code> for none.
+	 * @param mode	how the cached responses are used.
+	 */
+	public ThrustCurveAPI(ThrustCurveCache cache, CacheMode mode) {
+		if (cache == null && mode == CacheMode.OFFLINE) {
+			throw new IllegalArgumentException("Offline mode requires a cache");
+		}
+		this.cache = cache;
+		this.mode = mode;
+	}
 
-		stream.write(requestString.getBytes());
+	public static SearchResponse doSearch(SearchRequest request) throws IOException, SAXException {
+		return new ThrustCurveAPI().search(request);
+	}
 
-		InputStream is = conn.getInputStream();
+	public static List<MotorBurnFile> downloadData(Integer motor_id, String format) throws IOException, SAXException {
+		return new ThrustCurveAPI().download(motor_id, format, null);
+	}
 
-		SearchResponse result = SearchResponseParser.parse(is);
+	/**
+	 * Search for motors.
+	 */
+	public SearchResponse search(SearchRequest request) throws IOException, SAXException {
+		byte[] response = fetch(SEARCH, getSearchKey(request), request.toString(), false);
+		if (response == null) {
+			throw new IOException("Search request rejected by " + HOST);
+		}
+		return SearchResponseParser.parse(new ByteArrayInputStream(response));
+	}
 
-		return result;
+	/**
+	 * Download the burn files of a motor found by a search.  The burn files are cached
+	 * until the search result of the motor changes.
+	 *
+	 * @param motor		the motor.
+	 * @param format	the file format.
+	 * @return			the burn files, empty if the server has none.
+	 */
+	public List<MotorBurnFile> download(TCMotor motor, String format) throws IOException, SAXException {
+		return download(motor.getMotor_id(), format, getDigest(motor));
 	}
 
-	public static List<MotorBurnFile> downloadData(Integer motor_id, String format) throws IOException, SAXException {
+	private List<MotorBurnFile> download(Integer motor_id, String format, String digest)
+			throws IOException, SAXException {
 
 		if (motor_id == null) {
 			return null;
@@ -51,31 +111,104 @@ public abstract class ThrustCurveAPI {
 
 		String requestString = dr.toString();
 
-		// Froyo has troubles resolving URLS constructed with protocols. Because of this
-		// we need to do it in parts.
-		URL url = new URL("http", "www.thrustcurve.org", "/servlets/download");
-
-		OutputStream stream;
-
-		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-		conn.setDoInput(true);
-		conn.setDoOutput(true);
-		conn.setUseCaches(false);
-		conn.connect();
+		byte[] response = fetch(DOWNLOAD, getDownloadKey(motor_id, format, digest), requestString, digest != null);
+		if (response == null) {
+			return Collections.emptyList();
+		}
 
-		stream = conn.getOutputStream();
+		DownloadResponse downloadResponse = DownloadResponseParser.parse(new ByteArrayInputStream(response));
 
-		stream.write(requestString.getBytes());
+		List<MotorBurnFile> data = downloadResponse.getData(motor_id);
+		return data != null ? data : Collections.<MotorBurnFile>emptyList();
+	}
 
-		if (conn.getResponseCode() == HttpURLConnection.HTTP_BAD_REQUEST) {
-			return Collections.emptyList();
+	/**
+	 * Return the response to a request, from the cache or the server.
+	 *
+	 * @param servlet		the path of the service.
+	 * @param key			the cache key of the request.
+	 * @param request		the request body.
+	 * @param immutable		whether the response of the key never changes, so a cached
+	 * 						response does not need to be revalidated.
+	 * @return				the response body, or <code>null</code> if the server rejected the request.
+	 */
+	private byte[] fetch(String servlet, String key, String request, boolean immutable) throws IOException {
+		ThrustCurveCache.Entry entry = null;
+		if (cache != null) {
+			entry = cache.get(key);
+			if (entry != null && (immutable || mode != CacheMode.REVALIDATE)) {
+				return entry.getContent();
+			}
+			if (mode == CacheMode.OFFLINE) {
+				throw new IOException("Response not cached: " + key.replace('\n', ' '));
+			}
 		}
-		InputStream is = conn.getInputStream();
 
-		DownloadResponse downloadResponse = DownloadResponseParser.parse(is);
+		try {
+			// Froyo has troubles resolving URLS constructed with protocols. Because of this
+			// we need to do it in parts.
+			URL url = new URL("http", HOST, servlet);
+
+			HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+			conn.setConnectTimeout(CONNECT_TIMEOUT);
+			conn.setDoInput(true);
+			conn.setDoOutput(true);
+			conn.setUseCaches(false);
+			if (entry != null && entry.getETag() != null) {
+				conn.setRequestProperty("If-None-Match", entry.getETag());
+			}
+			if (entry != null && entry.getLastModified() != null) {
+				conn.setRequestProperty("If-Modified-Since", entry.getLastModified());
+			}
+
+			try (OutputStream stream = conn.getOutputStream()) {
+				stream.write(request.getBytes(StandardCharsets.US_ASCII));
+			}
+
+			int code = conn.getResponseCode();
+			if (code == HttpURLConnection.HTTP_NOT_MODIFIED && entry != null) {
+				return entry.getContent();
+			}
+			if (code == HttpURLConnection.HTTP_BAD_REQUEST) {
+				return null;
+			}
+
+			byte[] content;
+			try (InputStream is = conn.getInputStream()) {
+				content = is.readAllBytes();
+			}
+			if (cache != null) {
+				cache.put(key, content, conn.getHeaderField("ETag"), conn.getHeaderField("Last-Modified"));
+			}
+			return content;
+		} catch (IOException e) {
+			if (entry != null) {
+				log.warn("Using the cached response, the server could not be reached: " + e.getMessage());
+				return entry.getContent();
+			}
+			throw e;
+		}
+	}
 
-		return downloadResponse.getData(motor_id);
+	/**
+	 * @return the cache key of a search request.
+	 */
+	static String getSearchKey(SearchRequest request) {
+		return "search\n" + request;
+	}
 
+	/**
+	 * @return the cache key of a download request.
+	 */
+	static String getDownloadKey(int motorId, String format, String digest) {
+		return "download\n" + motorId + "\n" + format + (digest != null ? "\n" + digest : "");
 	}
 
+	/**
+	 * Return the digest of the search result of a motor, which changes whenever the
+	 * motor is updated on ThrustCurve.org.
+	 */
+	static String getDigest(TCMotor motor) {
+		return ThrustCurveCache.hash(motor.toString().getBytes(StandardCharsets.UTF_8));
+	}
 }
@@ -0,0 +1,210 @@
+package info.openrocket.core.thrustcurve;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+import info.openrocket.core.util.BugException;
+import info.openrocket.core.util.TextUtil;
+
+/**
+ * An on-disk cache of ThrustCurve.org responses.
+ * <p>
+ * The response bodies are stored content-addressed in <code>objects/</code>, named by
+ * the SHA-256 hash of their contents, so identical responses are stored only once.  The
+ * responses are found by the hash of the request key in <code>refs/</code>, whose
+ * entries hold the object hash and the validators (ETag and Last-Modified) needed to
+ * revalidate the response with the server.  Objects whose contents do not match their
+ * hash are ignored.
+ * <p>
+ * A cache may have a read-only stand-in directory with the same layout, e.g. a cache
+ * directory copied from an earlier run, which is used for requests missing from the
+ * cache itself.  This allows building the motor database without network access.
+ */
+public class ThrustCurveCache {
+
+	private static final String OBJECTS = "objects";
+	private static final String REFS = "refs";
+
+	private static final String KEY = "key";
+	private static final String OBJECT = "object";
+	private static final String ETAG = "etag";
+	private static final String LAST_MODIFIED = "last-modified";
+
+	private final File directory;
+	private final File standIn;
+
+	/**
+	 * @param directory	the cache directory, created when the first response is stored.
+	 */
+	public ThrustCurveCache(File directory) {
+		this(directory, null);
+	}
+
+	/**
+	 * @param directory	the cache directory, or <code>null</code> to only read the stand-in directory.
+	 * @param standIn	a read-only directory of cached responses, or <code>null</code> for none.
+	 */
+	public ThrustCurveCache(File directory, File standIn) {
+		this.directory = directory;
+		this.standIn = standIn;
+	}
+
+	/**
+	 * Return the cached response of a request.
+	 *
+	 * @param key	the request key.
+	 * @return		the cached response, or <code>null</code> if there is none.
+	 */
+	public Entry get(String key) throws IOException {
+		String ref = hash(key.getBytes(StandardCharsets.UTF_8));
+		Entry entry = get(directory, ref);
+		if (entry == null) {
+			entry = get(standIn, ref);
+		}
+		return entry;
+	}
+
+	private static Entry get(File dir, String ref) throws IOException {
+		if (dir == null) {
+			return null;
+		}
+		File refFile = new File(new File(dir, REFS), ref);
+		if (!refFile.isFile()) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(refFile)) {
+			properties.load(in);
+		}
+
+		String object = properties.getProperty(OBJECT);
+		if (object == null) {
+			return null;
+		}
+		File objectFile = new File(new File(dir, OBJECTS), object);
+		if (!objectFile.isFile()) {
+			return null;
+		}
+		byte[] content = Files.readAllBytes(objectFile.toPath());
+		if (!object.equals(hash(content))) {
+			return null;
+		}
+		return new Entry(content, properties.getProperty(ETAG), properties.getProperty(LAST_MODIFIED));
+	}
+
+	/**
+	 * Store the response of a request.  Nothing is stored if the cache has no directory.
+	 *
+	 * @param key			the request key.
+	 * @param content		the response body.
+	 * @param etag			the ETag of the response, or <code>null</code>.
+	 * @param lastModified	the Last-Modified time of the response, or <code>null</code>.
+	 * @return				the stored entry.
+	 */
+	public Entry put(String key, byte[] content, String etag, String lastModified) throws IOException {
+		Entry entry = new Entry(content, etag, lastModified);
+		if (directory == null) {
+			return entry;
+		}
+
+		String object = hash(content);
+		File objects = new File(directory, OBJECTS);
+		File objectFile = new File(objects, object);
+		if (!objectFile.isFile()) {
+			write(objects, objectFile, content);
+		}
+
+		Properties properties = new Properties();
+		properties.setProperty(KEY, key);
+		properties.setProperty(OBJECT, object);
+		if (etag != null) {
+			properties.setProperty(ETAG, etag);
+		}
+		if (lastModified != null) {
+			properties.setProperty(LAST_MODIFIED, lastModified);
+		}
+		File refs = new File(directory, REFS);
+		File refFile = new File(refs, hash(key.getBytes(StandardCharsets.UTF_8)));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		properties.store(bytes, null);
+		write(refs, refFile, bytes.toByteArray());
+		return entry;
+	}
+
+	/**
+	 * Write a file through a temporary file, so that concurrent readers and writers never
+	 * see a partial file.
+	 */
+	private static void write(File dir, File file, byte[] content) throws IOException {
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Unable to create cache directory " + dir);
+		}
+		File tmp = File.createTempFile("thrustcurve", ".tmp", dir);
+		try {
+			try (OutputStream out = new FileOutputStream(tmp)) {
+				out.write(content);
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			tmp.delete();
+		}
+	}
+
+	/**
+	 * @return the SHA-256 hash of the bytes in hexadecimal.
+	 */
+	public static String hash(byte[] bytes) {
+		try {
+			return TextUtil.hexString(MessageDigest.getInstance("SHA-256").digest(bytes));
+		} catch (NoSuchAlgorithmException e) {
+			throw new BugException(e);
+		}
+	}
+
+	/**
+	 * A cached response.
+	 */
+	public static class Entry {
+		private final byte[] content;
+		private final String etag;
+		private final String lastModified;
+
+		private Entry(byte[] content, String etag, String lastModified) {
+			this.content = content;
+			this.etag = etag;
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * @return the response body.
+		 */
+		public byte[] getContent() {
+			return content;
+		}
+
+		/**
+		 * @return the ETag of the response, or <code>null</code>.
+		 */
+		public String getETag() {
+			return etag;
+		}
+
+		/**
+		 * @return the Last-Modified time of the response, or <code>null</code>.
+		 */
+		public String getLastModified() {
+			return lastModified;
+		}
+	}
+}
@@ -120,6 +120,17 @@ public class Transformation implements java.io.Serializable {
 		return new Coordinate(x, y, z, orig.weight);
 	}
 
+	/**
+	 * Transform the coordinate and return only the x-coordinate of the result.  This is
+	 * equivalent to <code>transform(orig).x</code> but does not create a new coordinate.
+	 *
+	 * @param orig the coordinate to transform.
+	 * @return the x-coordinate of the transformed coordinate.
+	 */
+	public double transformX(Coordinate orig) {
+		return rotation[X][X] * orig.x + rotation[X][Y] * orig.y + rotation[X][Z] * orig.z + translate.x;
+	}
+
 	/**
 	 * Transform an array of coordinates. The transformed coordinates are stored
 	 * in the same array, and the array is returned.
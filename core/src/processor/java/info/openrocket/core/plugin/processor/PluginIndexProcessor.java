@@ -0,0 +1,82 @@
+package info.openrocket.core.plugin.processor;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes an index of the types annotated with
+ * {@code info.openrocket.core.plugin.Plugin} at build time.
+ * <p>
+ * The index is a resource {@value #INDEX_RESOURCE} in the class output,
+ * containing the binary name of one annotated type per line.  It is read by
+ * AnnotationFinderImpl so that the plugins are found at startup without
+ * scanning the whole classpath.
+ * <p>
+ * The processor is registered as an aggregating incremental processor, so
+ * Gradle always passes it all the annotated types of a compilation.
+ */
+@SupportedAnnotationTypes(PluginIndexProcessor.PLUGIN_ANNOTATION)
+public class PluginIndexProcessor extends AbstractProcessor {
+
+	static final String PLUGIN_ANNOTATION = "info.openrocket.core.plugin.Plugin";
+
+	/** Name of the index resource, must match AnnotationFinderImpl.INDEX_DIRECTORY + annotation name. */
+	static final String INDEX_RESOURCE = "META-INF/openrocket/index/" + PLUGIN_ANNOTATION;
+
+	private final Set<String> types = new TreeSet<>();
+	private final List<Element> originatingElements = new ArrayList<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element e : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (e instanceof TypeElement) {
+					types.add(processingEnv.getElementUtils().getBinaryName((TypeElement) e).toString());
+					originatingElements.add(e);
+				}
+			}
+		}
+
+		if (roundEnv.processingOver() && !types.isEmpty()) {
+			writeIndex();
+		}
+		return false;
+	}
+
+	private void writeIndex() {
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+					INDEX_RESOURCE, originatingElements.toArray(new Element[0]));
+			try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+				for (String type : types) {
+					writer.write(type);
+					writer.write('\n');
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Unable to write plugin index " + INDEX_RESOURCE + ": " + e);
+		}
+	}
+}
@@ -3,6 +3,7 @@ package info.openrocket.core.aerodynamics;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import info.openrocket.core.document.Simulation;
@@ -766,4 +767,62 @@ public class BarrowmanCalculatorTest {
 		}
 		assertEquals(11, boosterOnlyForceMap.size(), "Force map should contain 10 components");
 	}
+
+	@Test
+	public void testTotalsMatchForceAnalysis() {
+		final Rocket rocket = TestRockets.makeFalcon9Heavy();
+		final FlightConfiguration config = rocket.getSelectedConfiguration();
+		final BarrowmanCalculator calc = new BarrowmanCalculator();
+		final FlightConditions conditions = new FlightConditions(config);
+		conditions.setAOA(Math.toRadians(4));
+		final WarningSet warnings = new WarningSet();
+
+		AerodynamicForces result = new AerodynamicForces();
+		AerodynamicForces totals = calc.getAerodynamicForces(config, conditions, warnings, result);
+		assertSame(result, totals, "Totals were not stored in the given result object");
+
+		Map<RocketComponent, AerodynamicForces> forceMap = calc.getForceAnalysis(config, conditions, new WarningSet());
+		AerodynamicForces rocketForces = forceMap.get(rocket);
+		assertEquals(rocketForces.getCNa(), totals.getCNa(), EPSILON, "Totals CNa differs from force analysis");
+		assertEquals(rocketForces.getCP().x, totals.getCP().x, EPSILON, "Totals CP differs from force analysis");
+		assertEquals(rocketForces.getCD(), totals.getCD(), EPSILON, "Totals CD differs from force analysis");
+
+		// Repeated evaluations into the same object give the same result and the same warnings
+		double cn = totals.getCN();
+		WarningSet warnings2 = new WarningSet();
+		totals = calc.getAerodynamicForces(config, conditions, warnings2, result);
+		assertSame(result, totals, "Totals were not stored in the given result object");
+		assertEquals(cn, totals.getCN(), 0, "Repeated evaluation changed CN");
+		assertEquals(warnings.size(), warnings2.size(), "Repeated evaluation changed the geometry warnings");
+	}
+
+	@Test
+	public void testGeometryWarningsFollowComponentNames() {
+		final Rocket rocket = TestRockets.makeEstesAlphaIII();
+		final FlightConfiguration config = rocket.getSelectedConfiguration();
+		final BarrowmanCalculator calc = new BarrowmanCalculator();
+		final FlightConditions conditions = new FlightConditions(config);
+
+		BodyTube body = null;
+		for (RocketComponent c : rocket) {
+			if (c instanceof BodyTube) {
+				body = (BodyTube) c;
+				break;
+			}
+		}
+		assertNotNull(body);
+		body.setLength(0);
+		body.setName("Phantom");
+
+		WarningSet warnings = new WarningSet();
+		calc.getAerodynamicForces(config, conditions, warnings);
+		assertTrue(warnings.toString().contains("Phantom"), "Missing zero volume warning: " + warnings);
+
+		// A non-functional change of the rocket updates the cached geometry warnings
+		body.setName("Renamed");
+		warnings = new WarningSet();
+		calc.getAerodynamicForces(config, conditions, warnings);
+		assertTrue(warnings.toString().contains("Renamed"), "Stale zero volume warning: " + warnings);
+		assertFalse(warnings.toString().contains("Phantom"), "Stale zero volume warning: " + warnings);
+	}
 }
@@ -0,0 +1,109 @@
+package info.openrocket.core.componentanalysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.aerodynamics.BarrowmanCalculator;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class CAParameterSweepTest extends BaseTestCase {
+	private static final double EPSILON = 1e-10;
+
+	@Test
+	public void testParallelSweepMatchesSerialSweep() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		CAParameters parameters = new CAParameters(rocket, 0);
+		CAParameterSweep sweep = new CAParameterSweep(parameters, new BarrowmanCalculator(), rocket);
+
+		CADataBranch serial = sweep.sweep(CADomainDataType.MACH, 0.1, 2.0, 0.1, parameters.getMach());
+		ForkJoinPool pool = new ForkJoinPool(4);
+		CADataBranch parallel;
+		try {
+			parallel = sweep.sweep(List.of(new CAParameterSweep.SweepDimension(CADomainDataType.MACH, 0.1, 2.0, 0.1)),
+					pool, null);
+		} finally {
+			pool.shutdown();
+		}
+
+		assertEquals(serial.getLength(), parallel.getLength());
+		for (int i = 0; i < serial.getLength(); i++) {
+			assertEquals(serial.getByIndex(CADomainDataType.MACH, i), parallel.getByIndex(CADomainDataType.MACH, i));
+			assertEquals(serial.getByIndex(CADataType.CP_X, rocket, i), parallel.getByIndex(CADataType.CP_X, rocket, i), EPSILON);
+			assertEquals(serial.getByIndex(CADataType.CNa, rocket, i), parallel.getByIndex(CADataType.CNa, rocket, i), EPSILON);
+			assertEquals(serial.getByIndex(CADataType.TOTAL_CD, rocket, i), parallel.getByIndex(CADataType.TOTAL_CD, rocket, i), EPSILON);
+		}
+	}
+
+	@Test
+	public void testMultiDimensionalSweepOrder() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		CAParameterSweep sweep = new CAParameterSweep(new CAParameters(rocket, 0), new BarrowmanCalculator(), rocket);
+
+		AtomicInteger lastTotal = new AtomicInteger();
+		AtomicInteger calls = new AtomicInteger();
+		ForkJoinPool pool = new ForkJoinPool(3);
+		CADataBranch branch;
+		try {
+			branch = sweep.sweep(List.of(
+							new CAParameterSweep.SweepDimension(CADomainDataType.MACH, 0.2, 0.6, 0.2),
+							new CAParameterSweep.SweepDimension(CADomainDataType.AOA, 0, 0.1, 0.05)),
+					pool, (completed, total) -> {
+						calls.incrementAndGet();
+						lastTotal.set(total);
+					});
+		} finally {
+			pool.shutdown();
+		}
+
+		assertEquals(9, branch.getLength());
+		assertEquals(9, calls.get());
+		assertEquals(9, lastTotal.get());
+		for (int i = 0; i < 9; i++) {
+			assertEquals(0.2 * (i / 3 + 1), branch.getByIndex(CADomainDataType.MACH, i), EPSILON);
+			assertEquals(0.05 * (i % 3), branch.getByIndex(CADomainDataType.AOA, i), EPSILON);
+		}
+	}
+
+	@Test
+	public void testCancelledSweep() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		CAParameterSweep sweep = new CAParameterSweep(new CAParameters(rocket, 0), new BarrowmanCalculator(), rocket);
+
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			assertThrows(CancellationException.class, () -> sweep.sweep(
+					List.of(new CAParameterSweep.SweepDimension(CADomainDataType.MACH, 0.1, 2.0, 0.1)),
+					pool, (completed, total) -> sweep.cancel()));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * A cancellation that arrives before the sweep starts cancels the sweep.
+	 */
+	@Test
+	public void testCancelBeforeSweep() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		CAParameterSweep sweep = new CAParameterSweep(new CAParameters(rocket, 0), new BarrowmanCalculator(), rocket);
+		sweep.cancel();
+
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			assertThrows(CancellationException.class, () -> sweep.sweep(
+					List.of(new CAParameterSweep.SweepDimension(CADomainDataType.MACH, 0.1, 2.0, 0.1)),
+					pool, null));
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package info.openrocket.core.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.ObjectInputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.motor.Manufacturer;
+import info.openrocket.core.preset.ComponentPreset;
+import info.openrocket.core.preset.ComponentPresetFactory;
+import info.openrocket.core.preset.TypedPropertyMap;
+import info.openrocket.core.util.BaseTestCase;
+
+public class ComponentPresetDatabaseTest extends BaseTestCase {
+
+	private static ComponentPreset preset(ComponentPreset.Type type, String manufacturer, String partNo) throws Exception {
+		TypedPropertyMap spec = new TypedPropertyMap();
+		spec.put(ComponentPreset.TYPE, type);
+		spec.put(ComponentPreset.MANUFACTURER, Manufacturer.getManufacturer(manufacturer));
+		spec.put(ComponentPreset.PARTNO, partNo);
+		spec.put(ComponentPreset.LENGTH, 0.1);
+		spec.put(ComponentPreset.OUTER_DIAMETER, 0.025);
+		spec.put(ComponentPreset.INNER_DIAMETER, 0.024);
+		return ComponentPresetFactory.create(spec);
+	}
+
+	private static List<ComponentPreset> scan(ComponentPresetDatabase db, ComponentPreset.Type... types) {
+		List<ComponentPreset> result = new ArrayList<>();
+		for (ComponentPreset preset : db.listAll()) {
+			if (Arrays.asList(types).contains(preset.getType())) {
+				result.add(preset);
+			}
+		}
+		return result;
+	}
+
+	@Test
+	public void testIndexes() throws Exception {
+		ComponentPresetDatabase db = new ComponentPresetDatabase();
+		db.add(preset(ComponentPreset.Type.BODY_TUBE, "Estes", "BT-20"));
+		db.add(preset(ComponentPreset.Type.LAUNCH_LUG, "Estes", "LL-2A"));
+		db.add(preset(ComponentPreset.Type.TUBE_COUPLER, "Estes", "JT-20"));
+		db.add(preset(ComponentPreset.Type.BODY_TUBE, "LOC Precision", "BT-20"));
+		db.add(preset(ComponentPreset.Type.CENTERING_RING, "Estes", "RA-20-50"));
+
+		assertEquals(scan(db, ComponentPreset.Type.BODY_TUBE), db.listForType(ComponentPreset.Type.BODY_TUBE));
+		assertEquals(2, db.listForType(ComponentPreset.Type.BODY_TUBE).size());
+		assertTrue(db.listForType(ComponentPreset.Type.PARACHUTE).isEmpty());
+		assertEquals(scan(db, ComponentPreset.Type.BODY_TUBE, ComponentPreset.Type.TUBE_COUPLER, ComponentPreset.Type.LAUNCH_LUG),
+				db.listForTypes(ComponentPreset.Type.LAUNCH_LUG, ComponentPreset.Type.BODY_TUBE, ComponentPreset.Type.TUBE_COUPLER,
+						ComponentPreset.Type.BODY_TUBE));
+
+		List<ComponentPreset> found = db.find("Estes", "BT-20");
+		assertEquals(1, found.size());
+		assertEquals("Estes", found.get(0).getManufacturer().getDisplayName());
+		assertTrue(db.find("Estes", "BT-50").isEmpty());
+
+		// The indexes are updated when the database changes
+		db.add(preset(ComponentPreset.Type.BODY_TUBE, "Estes", "BT-50"));
+		assertEquals(3, db.listForType(ComponentPreset.Type.BODY_TUBE).size());
+		assertEquals(1, db.find("Estes", "BT-50").size());
+		db.insert(preset(ComponentPreset.Type.LAUNCH_LUG, "Estes", "LL-2B"));
+		assertEquals(2, db.listForType(ComponentPreset.Type.LAUNCH_LUG).size());
+
+		// Returned lists are copies
+		db.listForType(ComponentPreset.Type.BODY_TUBE).clear();
+		assertEquals(3, db.listForType(ComponentPreset.Type.BODY_TUBE).size());
+	}
+
+	private static String readSnapshotKey(File snapshot) throws Exception {
+		try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(snapshot))) {
+			return ois.readUTF();
+		}
+	}
+
+	@Test
+	public void testLoaderSnapshot() throws Exception {
+		File cacheDir = Files.createTempDirectory("presetcache").toFile();
+		File snapshot = new File(cacheDir, "component-presets.ser");
+		try {
+			ComponentPresetDatabaseLoader loader = new ComponentPresetDatabaseLoader(cacheDir);
+			loader.startLoading();
+			List<ComponentPreset> parsed = loader.getDatabase().listAll();
+			assertFalse(parsed.isEmpty());
+			assertTrue(snapshot.isFile());
+
+			// The second load reads the snapshot
+			ComponentPresetDatabaseLoader cached = new ComponentPresetDatabaseLoader(cacheDir);
+			cached.startLoading();
+			List<ComponentPreset> loaded = cached.getDatabase().listAll();
+			assertEquals(parsed, loaded);
+			for (ComponentPreset.Type type : ComponentPreset.Type.values()) {
+				assertEquals(loader.getDatabase().listForType(type), cached.getDatabase().listForType(type));
+			}
+
+			// A snapshot of another locale is not used
+			String key = readSnapshotKey(snapshot);
+			ComponentPresetDatabaseLoader other = new ComponentPresetDatabaseLoader(cacheDir);
+			other.startLoading(Locale.getDefault().equals(Locale.GERMAN) ? Locale.FRENCH : Locale.GERMAN);
+			assertEquals(parsed.size(), other.getDatabase().listAll().size());
+			assertNotEquals(key, readSnapshotKey(snapshot));
+		} finally {
+			snapshot.delete();
+			cacheDir.delete();
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package info.openrocket.core.file;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Module;
+import com.google.inject.util.Modules;
+
+import info.openrocket.core.ServicesForTesting;
+import info.openrocket.core.database.ComponentPresetDao;
+import info.openrocket.core.database.ComponentPresetDatabase;
+import info.openrocket.core.database.motor.MotorDatabase;
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.file.rasaero.export.RASAeroDocumentDTO;
+import info.openrocket.core.file.rasaero.export.RASAeroSaver;
+import info.openrocket.core.file.rasaero.export.RASAeroSaverTest;
+import info.openrocket.core.file.rocksim.export.RockSimDocumentDTO;
+import info.openrocket.core.file.rocksim.export.RockSimDocumentDTOTest;
+import info.openrocket.core.file.rocksim.export.RockSimSaver;
+import info.openrocket.core.file.rocksim.importt.RockSimLoader;
+import info.openrocket.core.file.rocksim.importt.RockSimLoaderTest;
+import info.openrocket.core.l10n.DebugTranslator;
+import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.logging.ErrorSet;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.plugin.PluginModule;
+import info.openrocket.core.startup.Application;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+
+/**
+ * Measures the conversion throughput of the RockSim and RASAero exporters.  This is not
+ * a unit test; run the main method with the test classpath, optionally giving the number
+ * of exports per measurement as the argument.
+ * <p>
+ * For comparison it also measures the previous way of exporting, which converted the
+ * design to a tree of DTOs and marshalled it with JAXB.
+ */
+public class ExportThroughputBenchmark {
+
+	private interface Export {
+		void run() throws Exception;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		setup();
+
+		final OpenRocketDocument rocksimDoc = RockSimLoaderTest.loadRockSimRocket(new RockSimLoader(),
+				"rocksimTestRocket3.rkt");
+		final OpenRocketDocument rasaeroDoc = loadRocket("/file/rasaero/export/01.One-stage.ork");
+		final OutputStream out = OutputStream.nullOutputStream();
+
+		final JAXBContext rocksimContext = JAXBContext.newInstance(RockSimDocumentDTO.class);
+		measure("RockSim, DTOs marshalled by JAXB", count, () ->
+				marshal(rocksimContext, RockSimDocumentDTOTest.toRockSimDocumentDTO(rocksimDoc.getRocket()), out));
+		measure("RockSim, streamed", count, () ->
+				new RockSimSaver().save(out, rocksimDoc, null, new WarningSet(), new ErrorSet()));
+
+		final JAXBContext rasaeroContext = JAXBContext.newInstance(RASAeroDocumentDTO.class);
+		measure("RASAero, DTOs marshalled by JAXB", count, () ->
+				marshal(rasaeroContext, RASAeroSaverTest.toRASAeroDocumentDTO(rasaeroDoc, new WarningSet(),
+						new ErrorSet()), out));
+		measure("RASAero, streamed", count, () ->
+				new RASAeroSaver().save(out, rasaeroDoc, null, new WarningSet(), new ErrorSet()));
+	}
+
+	private static void measure(String name, int count, Export export) throws Exception {
+		// Warm up
+		for (int i = 0; i < Math.max(count / 4, 1); i++) {
+			export.run();
+		}
+
+		System.gc();
+		long t0 = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			export.run();
+		}
+		double seconds = (System.nanoTime() - t0) / 1e9;
+		System.out.println(String.format(Locale.ROOT, "%-40s %8.1f exports/s %8.2f ms/export", name,
+				count / seconds, seconds * 1000 / count));
+	}
+
+	private static void marshal(JAXBContext context, Object dto, OutputStream out) throws Exception {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		Marshaller marshaller = context.createMarshaller();
+		marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+		marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+		marshaller.marshal(dto, writer);
+		writer.flush();
+	}
+
+	private static OpenRocketDocument loadRocket(String resource) throws Exception {
+		try (InputStream is = ExportThroughputBenchmark.class.getResourceAsStream(resource)) {
+			return new GeneralRocketLoader(new File(resource)).load(is, resource);
+		}
+	}
+
+	private static void setup() {
+		Module debugTranslator = new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(Translator.class).toInstance(new DebugTranslator(null));
+			}
+		};
+		Module dbOverrides = new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(ComponentPresetDao.class).toInstance(new ComponentPresetDatabase());
+				bind(MotorDatabase.class).toInstance(new ThrustCurveMotorSetDatabase());
+			}
+		};
+		Application.setInjector(Guice.createInjector(Modules.override(new ServicesForTesting()).with(debugTranslator),
+				new PluginModule(), dbOverrides));
+	}
+}
@@ -25,16 +25,21 @@ import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.plugin.PluginModule;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.rocketcomponent.TrapezoidFinSet;
 import info.openrocket.core.startup.Application;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -189,6 +194,80 @@ public class RASAeroSaverTest {
         }
     }
 
+    /**
+     * Tests that saving writes the same XML as marshalToRASAero returns, and that the file size estimate matches it.
+     */
+    @Test
+    public void testStreamedSave() throws IOException {
+        OpenRocketDocument document = loadRocket("01.One-stage.ork");
+        // Settle the automatic sizes of the mass objects, see testWriterMatchesDTOs
+        new RASAeroSaver().marshalToRASAero(document, new WarningSet(), new ErrorSet());
+        String expected = new RASAeroSaver().marshalToRASAero(document, new WarningSet(), new ErrorSet());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WarningSet warnings = new WarningSet();
+        ErrorSet errors = new ErrorSet();
+        new RASAeroSaver().save(out, document, null, warnings, errors);
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+        assertEquals(3, warnings.size(), " incorrect amount of RASAero export warnings");
+        assertEquals(0, errors.size(), " incorrect amount of RASAero export errors");
+        assertEquals(expected.length(), new RASAeroSaver().estimateFileSize(document, null));
+    }
+
+    /**
+     * Tests that the streaming writer writes the same XML, warnings and errors as marshalling the RASAero DTOs.
+     */
+    @Test
+    public void testWriterMatchesDTOs() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(RASAeroDocumentDTO.class);
+        OpenRocketDocument finErrors = loadRocket("02.Two-stage.ork");
+        for (RocketComponent component : finErrors.getRocket()) {
+            if (component instanceof TrapezoidFinSet) {
+                ((TrapezoidFinSet) component).setFinCount(2);
+            }
+        }
+        List<OpenRocketDocument> documents = List.of(
+                loadRocket("01.One-stage.ork"),
+                loadRocket("02.Two-stage.ork"),
+                loadRocket("03.Three-stage.ork"),
+                finErrors);
+
+        for (OpenRocketDocument document : documents) {
+            // The automatic size of a mass object only settles in its first mass calculation, so export once first
+            new RASAeroSaver().marshalToRASAero(document, new WarningSet(), new ErrorSet());
+
+            WarningSet expectedWarnings = new WarningSet();
+            ErrorSet expectedErrors = new ErrorSet();
+            StringWriter expected = new StringWriter();
+            Marshaller marshaller = context.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            marshaller.marshal(toRASAeroDocumentDTO(document, expectedWarnings, expectedErrors), expected);
+
+            WarningSet warnings = new WarningSet();
+            ErrorSet errors = new ErrorSet();
+            String actual = new RASAeroSaver().marshalToRASAero(document, warnings, errors);
+
+            String name = document.getRocket().getName();
+            assertEquals(expected.toString(), actual, name);
+            assertEquals(expectedWarnings.size(), warnings.size(), name);
+            assertEquals(expectedErrors.size(), errors.size(), name);
+        }
+    }
+
+    /**
+     * Convert a design to the RASAero DTOs, as RASAeroSaver did before it wrote the XML directly.
+     */
+    public static RASAeroDocumentDTO toRASAeroDocumentDTO(OpenRocketDocument document, WarningSet warnings,
+            ErrorSet errors) {
+        RASAeroDocumentDTO dto = new RASAeroDocumentDTO();
+        dto.setDesign(new RocketDesignDTO(document.getRocket(), warnings, errors));
+        dto.setLaunchSite(new LaunchSiteDTO(document, warnings, errors));
+        dto.setRecovery(new RecoveryDTO(document.getRocket(), warnings, errors));
+        dto.setSimulationList(new SimulationListDTO(document, warnings, errors));
+        return dto;
+    }
+
     private OpenRocketDocument loadRocket(String fileName) {
         GeneralRocketLoader loader = new GeneralRocketLoader(new File(fileName));
         InputStream is = this.getClass().getResourceAsStream("/file/rasaero/export/" + fileName);
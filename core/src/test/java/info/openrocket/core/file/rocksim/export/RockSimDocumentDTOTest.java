@@ -1,6 +1,7 @@
 package info.openrocket.core.file.rocksim.export;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileWriter;
@@ -18,9 +19,13 @@ import info.openrocket.core.document.OpenRocketDocument;
 import info.openrocket.core.document.OpenRocketDocumentFactory;
 import info.openrocket.core.file.DatabaseMotorFinder;
 import info.openrocket.core.file.DocumentLoadingContext;
+import info.openrocket.core.file.rocksim.RockSimCommonConstants;
 import info.openrocket.core.file.rocksim.importt.RockSimLoader;
 import info.openrocket.core.file.rocksim.importt.RockSimLoaderTest;
 import info.openrocket.core.file.rocksim.importt.RockSimTestBase;
+import info.openrocket.core.logging.ErrorSet;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.masscalc.MassCalculator;
 
 import info.openrocket.core.rocketcomponent.AxialStage;
 import info.openrocket.core.rocketcomponent.BodyTube;
@@ -39,6 +44,7 @@ import info.openrocket.core.rocketcomponent.Streamer;
 import info.openrocket.core.rocketcomponent.TubeCoupler;
 import info.openrocket.core.rocketcomponent.position.AxialMethod;
 import info.openrocket.core.rocketcomponent.position.RadiusMethod;
+import info.openrocket.core.util.TestRockets;
 import org.junit.jupiter.api.Assertions;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.junit.jupiter.api.Test;
@@ -97,6 +103,96 @@ public class RockSimDocumentDTOTest extends RockSimTestBase {
 		output.delete();
 	}
 
+	/**
+	 * Tests that saving writes the same XML as marshalToRockSim returns, and that the file size estimate matches it.
+	 */
+	@Test
+	public void testStreamedSave() throws Exception {
+		OpenRocketDocument ord = RockSimLoaderTest.loadRockSimRocket(new RockSimLoader(), "rocksimTestRocket3.rkt");
+		String expected = new RockSimSaver().marshalToRockSim(ord);
+		Assertions.assertNotNull(expected);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new RockSimSaver().save(out, ord, null, new WarningSet(), new ErrorSet());
+		assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+		assertEquals(expected.length(), new RockSimSaver().estimateFileSize(ord, null));
+	}
+
+	/**
+	 * Tests that the RockSim writer writes the same XML as marshalling the RockSim DTOs of the design, apart from the
+	 * part serial numbers.
+	 */
+	@Test
+	public void testWriterMatchesDTOs() throws Exception {
+		JAXBContext context = JAXBContext.newInstance(RockSimDocumentDTO.class);
+		List<Rocket> rockets = List.of(
+				RockSimLoaderTest.loadRockSimRocket(new RockSimLoader(), "rocksimTestRocket3.rkt").getRocket(),
+				makePodsRocket().getRocket(),
+				makeTubeCouplerRocket().getRocket(),
+				TestRockets.makeEstesAlphaIII(),
+				TestRockets.makeBeta(),
+				TestRockets.makeSimple2Stage(),
+				TestRockets.makeFalcon9Heavy(),
+				TestRockets.makeEstesAlphaIIIWithPods());
+
+		for (Rocket rocket : rockets) {
+			StringWriter expected = new StringWriter();
+			Marshaller marshaller = context.createMarshaller();
+			marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+			marshaller.marshal(toRockSimDocumentDTO(rocket), expected);
+
+			StringWriter actual = new StringWriter();
+			new RockSimWriter(actual).write(rocket);
+
+			assertEquals(withoutSerialNumbers(expected.toString()), withoutSerialNumbers(actual.toString()),
+					rocket.getName());
+		}
+	}
+
+	private static String withoutSerialNumbers(String xml) {
+		return xml.replaceAll("<(SerialNo|LastSerialNumber)>-?\\d+</", "<$1></");
+	}
+
+	/**
+	 * Convert a design to the RockSim DTOs, as RockSimSaver did before it wrote the XML directly.
+	 */
+	public static RockSimDocumentDTO toRockSimDocumentDTO(Rocket rocket) {
+		rocket = rocket.copyWithOriginalID();
+		RocketDesignDTO design = new RocketDesignDTO();
+
+		final double cg = MassCalculator.calculateStructure(rocket.getEmptyConfiguration()).cm.x *
+				RockSimCommonConstants.ROCKSIM_TO_OPENROCKET_LENGTH;
+		int stageCount = rocket.getChildCount();
+		if (stageCount == 3) {
+			design.setStage321CG(cg);
+		} else if (stageCount == 2) {
+			design.setStage32CG(cg);
+		} else {
+			design.setStage3CG(cg);
+		}
+
+		design.setName(rocket.getName());
+		design.setStageCount(stageCount);
+		if (stageCount > 0) {
+			design.setStage3(new StageDTO(rocket.getChild(0).getStage(), design, 3));
+		}
+		if (stageCount > 1) {
+			design.setStage2(new StageDTO(rocket.getChild(1).getStage(), design, 2));
+		}
+		if (stageCount > 2) {
+			design.setStage1(new StageDTO(rocket.getChild(2).getStage(), design, 1));
+		}
+		design.setLastSerialNumber(BasePartDTO.getCurrentSerialNumber());
+		BasePartDTO.resetCurrentSerialNumber();
+
+		RockSimDesignDTO designInformation = new RockSimDesignDTO();
+		designInformation.setDesign(design);
+		RockSimDocumentDTO document = new RockSimDocumentDTO();
+		document.setDesign(designInformation);
+		return document;
+	}
+
 	/**
 	 * Tests exporting a rocket with pods, and whether importing that same file results in the same pod configuration.
 	 */
@@ -0,0 +1,130 @@
+package info.openrocket.core.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.rocketcomponent.BodyTube;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.ModID;
+
+public class WarningSetTest extends BaseTestCase {
+
+	@Test
+	public void testAdd() {
+		WarningSet set = new WarningSet();
+		Warning a = Warning.fromString("a");
+		Warning aoa1 = new Warning.LargeAOA(0.1);
+		Warning aoa2 = new Warning.LargeAOA(0.2);
+
+		assertFalse(set.add(a));
+		assertFalse(set.add(aoa1));
+		assertEquals(2, set.size());
+		assertTrue(set.contains(Warning.fromString("a")));
+		assertFalse(set.contains(Warning.fromString("b")));
+
+		// An equal warning does not change the set
+		ModID modID = set.getModID();
+		assertTrue(set.add(Warning.fromString("a")));
+		assertEquals(2, set.size());
+		assertEquals(modID, set.getModID());
+
+		// A worse warning replaces the one in the set, keeping the order
+		assertTrue(set.add(aoa2));
+		assertNotEquals(modID, set.getModID());
+		Iterator<Warning> iterator = set.iterator();
+		assertSame(a, iterator.next());
+		assertSame(aoa2, iterator.next());
+		assertFalse(iterator.hasNext());
+
+		modID = set.getModID();
+		assertTrue(set.add(aoa1));
+		assertEquals(modID, set.getModID());
+		assertSame(aoa2, set.toArray()[1]);
+	}
+
+	@Test
+	public void testRemoveAndClear() {
+		WarningSet set = new WarningSet();
+		set.add("a");
+		set.add("b");
+		set.add("c");
+
+		set.filterOut(new Warning.LargeAOA(0));
+		assertEquals(3, set.size());
+
+		Iterator<Warning> iterator = set.iterator();
+		iterator.next();
+		iterator.remove();
+		assertFalse(set.contains(Warning.fromString("a")));
+		assertTrue(set.add("c"));
+		assertTrue(set.add("b"));
+		assertFalse(set.add("a"));
+		assertEquals(3, set.size());
+
+		set.clear();
+		assertTrue(set.isEmpty());
+		ModID modID = set.getModID();
+		set.clear();
+		assertEquals(modID, set.getModID());
+		assertFalse(set.add("a"));
+		assertEquals(1, set.size());
+	}
+
+	@Test
+	public void testClone() {
+		WarningSet set = new WarningSet();
+		set.add("a");
+
+		WarningSet clone = set.clone();
+		assertFalse(clone.add("b"));
+		clone.clear();
+		assertFalse(clone.add("c"));
+
+		assertEquals(1, set.size());
+		assertTrue(set.contains(Warning.fromString("a")));
+		assertFalse(set.add("b"));
+		assertTrue(set.add("a"));
+		assertEquals(2, set.size());
+		assertEquals(1, clone.size());
+	}
+
+	@Test
+	public void testHashCode() {
+		BodyTube tube = new BodyTube();
+		BodyTube other = new BodyTube();
+		WarningSet set = new WarningSet();
+		set.add(new Warning.LargeAOA(0.1), tube);
+		set.add(new Warning.LargeAOA(0.1), other);
+		set.add(new Warning.LargeAOA(0.2), tube);
+		set.add(Warning.fromString("a", MessagePriority.HIGH));
+		set.add(Warning.fromString("a", MessagePriority.LOW));
+		assertEquals(4, set.size());
+
+		// Equal messages have equal hash codes
+		for (Warning warning : set) {
+			Warning copy = warning instanceof Warning.Other ?
+					Warning.fromString(warning.getMessageDescription(), warning.getPriority()) :
+					new Warning.LargeAOA(0.3);
+			copy.setSources(warning.getSources());
+			assertEquals(warning, copy);
+			assertEquals(warning.hashCode(), copy.hashCode());
+		}
+
+		// Messages of one class are spread over the hash codes by their sources and priority
+		Warning.LargeAOA tubeWarning = new Warning.LargeAOA(0.1);
+		tubeWarning.setSources(new RocketComponent[] { tube });
+		Warning.LargeAOA otherWarning = new Warning.LargeAOA(0.1);
+		otherWarning.setSources(new RocketComponent[] { other });
+		assertNotEquals(tubeWarning.hashCode(), otherWarning.hashCode());
+		assertNotEquals(Warning.fromString("a", MessagePriority.HIGH).hashCode(),
+				Warning.fromString("a", MessagePriority.LOW).hashCode());
+	}
+}
@@ -0,0 +1,123 @@
+package info.openrocket.core.models.wind;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.Coordinate;
+
+public class WindFieldTableTest extends BaseTestCase {
+	private static final double EPSILON = 1e-9;
+
+	private static void assertSameWind(WindModel expected, WindModel actual, double duration, double altitude) {
+		for (double t = 0; t < duration; t += 0.0137) {
+			Coordinate e = expected.getWindVelocity(t, altitude);
+			Coordinate a = actual.getWindVelocity(t, altitude);
+			assertEquals(e.x, a.x, EPSILON, "x velocity differs at t=" + t + " altitude=" + altitude);
+			assertEquals(e.y, a.y, EPSILON, "y velocity differs at t=" + t + " altitude=" + altitude);
+			assertEquals(0, a.z, 0);
+		}
+	}
+
+	@Test
+	public void testMatchesPinkNoiseWindModel() {
+		PinkNoiseWindModel model = new PinkNoiseWindModel(1234);
+		model.setAverage(6);
+		model.setStandardDeviation(1.5);
+		model.setDirection(0.3);
+
+		assertSameWind(model, PrecomputedWindModel.of(model, 60), 60, 100);
+	}
+
+	@Test
+	public void testMatchesMultiLevelModel() {
+		MultiLevelPinkNoiseWindModel model = new MultiLevelPinkNoiseWindModel();
+		model.addWindLevel(0, 5, 0, 1);
+		model.addWindLevel(1000, 10, Math.PI / 2, 2);
+
+		PrecomputedWindModel wind = PrecomputedWindModel.of(model, 30);
+		for (double altitude : new double[] { -100, 0, 300, 1000, 5000 }) {
+			assertSameWind(model, wind, 30, altitude);
+		}
+	}
+
+	@Test
+	public void testTablesAreShared() {
+		MultiLevelPinkNoiseWindModel model = new MultiLevelPinkNoiseWindModel();
+		model.addWindLevel(0, 5, 0, 1);
+		model.addWindLevel(1000, 10, Math.PI / 2, 2);
+
+		WindFieldTable table = WindFieldTable.getInstance(model, 100);
+		assertSame(table, WindFieldTable.getInstance(model.clone(), 100));
+		assertEquals(2, table.getLevelCount());
+
+		// Any change of the wind uses a new table
+		model.getLevels().get(1).setSpeed(12);
+		assertNotSame(table, WindFieldTable.getInstance(model, 100));
+
+		PinkNoiseWindModel average = new PinkNoiseWindModel(42);
+		assertSame(WindFieldTable.getInstance(average, 100), WindFieldTable.getInstance(new PinkNoiseWindModel(42), 100));
+		assertNotSame(WindFieldTable.getInstance(average, 100), WindFieldTable.getInstance(new PinkNoiseWindModel(43), 100));
+	}
+
+	/**
+	 * The precomputed wind equals the wind model the simulation options give a simulation,
+	 * also after the seed and the wind of the options change.
+	 */
+	@Test
+	public void testSimulationOptions() {
+		SimulationOptions options = new SimulationOptions();
+		options.getAverageWindModel().setAverage(4);
+		options.getAverageWindModel().setStandardDeviation(1);
+		options.setMaxSimulationTime(30);
+
+		options.setRandomSeed(options.getRandomSeed() + 1);
+		WindModel wind = options.toSimulationConditions().getWindModel();
+		assertInstanceOf(PinkNoiseWindModel.class, wind);
+		assertSameWind(wind, PrecomputedWindModel.of(options.getWindModel(), 30), 30, 0);
+
+		SimulationOptions other = new SimulationOptions();
+		other.getAverageWindModel().setAverage(8);
+		other.getAverageWindModel().setStandardDeviation(3);
+		other.setMaxSimulationTime(30);
+		options.copyConditionsFrom(other);
+		wind = options.toSimulationConditions().getWindModel();
+		assertEquals(8, ((PinkNoiseWindModel) wind).getAverage(), 0);
+		assertSameWind(wind, PrecomputedWindModel.of(options.getWindModel(), 30), 30, 0);
+	}
+
+	@Test
+	public void testDeterministicMultiLevel() {
+		MultiLevelPinkNoiseWindModel model = new MultiLevelPinkNoiseWindModel();
+		model.addWindLevel(0, 5, 0, 1);
+		model.addWindLevel(1000, 10, Math.PI / 2, 2);
+
+		PrecomputedWindModel wind = PrecomputedWindModel.of(model, 30);
+		for (double t = 0; t < 30; t += 0.3) {
+			Coordinate lower = wind.getWindVelocity(t, 0);
+			Coordinate upper = wind.getWindVelocity(t, 1000);
+			Coordinate middle = wind.getWindVelocity(t, 500);
+			assertEquals((lower.x + upper.x) / 2, middle.x, EPSILON);
+			assertEquals((lower.y + upper.y) / 2, middle.y, EPSILON);
+
+			// Outside of the levels the outermost level is used
+			assertEquals(lower, wind.getWindVelocity(t, -100));
+			assertEquals(upper, wind.getWindVelocity(t, 5000));
+		}
+
+		// After the end of the table the last sample is used
+		assertEquals(wind.getWindVelocity(1000, 0), wind.getWindVelocity(2000, 0));
+	}
+
+	@Test
+	public void testNegativeTime() {
+		PrecomputedWindModel wind = PrecomputedWindModel.of(new PinkNoiseWindModel(1), 10);
+		assertThrows(IllegalArgumentException.class, () -> wind.getWindVelocity(-1, 0));
+	}
+}
@@ -0,0 +1,162 @@
+package info.openrocket.core.motor;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import info.openrocket.core.database.MotorDatabaseLoader;
+import info.openrocket.core.database.motor.ThrustCurveMotorSet;
+import info.openrocket.core.util.BaseTestCase;
+
+/**
+ * Measures reading the built-in motor database as a Java serialized list of motors and in
+ * the {@link CompactMotorDatabase} format.  This is not a unit test; run the main method
+ * with the test classpath, optionally giving the number of reads per measurement as the
+ * argument.
+ * <p>
+ * The cold start is measured in a new JVM for each run, with only the database file of one
+ * format on the classpath.  It is the time from starting the {@link MotorDatabaseLoader} until
+ * the first {@link info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase#getMotorSets()}
+ * returns the motors, which is when the motor selection dialog can first be used.  After that,
+ * decoding the database from memory is measured in this JVM.
+ */
+public class CompactMotorDatabaseBenchmark {
+
+	private static final String COLD_START = "coldstart";
+	private static final int COLD_START_RUNS = 5;
+
+	private interface Read {
+		List<ThrustCurveMotor> run() throws Exception;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static void main(String[] args) throws Exception {
+		if (args.length > 0 && args[0].equals(COLD_START)) {
+			coldStart();
+			return;
+		}
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+		byte[] database;
+		try (InputStream is = CompactMotorDatabaseBenchmark.class.getResourceAsStream(
+				"/datafiles/thrustcurves/thrustcurves.ser")) {
+			if (is == null) {
+				System.out.println("The Java serialized motor database is not on the classpath");
+				return;
+			}
+			database = is.readAllBytes();
+		}
+		final byte[] serialized = database;
+		final List<ThrustCurveMotor> motors;
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+			motors = (List<ThrustCurveMotor>) ois.readObject();
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		CompactMotorDatabase.write(motors, bytes);
+		final byte[] compact = bytes.toByteArray();
+
+		System.out.println(String.format(Locale.ROOT, "%d motors, Java serialization %d bytes, compact %d bytes",
+				motors.size(), serialized.length, compact.length));
+
+		measureColdStart("Java serialization", "thrustcurves.ser", serialized);
+		measureColdStart("Compact", "thrustcurves.bin", compact);
+
+		measure("Java serialization", count, () -> {
+			try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+				return (List<ThrustCurveMotor>) ois.readObject();
+			}
+		});
+		measure("Compact", count, () -> CompactMotorDatabase.read(ByteBuffer.wrap(compact)));
+		measure("Compact, all curves decoded", count, () -> {
+			List<ThrustCurveMotor> read = CompactMotorDatabase.read(ByteBuffer.wrap(compact));
+			for (ThrustCurveMotor motor : read) {
+				motor.getThrustPoints();
+			}
+			return read;
+		});
+	}
+
+	/**
+	 * Run the cold start in new JVMs, with a directory containing only the given database file
+	 * first on the classpath, so that the loader reads it instead of the built-in database.
+	 */
+	private static void measureColdStart(String name, String fileName, byte[] database) throws Exception {
+		Path dir = Files.createTempDirectory("motordatabase");
+		try {
+			Path file = dir.resolve("datafiles/thrustcurves/" + fileName);
+			Files.createDirectories(file.getParent());
+			Files.write(file, database);
+
+			String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+			String classpath = dir + File.pathSeparator + System.getProperty("java.class.path");
+			double sum = 0;
+			for (int i = 0; i < COLD_START_RUNS; i++) {
+				Process process = new ProcessBuilder(java, "-cp", classpath,
+						CompactMotorDatabaseBenchmark.class.getName(), COLD_START)
+						.redirectError(ProcessBuilder.Redirect.INHERIT)
+						.start();
+				String last = null;
+				try (BufferedReader reader = new BufferedReader(
+						new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						last = line;
+					}
+				}
+				if (process.waitFor() != 0 || last == null) {
+					throw new IllegalStateException("Cold start run failed");
+				}
+				sum += Double.parseDouble(last.trim());
+			}
+			System.out.println(String.format(Locale.ROOT, "%-30s %8.1f ms cold start until the motors are available",
+					name, sum / COLD_START_RUNS));
+		} finally {
+			try (Stream<Path> paths = Files.walk(dir)) {
+				paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+			}
+		}
+	}
+
+	/**
+	 * Load the motor database like the application does at startup, and print the time in
+	 * milliseconds until the motor sets can be listed.
+	 */
+	private static void coldStart() throws Exception {
+		BaseTestCase.setUp();
+		long t0 = System.nanoTime();
+		MotorDatabaseLoader loader = new MotorDatabaseLoader();
+		loader.startLoading();
+		List<ThrustCurveMotorSet> motorSets = loader.getDatabase().getMotorSets();
+		long time = System.nanoTime() - t0;
+		if (motorSets.isEmpty()) {
+			throw new IllegalStateException("No motors were loaded");
+		}
+		System.out.println(String.format(Locale.ROOT, "%.3f", time / 1e6));
+	}
+
+	private static void measure(String name, int count, Read read) throws Exception {
+		// Warm up
+		for (int i = 0; i < Math.max(count / 4, 1); i++) {
+			read.run();
+		}
+		System.gc();
+		long t0 = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			read.run();
+		}
+		double seconds = (System.nanoTime() - t0) / 1e9;
+		System.out.println(String.format(Locale.ROOT, "%-30s %8.1f ms/read", name, seconds * 1000 / count));
+	}
+}
@@ -0,0 +1,195 @@
+package info.openrocket.core.motor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.Coordinate;
+
+public class CompactMotorDatabaseTest {
+
+	private static final double EPSILON = 1e-12;
+
+	private final ThrustCurveMotor motorX6 = new ThrustCurveMotor.Builder()
+			.setManufacturer(Manufacturer.getManufacturer("foo"))
+			.setDesignation("X6")
+			.setDescription("Description of X6")
+			.setMotorType(Motor.Type.RELOAD)
+			.setStandardDelays(new double[] { 0, 2, Motor.PLUGGED_DELAY })
+			.setDiameter(0.05)
+			.setLength(0.10)
+			.setTimePoints(new double[] { 0, 1, 3, 4 })
+			.setThrustPoints(new double[] { 0, 2, 3, 0 })
+			.setCGPoints(new Coordinate[] {
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.03, 0, 0, 0.03) })
+			.setCaseInfo("RMS 29/40-120")
+			.setPropellantInfo("Blue Thunder")
+			.setDigest("digestA")
+			.build();
+
+	private final ThrustCurveMotor motorA8 = new ThrustCurveMotor.Builder()
+			.setManufacturer(Manufacturer.getManufacturer("Estes"))
+			.setDesignation("A8-3")
+			.setDescription("A8 \u00e4\u00f6 test motor")
+			.setMotorType(Motor.Type.SINGLE)
+			.setStandardDelays(new double[] { 3 })
+			.setDiameter(0.018)
+			.setLength(0.07)
+			.setTimePoints(new double[] { 0, 0.2, 0.5, 0.73 })
+			.setThrustPoints(new double[] { 0, 9.7, 2.3, 0 })
+			.setCGPoints(new Coordinate[] {
+					new Coordinate(0.035, 0, 0, 0.01635),
+					new Coordinate(0.036, 0, 0, 0.01546),
+					new Coordinate(0.038, 0, 0, 0.01399),
+					new Coordinate(0.0396, 0, 0, 0.01305) })
+			.setAvailability(false)
+			.setDigest("digestA8-3")
+			.build();
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		List<ThrustCurveMotor> motors = List.of(motorX6, motorA8);
+		ByteBuffer buffer = write(motors);
+		assertTrue(CompactMotorDatabase.isCompactDatabase(buffer));
+
+		List<ThrustCurveMotor> read = CompactMotorDatabase.read(buffer);
+		assertEquals(motors.size(), read.size());
+		for (int i = 0; i < motors.size(); i++) {
+			assertMotorEquals(motors.get(i), read.get(i));
+		}
+	}
+
+	@Test
+	public void testLazyCurve() throws IOException {
+		ByteBuffer buffer = write(List.of(motorX6));
+		ThrustCurveMotor motor = CompactMotorDatabase.read(buffer).get(0);
+
+		// Header values are available without the curve
+		assertEquals(4, motor.getSampleSize());
+		assertEquals(motorX6.getTotalImpulseEstimate(), motor.getTotalImpulseEstimate(), EPSILON);
+
+		// The curve is decoded from the buffer on first use
+		assertEquals(motorX6.getThrust(2), motor.getThrust(2), EPSILON);
+		assertEquals(motorX6.getCMx(3.5), motor.getCMx(3.5), EPSILON);
+		assertEquals(motorX6.getTotalMass(0.5), motor.getTotalMass(0.5), EPSILON);
+	}
+
+	@Test
+	public void testJavaSerializationOfLazyMotor() throws Exception {
+		ThrustCurveMotor motor = CompactMotorDatabase.read(write(List.of(motorA8))).get(0);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+			oos.writeObject(motor);
+		}
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertMotorEquals(motorA8, (ThrustCurveMotor) ois.readObject());
+		}
+	}
+
+	@Test
+	public void testInvalidData() {
+		ByteBuffer buffer = ByteBuffer.wrap(new byte[] { (byte) 0xAC, (byte) 0xED, 0, 5, 0, 0, 0, 0, 0, 0, 0, 0 });
+		assertFalse(CompactMotorDatabase.isCompactDatabase(buffer));
+		assertThrows(IllegalArgumentException.class, () -> CompactMotorDatabase.read(buffer));
+	}
+
+	/**
+	 * Check that the built-in Java serialized motor database is read back unchanged from the
+	 * compact format.  The loading times are measured by {@link CompactMotorDatabaseBenchmark}.
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testBuiltInDatabase() throws Exception {
+		InputStream is = getClass().getResourceAsStream("/datafiles/thrustcurves/thrustcurves.ser");
+		if (is == null) {
+			// The database is generated by the build
+			return;
+		}
+		List<ThrustCurveMotor> motors;
+		try (ObjectInputStream ois = new ObjectInputStream(is)) {
+			motors = (List<ThrustCurveMotor>) ois.readObject();
+		}
+
+		List<ThrustCurveMotor> compact = CompactMotorDatabase.read(write(motors));
+		assertEquals(motors.size(), compact.size());
+		for (int i = 0; i < motors.size(); i++) {
+			assertMotorEquals(motors.get(i), compact.get(i));
+		}
+	}
+
+	@Test
+	public void testNullStrings() throws IOException {
+		ThrustCurveMotor motor = new ThrustCurveMotor.Builder()
+				.setManufacturer(Manufacturer.getManufacturer("Estes"))
+				.setDesignation("B4-4")
+				.setMotorType(Motor.Type.SINGLE)
+				.setStandardDelays(new double[] { 4 })
+				.setDiameter(0.018)
+				.setLength(0.07)
+				.setTimePoints(new double[] { 0, 1 })
+				.setThrustPoints(new double[] { 4, 0 })
+				.setCGPoints(new Coordinate[] {
+						new Coordinate(0.035, 0, 0, 0.02),
+						new Coordinate(0.035, 0, 0, 0.01) })
+				.setCaseInfo(null)
+				.setPropellantInfo("")
+				.setDigest("digestB4-4")
+				.build();
+
+		ThrustCurveMotor read = CompactMotorDatabase.read(write(List.of(motor))).get(0);
+		assertNull(read.getCaseInfo());
+		assertEquals("", read.getPropellantInfo());
+		assertMotorEquals(motor, read);
+	}
+
+	private static ByteBuffer write(List<ThrustCurveMotor> motors) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		CompactMotorDatabase.write(motors, bytes);
+		return ByteBuffer.wrap(bytes.toByteArray());
+	}
+
+	private static void assertMotorEquals(ThrustCurveMotor expected, ThrustCurveMotor actual) {
+		assertSame(expected.getManufacturer(), actual.getManufacturer());
+		assertEquals(expected.getDesignation(), actual.getDesignation());
+		assertEquals(expected.getCode(), actual.getCode());
+		assertEquals(expected.getCommonName(), actual.getCommonName());
+		assertEquals(expected.getDescription(), actual.getDescription());
+		assertEquals(expected.getDigest(), actual.getDigest());
+		assertEquals(expected.getCaseInfo(), actual.getCaseInfo());
+		assertEquals(expected.getPropellantInfo(), actual.getPropellantInfo());
+		assertEquals(expected.getMotorType(), actual.getMotorType());
+		assertEquals(expected.isAvailable(), actual.isAvailable());
+		assertEquals(expected.getDiameter(), actual.getDiameter(), EPSILON);
+		assertEquals(expected.getLength(), actual.getLength(), EPSILON);
+		assertEquals(expected.getInitialMass(), actual.getInitialMass(), EPSILON);
+		assertEquals(expected.getMaxThrustEstimate(), actual.getMaxThrustEstimate(), EPSILON);
+		assertEquals(expected.getBurnTimeEstimate(), actual.getBurnTimeEstimate(), EPSILON);
+		assertEquals(expected.getAverageThrustEstimate(), actual.getAverageThrustEstimate(), EPSILON);
+		assertEquals(expected.getTotalImpulseEstimate(), actual.getTotalImpulseEstimate(), EPSILON);
+		assertEquals(expected.getUnitRotationalInertia(), actual.getUnitRotationalInertia(), EPSILON);
+		assertEquals(expected.getUnitLongitudinalInertia(), actual.getUnitLongitudinalInertia(), EPSILON);
+		assertArrayEquals(expected.getStandardDelays(), actual.getStandardDelays(), EPSILON);
+		assertArrayEquals(expected.getTimePoints(), actual.getTimePoints(), EPSILON);
+		assertArrayEquals(expected.getThrustPoints(), actual.getThrustPoints(), EPSILON);
+		assertArrayEquals(expected.getCGPoints(), actual.getCGPoints());
+	}
+}
@@ -0,0 +1,90 @@
+package info.openrocket.core.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.simulation.extension.SimulationExtensionProvider;
+
+public class AnnotationFinderImplTest {
+
+	private static final String INDEX = AnnotationFinderImpl.INDEX_DIRECTORY + Plugin.class.getName();
+
+	/**
+	 * The index of the core main and test classes is written by the annotation processor
+	 * during the build, and read together with the other indexes on the classpath.  Classes
+	 * compiled without the processor are found by scanning the class directories without
+	 * an index.
+	 */
+	@Test
+	public void testIndexIsRead() throws IOException {
+		Path dir = Files.createTempDirectory("pluginindex");
+		// An index with a class that is not annotated and a class that does not exist
+		Path index = dir.resolve(INDEX);
+		Files.createDirectories(index.getParent());
+		Files.writeString(index, "# comment\n" + NotAnExamplePluginImpl.class.getName() + "\n" +
+				ExamplePluginImpl.class.getName() + "\nnot.a.Plugin\n");
+
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.toUri().toURL() },
+				AnnotationFinderImplTest.class.getClassLoader())) {
+			List<Class<?>> classes = new AnnotationFinderImpl(loader, Collections.emptyList())
+					.findAnnotatedTypes(Plugin.class);
+
+			// The core main and test classes are found as well, from their index or by scanning
+			assertTrue(classes.contains(ExamplePluginImpl.class));
+			assertTrue(classes.contains(MultiPluginImpl.class));
+			assertTrue(classes.contains(SimulationExtensionProvider.class));
+			assertFalse(classes.contains(NotAnExamplePluginImpl.class));
+			assertEquals(classes.size(), classes.stream().distinct().count());
+		} finally {
+			for (Path p = index; p.startsWith(dir); p = p.getParent()) {
+				Files.delete(p);
+			}
+		}
+	}
+
+	@Test
+	public void testGetClasspathElement() throws IOException {
+		Path dir = Files.createTempDirectory("pluginindex");
+		Path classes = dir.resolve("classes");
+		Path index = classes.resolve(INDEX);
+		Files.createDirectories(index.getParent());
+		Files.writeString(index, ExamplePluginImpl.class.getName() + "\n");
+		Path jar = dir.resolve("plugin.jar");
+		try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+			out.putNextEntry(new JarEntry(INDEX));
+			out.write(ExamplePluginImpl.class.getName().getBytes(StandardCharsets.UTF_8));
+			out.closeEntry();
+		}
+
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { classes.toUri().toURL(), jar.toUri().toURL() }, null)) {
+			List<URL> urls = Collections.list(loader.getResources(INDEX));
+			assertEquals(2, urls.size());
+			assertEquals(classes.toFile().getCanonicalFile(), AnnotationFinderImpl.getClasspathElement(urls.get(0), INDEX));
+			assertEquals(jar.toFile().getCanonicalFile(), AnnotationFinderImpl.getClasspathElement(urls.get(1), INDEX));
+
+			// Resources that are not local files, or not the given resource, have no known element
+			assertNull(AnnotationFinderImpl.getClasspathElement(urls.get(0), "META-INF/other"));
+			assertNull(AnnotationFinderImpl.getClasspathElement(new URL("http://localhost/" + INDEX), INDEX));
+		} finally {
+			Files.delete(jar);
+			for (Path p = index; p.startsWith(dir); p = p.getParent()) {
+				Files.delete(p);
+			}
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package info.openrocket.core.preferences;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.prefs.AbstractPreferences;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.BaseTestCase;
+
+public class WriteBehindPreferencesTest extends BaseTestCase {
+
+	/**
+	 * An in-memory backing store that counts the number of flushes.
+	 */
+	private static class CountingPreferences extends AbstractPreferences {
+		private final Map<String, String> values = new HashMap<>();
+		private final Map<String, CountingPreferences> children = new HashMap<>();
+		private int flushes = 0;
+
+		CountingPreferences(CountingPreferences parent, String name) {
+			super(parent, name);
+		}
+
+		@Override
+		public void flush() {
+			// Count the flushes of the backing store, not of each node
+			flushes++;
+		}
+
+		@Override
+		protected void putSpi(String key, String value) {
+			values.put(key, value);
+		}
+
+		@Override
+		protected String getSpi(String key) {
+			return values.get(key);
+		}
+
+		@Override
+		protected void removeSpi(String key) {
+			values.remove(key);
+		}
+
+		@Override
+		protected void removeNodeSpi() {
+			values.clear();
+		}
+
+		@Override
+		protected String[] keysSpi() {
+			return values.keySet().toArray(new String[0]);
+		}
+
+		@Override
+		protected String[] childrenNamesSpi() {
+			return children.keySet().toArray(new String[0]);
+		}
+
+		@Override
+		protected AbstractPreferences childSpi(String name) {
+			return children.computeIfAbsent(name, n -> new CountingPreferences(this, n));
+		}
+
+		@Override
+		protected void syncSpi() {
+		}
+
+		@Override
+		protected void flushSpi() {
+		}
+	}
+
+	@Test
+	public void testWritesAreCoalesced() throws Exception {
+		CountingPreferences backing = new CountingPreferences(null, "");
+		backing.put("existing", "value");
+		WriteBehindPreferences prefs = new WriteBehindPreferences(backing, 100);
+
+		// Existing values are loaded
+		assertEquals("value", prefs.get("existing", null));
+
+		for (int i = 0; i < 100; i++) {
+			prefs.putInt("counter", i);
+			prefs.node("windows").putInt("width", i);
+		}
+		prefs.remove("existing");
+
+		// The in-memory values are authoritative before the flush
+		assertEquals(99, prefs.getInt("counter", -1));
+		assertNull(prefs.get("existing", null));
+		assertEquals("value", backing.get("existing", null));
+		assertNull(backing.get("counter", null));
+		assertTrue(prefs.isFlushScheduled());
+		assertEquals(0, backing.flushes);
+
+		waitForFlush(prefs, 1);
+		assertEquals(1, backing.flushes);
+		assertEquals(1, prefs.getFlushCount());
+		assertEquals(200, prefs.getAvoidedFlushCount());
+		assertEquals("99", backing.get("counter", null));
+		assertEquals("99", backing.node("windows").get("width", null));
+		assertNull(backing.get("existing", null));
+
+		// Writing the same value again is not a change
+		prefs.putInt("counter", 99);
+		assertFalse(prefs.isFlushScheduled());
+
+		// A later change schedules a new flush
+		prefs.putBoolean("flag", true);
+		waitForFlush(prefs, 2);
+		assertEquals(2, backing.flushes);
+		assertEquals("true", backing.get("flag", null));
+	}
+
+	@Test
+	public void testExplicitFlushAndSync() throws Exception {
+		CountingPreferences backing = new CountingPreferences(null, "");
+		WriteBehindPreferences prefs = new WriteBehindPreferences(backing, 60000);
+
+		prefs.put("key", "a");
+		prefs.flush();
+		assertEquals("a", backing.get("key", null));
+		assertEquals(1, backing.flushes);
+
+		// Changes made directly to the backing store are seen after a sync
+		backing.put("key", "b");
+		assertEquals("a", prefs.get("key", null));
+		prefs.sync();
+		assertEquals("b", prefs.get("key", null));
+	}
+
+	@Test
+	public void testClose() throws Exception {
+		CountingPreferences backing = new CountingPreferences(null, "");
+		WriteBehindPreferences prefs = new WriteBehindPreferences(backing, 60000);
+
+		// Closing writes the pending changes
+		prefs.put("key", "a");
+		prefs.close();
+		assertTrue(prefs.isClosed());
+		assertEquals("a", backing.get("key", null));
+		assertEquals(1, backing.flushes);
+
+		// Later changes are not written, not even by the shutdown hook
+		prefs.put("key", "b");
+		assertEquals("b", prefs.get("key", null));
+		assertFalse(prefs.isFlushScheduled());
+		WriteBehindPreferences.flushAll();
+		assertEquals("a", backing.get("key", null));
+		assertEquals(1, backing.flushes);
+	}
+
+	private static void waitForFlush(WriteBehindPreferences prefs, long flushes) throws InterruptedException {
+		long end = System.currentTimeMillis() + 10000;
+		while (prefs.getFlushCount() < flushes && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package info.openrocket.core.rocketcomponent;
+
+import java.util.Locale;
+
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * Measures the edit latency of a large rocket with many flight configurations, with the
+ * configurations updated lazily when they are next read compared to every configuration
+ * being updated eagerly on each edit.  This is not a unit test; run the main method with the
+ * test classpath, optionally giving the number of flight configurations as the argument.
+ */
+public class FlightConfigurationBenchmark {
+
+	private static final int EDITS = 200;
+
+	public static void main(String[] args) throws Exception {
+		int configurations = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		BaseTestCase.setUp();
+
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		while (rocket.getConfigurationCount() < configurations) {
+			rocket.createFlightConfiguration(new FlightConfigurationId());
+		}
+		BodyTube body = null;
+		for (RocketComponent c : rocket) {
+			if (c instanceof BodyTube) {
+				body = (BodyTube) c;
+				break;
+			}
+		}
+
+		// Warm up
+		measure(rocket, body, false);
+		measure(rocket, body, true);
+		System.gc();
+		double lazy = measure(rocket, body, false);
+		double eager = measure(rocket, body, true);
+
+		System.out.println(String.format(Locale.ROOT, "%d configurations: lazy %.3f ms/edit, eager %.3f ms/edit",
+				rocket.getConfigurationCount(), lazy, eager));
+	}
+
+	/**
+	 * Edit the body tube repeatedly, reading the selected configuration after each edit like
+	 * the rocket figure does.
+	 *
+	 * @param eager	whether to update all configurations after each edit, as was done before
+	 * 				the configurations were updated lazily
+	 * @return the time per edit in milliseconds
+	 */
+	private static double measure(Rocket rocket, BodyTube body, boolean eager) {
+		long t0 = System.nanoTime();
+		for (int i = 0; i < EDITS; i++) {
+			body.setLength(body.getLength() * (i % 2 == 0 ? 1.01 : 0.99));
+			if (eager) {
+				for (FlightConfiguration config : rocket.getFlightConfigurations()) {
+					config.update();
+				}
+			}
+			rocket.getSelectedConfiguration().getActiveInstances();
+		}
+		return (System.nanoTime() - t0) / 1e6 / EDITS;
+	}
+}
@@ -12,9 +12,15 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import info.openrocket.core.motor.MotorConfiguration;
 import info.openrocket.core.util.BoundingBox;
 import org.junit.jupiter.api.Test;
 
@@ -848,4 +854,116 @@ public class FlightConfigurationTest extends BaseTestCase {
 			assertEquals(original.isStageActive(i), clone.isStageActive(i));
 		}
 	}
+
+	/**
+	 * Component changes only invalidate the flight configurations; each configuration is
+	 * updated when it is next read.
+	 */
+	@Test
+	public void testLazyConfigurationUpdate() {
+		Rocket rocket = TestRockets.makeBeta();
+		List<FlightConfiguration> configs = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			configs.add(rocket.createFlightConfiguration(null));
+		}
+		FlightConfiguration selected = rocket.getSelectedConfiguration();
+		selected.setAllStages();
+
+		BodyTube tube = null;
+		for (RocketComponent c : rocket) {
+			if (c instanceof BodyTube) {
+				tube = (BodyTube) c;
+				break;
+			}
+		}
+		final double length = selected.getLengthAerodynamic();
+		tube.setLength(tube.getLength() + 0.1);
+
+		for (FlightConfiguration config : configs) {
+			assertTrue(config.isDirty(), "configuration should be invalidated");
+		}
+		assertEquals(length + 0.1, selected.getLengthAerodynamic(), EPSILON);
+		assertFalse(selected.isDirty());
+		assertTrue(configs.get(0).isDirty(), "unread configuration should not be updated");
+
+		// Stage changes are picked up when the configuration is read
+		FlightConfiguration config = configs.get(0);
+		final int stageCount = config.getStageCount();
+		AxialStage stage = new AxialStage();
+		stage.addChild(new BodyTube());
+		rocket.addChild(stage);
+		assertTrue(config.isDirty());
+		assertEquals(stageCount + 1, config.getStageCount());
+		assertTrue(config.isStageActive(stage.getStageNumber()));
+		assertTrue(config.getActiveInstances().containsKey(stage));
+
+		// The lazily updated configuration matches an eagerly updated one
+		FlightConfiguration other = configs.get(1);
+		FlightConfiguration eager = other.clone();
+		eager.update();
+		assertEquals(eager.getActiveInstances().keySet(), other.getActiveInstances().keySet());
+		assertEquals(eager.getActiveMotors().size(), other.getActiveMotors().size());
+		assertEquals(eager.getLength(), other.getLength(), EPSILON);
+	}
+
+	/**
+	 * A lazy update replaces the maps of the configuration, so maps that were read before
+	 * stay intact, and concurrent readers all see the complete update.
+	 */
+	@Test
+	public void testLazyUpdateWithConcurrentReaders() throws Exception {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		FlightConfiguration eager = config.clone();
+		eager.update();
+		final InstanceMap instances = config.getActiveInstances();
+		final int instanceCount = instances.size();
+		final Collection<MotorConfiguration> motors = config.getActiveMotors();
+		final int motorCount = motors.size();
+
+		BodyTube tube = null;
+		for (RocketComponent c : rocket) {
+			if (c instanceof BodyTube) {
+				tube = (BodyTube) c;
+				break;
+			}
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (int i = 0; i < 20; i++) {
+				tube.setLength(tube.getLength() + 0.001);
+				assertTrue(config.isDirty());
+
+				CountDownLatch start = new CountDownLatch(1);
+				List<Future<Integer>> readers = new ArrayList<>();
+				for (int j = 0; j < 4; j++) {
+					readers.add(executor.submit(() -> {
+						start.await();
+						assertEquals(motorCount, config.getActiveMotors().size());
+						return countInstances(config.getActiveInstances());
+					}));
+				}
+				start.countDown();
+				for (Future<Integer> reader : readers) {
+					assertEquals(countInstances(eager.getActiveInstances()), reader.get().intValue());
+				}
+				assertFalse(config.isDirty());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertNotSame(instances, config.getActiveInstances());
+		assertEquals(instanceCount, instances.size());
+		assertEquals(motorCount, motors.size());
+	}
+
+	private static int countInstances(InstanceMap instances) {
+		int count = 0;
+		for (List<InstanceContext> contexts : instances.values()) {
+			count += contexts.size();
+		}
+		return count;
+	}
 }
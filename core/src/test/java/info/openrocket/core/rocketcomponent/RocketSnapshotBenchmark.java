@@ -0,0 +1,69 @@
+package info.openrocket.core.rocketcomponent;
+
+import java.util.Locale;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * Measures the edit latency of undo positions on a large rocket, taking a
+ * {@link RocketSnapshot} compared to a full copy of the rocket.  This is not a unit test;
+ * run the main method with the test classpath, optionally giving the number of measured
+ * rounds of {@link OpenRocketDocument#UNDO_LEVELS} edits as the argument.
+ */
+public class RocketSnapshotBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+		BaseTestCase.setUp();
+
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		BodyTube body = null;
+		for (RocketComponent c : rocket) {
+			if (c instanceof BodyTube) {
+				body = (BodyTube) c;
+				break;
+			}
+		}
+		final int levels = OpenRocketDocument.UNDO_LEVELS;
+
+		// Warm up
+		measure(rocket, body, levels, Math.max(rounds / 4, 1), false);
+		System.gc();
+		measure(rocket, body, levels, rounds, true);
+	}
+
+	private static void measure(Rocket rocket, BodyTube body, int levels, int rounds, boolean print) {
+		long copyTime = 0;
+		long snapshotTime = 0;
+		long copied = 0;
+		int components = 0;
+		for (int round = 0; round < rounds; round++) {
+			long t0 = System.nanoTime();
+			for (int i = 0; i < levels; i++) {
+				body.setLength(body.getLength() * (round % 2 == 0 ? 1.01 : 0.99));
+				rocket.copyWithOriginalID();
+			}
+			long t1 = System.nanoTime();
+			RocketSnapshot snapshot = RocketSnapshot.capture(rocket, null);
+			for (int i = 0; i < levels; i++) {
+				body.setLength(body.getLength() * (round % 2 == 0 ? 1.01 : 0.99));
+				snapshot = RocketSnapshot.capture(rocket, snapshot);
+				copied += snapshot.getCopiedComponentCount();
+			}
+			long t2 = System.nanoTime();
+			copyTime += t1 - t0;
+			snapshotTime += t2 - t1;
+			components = snapshot.getComponentCount();
+		}
+
+		if (!print) {
+			return;
+		}
+		double edits = (double) levels * rounds;
+		System.out.println(String.format(Locale.ROOT, "Undo of %d components: full copy %.3f ms/level, " +
+						"snapshot %.3f ms/level, %.1f component copies/level", components,
+				copyTime / 1e6 / edits, snapshotTime / 1e6 / edits, copied / edits));
+	}
+}
@@ -0,0 +1,141 @@
+package info.openrocket.core.rocketcomponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.MathUtil;
+import info.openrocket.core.util.TestRockets;
+
+public class RocketSnapshotTest extends BaseTestCase {
+
+	private static BodyTube findBodyTube(Rocket rocket) {
+		for (RocketComponent c : rocket) {
+			if (c instanceof BodyTube) {
+				return (BodyTube) c;
+			}
+		}
+		throw new IllegalStateException("No body tube in " + rocket.getName());
+	}
+
+	private static void assertSameStructure(Rocket expected, Rocket actual) {
+		Iterator<RocketComponent> expectedIterator = expected.iterator(true);
+		Iterator<RocketComponent> actualIterator = actual.iterator(true);
+		while (expectedIterator.hasNext()) {
+			assertTrue(actualIterator.hasNext());
+			RocketComponent e = expectedIterator.next();
+			RocketComponent a = actualIterator.next();
+			assertNotSame(e, a);
+			assertEquals(e.getID(), a.getID());
+			assertEquals(e.getClass(), a.getClass());
+			assertEquals(e.getName(), a.getName());
+			assertEquals(e.getLength(), a.getLength(), MathUtil.EPSILON);
+			assertEquals(e.getChildCount(), a.getChildCount());
+			if (e.getParent() != null) {
+				assertEquals(e.getParent().getID(), a.getParent().getID());
+			}
+		}
+		assertEquals(expected.getStageCount(), actual.getStageCount());
+		assertEquals(expected.getConfigurationCount(), actual.getConfigurationCount());
+		assertEquals(expected.getSelectedConfiguration().getId(), actual.getSelectedConfiguration().getId());
+	}
+
+	@Test
+	public void testSharedStates() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		RocketSnapshot first = RocketSnapshot.capture(rocket, null);
+		int count = first.getComponentCount();
+		assertEquals(count, first.getCopiedComponentCount());
+
+		// Without changes, only the rocket itself is copied
+		RocketSnapshot unchanged = RocketSnapshot.capture(rocket, first);
+		assertEquals(count, unchanged.getComponentCount());
+		assertEquals(1, unchanged.getCopiedComponentCount());
+
+		// Only the modified components are copied
+		BodyTube body = findBodyTube(rocket);
+		double length = body.getLength();
+		body.setLength(length * 2);
+		RocketSnapshot modified = RocketSnapshot.capture(rocket, unchanged);
+		assertTrue(modified.getCopiedComponentCount() >= 2);
+		assertTrue(modified.getCopiedComponentCount() < count / 2);
+
+		// Structural changes are detected without copying the parent
+		body.addChild(new LaunchLug());
+		RocketSnapshot added = RocketSnapshot.capture(rocket, modified);
+		assertEquals(count + 1, added.getComponentCount());
+		assertTrue(added.getCopiedComponentCount() < count / 2);
+
+		// Each snapshot restores its own state
+		assertEquals(length, findBodyTube(first.toRocket()).getLength(), MathUtil.EPSILON);
+		assertEquals(length * 2, findBodyTube(modified.toRocket()).getLength(), MathUtil.EPSILON);
+		assertSameStructure(rocket, added.toRocket());
+		assertSameStructure(first.toRocket(), unchanged.toRocket());
+	}
+
+	@Test
+	public void testUndoRedo() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		Rocket original = rocket.copyWithOriginalID();
+
+		document.addUndoPosition("Modify body tube");
+		BodyTube body = findBodyTube(rocket);
+		body.setLength(body.getLength() * 2);
+		document.addUndoPosition("Add launch lug");
+		findBodyTube(rocket).addChild(new LaunchLug());
+		Rocket edited = rocket.copyWithOriginalID();
+
+		document.undo();
+		document.undo();
+		assertSameStructure(original, rocket);
+
+		document.redo();
+		document.redo();
+		assertSameStructure(edited, rocket);
+		assertNotNull(rocket.getSelectedConfiguration());
+	}
+
+	/**
+	 * Changes that do not fire a change event, see the {@link RocketSnapshot} class comment.
+	 */
+	@Test
+	public void testChangesWithoutEvents() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		BodyTube body = findBodyTube(rocket);
+		AxialStage stage = (AxialStage) rocket.getChild(0);
+		RocketSnapshot first = RocketSnapshot.capture(rocket, null);
+
+		// Edits with bypassed change events, e.g. of config listeners, are detected
+		double length = body.getLength();
+		body.setBypassChangeEvent(true);
+		body.setLength(length * 2);
+		body.setBypassChangeEvent(false);
+		RocketSnapshot bypassed = RocketSnapshot.capture(rocket, first);
+		assertEquals(length * 2, findBodyTube(bypassed.toRocket()).getLength(), MathUtil.EPSILON);
+
+		// Derived lengths and positions, which are updated without an event, are detected
+		double stageLength = stage.length;
+		stage.length = stageLength + 1;
+		RocketSnapshot derived = RocketSnapshot.capture(rocket, bypassed);
+		assertEquals(stageLength + 1, derived.toRocket().getChild(0).length, MathUtil.EPSILON);
+		stage.length = stageLength;
+
+		// Other direct field changes are not detected until the component fires an event
+		String name = body.getName();
+		body.name = "Renamed without an event";
+		RocketSnapshot direct = RocketSnapshot.capture(rocket, derived);
+		assertEquals(name, findBodyTube(direct.toRocket()).getName());
+		body.fireComponentChangeEvent(ComponentChangeEvent.NONFUNCTIONAL_CHANGE);
+		RocketSnapshot fired = RocketSnapshot.capture(rocket, direct);
+		assertEquals("Renamed without an event", findBodyTube(fired.toRocket()).getName());
+	}
+}
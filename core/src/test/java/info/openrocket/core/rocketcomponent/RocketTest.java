@@ -2,6 +2,11 @@ package info.openrocket.core.rocketcomponent;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
 
 import info.openrocket.core.util.ArrayList;
 import org.junit.jupiter.api.Test;
@@ -12,6 +17,7 @@ import info.openrocket.core.rocketcomponent.position.RadiusMethod;
 import info.openrocket.core.util.BoundingBox;
 import info.openrocket.core.util.Coordinate;
 import info.openrocket.core.util.MathUtil;
+import info.openrocket.core.util.ModID;
 import info.openrocket.core.util.TestRockets;
 import info.openrocket.core.util.BaseTestCase;
 
@@ -493,4 +499,107 @@ public class RocketTest extends BaseTestCase {
 		assertEquals(0.12069451, bounds.max.z, EPSILON);
 	}
 
+
+	@Test
+	public void testChangeTransaction() {
+		Rocket rocket = TestRockets.makeBeta();
+		final AxialStage sustainer = (AxialStage) rocket.getChild(0);
+		final NoseCone nose = (NoseCone) sustainer.getChild(0);
+		final BodyTube body = (BodyTube) sustainer.getChild(1);
+
+		final List<ComponentChangeEvent> events = new java.util.ArrayList<>();
+		rocket.addComponentChangeListener(events::add);
+		final ModID aeroModID = rocket.getAerodynamicModID();
+		final long firedCount = rocket.getFiredEventCount();
+
+		ComponentChangeTransaction outer = rocket.beginTransaction();
+		nose.setLength(nose.getLength() * 1.1);
+		try (ComponentChangeTransaction inner = rocket.beginTransaction()) {
+			body.setLength(body.getLength() * 1.1);
+			body.setName("Scaled body");
+			assertTrue(inner.getEventCount() >= 2);
+		}
+		assertEquals(0, events.size(), "events are not fired while a transaction is open");
+		assertNotEquals(aeroModID, rocket.getAerodynamicModID(), "mod IDs are updated within a transaction");
+		outer.close();
+
+		assertTrue(outer.isClosed());
+		assertTrue(outer.getEventCount() >= 3);
+		assertEquals(1, events.size());
+		assertEquals(firedCount + 1, rocket.getFiredEventCount());
+		ComponentChangeEvent event = events.get(0);
+		assertTrue(event.isAerodynamicChange());
+		assertTrue(event.isMassChange());
+		assertTrue(event.isNonFunctionalChange());
+
+		// Closing again has no effect, and empty transactions fire no events
+		outer.close();
+		try (ComponentChangeTransaction empty = rocket.beginTransaction()) {
+			assertEquals(0, empty.getEventCount());
+		}
+		assertEquals(1, events.size());
+
+		// Without a transaction, each change is fired separately
+		nose.setLength(nose.getLength() * 1.1);
+		body.setLength(body.getLength() * 1.1);
+		assertTrue(events.size() >= 3);
+	}
+
+	@Test
+	public void testChangeTransactionConfigurationIds() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration a = rocket.createFlightConfiguration(new FlightConfigurationId());
+		FlightConfiguration b = rocket.createFlightConfiguration(new FlightConfigurationId());
+		FlightConfiguration c = rocket.createFlightConfiguration(new FlightConfigurationId());
+		final ModID modA = a.getModID();
+		final ModID modB = b.getModID();
+		final ModID modC = c.getModID();
+
+		// The merged event only updates the configurations of the merged events
+		try (ComponentChangeTransaction transaction = rocket.beginTransaction()) {
+			rocket.fireComponentChangeEvent(ComponentChangeEvent.MOTOR_CHANGE, a.getId());
+			rocket.fireComponentChangeEvent(ComponentChangeEvent.MOTOR_CHANGE, b.getId());
+		}
+		assertNotEquals(modA, a.getModID());
+		assertNotEquals(modB, b.getModID());
+		assertEquals(modC, c.getModID());
+
+		// An event of all configurations updates all of them
+		final ModID modC2 = c.getModID();
+		try (ComponentChangeTransaction transaction = rocket.beginTransaction()) {
+			rocket.fireComponentChangeEvent(ComponentChangeEvent.MOTOR_CHANGE, a.getId());
+			rocket.fireComponentChangeEvent(ComponentChangeEvent.MOTOR_CHANGE, (FlightConfigurationId[]) null);
+		}
+		assertNotEquals(modC2, c.getModID());
+	}
+
+	@Test
+	public void testConfigListenerTransaction() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		List<BodyTube> tubes = new java.util.ArrayList<>();
+		for (RocketComponent component : rocket) {
+			if (component instanceof BodyTube) {
+				tubes.add((BodyTube) component);
+			}
+		}
+		BodyTube body = tubes.get(0);
+		assertNull(ComponentChangeTransaction.beginForConfigListeners(body));
+		assertNull(ComponentChangeTransaction.beginForConfigListeners(new BodyTube()));
+		assertNull(ComponentChangeTransaction.beginForConfigListeners("not a component"));
+
+		NoseCone nose = (NoseCone) rocket.getChild(0).getChild(0);
+		NoseCone listener = (NoseCone) nose.copy();
+		rocket.getChild(0).addChild(listener);
+		nose.addConfigListener(listener);
+		final List<ComponentChangeEvent> events = new java.util.ArrayList<>();
+		rocket.addComponentChangeListener(events::add);
+		try (ComponentChangeTransaction transaction = ComponentChangeTransaction.beginForConfigListeners(nose)) {
+			assertNotNull(transaction);
+			nose.setLength(nose.getLength() * 1.1);
+			nose.setShapeType(Transition.Shape.OGIVE);
+		}
+		assertEquals(1, events.size());
+		assertEquals(nose.getLength(), listener.getLength(), EPSILON);
+		nose.clearConfigListeners();
+	}
 }
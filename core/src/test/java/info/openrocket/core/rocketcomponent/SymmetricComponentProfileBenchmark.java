@@ -0,0 +1,77 @@
+package info.openrocket.core.rocketcomponent;
+
+import java.util.Locale;
+
+import info.openrocket.core.aerodynamics.BarrowmanCalculator;
+import info.openrocket.core.aerodynamics.FlightConditions;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.masscalc.MassCalculator;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * Measures the time of a full-rocket mass and CP recomputation after an edit, for a shape
+ * edit of the nose cone, which rebuilds its {@link SymmetricComponentProfile}, and for an
+ * edit of a fin set, which leaves the profiles of all symmetric components in use.  This is
+ * not a unit test; run the main method with the test classpath, optionally giving the number
+ * of edits per measurement as the argument.
+ */
+public class SymmetricComponentProfileBenchmark {
+
+	private interface Edit {
+		void apply(int i);
+	}
+
+	public static void main(String[] args) throws Exception {
+		int edits = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		BaseTestCase.setUp();
+
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		rocket.enableEvents();
+		final NoseCone nose = (NoseCone) rocket.getStage(0).getChild(0);
+		nose.setShapeType(Transition.Shape.HAACK);
+		FinSet fins = null;
+		for (RocketComponent c : rocket) {
+			if (c instanceof FinSet) {
+				fins = (FinSet) c;
+				break;
+			}
+		}
+		final FinSet finSet = fins;
+		final double cant = finSet.getCantAngle();
+
+		Edit shape = i -> nose.setShapeParameter(0.1 + 0.2 * (i % 10) / 10);
+		Edit fin = i -> finSet.setCantAngle(cant + 0.001 * (i % 10));
+
+		// Warm up
+		measure(rocket, shape, edits);
+		measure(rocket, fin, edits);
+		System.gc();
+
+		System.out.println(String.format(Locale.ROOT, "Mass and CP recomputation after an edit: " +
+						"nose cone shape %.3f ms, fin cant %.3f ms",
+				measure(rocket, shape, edits), measure(rocket, fin, edits)));
+	}
+
+	/**
+	 * @return the time per edit and recomputation in milliseconds
+	 */
+	private static double measure(Rocket rocket, Edit edit, int edits) {
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		BarrowmanCalculator calculator = new BarrowmanCalculator();
+		FlightConditions conditions = new FlightConditions(config);
+
+		double sum = 0;
+		long t0 = System.nanoTime();
+		for (int i = 0; i < edits; i++) {
+			edit.apply(i);
+			sum += MassCalculator.calculateStructure(config).getMass();
+			sum += calculator.getCP(config, conditions, new WarningSet()).x;
+		}
+		long time = System.nanoTime() - t0;
+		if (!(sum > 0)) {
+			throw new IllegalStateException("Invalid mass or CP");
+		}
+		return time / 1e6 / edits;
+	}
+}
@@ -0,0 +1,58 @@
+package info.openrocket.core.rocketcomponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.MathUtil;
+
+public class SymmetricComponentProfileTest extends BaseTestCase {
+
+	@Test
+	public void testProfileSharedUntilChange() {
+		// Components are notified of changes through the rocket
+		Rocket rocket = new Rocket();
+		rocket.enableEvents();
+		AxialStage stage = new AxialStage();
+		rocket.addChild(stage);
+		NoseCone nose = new NoseCone(Transition.Shape.HAACK, 0.3, 0.05);
+		stage.addChild(nose);
+		nose.setShapeParameter(0.1);
+
+		SymmetricComponentProfile profile = nose.getProfile();
+		assertSame(profile, nose.getProfile());
+		nose.getComponentVolume();
+		nose.getComponentPlanformArea();
+		assertSame(profile, nose.getProfile());
+
+		for (int i = 0; i <= profile.getDivisions(); i++) {
+			assertEquals(nose.getRadius(profile.getX(i)), profile.getOuterRadius(i), 0);
+		}
+		for (int i = 0; i < profile.getDivisions(); i++) {
+			assertTrue(profile.getForeInnerRadius(i) <= profile.getOuterRadius(i));
+			assertTrue(profile.getAftInnerRadius(i) <= profile.getOuterRadius(i + 1));
+		}
+
+		// A shape change invalidates the profile and the properties computed from it
+		double volume = nose.getComponentVolume();
+		nose.setShapeParameter(0.3);
+		SymmetricComponentProfile changed = nose.getProfile();
+		assertNotSame(profile, changed);
+		assertTrue(nose.getComponentVolume() != volume);
+
+		nose.setFilled(true);
+		assertEquals(0, nose.getProfile().getForeInnerRadius(10), 0);
+	}
+
+	@Test
+	public void testTubeVolume() {
+		BodyTube tube = new BodyTube(0.5, 0.03, 0.002);
+		double expected = Math.PI * (MathUtil.pow2(0.03) - MathUtil.pow2(0.028)) * 0.5;
+		assertEquals(expected, tube.getComponentVolume(), 1e-12);
+		assertEquals(0.028, tube.getProfile().getForeInnerRadius(0), 1e-12);
+	}
+}
@@ -0,0 +1,153 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class ConcurrentBranchSimulationTest extends BaseTestCase {
+
+	private static final FlightDataType[] TYPES = {
+			FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE, FlightDataType.TYPE_VELOCITY_TOTAL,
+			FlightDataType.TYPE_POSITION_X, FlightDataType.TYPE_MASS
+	};
+
+	private static Simulation getSimulation(Rocket rocket) {
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		// With more wind the sustainer aborts before the boosters separate
+		sim.getOptions().getAverageWindModel().setAverage(0.1);
+		rocket.getSelectedConfiguration().setAllStages();
+		sim.setFlightConfigurationId(rocket.getSelectedConfiguration().getFlightConfigurationID());
+		return sim;
+	}
+
+	/**
+	 * Return new conditions for the simulation, all with the same random seed.
+	 */
+	private static SimulationConditions getConditions(Simulation sim) {
+		SimulationConditions conditions = sim.getOptions().toSimulationConditions();
+		conditions.setSimulation(sim);
+		return conditions;
+	}
+
+	@Test
+	public void testConcurrentBranchesMatchSequential() throws SimulationException {
+		Simulation sim = getSimulation(TestRockets.makeMultiStageEventTestRocket());
+
+		BasicEventSimulationEngine sequential = new BasicEventSimulationEngine(null);
+		sequential.simulate(getConditions(sim));
+		assertEquals(3, sequential.getFlightData().getBranchCount());
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			// The branches are added in the same order however the threads are scheduled
+			for (int i = 0; i < 5; i++) {
+				BasicEventSimulationEngine concurrent = new BasicEventSimulationEngine(pool);
+				concurrent.simulate(getConditions(sim));
+				assertSameFlightData(sequential.getFlightData(), concurrent.getFlightData());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testBranchesHaveOwnRocket() throws SimulationException {
+		Simulation sim = getSimulation(TestRockets.makeMultiStageEventTestRocket());
+
+		// Records the rockets simulated by each branch; the clones of the listener share the map
+		final Map<String, Set<Rocket>> rockets = new ConcurrentHashMap<>();
+		SimulationConditions conditions = getConditions(sim);
+		conditions.getSimulationListenerList().add(new AbstractSimulationListener() {
+			@Override
+			public boolean isSystemListener() {
+				return true;
+			}
+
+			@Override
+			public void postStep(SimulationStatus status) {
+				rockets.computeIfAbsent(status.getFlightDataBranch().getName(),
+						name -> Collections.newSetFromMap(new IdentityHashMap<>()))
+						.add(status.getConfiguration().getRocket());
+			}
+		});
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			BasicEventSimulationEngine engine = new BasicEventSimulationEngine(pool);
+			engine.simulate(conditions);
+			assertEquals(3, engine.getFlightData().getBranchCount());
+			assertEquals(3, rockets.size());
+		} finally {
+			pool.shutdown();
+		}
+
+		Set<Rocket> all = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Set<Rocket> branch : rockets.values()) {
+			assertEquals(1, branch.size());
+			assertTrue(all.addAll(branch));
+		}
+		assertFalse(all.contains(sim.getRocket()));
+	}
+
+	@Test
+	public void testUserListenersAreSimulatedSequentially() throws SimulationException {
+		Simulation sim = getSimulation(TestRockets.makeMultiStageEventTestRocket());
+
+		BasicEventSimulationEngine sequential = new BasicEventSimulationEngine(null);
+		sequential.simulate(getConditions(sim));
+
+		// A user-written listener is not known to be thread-safe
+		SimulationConditions conditions = getConditions(sim);
+		conditions.getSimulationListenerList().add(new AbstractSimulationListener());
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		engine.simulate(conditions);
+		assertSameFlightData(sequential.getFlightData(), engine.getFlightData());
+	}
+
+	private static void assertSameFlightData(FlightData expected, FlightData actual) {
+		assertEquals(expected.getBranchCount(), actual.getBranchCount());
+		for (int b = 0; b < expected.getBranchCount(); b++) {
+			FlightDataBranch expectedBranch = expected.getBranch(b);
+			FlightDataBranch actualBranch = actual.getBranch(b);
+			assertEquals(expectedBranch.getName(), actualBranch.getName());
+			assertEquals(expectedBranch.getLength(), actualBranch.getLength(), expectedBranch.getName());
+
+			for (FlightDataType type : TYPES) {
+				List<Double> expectedValues = expectedBranch.get(type);
+				List<Double> actualValues = actualBranch.get(type);
+				for (int n = 0; n < expectedValues.size(); n++) {
+					assertEquals(expectedValues.get(n), actualValues.get(n), 0,
+							expectedBranch.getName() + ": " + type + " at " + n);
+				}
+			}
+
+			List<FlightEvent> expectedEvents = expectedBranch.getEvents();
+			List<FlightEvent> actualEvents = actualBranch.getEvents();
+			assertEquals(expectedEvents.size(), actualEvents.size(), expectedBranch.getName());
+			for (int n = 0; n < expectedEvents.size(); n++) {
+				assertEquals(expectedEvents.get(n).getType(), actualEvents.get(n).getType());
+				assertEquals(expectedEvents.get(n).getTime(), actualEvents.get(n).getTime(), 0);
+			}
+		}
+		assertEquals(expected.getWarningSet().size(), actual.getWarningSet().size());
+	}
+}
@@ -0,0 +1,85 @@
+package info.openrocket.core.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * Measures the heap used by the flight data of simulations of the multi-stage event test
+ * rocket, with the booster branches sharing the data points recorded before their separation
+ * compared to each branch holding a copy of them.  This is not a unit test; run the main
+ * method with the test classpath, optionally giving the number of simulations held per
+ * measurement as the argument.
+ */
+public class FlightDataBranchMemoryBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+		BaseTestCase.setUp();
+
+		measure(TestRockets.makeMultiStageEventTestRocket(), count);
+	}
+
+	private static void measure(Rocket rocket, int count) throws Exception {
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.getOptions().getAverageWindModel().setAverage(0.1);
+		rocket.getSelectedConfiguration().setAllStages();
+		sim.setFlightConfigurationId(rocket.getSelectedConfiguration().getFlightConfigurationID());
+
+		// Warm up
+		simulate(sim);
+
+		List<FlightData> data = new ArrayList<>();
+		long before = usedMemory();
+		for (int i = 0; i < count; i++) {
+			data.add(simulate(sim));
+		}
+		long shared = usedMemory() - before;
+
+		// Give each branch its own copy of all its points, as if the points had been copied at the fork
+		long t0 = System.nanoTime();
+		for (FlightData d : data) {
+			for (FlightDataBranch branch : d.getBranches()) {
+				branch.unshareData();
+			}
+		}
+		long copyTime = System.nanoTime() - t0;
+		long copied = usedMemory() - before;
+
+		FlightData d = data.get(0);
+		int points = 0;
+		int types = 0;
+		for (FlightDataBranch branch : d.getBranches()) {
+			points += branch.getLength();
+			types = Math.max(types, branch.getTypes().length);
+		}
+		System.out.println(String.format(Locale.ROOT, "%d branches, %d points, %d types; " +
+						"shared %.2f MiB/simulation, copied %.2f MiB/simulation, copying %.1f ms/simulation",
+				d.getBranchCount(), points, types, shared / 1048576.0 / count,
+				copied / 1048576.0 / count, copyTime / 1e6 / count));
+	}
+
+	private static FlightData simulate(Simulation sim) throws Exception {
+		SimulationConditions conditions = sim.getOptions().toSimulationConditions();
+		conditions.setSimulation(sim);
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine(null);
+		engine.simulate(conditions);
+		return engine.getFlightData();
+	}
+
+	private static long usedMemory() throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,185 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.BaseTestCase;
+
+public class FlightDataBranchTest extends BaseTestCase {
+
+	private static final double EPSILON = 1e-12;
+
+	private static void addPoint(FlightDataBranch branch, double time, double altitude) {
+		branch.addPoint();
+		branch.setValue(FlightDataType.TYPE_TIME, time);
+		branch.setValue(FlightDataType.TYPE_ALTITUDE, altitude);
+	}
+
+	private static void assertValues(FlightDataBranch branch, FlightDataType type, double... expected) {
+		assertEquals(expected.length, branch.getLength());
+		assertArrayEquals(expected, branch.getArray(type), EPSILON);
+		List<Double> list = branch.get(type);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], list.get(i), EPSILON);
+			assertEquals(expected[i], branch.getByIndex(type, i), EPSILON);
+		}
+		assertEquals(expected[expected.length - 1], branch.getLast(type), EPSILON);
+	}
+
+	@Test
+	public void testForkSharesParentData() {
+		FlightDataBranch parent = new FlightDataBranch("sustainer", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		addPoint(parent, 0, 0);
+		addPoint(parent, 1, 50);
+		addPoint(parent, 2, 90);
+
+		FlightDataBranch booster = new FlightDataBranch("booster", null, parent);
+		assertEquals(3, booster.getLength());
+		assertEquals(0, booster.getOwnLength());
+		assertEquals(0, parent.getOwnLength());
+		assertValues(booster, FlightDataType.TYPE_ALTITUDE, 0, 50, 90);
+		assertEquals(90, booster.getMaximum(FlightDataType.TYPE_ALTITUDE), EPSILON);
+		assertEquals(0, booster.getMinimum(FlightDataType.TYPE_ALTITUDE), EPSILON);
+
+		// Both branches continue independently
+		addPoint(parent, 3, 120);
+		addPoint(booster, 3, 80);
+		parent.setValue(FlightDataType.TYPE_VELOCITY_TOTAL, 30);
+		assertValues(parent, FlightDataType.TYPE_ALTITUDE, 0, 50, 90, 120);
+		assertValues(booster, FlightDataType.TYPE_ALTITUDE, 0, 50, 90, 80);
+		assertEquals(1, booster.getOwnLength());
+		assertEquals(120, parent.getMaximum(FlightDataType.TYPE_ALTITUDE), EPSILON);
+		assertEquals(90, booster.getMaximum(FlightDataType.TYPE_ALTITUDE), EPSILON);
+		assertValues(parent, FlightDataType.TYPE_VELOCITY_TOTAL, Double.NaN, Double.NaN, Double.NaN, 30);
+		assertNull(booster.get(FlightDataType.TYPE_VELOCITY_TOTAL));
+	}
+
+	@Test
+	public void testSetValueOfSharedPoint() {
+		FlightDataBranch parent = new FlightDataBranch("sustainer", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		addPoint(parent, 0, 0);
+		addPoint(parent, 1, 50);
+		FlightDataBranch booster = new FlightDataBranch("booster", null, parent);
+
+		// Changing the latest point changes it in that branch only
+		booster.setValue(FlightDataType.TYPE_ALTITUDE, 55);
+		booster.setValue(FlightDataType.TYPE_MACH_NUMBER, 0.1);
+		assertValues(booster, FlightDataType.TYPE_ALTITUDE, 0, 55);
+		assertValues(booster, FlightDataType.TYPE_MACH_NUMBER, Double.NaN, 0.1);
+		assertValues(parent, FlightDataType.TYPE_ALTITUDE, 0, 50);
+		assertEquals(1, booster.getOwnLength());
+
+		parent.setValue(FlightDataType.TYPE_ALTITUDE, 45);
+		assertValues(parent, FlightDataType.TYPE_ALTITUDE, 0, 45);
+		assertValues(booster, FlightDataType.TYPE_ALTITUDE, 0, 55);
+	}
+
+	@Test
+	public void testNestedForks() {
+		FlightDataBranch sustainer = new FlightDataBranch("sustainer", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		addPoint(sustainer, 0, 0);
+		addPoint(sustainer, 1, 10);
+		FlightDataBranch first = new FlightDataBranch("first", null, sustainer);
+
+		addPoint(sustainer, 2, 20);
+		addPoint(first, 2, 15);
+		FlightDataBranch second = new FlightDataBranch("second", null, sustainer);
+		FlightDataBranch third = new FlightDataBranch("third", null, first);
+
+		addPoint(sustainer, 3, 30);
+		addPoint(first, 3, 16);
+		addPoint(second, 3, 25);
+		addPoint(third, 3, 14);
+
+		assertValues(sustainer, FlightDataType.TYPE_ALTITUDE, 0, 10, 20, 30);
+		assertValues(first, FlightDataType.TYPE_ALTITUDE, 0, 10, 15, 16);
+		assertValues(second, FlightDataType.TYPE_ALTITUDE, 0, 10, 20, 25);
+		assertValues(third, FlightDataType.TYPE_ALTITUDE, 0, 10, 15, 14);
+		assertValues(third, FlightDataType.TYPE_TIME, 0, 1, 2, 3);
+	}
+
+	@Test
+	public void testForksShareArrays() {
+		FlightDataBranch sustainer = new FlightDataBranch("sustainer", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		addPoint(sustainer, 0, 0);
+		addPoint(sustainer, 1, 10);
+		FlightDataBranch first = new FlightDataBranch("first", null, sustainer);
+		FlightDataBranch second = new FlightDataBranch("second", null, sustainer);
+
+		addPoint(sustainer, 2, 20);
+		addPoint(first, 2, 15);
+		FlightDataBranch third = new FlightDataBranch("third", null, first);
+
+		// All branches read the first points from the same array, without copies
+		double[] column = sustainer.getSharedColumn(FlightDataType.TYPE_ALTITUDE, 0);
+		assertNotNull(column);
+		assertSame(column, sustainer.getSharedColumn(FlightDataType.TYPE_ALTITUDE, 1));
+		for (FlightDataBranch branch : List.of(first, second, third)) {
+			assertSame(column, branch.getSharedColumn(FlightDataType.TYPE_ALTITUDE, 0));
+			assertSame(column, branch.getSharedColumn(FlightDataType.TYPE_ALTITUDE, 1));
+		}
+		assertNotSame(column, sustainer.getSharedColumn(FlightDataType.TYPE_TIME, 0));
+
+		// The point added by the first booster before the nested fork is shared with that fork only
+		double[] firstColumn = first.getSharedColumn(FlightDataType.TYPE_ALTITUDE, 2);
+		assertNotNull(firstColumn);
+		assertNotSame(column, firstColumn);
+		assertSame(firstColumn, third.getSharedColumn(FlightDataType.TYPE_ALTITUDE, 2));
+		assertNull(sustainer.getSharedColumn(FlightDataType.TYPE_ALTITUDE, 2));
+		assertNull(second.getSharedColumn(FlightDataType.TYPE_ALTITUDE, 2));
+
+		// Copying the shared points detaches the branch from the arrays
+		second.unshareData();
+		assertNull(second.getSharedColumn(FlightDataType.TYPE_ALTITUDE, 0));
+		assertValues(second, FlightDataType.TYPE_ALTITUDE, 0, 10);
+		assertSame(column, first.getSharedColumn(FlightDataType.TYPE_ALTITUDE, 0));
+	}
+
+	@Test
+	public void testCloneAndDerivedValues() {
+		FlightDataBranch parent = new FlightDataBranch("sustainer", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		addPoint(parent, 0, 0);
+		addPoint(parent, 1, 50);
+		FlightDataBranch booster = new FlightDataBranch("booster", null, parent);
+		addPoint(booster, 2, 60);
+
+		FlightDataBranch clone = booster.clone();
+		addPoint(clone, 3, 40);
+		assertValues(clone, FlightDataType.TYPE_ALTITUDE, 0, 50, 60, 40);
+		assertValues(booster, FlightDataType.TYPE_ALTITUDE, 0, 50, 60);
+
+		booster.immute();
+		booster.setDerivedValues(FlightDataType.TYPE_ALTITUDE, new double[] { 1, 2, 3 });
+		assertValues(booster, FlightDataType.TYPE_ALTITUDE, 1, 2, 3);
+		assertValues(booster, FlightDataType.TYPE_TIME, 0, 1, 2);
+		assertEquals(3, booster.getOwnLength());
+		assertValues(parent, FlightDataType.TYPE_ALTITUDE, 0, 50);
+	}
+
+	@Test
+	public void testTimeSeriesOfForkedBranch() {
+		FlightDataBranch parent = new FlightDataBranch("sustainer", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		addPoint(parent, 0, 0);
+		addPoint(parent, 1, 50);
+		TimeSeriesIndex parentSeries = parent.getTimeSeries(FlightDataType.TYPE_ALTITUDE);
+		assertEquals(25, parentSeries.getValue(0.5), EPSILON);
+
+		FlightDataBranch booster = new FlightDataBranch("booster", null, parent);
+		addPoint(booster, 2, 30);
+		TimeSeriesIndex series = booster.getTimeSeries(FlightDataType.TYPE_ALTITUDE);
+		assertEquals(3, series.getLength());
+		assertEquals(25, series.getValue(0.5), EPSILON);
+		assertEquals(40, series.getValue(1.5), EPSILON);
+
+		addPoint(parent, 2, 70);
+		assertEquals(60, parentSeries.getValue(1.5), EPSILON);
+	}
+}
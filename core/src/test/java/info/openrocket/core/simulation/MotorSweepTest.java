@@ -0,0 +1,178 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.motor.Manufacturer;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.rocketcomponent.FlightConfigurationId;
+import info.openrocket.core.rocketcomponent.InnerTube;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.system.ApogeeEndListener;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.TestRockets;
+
+public class MotorSweepTest extends BaseTestCase {
+
+	private static InnerTube getMount(Rocket rocket) {
+		for (RocketComponent c : rocket) {
+			if (c instanceof InnerTube) {
+				InnerTube mount = (InnerTube) c;
+				// Make the mount fit 18 mm motors
+				mount.setOuterRadius(0.0093);
+				return mount;
+			}
+		}
+		throw new IllegalStateException("No motor mount");
+	}
+
+	private static ThrustCurveMotor getMotor(InnerTube mount, FlightConfigurationId fcid) {
+		return (ThrustCurveMotor) mount.getMotorConfig(fcid).getMotor();
+	}
+
+	private static ThrustCurveMotor createMotor(String designation, double diameter, double length) {
+		return new ThrustCurveMotor.Builder()
+				.setManufacturer(Manufacturer.getManufacturer("Estes"))
+				.setDesignation(designation)
+				.setStandardDelays(new double[] { 3 })
+				.setDiameter(diameter)
+				.setLength(length)
+				.setTimePoints(new double[] { 0, 0.2, 2.0 })
+				.setThrustPoints(new double[] { 0, 20, 0 })
+				.setCGPoints(new Coordinate[] {
+						new Coordinate(length / 2, 0, 0, 0.03),
+						new Coordinate(length / 2, 0, 0, 0.02),
+						new Coordinate(length / 2, 0, 0, 0.01) })
+				.setDigest("digest " + designation)
+				.build();
+	}
+
+	private static SimulationOptions getOptions() {
+		SimulationOptions options = new SimulationOptions();
+		options.setISAAtmosphere(true);
+		options.setTimeStep(0.05);
+		return options;
+	}
+
+	@Test
+	public void testSweep() throws SimulationException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		InnerTube mount = getMount(rocket);
+
+		ThrustCurveMotorSetDatabase database = new ThrustCurveMotorSetDatabase();
+		ThrustCurveMotor a8 = getMotor(mount, TestRockets.TEST_FCID_0);
+		ThrustCurveMotor b4 = getMotor(mount, TestRockets.TEST_FCID_1);
+		ThrustCurveMotor c6 = getMotor(mount, TestRockets.TEST_FCID_2);
+		database.addMotor(a8);
+		database.addMotor(b4);
+		database.addMotor(c6);
+		// Too wide and too long for the mount
+		database.addMotor(createMotor("X24", 0.024, 0.070));
+		database.addMotor(createMotor("X18", 0.018, 0.100));
+
+		SimulationOptions options = getOptions();
+		MotorSweep sweep = new MotorSweep(rocket.getFlightConfiguration(TestRockets.TEST_FCID_2), mount, options);
+		sweep.setDelay(3);
+		assertEquals(List.of(a8, b4, c6), sweep.findCandidates(database));
+
+		ForkJoinPool pool = new ForkJoinPool(2);
+		List<MotorSweep.Result> results;
+		try {
+			results = sweep.sweep(database, pool, null);
+		} finally {
+			pool.shutdown();
+		}
+
+		// Ranked by apogee
+		assertEquals(3, results.size());
+		assertSame(c6, results.get(0).getMotor());
+		assertSame(b4, results.get(1).getMotor());
+		assertSame(a8, results.get(2).getMotor());
+		for (MotorSweep.Result result : results) {
+			assertNull(result.getError());
+			assertEquals(3, result.getDelay(), 0);
+			assertTrue(result.getApogee() > 0);
+			assertTrue(result.getLaunchRodVelocity() > 0);
+			assertTrue(result.getMaxVelocity() >= result.getLaunchRodVelocity());
+			assertTrue(result.getStability() > 0);
+			assertTrue(result.getThrustToWeight() > 0);
+		}
+
+		// The same as simulating the configuration that has the C6 with a 3 s delay
+		Simulation sim = new Simulation(rocket);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_2);
+		sim.getOptions().copyConditionsFrom(options);
+		sim.simulate(new ApogeeEndListener());
+		assertEquals(sim.getSimulatedData().getMaxAltitude(), results.get(0).getApogee(), 1e-9);
+		assertEquals(sim.getSimulatedData().getMaxVelocity(), results.get(0).getMaxVelocity(), 1e-9);
+
+		// The original rocket is not changed
+		assertSame(a8, getMotor(mount, TestRockets.TEST_FCID_0));
+		assertSame(c6, getMotor(mount, TestRockets.TEST_FCID_2));
+	}
+
+	@Test
+	public void testDelayAndThrustToWeight() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		InnerTube mount = getMount(rocket);
+
+		ThrustCurveMotorSetDatabase database = new ThrustCurveMotorSetDatabase();
+		ThrustCurveMotor a8 = getMotor(mount, TestRockets.TEST_FCID_0);
+		ThrustCurveMotor c6 = getMotor(mount, TestRockets.TEST_FCID_2);
+		database.addMotor(a8);
+		database.addMotor(c6);
+
+		MotorSweep sweep = new MotorSweep(rocket.getFlightConfiguration(TestRockets.TEST_FCID_0), mount, getOptions());
+
+		// Only the C6 has a 7 s delay
+		sweep.setDelay(7);
+		assertEquals(List.of(c6), sweep.findCandidates(database));
+
+		sweep.setDelay(Double.NaN);
+		List<MotorSweep.Result> all = sweep.sweep(database, null);
+		assertEquals(2, all.size());
+
+		// Skip the motor with the lower thrust-to-weight ratio without simulating it
+		double a8ThrustToWeight = all.get(0).getMotor() == a8 ? all.get(0).getThrustToWeight() : all.get(1).getThrustToWeight();
+		double c6ThrustToWeight = all.get(0).getMotor() == c6 ? all.get(0).getThrustToWeight() : all.get(1).getThrustToWeight();
+		assertFalse(a8ThrustToWeight == c6ThrustToWeight);
+		sweep.setMinimumThrustToWeight((a8ThrustToWeight + c6ThrustToWeight) / 2);
+		List<MotorSweep.Result> results = sweep.sweep(database, null);
+		assertEquals(1, results.size());
+		assertSame(a8ThrustToWeight > c6ThrustToWeight ? a8 : c6, results.get(0).getMotor());
+	}
+
+	@Test
+	public void testCancelBeforeSweep() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		InnerTube mount = getMount(rocket);
+
+		ThrustCurveMotorSetDatabase database = new ThrustCurveMotorSetDatabase();
+		database.addMotor(getMotor(mount, TestRockets.TEST_FCID_0));
+
+		MotorSweep sweep = new MotorSweep(rocket.getFlightConfiguration(TestRockets.TEST_FCID_0), mount, getOptions());
+		sweep.cancel();
+
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			assertThrows(CancellationException.class, () -> sweep.sweep(database, pool, null));
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class SimulationCheckpointTest extends BaseTestCase {
+
+	/**
+	 * Takes a checkpoint of the engine before the first step after the given time.  The
+	 * simulation status clones its listeners, so the clones share the checkpoint reference.
+	 */
+	private static class CheckpointListener extends AbstractSimulationListener {
+		private final BasicEventSimulationEngine engine;
+		private final double time;
+		private final AtomicReference<SimulationCheckpoint> checkpoint = new AtomicReference<>();
+
+		CheckpointListener(BasicEventSimulationEngine engine, double time) {
+			this.engine = engine;
+			this.time = time;
+		}
+
+		@Override
+		public boolean preStep(SimulationStatus status) {
+			if (checkpoint.get() == null && status.getSimulationTime() >= time) {
+				checkpoint.set(engine.checkpoint());
+			}
+			return true;
+		}
+	}
+
+	private static SimulationConditions getConditions(Rocket rocket) {
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		SimulationConditions conditions = sim.getOptions().toSimulationConditions();
+		conditions.setSimulation(sim);
+		return conditions;
+	}
+
+	@Test
+	public void testResumeContinuesExactly() throws SimulationException {
+		SimulationConditions conditions = getConditions(TestRockets.makeEstesAlphaIII());
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		CheckpointListener listener = new CheckpointListener(engine, 1.0);
+		conditions.getSimulationListenerList().add(listener);
+		engine.simulate(conditions);
+		FlightDataBranch original = engine.getFlightData().getBranch(0);
+
+		SimulationCheckpoint checkpoint = listener.checkpoint.get();
+		assertNotNull(checkpoint);
+		assertTrue(checkpoint.getSimulationTime() >= 1.0);
+		assertEquals(original.getName(), checkpoint.getBranchName());
+
+		// The checkpoint can be resumed several times with identical results
+		for (int i = 0; i < 2; i++) {
+			BasicEventSimulationEngine fork = new BasicEventSimulationEngine();
+			fork.resume(checkpoint);
+			FlightDataBranch resumed = fork.getFlightData().getBranch(0);
+
+			assertEquals(original.getLength(), resumed.getLength());
+			for (FlightDataType type : new FlightDataType[] { FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE,
+					FlightDataType.TYPE_VELOCITY_TOTAL, FlightDataType.TYPE_AOA, FlightDataType.TYPE_MASS }) {
+				List<Double> expected = original.get(type);
+				List<Double> actual = resumed.get(type);
+				for (int n = 0; n < expected.size(); n++) {
+					assertEquals(expected.get(n), actual.get(n), 0, type + " at " + n);
+				}
+			}
+
+			List<FlightEvent> expectedEvents = original.getEvents();
+			List<FlightEvent> actualEvents = resumed.getEvents();
+			assertEquals(expectedEvents.size(), actualEvents.size());
+			for (int n = 0; n < expectedEvents.size(); n++) {
+				assertEquals(expectedEvents.get(n).getType(), actualEvents.get(n).getType());
+				assertEquals(expectedEvents.get(n).getTime(), actualEvents.get(n).getTime(), 0);
+			}
+			assertEquals(engine.getFlightData().getMaxAltitude(), fork.getFlightData().getMaxAltitude(), 0);
+		}
+	}
+
+	@Test
+	public void testResumeDoesNotRestartListeners() throws SimulationException {
+		SimulationConditions conditions = getConditions(TestRockets.makeEstesAlphaIII());
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		CheckpointListener listener = new CheckpointListener(engine, 1.0);
+		conditions.getSimulationListenerList().add(listener);
+		engine.simulate(conditions);
+
+		// The resumed simulation was started by the original simulation
+		final int[] calls = new int[3];
+		BasicEventSimulationEngine fork = new BasicEventSimulationEngine();
+		fork.resume(listener.checkpoint.get(), new AbstractSimulationListener() {
+			@Override
+			public void startSimulation(SimulationStatus status) {
+				calls[0]++;
+			}
+
+			@Override
+			public boolean preStep(SimulationStatus status) {
+				calls[1]++;
+				return true;
+			}
+
+			@Override
+			public void endSimulation(SimulationStatus status, SimulationException exception) {
+				calls[2]++;
+			}
+		});
+		assertEquals(0, calls[0]);
+		assertTrue(calls[1] > 0);
+		assertEquals(0, calls[2]);
+	}
+
+	@Test
+	public void testCoastFromDeployment() throws SimulationException {
+		// The recovery device of the Alpha III deploys before apogee
+		SimulationConditions conditions = getConditions(TestRockets.makeEstesAlphaIII());
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		engine.simulate(conditions);
+		FlightData data = engine.getFlightData();
+		FlightDataBranch branch = data.getBranch(0);
+
+		double deployment = branch.getFirstEvent(FlightEvent.Type.RECOVERY_DEVICE_DEPLOYMENT).getTime();
+		assertTrue(deployment < data.getTimeToApogee());
+		assertTrue(branch.getOptimumAltitude() > data.getMaxAltitude());
+		assertTrue(branch.getTimeToOptimumAltitude() > data.getTimeToApogee());
+	}
+}
@@ -0,0 +1,70 @@
+package info.openrocket.core.simulation;
+
+import java.util.Locale;
+
+import info.openrocket.core.util.LinearInterpolator;
+
+/**
+ * Measures the per-step cost of evaluating a value of the flight data history during a
+ * simulation of increasing length, using a {@link TimeSeriesIndex} compared to building a
+ * {@link LinearInterpolator} of the entire history each step.  This is not a unit test;
+ * run the main method with the test classpath, optionally giving the largest number of
+ * simulation steps as the argument.
+ * <p>
+ * The per-step cost of the index should stay roughly constant, while the cost of the
+ * interpolator grows linearly with the number of steps.
+ */
+public class TimeSeriesIndexBenchmark {
+
+	/** Largest number of steps measured with the interpolator, which is quadratic in total. */
+	private static final int MAX_INTERPOLATOR_STEPS = 4000;
+
+	public static void main(String[] args) {
+		int maxSteps = args.length > 0 ? Integer.parseInt(args[0]) : 64000;
+
+		// Warm up
+		measure(1000, false);
+		System.gc();
+		for (int steps = 1000; steps <= maxSteps; steps *= 4) {
+			measure(steps, true);
+		}
+	}
+
+	private static void addPoint(FlightDataBranch branch, double time, double altitude) {
+		branch.addPoint();
+		branch.setValue(FlightDataType.TYPE_TIME, time);
+		branch.setValue(FlightDataType.TYPE_ALTITUDE, altitude);
+	}
+
+	private static void measure(int steps, boolean print) {
+		FlightDataBranch branch = new FlightDataBranch("benchmark", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		TimeSeriesIndex series = branch.getTimeSeries(FlightDataType.TYPE_ALTITUDE);
+
+		double sum = 0;
+		long t0 = System.nanoTime();
+		for (int i = 0; i < steps; i++) {
+			addPoint(branch, i * 0.01, i);
+			sum += series.getValue(i * 0.01 - 0.5);
+		}
+		long t1 = System.nanoTime();
+
+		String full = "-";
+		if (steps <= MAX_INTERPOLATOR_STEPS) {
+			FlightDataBranch other = new FlightDataBranch("benchmark", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+			for (int i = 0; i < steps; i++) {
+				addPoint(other, i * 0.01, i);
+				sum -= new LinearInterpolator(other.get(FlightDataType.TYPE_TIME),
+						other.get(FlightDataType.TYPE_ALTITUDE)).getValue(i * 0.01 - 0.5);
+			}
+			full = String.format(Locale.ROOT, "%.3f", (System.nanoTime() - t1) / 1e3 / steps);
+			if (Math.abs(sum) > 1e-6) {
+				throw new IllegalStateException("The index and the interpolator differ by " + sum);
+			}
+		}
+
+		if (print) {
+			System.out.println(String.format(Locale.ROOT, "%6d steps: index %.3f us/step, full interpolator %s us/step",
+					steps, (t1 - t0) / 1e3 / steps, full));
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.LinearInterpolator;
+
+public class TimeSeriesIndexTest extends BaseTestCase {
+
+	private static final double EPSILON = 1e-12;
+
+	private static void addPoint(FlightDataBranch branch, double time, double altitude) {
+		branch.addPoint();
+		branch.setValue(FlightDataType.TYPE_TIME, time);
+		branch.setValue(FlightDataType.TYPE_ALTITUDE, altitude);
+	}
+
+	private static LinearInterpolator interpolator(FlightDataBranch branch) {
+		return new LinearInterpolator(branch.get(FlightDataType.TYPE_TIME), branch.get(FlightDataType.TYPE_ALTITUDE));
+	}
+
+	@Test
+	public void testInterpolation() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		TimeSeriesIndex series = branch.getTimeSeries(FlightDataType.TYPE_ALTITUDE);
+		assertSame(series, branch.getTimeSeries(FlightDataType.TYPE_ALTITUDE));
+		assertEquals(0, series.getLength());
+
+		addPoint(branch, 0, 10);
+		addPoint(branch, 1, 20);
+		addPoint(branch, 2, 40);
+		assertEquals(3, series.getLength());
+		assertEquals(2, series.getLastTime(), EPSILON);
+
+		assertEquals(10, series.getValue(-1), EPSILON);
+		assertEquals(10, series.getValue(0), EPSILON);
+		assertEquals(15, series.getValue(0.5), EPSILON);
+		assertEquals(30, series.getValue(1.5), EPSILON);
+		assertEquals(40, series.getValue(2), EPSILON);
+		assertEquals(40, series.getValue(3), EPSILON);
+
+		// The last point may be changed after it was indexed
+		branch.setValue(FlightDataType.TYPE_ALTITUDE, 60);
+		assertEquals(40, series.getValue(1.5), EPSILON);
+		assertEquals(60, series.getValue(2), EPSILON);
+
+		// Data points with the same time use the last one, as in LinearInterpolator
+		addPoint(branch, 2, 80);
+		addPoint(branch, 3, 100);
+		LinearInterpolator interpolator = interpolator(branch);
+		for (double t = -0.5; t <= 3.5; t += 0.25) {
+			assertEquals(interpolator.getValue(t), series.getValue(t), EPSILON, "t=" + t);
+		}
+		assertEquals(3, series.floorIndex(2));
+		assertEquals(-1, series.floorIndex(-1));
+	}
+
+	@Test
+	public void testRandomQueries() {
+		Random random = new Random(1234);
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		TimeSeriesIndex series = branch.getTimeSeries(FlightDataType.TYPE_ALTITUDE);
+
+		double time = 0;
+		for (int i = 0; i < 500; i++) {
+			time += random.nextDouble() * 0.1;
+			addPoint(branch, time, random.nextGaussian());
+
+			// Interleave increasing and random queries while the branch grows
+			double t = random.nextDouble() * (time + 1) - 0.5;
+			assertEquals(interpolator(branch).getValue(t), series.getValue(t), EPSILON);
+			assertEquals(interpolator(branch).getValue(time), series.getValue(time), EPSILON);
+		}
+
+		LinearInterpolator interpolator = interpolator(branch);
+		for (int i = 0; i < 1000; i++) {
+			double t = random.nextDouble() * (time + 1) - 0.5;
+			assertEquals(interpolator.getValue(t), series.getValue(t), EPSILON);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package info.openrocket.core.simulation.customexpression;
+
+import java.util.Locale;
+
+import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.CompiledExpression;
+import de.congrace.exp4j.ExpressionBuilder;
+import de.congrace.exp4j.Variable;
+import info.openrocket.core.util.BaseTestCase;
+
+/**
+ * Measures the evaluation time of custom expressions, compiled to a {@link CompiledExpression}
+ * compared to interpreted by {@link de.congrace.exp4j.PostfixExpression#calculate()}, as for
+ * each time step of a simulation.  This is not a unit test; run the main method with the test
+ * classpath, optionally giving the number of evaluations per measurement as the argument.
+ */
+public class CompiledExpressionBenchmark {
+
+	private static final String[] EXPRESSIONS = {
+			"x + y * 2",
+			"sqrt(abs(x)) * sin(y) - (x - y) / (x + y) + x ^ 2 * 0.5",
+			"lclip(x, 0) + uclip(y, 1) + floor(x) + ceil(y) + log10(abs(y) + 1)",
+	};
+
+	public static void main(String[] args) throws Exception {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		BaseTestCase.setUp();
+
+		for (String expression : EXPRESSIONS) {
+			Calculable postfix = builder(expression).build();
+			CompiledExpression compiled = builder(expression).buildCompiled();
+
+			// Warm up
+			interpret(postfix, count / 4);
+			calculate(compiled, count / 4);
+			System.gc();
+
+			long t0 = System.nanoTime();
+			double interpreted = interpret(postfix, count);
+			long t1 = System.nanoTime();
+			double calculated = calculate(compiled, count);
+			long t2 = System.nanoTime();
+
+			System.out.println(String.format(Locale.ROOT, "%-70s postfix %7.1f ns, compiled %7.1f ns%s",
+					expression, (t1 - t0) / (double) count, (t2 - t1) / (double) count,
+					Double.compare(interpreted, calculated) == 0 ? "" : " (results differ)"));
+		}
+	}
+
+	private static ExpressionBuilder builder(String expression) {
+		return new ExpressionBuilder(expression)
+				.withVariable(new Variable("x"))
+				.withVariable(new Variable("y"))
+				.withCustomFunctions(Functions.getInstance().getAllFunction());
+	}
+
+	/**
+	 * Evaluate the expression like CustomExpression did before it compiled the expressions,
+	 * setting each variable as a new Variable.
+	 *
+	 * @return the sum of the results, so that the evaluation cannot be optimized away
+	 */
+	private static double interpret(Calculable postfix, int count) {
+		double sum = 0;
+		for (int i = 0; i < count; i++) {
+			postfix.setVariable(new Variable("x", i * 0.001));
+			postfix.setVariable(new Variable("y", i * 0.002));
+			sum += postfix.calculate().getDoubleValue();
+		}
+		return sum;
+	}
+
+	/**
+	 * @return the sum of the results, so that the evaluation cannot be optimized away
+	 */
+	private static double calculate(CompiledExpression compiled, int count) {
+		double sum = 0;
+		for (int i = 0; i < count; i++) {
+			compiled.setVariable("x", i * 0.001);
+			compiled.setVariable("y", i * 0.002);
+			sum += compiled.calculateDouble();
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,111 @@
+package info.openrocket.core.simulation.customexpression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.EmptyStackException;
+
+import org.junit.jupiter.api.Test;
+
+import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.CompiledExpression;
+import de.congrace.exp4j.ExpressionBuilder;
+import de.congrace.exp4j.Variable;
+import info.openrocket.core.util.BaseTestCase;
+
+public class CompiledExpressionTest extends BaseTestCase {
+
+	private static final String[] EXPRESSIONS = {
+			"x + y * 2",
+			"(x - y) / (x + y) % 0.7",
+			"-x ^ 2 + +y",
+			"sqrt(abs(x)) * sin(y) - cos(x) / exp(y / 10)",
+			"floor(x) + ceil(y) + round(x * y) + log10(abs(y) + 1)",
+			"lclip(x, 0) + uclip(y, 1) + binf(x, y, 2)",
+			"2 ^ 3 ^ 0.5 - 7",
+			"x",
+	};
+
+	private static ExpressionBuilder builder(String expression) {
+		return new ExpressionBuilder(expression)
+				.withVariable(new Variable("x"))
+				.withVariable(new Variable("y"))
+				.withCustomFunctions(Functions.getInstance().getAllFunction());
+	}
+
+	@Test
+	public void testSameAsInterpreter() throws Exception {
+		for (String expression : EXPRESSIONS) {
+			Calculable postfix = builder(expression).build();
+			CompiledExpression compiled = builder(expression).buildCompiled();
+			for (double x = -3; x <= 3; x += 0.37) {
+				for (double y = -2; y <= 2; y += 0.53) {
+					postfix.setVariable(new Variable("x", x));
+					postfix.setVariable(new Variable("y", y));
+					double expected = postfix.calculate().getDoubleValue();
+
+					compiled.setVariable("x", x);
+					compiled.setVariable("y", y);
+					assertEquals(expected, compiled.calculateDouble(), 0, expression);
+
+					compiled.setVariable(new Variable("x", x));
+					compiled.setVariable(new Variable("y", y));
+					assertEquals(expected, compiled.calculate().getDoubleValue(), 0, expression);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRangeVariables() throws Exception {
+		double[] range = { 1, 2, 3, 4 };
+		CompiledExpression compiled = builder("mean(x) + max(x * 2) + y").buildCompiled();
+
+		// Range-valued variables use the postfix interpreter
+		compiled.setVariable(new Variable("x", range, 0, 0.1));
+		compiled.setVariable("y", 10);
+		assertEquals(2.5 + 8 + 10, compiled.calculateDouble(), 1e-12);
+
+		// Back to scalar values
+		compiled.setVariable("x", 3);
+		assertEquals(3 + 6 + 10, compiled.calculateDouble(), 1e-12);
+
+		// Element-wise operations on ranges return a range
+		CompiledExpression elements = builder("x * 2 + y").buildCompiled();
+		elements.setVariable(new Variable("x", range, 0, 0.1));
+		elements.setVariable("y", 1);
+		double[] result = elements.calculate().getArrayValue();
+		assertEquals(4, result.length);
+		assertEquals(9, result[3], 1e-12);
+	}
+
+	@Test
+	public void testUnsetAndInvalid() throws Exception {
+		CompiledExpression compiled = builder("x + y").buildCompiled();
+		compiled.setVariable("x", 1);
+		assertEquals(Double.NaN, compiled.calculateDouble(), 0);
+
+		// The interpreter reports invalid expressions when calculating
+		CompiledExpression invalid = builder("x +").buildCompiled();
+		assertThrows(EmptyStackException.class, invalid::calculate);
+	}
+
+	/**
+	 * Compare the compiled expression and the postfix interpreter over a long sequence of
+	 * values, as during a simulation, including the undefined value at the start.
+	 */
+	@Test
+	public void testSequence() throws Exception {
+		final String expression = "sqrt(abs(x)) * sin(y) - (x - y) / (x + y) + x ^ 2 * 0.5";
+		Calculable postfix = builder(expression).build();
+		CompiledExpression compiled = builder(expression).buildCompiled();
+
+		for (int i = 0; i < 10000; i++) {
+			postfix.setVariable(new Variable("x", i * 0.001));
+			postfix.setVariable(new Variable("y", i * 0.002));
+			compiled.setVariable("x", i * 0.001);
+			compiled.setVariable("y", i * 0.002);
+			assertEquals(postfix.calculate().getDoubleValue(), compiled.calculateDouble(), 0, "i=" + i);
+		}
+	}
+}
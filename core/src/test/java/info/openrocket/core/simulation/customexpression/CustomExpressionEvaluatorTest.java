@@ -0,0 +1,91 @@
+package info.openrocket.core.simulation.customexpression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.Variable;
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.util.BaseTestCase;
+
+public class CustomExpressionEvaluatorTest extends BaseTestCase {
+
+	private static final String EXPRESSION = "sqrt(abs(h)) + lclip(Vt, 0)^2 / (1 + t) + t % 3 - -h";
+
+	private static FlightDataBranch createBranch(int length) {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE,
+				FlightDataType.TYPE_VELOCITY_TOTAL);
+		for (int i = 0; i < length; i++) {
+			double t = i * 0.01;
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, t);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, 100 * Math.sin(t) - 5);
+			branch.setValue(FlightDataType.TYPE_VELOCITY_TOTAL, 100 * Math.cos(t));
+		}
+		branch.immute();
+		return branch;
+	}
+
+	/**
+	 * Evaluate the expression one row at a time, as during a simulation.
+	 */
+	private static double[] evaluateRows(CustomExpression expression, FlightDataBranch branch) {
+		Calculable calc = expression.buildExpression();
+		FlightDataType[] types = branch.getTypes();
+		double[] result = new double[branch.getLength()];
+		for (int i = 0; i < result.length; i++) {
+			for (FlightDataType type : types) {
+				calc.setVariable(new Variable(type.getSymbol(), branch.getByIndex(type, i)));
+			}
+			result[i] = calc.calculate().getDoubleValue();
+		}
+		return result;
+	}
+
+	@Test
+	public void testEvaluate() {
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createNewRocket();
+		CustomExpression expression = new CustomExpression(doc, "Test", "Tst", "", EXPRESSION);
+		FlightDataBranch branch = createBranch(20000);
+
+		CustomExpressionEvaluator evaluator = new CustomExpressionEvaluator();
+		assertTrue(evaluator.canEvaluate(expression));
+		assertTrue(evaluator.evaluate(expression, branch));
+
+		double[] expected = evaluateRows(expression, branch);
+		List<Double> actual = branch.get(expression.getType());
+		assertEquals(expected.length, actual.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], actual.get(i), Math.max(1e-12, 1e-9 * Math.abs(expected[i])), "row " + i);
+		}
+		assertEquals(expected[expected.length - 1], branch.getLast(expression.getType()), 1e-9);
+
+		// Re-evaluating replaces the values
+		assertTrue(evaluator.evaluate(expression, branch));
+		assertEquals(expected.length, branch.get(expression.getType()).size());
+	}
+
+	@Test
+	public void testUnsupported() {
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createNewRocket();
+		FlightDataBranch branch = createBranch(10);
+		CustomExpressionEvaluator evaluator = new CustomExpressionEvaluator();
+
+		// Range expressions depend on the simulation time
+		CustomExpression range = new CustomExpression(doc, "Mean", "Mn", "", "mean(h[0:t])");
+		assertFalse(evaluator.canEvaluate(range));
+		assertFalse(evaluator.evaluate(range, branch));
+
+		CustomExpression invalid = new CustomExpression(doc, "Invalid", "Inv", "", "h + foo(t)");
+		assertFalse(evaluator.evaluate(invalid, branch));
+		assertEquals(null, branch.get(invalid.getType()));
+	}
+}
@@ -0,0 +1,120 @@
+package info.openrocket.core.thrustcurve;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.BaseTestCase;
+
+public class ThrustCurveCacheTest extends BaseTestCase {
+
+	private static final String DOWNLOAD_RESPONSE =
+			"<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+			"<download-response xmlns=\"http://www.thrustcurve.org/2009/DownloadResponse\">\n" +
+			"  <results>\n" +
+			"    <result>\n" +
+			"      <motor-id>42</motor-id>\n" +
+			"      <simfile-id>7</simfile-id>\n" +
+			"      <format>test</format>\n" +
+			"      <data>aGVsbG8=</data>\n" +
+			"    </result>\n" +
+			"  </results>\n" +
+			"</download-response>\n";
+
+	private static void delete(Path dir) throws IOException {
+		try (Stream<Path> paths = Files.walk(dir)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+		}
+	}
+
+	private static int count(File dir) {
+		String[] files = dir.list();
+		return files == null ? 0 : files.length;
+	}
+
+	@Test
+	public void testCache() throws IOException {
+		Path dir = Files.createTempDirectory("thrustcurvecache");
+		try {
+			ThrustCurveCache cache = new ThrustCurveCache(dir.toFile());
+			byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+			assertNull(cache.get("a"));
+
+			cache.put("a", content, "\"etag\"", null);
+			cache.put("b", content, null, "Mon, 19 Oct 2026 10:00:00 GMT");
+
+			ThrustCurveCache.Entry a = new ThrustCurveCache(dir.toFile()).get("a");
+			assertArrayEquals(content, a.getContent());
+			assertEquals("\"etag\"", a.getETag());
+			assertNull(a.getLastModified());
+			assertEquals("Mon, 19 Oct 2026 10:00:00 GMT", cache.get("b").getLastModified());
+
+			// The same content is stored once
+			assertEquals(1, count(new File(dir.toFile(), "objects")));
+			assertEquals(2, count(new File(dir.toFile(), "refs")));
+
+			// A damaged object is not used
+			File object = new File(new File(dir.toFile(), "objects"), ThrustCurveCache.hash(content));
+			Files.write(object.toPath(), "damaged".getBytes(StandardCharsets.UTF_8));
+			assertNull(cache.get("a"));
+		} finally {
+			delete(dir);
+		}
+	}
+
+	@Test
+	public void testOffline() throws Exception {
+		Path standIn = Files.createTempDirectory("thrustcurvestandin");
+		Path dir = Files.createTempDirectory("thrustcurvecache");
+		try {
+			SearchRequest request = new SearchRequest();
+			request.setManufacturer("Estes");
+			TCMotor motor = new TCMotor();
+			motor.setMotor_id(42);
+
+			// Fill the stand-in directory as an earlier run would have
+			ThrustCurveCache seed = new ThrustCurveCache(standIn.toFile());
+			try (InputStream is = ThrustCurveCacheTest.class.getResourceAsStream("/thrustcurve/SampleSearchResponse.xml")) {
+				seed.put(ThrustCurveAPI.getSearchKey(request), is.readAllBytes(), null, null);
+			}
+			seed.put(ThrustCurveAPI.getDownloadKey(42, "RASP", ThrustCurveAPI.getDigest(motor)),
+					DOWNLOAD_RESPONSE.getBytes(StandardCharsets.UTF_8), null, null);
+
+			ThrustCurveAPI api = new ThrustCurveAPI(new ThrustCurveCache(dir.toFile(), standIn.toFile()),
+					ThrustCurveAPI.CacheMode.OFFLINE);
+			assertEquals(252, api.search(request).getMatches());
+
+			List<MotorBurnFile> files = api.download(motor, "RASP");
+			assertEquals(1, files.size());
+			assertEquals(42, files.get(0).getMotorId());
+			assertEquals(7, files.get(0).getSimfileId());
+			assertEquals("hello", files.get(0).getContents());
+
+			// A changed motor is downloaded again, which fails offline
+			motor.setAvailability("OOP");
+			assertThrows(IOException.class, () -> api.download(motor, "RASP"));
+			request.setManufacturer("AeroTech");
+			assertThrows(IOException.class, () -> api.search(request));
+
+			// Nothing is written to the stand-in directory or copied to the cache
+			assertEquals(2, count(new File(standIn.toFile(), "refs")));
+			assertEquals(0, count(dir.toFile()));
+		} finally {
+			delete(standIn);
+			delete(dir);
+		}
+	}
+}
@@ -19,6 +19,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import info.openrocket.core.logging.Markers;
+import info.openrocket.core.rocketcomponent.ComponentChangeTransaction;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.util.BugException;
 import info.openrocket.core.util.ChangeSource;
@@ -176,7 +177,7 @@ public class BooleanModel extends AbstractAction implements StateChangeListener,
 		log.debug("Setting value of " + this + " to " + b);
 		
 		if (setMethod != null) {
-			try {
+			try (ComponentChangeTransaction transaction = ComponentChangeTransaction.beginForConfigListeners(source)) {
 				setMethod.invoke(source, new Object[] { b });
 			} catch (IllegalAccessException e) {
 				throw new BugException("setMethod execution error for source " + source, e);
@@ -22,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import info.openrocket.core.logging.Markers;
+import info.openrocket.core.rocketcomponent.ComponentChangeTransaction;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.unit.Unit;
 import info.openrocket.core.unit.UnitGroup;
@@ -882,7 +883,9 @@ public class DoubleModel implements StateChangeListener, ChangeSource, Invalidat
 		}
 		
 		try {
-			setMethod.invoke(source, v / multiplier);
+			try (ComponentChangeTransaction transaction = ComponentChangeTransaction.beginForConfigListeners(source)) {
+				setMethod.invoke(source, v / multiplier);
+			}
 			// Make sure to notify all the listeners that have registered
 			fireStateChanged();
 		} catch (IllegalArgumentException | IllegalAccessException e) {
@@ -939,7 +942,7 @@ public class DoubleModel implements StateChangeListener, ChangeSource, Invalidat
 		
 		log.debug("Setting automatic to " + auto + " for " + this);
 		lastAutomatic = auto;
-		try {
+		try (ComponentChangeTransaction transaction = ComponentChangeTransaction.beginForConfigListeners(source)) {
 			setAutoMethod.invoke(source, auto);
 		} catch (IllegalArgumentException | IllegalAccessException e) {
 			throw new BugException(e);
@@ -8,6 +8,7 @@ import javax.swing.AbstractListModel;
 import javax.swing.ComboBoxModel;
 import javax.swing.MutableComboBoxModel;
 
+import info.openrocket.core.rocketcomponent.ComponentChangeTransaction;
 import info.openrocket.core.util.Invalidatable;
 import info.openrocket.core.util.Reflection;
 import info.openrocket.core.util.StateChangeListener;
@@ -104,7 +105,9 @@ public class EnumModel<T extends Enum<T>> extends AbstractListModel<T>
 			return;
 		
 		this.currentValue = (T) item;
-		setMethod.invoke(source, item);
+		try (ComponentChangeTransaction transaction = ComponentChangeTransaction.beginForConfigListeners(source)) {
+			setMethod.invoke(source, item);
+		}
 	}
 
 	@Override
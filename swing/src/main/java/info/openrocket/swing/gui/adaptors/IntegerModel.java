@@ -12,6 +12,7 @@ import javax.swing.SpinnerNumberModel;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
+import info.openrocket.core.rocketcomponent.ComponentChangeTransaction;
 import info.openrocket.core.util.Invalidatable;
 import info.openrocket.core.util.MathUtil;
 import info.openrocket.core.logging.Markers;
@@ -220,7 +221,9 @@ public class IntegerModel implements StateChangeListener, Invalidatable {
 
 		log.debug("Setting value " + v + " for " + this);
 		try {
-			setMethod.invoke(source, v);
+			try (ComponentChangeTransaction transaction = ComponentChangeTransaction.beginForConfigListeners(source)) {
+				setMethod.invoke(source, v);
+			}
 			fireStateChanged();
 		} catch (IllegalArgumentException | IllegalAccessException e) {
 			throw new BugException(e);
@@ -15,6 +15,7 @@ import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.material.Material;
 import info.openrocket.core.rocketcomponent.ComponentChangeEvent;
 import info.openrocket.core.rocketcomponent.ComponentChangeListener;
+import info.openrocket.core.rocketcomponent.ComponentChangeTransaction;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.startup.Application;
 import info.openrocket.core.util.Invalidatable;
@@ -84,7 +85,9 @@ public class MaterialModel extends AbstractListModel<Material> implements
 		}
 
 		if (item instanceof Material) {
-			setMethod.invoke(rocketComponent, item);
+			try (ComponentChangeTransaction transaction = ComponentChangeTransaction.beginForConfigListeners(rocketComponent)) {
+				setMethod.invoke(rocketComponent, item);
+			}
 		} else {
 			throw new IllegalArgumentException("Illegal item class " + item.getClass() + 
 					" item=" + item);
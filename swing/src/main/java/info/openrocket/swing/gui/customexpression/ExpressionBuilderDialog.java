@@ -7,6 +7,7 @@ import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
@@ -15,10 +16,14 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 
 import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.document.events.SimulationChangeEvent;
 import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.simulation.customexpression.CustomExpression;
+import info.openrocket.core.simulation.customexpression.CustomExpressionEvaluator;
 import info.openrocket.core.startup.Application;
 
 import net.miginfocom.swing.MigLayout;
@@ -46,7 +51,6 @@ public class ExpressionBuilderDialog extends JDialog {
 	
 	@SuppressWarnings("unused")
 	private final Window parentWindow;
-	@SuppressWarnings("unused")
 	private final OpenRocketDocument doc;
 	
 	// Define these check indicators to show if fields are OK
@@ -184,6 +188,11 @@ public class ExpressionBuilderDialog extends JDialog {
 			public void actionPerformed(ActionEvent e) {
 				// add to this simulation
 				expression.addToDocument();
+
+				// compute the new values from the existing simulation data, if possible
+				if (doc.getCustomExpressions().contains(expression)) {
+					evaluate(expression, doc);
+				}
 				
 				// close window
 				ExpressionBuilderDialog.this.dispose();
@@ -232,6 +241,41 @@ public class ExpressionBuilderDialog extends JDialog {
 		
 	}
 
+	/**
+	 * Evaluate the expression over the stored data of the simulations.  The values are computed
+	 * in a background thread, since long simulations may take a while to evaluate, and stored in
+	 * the simulation data in the EDT, where the data is used.
+	 */
+	private static void evaluate(final CustomExpression expression, final OpenRocketDocument doc) {
+		final CustomExpressionEvaluator.Evaluation evaluation = new CustomExpressionEvaluator().prepare(expression, doc);
+		if (evaluation == null) {
+			log.info("Custom expression " + expression + " will be available after running the simulations");
+			return;
+		}
+
+		new SwingWorker<Void, Void>() {
+			@Override
+			protected Void doInBackground() {
+				evaluation.calculate();
+				return null;
+			}
+
+			@Override
+			protected void done() {
+				try {
+					get();
+				} catch (InterruptedException | ExecutionException e) {
+					log.warn("Evaluating custom expression " + expression + " failed", e);
+					return;
+				}
+				evaluation.apply();
+				for (Simulation simulation : evaluation.getSimulations()) {
+					doc.fireDocumentChangeEvent(new SimulationChangeEvent(simulation));
+				}
+			}
+		}.execute();
+	}
+
 	/**
 	 * Enable OK button only if all the fields are ok
 	 * @param okButton
@@ -25,6 +25,7 @@ import info.openrocket.core.rocketcomponent.AxialStage;
 import info.openrocket.core.rocketcomponent.BodyComponent;
 import info.openrocket.core.rocketcomponent.BodyTube;
 import info.openrocket.core.rocketcomponent.ComponentChangeEvent;
+import info.openrocket.core.rocketcomponent.ComponentChangeTransaction;
 import info.openrocket.core.rocketcomponent.EllipticalFinSet;
 import info.openrocket.core.rocketcomponent.FinSet;
 import info.openrocket.core.rocketcomponent.FreeformFinSet;
@@ -481,12 +482,13 @@ public class ScaleDialog extends JDialog {
 			@Override
 			public void actionPerformed(ActionEvent e) {
 
+				// Combine the change events of all scaled components into a single event
 				final Rocket rocket = document.getRocket();
-				rocket.enableEvents(false);
-				doScale();
-				rocket.enableEvents(true);
-
-				ScaleDialog.this.document.getRocket().fireComponentChangeEvent(ComponentChangeEvent.AEROMASS_CHANGE);
+				try (ComponentChangeTransaction transaction = rocket.beginTransaction()) {
+					doScale();
+					rocket.fireComponentChangeEvent(ComponentChangeEvent.AEROMASS_CHANGE);
+					log.debug("Scaled design, merging " + transaction.getEventCount() + " change events");
+				}
 
 				ScaleDialog.this.setVisible(false);
 			}
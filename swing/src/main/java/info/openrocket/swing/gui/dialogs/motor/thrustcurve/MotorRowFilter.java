@@ -1,13 +1,19 @@
 package info.openrocket.swing.gui.dialogs.motor.thrustcurve;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.RowFilter;
+import javax.swing.SwingWorker;
 import javax.swing.table.TableModel;
 
 import info.openrocket.core.database.motor.ThrustCurveMotorSet;
@@ -16,6 +22,7 @@ import info.openrocket.core.motor.MotorConfiguration;
 import info.openrocket.core.motor.ThrustCurveMotor;
 import info.openrocket.core.rocketcomponent.MotorMount;
 import info.openrocket.core.util.AbstractChangeSource;
+import info.openrocket.core.util.BugException;
 import info.openrocket.core.util.ChangeSource;
 import info.openrocket.core.util.StateChangeListener;
 
@@ -23,9 +30,15 @@ import info.openrocket.core.util.StateChangeListener;
 
 /**
  * Abstract adapter class.
+ * <p>
+ * The filter is computed for all rows at once using the search index of the model,
+ * and recomputed only when the filter criteria change.
  */
 public class MotorRowFilter extends RowFilter<TableModel, Integer> implements ChangeSource {
 
+	// Databases with at least this many motor sets are filtered in a background thread by update()
+	private static final int BACKGROUND_ROWS = 1000;
+
 	// configuration data used in the filter process
 	private final ThrustCurveMotorDatabaseModel model;
 	private List<ThrustCurveMotor> usedMotors = new ArrayList<>();
@@ -59,6 +72,21 @@ public class MotorRowFilter extends RowFilter<TableModel, Integer> implements Ch
 	// Show only available motors
 	private boolean hideUnavailable = false;
 
+	// The rows of the motor sets matching a used motor
+	private BitSet usedRows = new BitSet();
+
+	// The rows included by the current criteria, or null if they have not been computed
+	private BitSet included = null;
+
+	// The search index the included rows and term matches were computed with
+	private MotorSearchIndex index = null;
+
+	// The rows matching each search term when the filter was last computed
+	private Map<String, BitSet> termMatches = Collections.emptyMap();
+
+	// Incremented whenever the criteria change
+	private int generation = 0;
+
 
 	public MotorRowFilter(ThrustCurveMotorDatabaseModel model) {
 		super();
@@ -75,16 +103,34 @@ public class MotorRowFilter extends RowFilter<TableModel, Integer> implements Ch
 				}
 			}
 		}
+
+		// Match the motor sets against the used motors once, instead of on every filtering
+		BitSet used = new BitSet();
+		for (int row = 0; row < model.getRowCount(); row++) {
+			ThrustCurveMotorSet m = model.getMotorSet(row);
+			for (ThrustCurveMotor motor : usedMotors) {
+				if (m.matches(motor)) {
+					used.set(row);
+					break;
+				}
+			}
+		}
+		usedRows = used;
+		invalidate();
 	}
 
 	public void setSearchTerms(final List<String> searchTerms) {
-		this.searchTerms = new ArrayList<>();
+		List<String> terms = new ArrayList<>();
 		for (String s : searchTerms) {
-			s = s.trim().toLowerCase(Locale.getDefault());
+			s = MotorSearchIndex.normalize(s.trim());
 			if (s.length() > 0) {
-				this.searchTerms.add(s);
+				terms.add(s);
 			}
 		}
+		if (!terms.equals(this.searchTerms)) {
+			this.searchTerms = terms;
+			invalidate();
+		}
 	}
 
 	public double getMinimumLength() {
@@ -94,6 +140,7 @@ public class MotorRowFilter extends RowFilter<TableModel, Integer> implements Ch
 	public void setMinimumLength(double minimumLength) {
 		if ( this.minimumLength != minimumLength ) {
 			this.minimumLength = minimumLength;
+			invalidate();
 			fireChangeEvent(change);
 		}
 	}
@@ -105,6 +152,7 @@ public class MotorRowFilter extends RowFilter<TableModel, Integer> implements Ch
 	public void setMaximumLength(double maximumLength) {
 		if ( this.maximumLength != maximumLength ) {
 			this.maximumLength = maximumLength;
+			invalidate();
 			fireChangeEvent(change);
 		}
 	}
@@ -115,6 +163,7 @@ public class MotorRowFilter extends RowFilter<TableModel, Integer> implements Ch
 
 	void setMinimumDiameter(Double minimumDiameter) {
 		this.minimumDiameter = minimumDiameter;
+		invalidate();
 	}
 
 	Double getMaximumDiameter() {
@@ -123,10 +172,12 @@ public class MotorRowFilter extends RowFilter<TableModel, Integer> implements Ch
 
 	void setMaximumDiameter(Double maximumDiameter) {
 		this.maximumDiameter = maximumDiameter;
+		invalidate();
 	}
 
 	void setHideUsedMotors(boolean hideUsedMotors) {
 		this.hideUsedMotors = hideUsedMotors;
+		invalidate();
 	}
 
 	List<Manufacturer> getExcludedManufacturers() {
@@ -136,6 +187,7 @@ public class MotorRowFilter extends RowFilter<TableModel, Integer> implements Ch
 	void setExcludedManufacturers(Collection<Manufacturer> excludedManufacturers) {
 		this.excludedManufacturers.clear();
 		this.excludedManufacturers.addAll(excludedManufacturers);
+		invalidate();
 	}
 
 	ImpulseClass getMinimumImpulse() {
@@ -144,6 +196,7 @@ public class MotorRowFilter extends RowFilter<TableModel, Integer> implements Ch
 
 	void setMinimumImpulse(ImpulseClass minimumImpulse) {
 		this.minimumImpulse = minimumImpulse;
+		invalidate();
 	}
 
 	ImpulseClass getMaximumImpulse() {
@@ -152,6 +205,7 @@ public class MotorRowFilter extends RowFilter<TableModel, Integer> implements Ch
 
 	void setMaximumImpulse(ImpulseClass maximumImpulse) {
 		this.maximumImpulse = maximumImpulse;
+		invalidate();
 	}
 
 	public boolean isHideUnavailable() {
@@ -160,104 +214,190 @@ public class MotorRowFilter extends RowFilter<TableModel, Integer> implements Ch
 
 	public void setHideUnavailable(boolean hideUnavailable) {
 		this.hideUnavailable = hideUnavailable;
+		invalidate();
 	}
 
 	@Override
 	public boolean include(RowFilter.Entry<? extends TableModel, ? extends Integer> entry) {
 		int index = entry.getIdentifier();
-		ThrustCurveMotorSet m = model.getMotorSet(index);
-		return filterManufacturers(m) && filterUsed(m) && filterBySize(m) && filterByString(m) && filterByImpulseClass(m) && filterUnavailable(m);
+		return getIncluded().get(index);
 	}
 
-	private boolean filterManufacturers(ThrustCurveMotorSet m) {
-		if (excludedManufacturers.contains(m.getManufacturer())) {
-			return false;
-		} else {
-			return true;
+	/**
+	 * Compute the filter after the criteria have changed, and then run an action in the EDT,
+	 * typically sorting the table.  Large databases are filtered in a background thread so that
+	 * typing a search does not block the EDT.  If the criteria change again before the filtering
+	 * has finished, its result is discarded and the action is not run.
+	 *
+	 * @param whenDone	the action to run once the filter has been computed.
+	 */
+	public void update(final Runnable whenDone) {
+		if (isComputed() || model.getRowCount() < BACKGROUND_ROWS) {
+			getIncluded();
+			whenDone.run();
+			return;
 		}
-	}
 
-	private boolean filterUsed(ThrustCurveMotorSet m) {
-		if (!hideUsedMotors) {
-			return true;
-		}
-		for (ThrustCurveMotor motor : usedMotors) {
-			if (m.matches(motor)) {
-				return false;
+		final Criteria criteria = new Criteria();
+		new SwingWorker<BitSet, Void>() {
+			@Override
+			protected BitSet doInBackground() {
+				return criteria.filter();
 			}
+
+			@Override
+			protected void done() {
+				if (criteria.generation != generation) {
+					return;
+				}
+				try {
+					apply(criteria, get());
+				} catch (InterruptedException | ExecutionException e) {
+					throw new BugException("Filtering motors failed", e);
+				}
+				whenDone.run();
+			}
+		}.execute();
+	}
+
+	private BitSet getIncluded() {
+		if (!isComputed()) {
+			Criteria criteria = new Criteria();
+			apply(criteria, criteria.filter());
 		}
-		return true;
+		return included;
 	}
 
-	private boolean filterBySize(ThrustCurveMotorSet m) {
+	/**
+	 * The filter needs to be computed again when the criteria have changed, and when the
+	 * index has been rebuilt because the dimension unit has changed.
+	 */
+	private boolean isComputed() {
+		return included != null && index == model.getSearchIndex();
+	}
 
-		if ( minimumDiameter != null ) {
-			if ( m.getDiameter() <= minimumDiameter - 0.0015 ) {
-				return false;
+	private void apply(Criteria criteria, BitSet rows) {
+		included = rows;
+		index = criteria.index;
+		termMatches = criteria.matches;
+	}
+
+	private void invalidate() {
+		included = null;
+		generation++;
+	}
+
+	/**
+	 * A snapshot of the filter criteria, so that the filter can be computed outside the EDT.
+	 */
+	private class Criteria {
+		private final int generation = MotorRowFilter.this.generation;
+		private final MotorSearchIndex index = model.getSearchIndex();
+		private final List<String> terms = searchTerms;
+		private final Map<String, BitSet> previousMatches =
+				index == MotorRowFilter.this.index ? termMatches : Collections.<String, BitSet> emptyMap();
+		private final Map<String, BitSet> matches = new HashMap<>();
+		private final BitSet hiddenRows = hideUsedMotors ? usedRows : null;
+		private final Set<Manufacturer> excluded = new HashSet<>(excludedManufacturers);
+		private final double minLength = minimumLength;
+		private final double maxLength = maximumLength;
+		private final Double minDiameter = minimumDiameter;
+		private final Double maxDiameter = maximumDiameter;
+		private final ImpulseClass minImpulse = minimumImpulse;
+		private final ImpulseClass maxImpulse = maximumImpulse;
+		private final boolean onlyAvailable = hideUnavailable;
+
+		private BitSet filter() {
+			BitSet rows = new BitSet(index.size());
+			rows.set(0, index.size());
+			for (String term : terms) {
+				BitSet m = matches.get(term);
+				if (m == null) {
+					m = index.find(term, findPreviousMatches(term));
+					matches.put(term, m);
+				}
+				rows.and(m);
 			}
+			if (hiddenRows != null) {
+				rows.andNot(hiddenRows);
+			}
+			for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+				if (!(filterManufacturers(row) && filterBySize(row) && filterByImpulseClass(row) && filterUnavailable(row))) {
+					rows.clear(row);
+				}
+			}
+			return rows;
 		}
 
-		if ( maximumDiameter != null ) {
-			if ( m.getDiameter() >= maximumDiameter + 0.0004 ) {
-				return false;
+		/**
+		 * As the search is typed, a term contains a term of the previous search.  Only the rows
+		 * matching the longest such term need to be searched.
+		 */
+		private BitSet findPreviousMatches(String term) {
+			String best = null;
+			for (String previous : previousMatches.keySet()) {
+				if (term.contains(previous) && (best == null || previous.length() > best.length())) {
+					best = previous;
+				}
 			}
+			return best != null ? previousMatches.get(best) : null;
 		}
 
-		if ( m.getLength() > maximumLength ) {
-			return false;
+		private boolean filterManufacturers(int row) {
+			return !excluded.contains(index.getManufacturer(row));
 		}
-		
-		if ( m.getLength() < minimumLength ) {
-			return false;
-		}
-
-		return true;
-	}
 
+		private boolean filterBySize(int row) {
+			double diameter = index.getDiameter(row);
+			double length = index.getLength(row);
 
-	private boolean filterByString(ThrustCurveMotorSet m) {
-		main: for (String s : searchTerms) {
-			for (ThrustCurveMotorColumns col : ThrustCurveMotorColumns.values()) {
-				String str = col.getValue(m).toString().toLowerCase(Locale.getDefault());
-				if (str.contains(s)) {
-					continue main;
+			if ( minDiameter != null ) {
+				if ( diameter <= minDiameter - 0.0015 ) {
+					return false;
 				}
 			}
 
-			// Make sure that you can search on both the common name, and designation
-			// Yes, there is some duplication here because the common name or designation is already checked in the previous loop
-			// but it's not worth checking that...
-			String common = m.getCommonName().toLowerCase(Locale.getDefault());
-			String designation = m.getDesignation().toLowerCase(Locale.getDefault());
-			if (common.contains(s) || designation.contains(s)) {
-				continue main;
+			if ( maxDiameter != null ) {
+				if ( diameter >= maxDiameter + 0.0004 ) {
+					return false;
+				}
 			}
-			return false;
-		}
-	return true;
-	}
 
-	private boolean filterByImpulseClass(ThrustCurveMotorSet m) {
-		if ( minimumImpulse != null ) {
-			if( m.getTotalImpulse() <= minimumImpulse.getLow() ) {
+			if ( length > maxLength ) {
 				return false;
 			}
-		}
 
-		if ( maximumImpulse != null ) {
-			if( m.getTotalImpulse() > maximumImpulse.getHigh() ) {
+			if ( length < minLength ) {
 				return false;
 			}
+
+			return true;
 		}
 
-		return true;
-	}
+		private boolean filterByImpulseClass(int row) {
+			long totalImpulse = index.getTotalImpulse(row);
+
+			if ( minImpulse != null ) {
+				if( totalImpulse <= minImpulse.getLow() ) {
+					return false;
+				}
+			}
+
+			if ( maxImpulse != null ) {
+				if( totalImpulse > maxImpulse.getHigh() ) {
+					return false;
+				}
+			}
 
-	private boolean filterUnavailable(ThrustCurveMotorSet m) {
-		if (!hideUnavailable) {
 			return true;
 		}
-		return m.isAvailable();
+
+		private boolean filterUnavailable(int row) {
+			if (!onlyAvailable) {
+				return true;
+			}
+			return index.isAvailable(row);
+		}
 	}
 
 
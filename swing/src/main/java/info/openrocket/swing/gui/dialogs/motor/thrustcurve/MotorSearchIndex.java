@@ -0,0 +1,206 @@
+package info.openrocket.swing.gui.dialogs.motor.thrustcurve;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import info.openrocket.core.database.motor.ThrustCurveMotorSet;
+import info.openrocket.core.motor.Manufacturer;
+import info.openrocket.core.unit.Unit;
+
+/**
+ * A search index of the motor sets of a {@link ThrustCurveMotorDatabaseModel}, so that the
+ * motor table can be filtered without formatting the values of every motor set on each keystroke.
+ * <p>
+ * The searchable text of a motor set consists of the values of the table columns and both its
+ * common name and designation, lowercased once when the index is built.  The text is split into
+ * trigrams, and a search term is matched by intersecting the postings of its trigrams and verifying
+ * the remaining candidates.  The values used by the other filters are stored in arrays by row.
+ * <p>
+ * The diameter and length columns are formatted in the motor dimension unit, so the index is only
+ * valid for the unit it was built with.
+ */
+class MotorSearchIndex {
+
+	/** Separates the columns in the text, so that a search term cannot match across columns. */
+	private static final char SEPARATOR = '\0';
+
+	private static final int[] NO_ROWS = new int[0];
+
+	private final Unit dimensionUnit;
+	private final int size;
+
+	private final String[] text;
+	private final Map<Long, int[]> postings = new HashMap<>();
+
+	private final Manufacturer[] manufacturers;
+	private final double[] diameters;
+	private final double[] lengths;
+	private final long[] totalImpulses;
+	private final boolean[] available;
+
+	/**
+	 * Build the index.
+	 *
+	 * @param motorSets		the motor sets, in the order of the table rows.
+	 * @param dimensionUnit	the unit the diameter and length columns are formatted in.
+	 */
+	MotorSearchIndex(List<ThrustCurveMotorSet> motorSets, Unit dimensionUnit) {
+		this.dimensionUnit = dimensionUnit;
+		this.size = motorSets.size();
+		this.text = new String[size];
+		this.manufacturers = new Manufacturer[size];
+		this.diameters = new double[size];
+		this.lengths = new double[size];
+		this.totalImpulses = new long[size];
+		this.available = new boolean[size];
+
+		Map<Long, Postings> building = new HashMap<>();
+		for (int row = 0; row < size; row++) {
+			ThrustCurveMotorSet m = motorSets.get(row);
+			manufacturers[row] = m.getManufacturer();
+			diameters[row] = m.getDiameter();
+			lengths[row] = m.getLength();
+			totalImpulses[row] = m.getTotalImpulse();
+			available[row] = m.isAvailable();
+
+			StringBuilder sb = new StringBuilder();
+			for (ThrustCurveMotorColumns col : ThrustCurveMotorColumns.values()) {
+				// The name column shows either the common name or the designation, both added below
+				if (col != ThrustCurveMotorColumns.NAME) {
+					sb.append(col.getValue(m)).append(SEPARATOR);
+				}
+			}
+			sb.append(m.getCommonName()).append(SEPARATOR).append(m.getDesignation());
+			text[row] = normalize(sb.toString());
+
+			// Rows are added in order, so the postings stay sorted
+			String s = text[row];
+			for (int i = 0; i + 3 <= s.length(); i++) {
+				building.computeIfAbsent(trigram(s, i), k -> new Postings()).add(row);
+			}
+		}
+		for (Map.Entry<Long, Postings> e : building.entrySet()) {
+			postings.put(e.getKey(), e.getValue().toArray());
+		}
+	}
+
+	/**
+	 * Normalize a string for searching.
+	 */
+	static String normalize(String s) {
+		return s.toLowerCase(Locale.getDefault());
+	}
+
+	/**
+	 * @return	the number of rows in the index.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return	the unit the diameter and length columns were indexed in.
+	 */
+	Unit getDimensionUnit() {
+		return dimensionUnit;
+	}
+
+	/**
+	 * Find the rows whose text contains a search term.
+	 *
+	 * @param term		the normalized search term.
+	 * @param within	the rows to search, or <code>null</code> to search all rows.  When a longer
+	 * 					term is typed, the rows matching the shorter term it contains can be given.
+	 * @return			the matching rows.
+	 */
+	BitSet find(String term, BitSet within) {
+		BitSet candidates;
+		if (term.length() < 3) {
+			candidates = new BitSet(size);
+			if (within != null) {
+				candidates.or(within);
+			} else {
+				candidates.set(0, size);
+			}
+		} else {
+			// Start from the shortest postings list
+			int[][] lists = new int[term.length() - 2][];
+			for (int i = 0; i < lists.length; i++) {
+				lists[i] = postings.getOrDefault(trigram(term, i), NO_ROWS);
+			}
+			Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+
+			candidates = new BitSet(size);
+			for (int row : lists[0]) {
+				if (within == null || within.get(row)) {
+					candidates.set(row);
+				}
+			}
+			for (int i = 1; i < lists.length && !candidates.isEmpty(); i++) {
+				BitSet rows = new BitSet(size);
+				for (int row : lists[i]) {
+					rows.set(row);
+				}
+				candidates.and(rows);
+			}
+		}
+
+		// The trigrams may appear in a different order, so verify the candidates
+		for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+			if (!text[row].contains(term)) {
+				candidates.clear(row);
+			}
+		}
+		return candidates;
+	}
+
+	Manufacturer getManufacturer(int row) {
+		return manufacturers[row];
+	}
+
+	double getDiameter(int row) {
+		return diameters[row];
+	}
+
+	double getLength(int row) {
+		return lengths[row];
+	}
+
+	long getTotalImpulse(int row) {
+		return totalImpulses[row];
+	}
+
+	boolean isAvailable(int row) {
+		return available[row];
+	}
+
+	/**
+	 * The rows containing a trigram, while the index is being built.
+	 */
+	private static class Postings {
+		private int[] rows = new int[4];
+		private int count = 0;
+
+		private void add(int row) {
+			if (count > 0 && rows[count - 1] == row) {
+				return;
+			}
+			if (count == rows.length) {
+				rows = Arrays.copyOf(rows, count * 2);
+			}
+			rows[count++] = row;
+		}
+
+		private int[] toArray() {
+			return Arrays.copyOf(rows, count);
+		}
+	}
+
+	private static Long trigram(String s, int index) {
+		return ((long) s.charAt(index) << 32) | ((long) s.charAt(index + 1) << 16) | s.charAt(index + 2);
+	}
+}
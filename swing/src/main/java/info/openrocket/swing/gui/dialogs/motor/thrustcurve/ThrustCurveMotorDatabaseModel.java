@@ -5,12 +5,16 @@ import java.util.List;
 import javax.swing.table.AbstractTableModel;
 
 import info.openrocket.core.database.motor.ThrustCurveMotorSet;
+import info.openrocket.core.unit.Unit;
+import info.openrocket.core.unit.UnitGroup;
 
 public class ThrustCurveMotorDatabaseModel extends AbstractTableModel {
 	private final List<ThrustCurveMotorSet> database;
+	private MotorSearchIndex searchIndex;
 	
 	public ThrustCurveMotorDatabaseModel(List<ThrustCurveMotorSet> database) {
 		this.database = database;
+		this.searchIndex = new MotorSearchIndex(database, UnitGroup.UNITS_MOTOR_DIMENSIONS.getDefaultUnit());
 	}
 	
 	@Override
@@ -44,6 +48,18 @@ public class ThrustCurveMotorDatabaseModel extends AbstractTableModel {
 		return database.indexOf(m);
 	}
 	
+	/**
+	 * Return the search index of the motor sets.  The index is rebuilt if the motor
+	 * dimension unit has changed since it was built.
+	 */
+	MotorSearchIndex getSearchIndex() {
+		Unit unit = UnitGroup.UNITS_MOTOR_DIMENSIONS.getDefaultUnit();
+		if (searchIndex.getDimensionUnit() != unit) {
+			searchIndex = new MotorSearchIndex(database, unit);
+		}
+		return searchIndex;
+	}
+	
 	private ThrustCurveMotorColumns getColumn(int index) {
 		return ThrustCurveMotorColumns.values()[index];
 	}
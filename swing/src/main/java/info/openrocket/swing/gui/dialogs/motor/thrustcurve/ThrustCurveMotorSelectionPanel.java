@@ -383,8 +383,10 @@ public class ThrustCurveMotorSelectionPanel extends JPanel implements MotorSelec
 					String text = searchField.getText().trim();
 					String[] split = text.split("\\s+");
 					rowFilter.setSearchTerms(Arrays.asList(split));
-					sorter.sort();
-					scrollSelectionVisible();
+					rowFilter.update(() -> {
+						sorter.sort();
+						scrollSelectionVisible();
+					});
 				}
 			});
 			panel.add(searchField, "span, growx");
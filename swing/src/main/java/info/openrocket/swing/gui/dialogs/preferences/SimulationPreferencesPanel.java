@@ -69,6 +69,19 @@ public class SimulationPreferencesPanel extends PreferencesPanel {
 		});
 		this.add(automaticallyRunSimsBox, "wrap, growx, sg combos ");
 
+		// Pre-generate the wind turbulence when a simulation starts
+		final JCheckBox precomputeWindBox = new JCheckBox(
+				trans.get("pref.dlg.checkbox.Precomputewind"));
+		precomputeWindBox.setToolTipText(trans.get("pref.dlg.checkbox.Precomputewind.ttip"));
+		precomputeWindBox.setSelected(preferences.getPrecomputeWind());
+		precomputeWindBox.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				preferences.setPrecomputeWind(precomputeWindBox.isSelected());
+			}
+		});
+		this.add(precomputeWindBox, "wrap, growx, sg combos ");
+
 		//GeodeticComputationStrategy geodeticComputation = GeodeticComputationStrategy.SPHERICAL;
 
 		JPanel sub, subsub;
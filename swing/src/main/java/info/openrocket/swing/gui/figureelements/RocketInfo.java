@@ -65,6 +65,7 @@ public class RocketInfo implements FigureElement {
 	private boolean showWarnings = true;
 	
 	private boolean calculatingData = false;
+	private boolean preview = false;
 	private Simulation simulation = null;
 	private FlightData flightData = null;
 	
@@ -180,6 +181,7 @@ public class RocketInfo implements FigureElement {
 	
 	public void setFlightData(FlightData data) {
 		this.flightData = data;
+		this.preview = false;
 	}
 
 	public void setSimulation(Simulation simulation) {
@@ -195,6 +197,14 @@ public class RocketInfo implements FigureElement {
 	public void setCalculatingData(boolean calc) {
 		this.calculatingData = calc;
 	}
+
+	/**
+	 * Set whether the flight data is from a preview simulation, which stops at apogee.  The
+	 * flag is cleared when new flight data is set.
+	 */
+	public void setPreview(boolean preview) {
+		this.preview = preview;
+	}
 	
 	private void drawMainInfo() {
 		GlyphVector name = createText(configuration.getRocket().getName());
@@ -464,7 +474,8 @@ public class RocketInfo implements FigureElement {
 		
 		if (calculatingData) {
 			//// Calculating...
-			GlyphVector calculating = createText(trans.get("RocketInfo.Calculating"));
+			GlyphVector calculating = createText(trans.get(preview ? "RocketInfo.CalculatingPreview" :
+					"RocketInfo.Calculating"));
 			g2.setColor(textColor);
 			g2.drawGlyphVector(calculating, x1, (float)(y2-height));
 		}
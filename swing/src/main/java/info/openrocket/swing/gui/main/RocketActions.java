@@ -26,6 +26,7 @@ import javax.swing.event.ListSelectionListener;
 import info.openrocket.core.rocketcomponent.AxialStage;
 import info.openrocket.core.rocketcomponent.ComponentChangeEvent;
 import info.openrocket.core.rocketcomponent.ComponentChangeListener;
+import info.openrocket.core.rocketcomponent.ComponentChangeTransaction;
 import info.openrocket.core.rocketcomponent.ParallelStage;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
@@ -768,23 +769,29 @@ public class RocketActions {
 			}
 
 			List<RocketComponent> successfullyPasted = new LinkedList<>();
-			for (int i = 0; i < pasted.size(); i++) {
-				if (positions.get(i) == null) {
-					JOptionPane.showMessageDialog(null,
-							String.format(trans.get("RocketActions.PasteAct.invalidPosition.msg"),
-									pasted.get(i).getComponentName()),
-							trans.get("RocketActions.PasteAct.invalidPosition.title"), JOptionPane.WARNING_MESSAGE);
-				} else {
-					RocketComponent parent = positions.get(i).getU();
-					RocketComponent child = pasted.get(i);
-					if (parent != null && parent.isCompatible(child)) {
-						parent.addChild(child, positions.get(i).getV());
-						successfullyPasted.add(pasted.get(i));
+			List<RocketComponent> invalidPositions = new LinkedList<>();
+			try (ComponentChangeTransaction transaction = rocket.beginTransaction()) {
+				for (int i = 0; i < pasted.size(); i++) {
+					if (positions.get(i) == null) {
+						invalidPositions.add(pasted.get(i));
 					} else {
-						log.warn("Pasted component {} is not compatible with {}", child, parent);
+						RocketComponent parent = positions.get(i).getU();
+						RocketComponent child = pasted.get(i);
+						if (parent != null && parent.isCompatible(child)) {
+							parent.addChild(child, positions.get(i).getV());
+							successfullyPasted.add(pasted.get(i));
+						} else {
+							log.warn("Pasted component {} is not compatible with {}", child, parent);
+						}
 					}
 				}
 			}
+			for (RocketComponent component : invalidPositions) {
+				JOptionPane.showMessageDialog(null,
+						String.format(trans.get("RocketActions.PasteAct.invalidPosition.msg"),
+								component.getComponentName()),
+						trans.get("RocketActions.PasteAct.invalidPosition.title"), JOptionPane.WARNING_MESSAGE);
+			}
 
 			selectionModel.setSelectedComponents(successfullyPasted);
 			parentFrame.selectTab(BasicFrame.DESIGN_TAB);
@@ -879,8 +886,10 @@ public class RocketActions {
 			Collections.reverse(duplicateComponents);
 			Collections.reverse(positions);
 
-			for (int i = 0; i < duplicateComponents.size(); i++) {
-				positions.get(i).getU().addChild(duplicateComponents.get(i), positions.get(i).getV());
+			try (ComponentChangeTransaction transaction = rocket.beginTransaction()) {
+				for (int i = 0; i < duplicateComponents.size(); i++) {
+					positions.get(i).getU().addChild(duplicateComponents.get(i), positions.get(i).getV());
+				}
 			}
 
 			selectionModel.setSelectedComponents(duplicateComponents);
@@ -935,8 +944,10 @@ public class RocketActions {
 				document.addUndoPosition("Delete components");
 			}
 
-			for (RocketComponent component : components) {
-				deleteComponent(component);
+			try (ComponentChangeTransaction transaction = rocket.beginTransaction()) {
+				for (RocketComponent component : components) {
+					deleteComponent(component);
+				}
 			}
 
 			parentFrame.selectTab(BasicFrame.DESIGN_TAB);
@@ -62,7 +62,6 @@ import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.rocketcomponent.SymmetricComponent;
 import info.openrocket.core.simulation.FlightData;
-import info.openrocket.core.simulation.customexpression.CustomExpression;
 import info.openrocket.core.simulation.customexpression.CustomExpressionSimulationListener;
 import info.openrocket.core.simulation.listeners.SimulationListener;
 import info.openrocket.core.simulation.listeners.system.GroundHitListener;
@@ -92,7 +91,7 @@ import info.openrocket.swing.gui.figureelements.Caret;
 import info.openrocket.swing.gui.figureelements.RocketInfo;
 import info.openrocket.swing.gui.main.BasicFrame;
 import info.openrocket.swing.gui.main.componenttree.ComponentTreeModel;
-import info.openrocket.swing.gui.simulation.SimulationWorker;
+import info.openrocket.swing.gui.simulation.BackgroundSimulationScheduler;
 import info.openrocket.swing.gui.util.SwingPreferences;
 import info.openrocket.swing.utils.CustomClickCountListener;
 import org.slf4j.Logger;
@@ -178,7 +177,7 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 	private ModID flightDataFunctionalID = ModID.INVALID;
     private FlightConfigurationId flightDataMotorID = null;
 
-	private SimulationWorker backgroundSimulationWorker = null;
+	private final BackgroundSimulationScheduler backgroundSimulationScheduler;
 
 	private List<EventListener> listeners = new ArrayList<>();
 
@@ -219,6 +218,16 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 		this.document = document;
 		this.basicFrame = basicFrame;
 		Rocket rkt = document.getRocket();
+
+		// Debounce the background simulations to allow faster UI reaction, and show a preview
+		// up to apogee while the full simulation is running
+		backgroundSimulationScheduler = new BackgroundSimulationScheduler(backgroundSimulationExecutor, 300,
+				() -> new SimulationListener[] {
+						InterruptListener.INSTANCE,
+						GroundHitListener.INSTANCE,
+						new CustomExpressionSimulationListener(document.getCustomExpressions()) },
+				new BackgroundSimulationCallback());
+		backgroundSimulationScheduler.setPreviewEnabled(true);
 		
 		
 		// TODO: FUTURE: calculator selection
@@ -919,11 +928,9 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 		flightDataFunctionalID = curConfig.getRocket().getFunctionalModID();
 		flightDataMotorID = curConfig.getId();
 
-		// Stop previous computation (if any)
-		stopBackgroundSimulation();
-
 		// Check that configuration has motors
 		if (!curConfig.hasMotors()){
+			stopBackgroundSimulation();
 			extraText.setFlightData(FlightData.NaN_DATA);
 			extraText.setCalculatingData(false);
 			return;
@@ -964,9 +971,6 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 	 *                      flight config sim (false)
 	 */
 	private void updateSims(boolean updateAllSims) {
-		// Stop previous computation (if any)
-		stopBackgroundSimulation();
-
 		FlightConfigurationId curID = document.getSelectedConfiguration().getFlightConfigurationID();
 		extraText.setCalculatingData(true);
 		Rocket duplicate = (Rocket)document.getRocket().copy();
@@ -1016,6 +1020,7 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 	 */
 	private void runBackgroundSimulations(List<Simulation> sims, Rocket rkt) {
 		if (sims.size() == 0) {
+			stopBackgroundSimulation();
 			extraText.setCalculatingData(false);
 			for (Simulation sim : document.getSimulations()) {
 				if (updateFlightData(sim)) {
@@ -1038,93 +1043,55 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 				log.info("using pre-existing simulation");
 		}
 
-		backgroundSimulationWorker = new BackgroundSimulationWorker(document, sims);
-		backgroundSimulationExecutor.execute(backgroundSimulationWorker);
+		// Runs for an older version of the rocket are cancelled by the scheduler
+		backgroundSimulationScheduler.schedule(document.getRocket().getFunctionalModID(), sims);
 	}
 
 	/**
-	 * Cancels the current background simulation worker, if any.
+	 * Cancels the pending and current background simulations, if any.
 	 */
 	private void stopBackgroundSimulation() {
-		if (backgroundSimulationWorker != null) {
-			backgroundSimulationWorker.cancel(true);
-			backgroundSimulationWorker = null;
-		}
+		backgroundSimulationScheduler.cancel();
 	}
 
 	/**
-	 * A SimulationWorker that simulates the rocket flight in the background and
-	 * sets the results to the extra text when finished.  The worker can be cancelled
-	 * if necessary.
+	 * @return the scheduler of the background simulations, e.g. for its queue and latency metrics.
 	 */
-	private class BackgroundSimulationWorker extends SimulationWorker {
-
-		private final CustomExpressionSimulationListener exprListener;
-		private final OpenRocketDocument doc;
-		private List<Simulation> sims;
-
-		public BackgroundSimulationWorker(OpenRocketDocument doc, List<Simulation> sims) {
-			super(sims.get(0));
-			this.sims = sims;
-			this.doc = doc;
-			List<CustomExpression> exprs = doc.getCustomExpressions();
-			exprListener = new CustomExpressionSimulationListener(exprs);
-		}
+	public BackgroundSimulationScheduler getBackgroundSimulationScheduler() {
+		return backgroundSimulationScheduler;
+	}
 
-		@Override
-		protected FlightData doInBackground() {
-			extraText.setCalculatingData(true);
-			// Pause a little while to allow faster UI reaction
-			try {
-				Thread.sleep(300);
-			} catch (InterruptedException ignore) {
-			}
-			if (isCancelled() || backgroundSimulationWorker != this)
-				return null;
-			return super.doInBackground();
-		}
+	/**
+	 * Receives the results of the background simulations and sets them to the extra text.
+	 */
+	private class BackgroundSimulationCallback implements BackgroundSimulationScheduler.Callback {
 
 		@Override
-		protected void simulationDone() {
-			// Do nothing if cancelled
-			if (isCancelled() || backgroundSimulationWorker != this)
+		public void simulationDone(Simulation simulation, boolean preview) {
+			if (preview) {
+				// Show the preview data, marked as a preview, until the full simulation is done
+				if (updateFlightData(simulation)) {
+					extraText.setPreview(true);
+					extraText.setCalculatingData(true);
+					repaintFigure();
+				}
 				return;
-			backgroundSimulationWorker = null;
+			}
 
 			// Only set the flight data information of the current flight configuration
-			extraText.setCalculatingData(false);
-			if (!is3d)
-				figure.repaint();
-			else
-				figure3d.repaint();
+			extraText.setCalculatingData(backgroundSimulationScheduler.isBusy());
+			repaintFigure();
 			document.fireDocumentChangeEvent(new SimulationChangeEvent(simulation));
-
-			// Run the new simulation after this one has ended
-			this.sims.remove(0);
-			if (this.sims.size() > 0) {
-				backgroundSimulationWorker = new BackgroundSimulationWorker(this.doc, this.sims);
-				backgroundSimulationExecutor.execute(backgroundSimulationWorker);
-			}
 		}
 
 		@Override
-		protected SimulationListener[] getExtraListeners() {
-			return new SimulationListener[] {
-					InterruptListener.INSTANCE,
-					GroundHitListener.INSTANCE,
-					exprListener };
-
-		}
-
-		@Override
-		protected void simulationInterrupted(Throwable t) {
-			// Do nothing on cancel, set N/A data otherwise
-			if (isCancelled() || backgroundSimulationWorker != this) // Double-check
-				return;
-
-			backgroundSimulationWorker = null;
+		public void simulationFailed(Simulation simulation, Throwable t) {
 			extraText.setFlightData(FlightData.NaN_DATA);
 			extraText.setCalculatingData(false);
+			repaintFigure();
+		}
+
+		private void repaintFigure() {
 			if (!is3d)
 				figure.repaint();
 			else
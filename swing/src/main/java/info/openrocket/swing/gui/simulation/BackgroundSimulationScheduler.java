@@ -0,0 +1,307 @@
+package info.openrocket.swing.gui.simulation;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import javax.swing.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.FlightConfigurationId;
+import info.openrocket.core.simulation.listeners.SimulationListener;
+import info.openrocket.core.simulation.listeners.system.ApogeeEndListener;
+import info.openrocket.core.util.ModID;
+
+/**
+ * Schedules simulations that are run in the background while the rocket is being edited.
+ * <p>
+ * Requests are debounced, so that a burst of edits results in a single run after the edits
+ * have settled.  Requests for the same flight configuration are coalesced, and a request for
+ * a newer rocket (a different functional {@link ModID}) cancels the run in progress, as its
+ * results are already out of date.  The simulations are run one at a time.
+ * <p>
+ * Optionally each simulation is first run as a reduced-fidelity preview, with a coarser time
+ * step and stopping at apogee, followed by the full simulation.
+ * <p>
+ * All methods must be called from the event dispatch thread, and the callback is called
+ * from the event dispatch thread.
+ */
+public class BackgroundSimulationScheduler {
+	private static final Logger log = LoggerFactory.getLogger(BackgroundSimulationScheduler.class);
+
+	/** Time step multiplier of the preview simulations. */
+	private static final double PREVIEW_TIME_STEP_FACTOR = 4;
+
+	/**
+	 * Receives the results of the background simulations.
+	 */
+	public interface Callback {
+		/**
+		 * Called when a simulation has finished.
+		 *
+		 * @param simulation	the simulation.  For a preview this is a copy of the requested simulation.
+		 * @param preview		whether this was the preview run.
+		 */
+		void simulationDone(Simulation simulation, boolean preview);
+
+		/**
+		 * Called when a simulation fails.
+		 *
+		 * @param simulation	the simulation.
+		 * @param t				the cause of the failure.
+		 */
+		void simulationFailed(Simulation simulation, Throwable t);
+	}
+
+	private final Executor executor;
+	private final Supplier<SimulationListener[]> listeners;
+	private final Callback callback;
+	private final Timer debounceTimer;
+
+	// Pending requests by flight configuration, in request order
+	private final Map<FlightConfigurationId, Request> pending = new LinkedHashMap<>();
+	private ModID modID = ModID.INVALID;
+	private Worker running = null;
+	private boolean previewEnabled = false;
+
+	private long requestCount = 0;
+	private long coalescedCount = 0;
+	private long cancelledCount = 0;
+	private long completedCount = 0;
+	private long totalLatency = 0;
+	private long lastLatency = 0;
+
+	/**
+	 * @param executor			the executor to run the simulations on.
+	 * @param debounceDelay		the time to wait after the last request before starting (ms).
+	 * @param listeners			supplies the extra simulation listeners of each run.
+	 * @param callback			the callback for the results.
+	 */
+	public BackgroundSimulationScheduler(Executor executor, int debounceDelay, Supplier<SimulationListener[]> listeners,
+			Callback callback) {
+		this.executor = executor;
+		this.listeners = listeners;
+		this.callback = callback;
+		this.debounceTimer = new Timer(debounceDelay, e -> startNext());
+		this.debounceTimer.setRepeats(false);
+	}
+
+	/**
+	 * Request simulations to be run.  A pending request for the same flight configuration is
+	 * replaced, and a run in progress is cancelled if it was for a different rocket state.
+	 *
+	 * @param modID			the functional modification ID of the rocket.
+	 * @param simulations	the simulations to run, in order.
+	 */
+	public void schedule(ModID modID, List<Simulation> simulations) {
+		if (modID != this.modID) {
+			this.modID = modID;
+			cancelRunning();
+		}
+
+		long now = System.nanoTime();
+		for (Simulation simulation : simulations) {
+			requestCount++;
+			long requestTime = now;
+			Request previous = pending.remove(simulation.getFlightConfigurationId());
+			if (previous != null) {
+				coalescedCount++;
+				requestTime = previous.requestTime;
+			} else if (running != null && running.request.simulation == simulation) {
+				// Already being simulated for the same rocket
+				coalescedCount++;
+				continue;
+			}
+			pending.put(simulation.getFlightConfigurationId(), new Request(simulation, requestTime));
+		}
+		debounceTimer.restart();
+	}
+
+	/**
+	 * Cancel all pending requests and the run in progress.
+	 */
+	public void cancel() {
+		debounceTimer.stop();
+		pending.clear();
+		cancelRunning();
+	}
+
+	/**
+	 * Set whether each simulation is preceded by a reduced-fidelity preview run.
+	 */
+	public void setPreviewEnabled(boolean previewEnabled) {
+		this.previewEnabled = previewEnabled;
+	}
+
+	public boolean isPreviewEnabled() {
+		return previewEnabled;
+	}
+
+	/**
+	 * @return the number of requests waiting to be run, excluding the run in progress.
+	 */
+	public int getQueueDepth() {
+		return pending.size();
+	}
+
+	/**
+	 * @return whether a simulation is in progress or pending.
+	 */
+	public boolean isBusy() {
+		return running != null || !pending.isEmpty();
+	}
+
+	/**
+	 * @return the total number of simulations requested.
+	 */
+	public long getRequestCount() {
+		return requestCount;
+	}
+
+	/**
+	 * @return the number of requests that were merged into another request.
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount;
+	}
+
+	/**
+	 * @return the number of runs cancelled because they were superseded.
+	 */
+	public long getCancelledCount() {
+		return cancelledCount;
+	}
+
+	/**
+	 * @return the number of completed full simulations.
+	 */
+	public long getCompletedCount() {
+		return completedCount;
+	}
+
+	/**
+	 * @return the time from the request to the result of the latest completed simulation (ms).
+	 */
+	public double getLastLatency() {
+		return lastLatency / 1e6;
+	}
+
+	/**
+	 * @return the average time from the request to the result of the completed simulations (ms).
+	 */
+	public double getAverageLatency() {
+		return completedCount == 0 ? Double.NaN : totalLatency / 1e6 / completedCount;
+	}
+
+	private void cancelRunning() {
+		if (running != null) {
+			running.cancel(true);
+			running = null;
+			cancelledCount++;
+		}
+	}
+
+	/**
+	 * Start the next pending request, unless a simulation is in progress.  Called when the
+	 * debounce delay has passed and when a simulation finishes.
+	 */
+	void startNext() {
+		if (running != null || pending.isEmpty()) {
+			return;
+		}
+		Iterator<Request> iterator = pending.values().iterator();
+		Request request = iterator.next();
+		iterator.remove();
+		start(request, previewEnabled);
+	}
+
+	private void start(Request request, boolean preview) {
+		running = new Worker(request, preview);
+		executor.execute(running);
+	}
+
+	private void completed(Request request) {
+		long latency = System.nanoTime() - request.requestTime;
+		lastLatency = latency;
+		totalLatency += latency;
+		completedCount++;
+		log.debug("Background simulation '" + request.simulation.getName() + "' done in " + (latency / 1000000) +
+				" ms, queue depth " + pending.size() + ", average latency " + getAverageLatency() + " ms");
+	}
+
+	private static class Request {
+		private final Simulation simulation;
+		private final long requestTime;
+
+		private Request(Simulation simulation, long requestTime) {
+			this.simulation = simulation;
+			this.requestTime = requestTime;
+		}
+	}
+
+	private static Simulation createPreview(Simulation simulation) {
+		Simulation preview = simulation.copy();
+		preview.getOptions().setTimeStep(preview.getOptions().getTimeStep() * PREVIEW_TIME_STEP_FACTOR);
+		return preview;
+	}
+
+	private class Worker extends SimulationWorker {
+		private final Request request;
+		private final boolean preview;
+
+		private Worker(Request request, boolean preview) {
+			super(preview ? createPreview(request.simulation) : request.simulation);
+			this.request = request;
+			this.preview = preview;
+		}
+
+		@Override
+		protected SimulationListener[] getExtraListeners() {
+			SimulationListener[] extra = listeners.get();
+			if (preview) {
+				extra = Arrays.copyOf(extra, extra.length + 1);
+				extra[extra.length - 1] = ApogeeEndListener.INSTANCE;
+			}
+			return extra;
+		}
+
+		@Override
+		protected void simulationDone() {
+			// Do nothing if cancelled or superseded
+			if (isCancelled() || running != this)
+				return;
+			running = null;
+
+			callback.simulationDone(simulation, preview);
+			if (preview) {
+				start(request, false);
+			} else {
+				completed(request);
+				startNext();
+			}
+		}
+
+		@Override
+		protected void simulationInterrupted(Throwable t) {
+			if (isCancelled() || running != this)
+				return;
+			running = null;
+
+			if (preview) {
+				// The full simulation reports any problem
+				log.debug("Preview simulation failed", t);
+				start(request, false);
+			} else {
+				callback.simulationFailed(simulation, t);
+				startNext();
+			}
+		}
+	}
+}
@@ -11,6 +11,7 @@ import java.awt.Window;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.prefs.BackingStoreException;
 import java.util.prefs.InvalidPreferencesFormatException;
 import java.util.prefs.Preferences;
 
@@ -49,14 +50,19 @@ public abstract class PreferencesImporter {
      */
     public static boolean importPreferences(File importFile) {
         try (FileInputStream fis = new FileInputStream(importFile)) {
+            // The preferences are imported directly into the backing store, so write the
+            // pending changes before and reload the cached values after the import
+            Preferences preferences = Application.getPreferences().getPreferences();
+            preferences.flush();
             Preferences.importPreferences(fis);
+            preferences.sync();
 
             // Ensure units are updated
             ((SwingPreferences) Application.getPreferences()).loadDefaultUnits();
 
             log.info("Preferences imported successfully.");
             return true;
-        } catch (IOException | InvalidPreferencesFormatException e) {
+        } catch (IOException | InvalidPreferencesFormatException | BackingStoreException e) {
             log.warn("Error while importing preferences: " + e.getMessage());
         }
         return false;
@@ -23,6 +23,7 @@ import java.util.prefs.Preferences;
 
 import info.openrocket.core.database.Databases;
 import info.openrocket.core.preferences.ApplicationPreferences;
+import info.openrocket.core.preferences.WriteBehindPreferences;
 import info.openrocket.core.rocketcomponent.NoseCone;
 import info.openrocket.core.componentanalysis.CADataType;
 import info.openrocket.swing.gui.theme.UITheme;
@@ -103,7 +104,7 @@ public class SwingPreferences extends ApplicationPreferences {
 	 */
 	private static final String NODENAME = (DEBUG ? "OpenRocket-debug" : "OpenRocket");
 	
-	private Preferences PREFNODE;
+	private WriteBehindPreferences PREFNODE;
 	
 	
 	public SwingPreferences() {
@@ -117,7 +118,7 @@ public class SwingPreferences extends ApplicationPreferences {
 				throw new BugException("Unable to clear preference node", e);
 			}
 		}
-		PREFNODE = root.node(NODENAME);
+		PREFNODE = new WriteBehindPreferences(root.node(NODENAME));
 		fillDefaultComponentColors();
 	}
 
@@ -168,11 +169,13 @@ public class SwingPreferences extends ApplicationPreferences {
 	
 	public void clearPreferences() {
 		try {
+			// Write pending changes first so that they are not written to the new node later
+			PREFNODE.close();
 			Preferences root = Preferences.userRoot();
 			if (root.nodeExists(NODENAME)) {
 				root.node(NODENAME).removeNode();
 			}
-			PREFNODE = root.node(NODENAME);
+			PREFNODE = new WriteBehindPreferences(root.node(NODENAME));
 			UnitGroup.resetDefaultUnits();
 			storeDefaultUnits();
 			log.info("Cleared preferences");
@@ -195,12 +198,7 @@ public class SwingPreferences extends ApplicationPreferences {
 	 * @return true if the key is stored in the preferences, false otherwise
 	 */
 	private boolean keyExists(Preferences node, String key) {
-		try {
-			return Arrays.asList(node.keys()).contains(key);
-		} catch (BackingStoreException e) {
-			e.printStackTrace();
-			return false;
-		}
+		return key != null && node.get(key, null) != null;
 	}
 
 	/**
@@ -214,11 +212,6 @@ public class SwingPreferences extends ApplicationPreferences {
 	public String getString(String key, String def) {
 		if (!keyExists(PREFNODE, key) && key != null && def != null) {
 			PREFNODE.put(key, def);
-			try {
-				PREFNODE.flush();
-			} catch (BackingStoreException e) {
-				e.printStackTrace();
-			}
 		}
 		return PREFNODE.get(key, def);
 	}
@@ -228,11 +221,6 @@ public class SwingPreferences extends ApplicationPreferences {
 		Preferences p = PREFNODE.node(directory);
 		if (!keyExists(p, key) && key != null && defaultValue != null) {
 			p.put(key, defaultValue);
-			try {
-				p.flush();
-			} catch (BackingStoreException e) {
-				e.printStackTrace();
-			}
 		}
 		return p.get(key, defaultValue);
 	}
@@ -277,11 +265,6 @@ public class SwingPreferences extends ApplicationPreferences {
 		if (!keyExists(PREFNODE, key) && key != null) {
 			// Save the default value
 			PREFNODE.putBoolean(key, def);
-			try {
-				PREFNODE.flush();
-			} catch (BackingStoreException e) {
-				e.printStackTrace();
-			}
 		}
 		return PREFNODE.getBoolean(key, def);
 	}
@@ -302,11 +285,6 @@ public class SwingPreferences extends ApplicationPreferences {
 	public int getInt(String key, int defaultValue) {
 		if (!keyExists(PREFNODE, key) && key != null) {
 			PREFNODE.putInt(key, defaultValue);
-			try {
-				PREFNODE.flush();
-			} catch (BackingStoreException e) {
-				e.printStackTrace();
-			}
 		}
 		return PREFNODE.getInt(key, defaultValue);
 	}
@@ -321,11 +299,6 @@ public class SwingPreferences extends ApplicationPreferences {
 	public double getDouble(String key, double defaultValue) {
 		if (!keyExists(PREFNODE, key) && key != null) {
 			PREFNODE.putDouble(key, defaultValue);
-			try {
-				PREFNODE.flush();
-			} catch (BackingStoreException e) {
-				e.printStackTrace();
-			}
 		}
 		return PREFNODE.getDouble(key, defaultValue);
 	}
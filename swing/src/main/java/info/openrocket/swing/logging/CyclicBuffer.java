@@ -2,10 +2,11 @@ package info.openrocket.swing.logging;
 
 import java.util.AbstractQueue;
 import java.util.ArrayList;
-import java.util.ConcurrentModificationException;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * A cyclic buffer with a fixed size.  When more data is inserted, the newest
@@ -15,162 +16,183 @@ import java.util.NoSuchElementException;
  * contract by overwriting (removing) data without specific removal.  It also
  * currently does not support removing arbitrary elements from the set.
  * <p>
- * The methods in this class are synchronized for concurrent modification.
- * However, iterating over the set is not thread-safe.  To obtain a snapshot
- * of the state of the buffer, use {@link #asList()}.
- * 
+ * The buffer is lock-free and may be used by any number of producer and consumer
+ * threads.  Every inserted element gets a ticket from a shared counter and is
+ * written to the slot of its ticket together with the ticket number, so that
+ * readers can tell apart the current element of a slot from a stale or
+ * not-yet-written one.  A slot only ever moves to a later ticket, so a producer
+ * that is delayed until its element has already been overwritten drops it.
+ * Producers never wait for each other or for readers.
+ * <p>
+ * Iteration is done over a snapshot of the buffer taken when the iterator is
+ * created, see {@link #asList()}.  Elements that are being written by other
+ * threads while the snapshot is taken may be missing from it.
+ *
  * @param <E>	the object type that is stored.
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
 public class CyclicBuffer<E> extends AbstractQueue<E> {
 
-	private final ArrayList<E> buffer;
+	private final AtomicReferenceArray<Entry<E>> buffer;
 	private final int maxSize;
-	
-	private int startPosition = 0;
-	private int size = 0;
-	private int overwriteCount = 0;
-	
-	private int modCount = 0;
-	
+
+	/** Ticket of the oldest element in the buffer. */
+	private final AtomicLong head = new AtomicLong();
+	/** Ticket of the next element to be inserted. */
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong overwriteCount = new AtomicLong();
+
 
 	/**
 	 * Create a cyclic buffer of the specified size.
-	 * 
+	 *
 	 * @param size	the size of the cyclic buffer.
 	 */
 	public CyclicBuffer(int size) {
-		this.buffer = new ArrayList<>(size);
-		for (int i=0; i<size; i++) {
-			this.buffer.add(null);
+		if (size <= 0) {
+			throw new IllegalArgumentException("size=" + size);
 		}
+		this.buffer = new AtomicReferenceArray<>(size);
 		this.maxSize = size;
 	}
 
-	
+
 
 	@Override
-	public synchronized boolean offer(E e) {
-		buffer.set((startPosition + size) % maxSize, e);
-		if (size < maxSize) {
-			size++;
-		} else {
-			startPosition = next(startPosition);
-			overwriteCount++;
+	public boolean offer(E e) {
+		final long ticket = tail.getAndIncrement();
+
+		// Drop the oldest elements to make room for this one
+		final long oldest = ticket + 1 - maxSize;
+		long h;
+		while ((h = head.get()) < oldest) {
+			if (head.compareAndSet(h, oldest)) {
+				overwriteCount.addAndGet(oldest - h);
+				break;
+			}
+		}
+
+		// Publish the element unless a later producer has already overwritten the slot
+		final int index = index(ticket);
+		final Entry<E> entry = new Entry<>(ticket, e);
+		Entry<E> current;
+		while ((current = buffer.get(index)) == null || current.ticket < ticket) {
+			if (buffer.compareAndSet(index, current, entry)) {
+				break;
+			}
 		}
-		
-		modCount++;
 		return true;
 	}
 
-	
+
 	@Override
-	public synchronized E peek() {
-		if (size == 0)
-			return null;
-		return buffer.get(startPosition);
+	public E peek() {
+		while (true) {
+			final long h = head.get();
+			if (h >= tail.get()) {
+				return null;
+			}
+			Entry<E> entry = buffer.get(index(h));
+			if (entry != null && entry.ticket == h && head.get() == h) {
+				return entry.element;
+			}
+			// The element is still being written or was just overwritten or removed
+			Thread.onSpinWait();
+		}
 	}
 
-	
+
 	@Override
-	public synchronized E poll() {
-		if (size == 0)
-			return null;
-		
-		E element = buffer.get(startPosition);
-		startPosition = next(startPosition);
-		size--;
-		
-		modCount++;
-		return element;
+	public E poll() {
+		while (true) {
+			final long h = head.get();
+			if (h >= tail.get()) {
+				return null;
+			}
+			Entry<E> entry = buffer.get(index(h));
+			if (entry != null && entry.ticket == h) {
+				if (head.compareAndSet(h, h + 1)) {
+					return entry.element;
+				}
+			} else {
+				// The element is still being written or was just overwritten
+				Thread.onSpinWait();
+			}
+		}
 	}
 
-	
+
 	@Override
-	public synchronized int size() {
-		return size;
+	public int size() {
+		final long h = head.get();
+		final long t = tail.get();
+		return (int) Math.max(0, Math.min(t - h, maxSize));
 	}
-	
+
 
 	@Override
-	public synchronized Iterator<E> iterator() {
-		return new CyclicBufferIterator();
+	public Iterator<E> iterator() {
+		return Collections.unmodifiableList(asList()).iterator();
 	}
 
 
 	/**
 	 * Return a snapshot of the current buffered objects in the order they
 	 * were placed in the buffer.  The list is independent of the buffer.
-	 * 
+	 *
 	 * @return	a list of the buffered objects.
 	 */
-	public synchronized List<E> asList() {
-		ArrayList<E> list = new ArrayList<>(size);
-		if (startPosition + size > maxSize) {
-			list.addAll(buffer.subList(startPosition, maxSize));
-			list.addAll(buffer.subList(0, startPosition + size - maxSize));
-		} else {
-			list.addAll(buffer.subList(startPosition, startPosition+size));
+	public List<E> asList() {
+		final long t = tail.get();
+		final long h = Math.max(head.get(), t - maxSize);
+		List<Entry<E>> entries = new ArrayList<>((int) Math.max(0, t - h));
+		for (long ticket = h; ticket < t; ticket++) {
+			Entry<E> entry = buffer.get(index(ticket));
+			// Skip elements that are still being written or have already been overwritten
+			if (entry != null && entry.ticket == ticket) {
+				entries.add(entry);
+			}
+		}
+
+		// Skip elements removed while the snapshot was taken
+		final long first = head.get();
+		ArrayList<E> list = new ArrayList<>(entries.size());
+		for (Entry<E> entry : entries) {
+			if (entry.ticket >= first) {
+				list.add(entry.element);
+			}
 		}
 		return list;
 	}
 
-	
+
 	/**
 	 * Return the number of elements that have been overwritten in the buffer.
 	 * The overwritten elements are the elements that have been added to the
 	 * buffer, have not been explicitly removed but are not present in the list.
-	 * 
+	 *
 	 * @return	the number of overwritten elements this far.
 	 */
-	public synchronized int getOverwriteCount() {
-		return overwriteCount;
-	}
-	
-	
-	private int next(int n) {
-		return (n+1) % maxSize;
+	public int getOverwriteCount() {
+		return (int) Math.min(overwriteCount.get(), Integer.MAX_VALUE);
 	}
-	
-	
-	private class CyclicBufferIterator implements Iterator<E> {
 
-		private int expectedModCount;
-		private int n = 0;
 
-		public CyclicBufferIterator() {
-			this.expectedModCount = modCount;
-		}
+	private int index(long ticket) {
+		return (int) (ticket % maxSize);
+	}
 
-		@Override
-		public boolean hasNext() {
-			synchronized (CyclicBuffer.this) {
-				if (expectedModCount != modCount) {
-					throw new ConcurrentModificationException("expectedModCount="+
-							expectedModCount+" modCount=" + modCount);
-				}
-				return (n < size);
-			}
-		}
 
-		@Override
-		public E next() {
-			synchronized (CyclicBuffer.this) {
-				if (expectedModCount != modCount) {
-					throw new ConcurrentModificationException("expectedModCount="+
-							expectedModCount+" modCount=" + modCount);
-				}
-				if (n >= size) {
-					throw new NoSuchElementException("n="+n+" size="+size);
-				}
-				n++;
-				return buffer.get((startPosition + n-1) % maxSize);
-			}
-		}
+	/**
+	 * An element together with the ticket it was inserted with.
+	 */
+	private static final class Entry<E> {
+		private final long ticket;
+		private final E element;
 
-		@Override
-		public void remove() {
-			throw new UnsupportedOperationException("random remove not supported");
+		private Entry(long ticket, E element) {
+			this.ticket = ticket;
+			this.element = element;
 		}
 	}
 }
@@ -1,5 +1,7 @@
 package info.openrocket.swing.startup;
 
+import java.util.Locale;
+
 import info.openrocket.core.database.ComponentPresetDao;
 import info.openrocket.core.database.motor.MotorDatabase;
 import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
@@ -10,6 +12,7 @@ import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.preferences.ApplicationPreferences;
 import info.openrocket.core.database.ComponentPresetDatabaseLoader;
 import info.openrocket.core.database.MotorDatabaseLoader;
+import info.openrocket.core.startup.Application;
 import info.openrocket.swing.gui.util.SwingPreferences;
 import info.openrocket.swing.gui.watcher.WatchService;
 import info.openrocket.swing.gui.watcher.WatchServiceImpl;
@@ -68,13 +71,18 @@ public class GuiModule extends AbstractModule {
 	 * startLoader must be called after the Injector created with this module is registered
 	 * in the Application object.  This is because loading the database data requires the Application
 	 * object's locator methods to return the correct objects.
+	 * <p>
+	 * The translator is set up first, as it selects the locale the preset materials are
+	 * translated to.
 	 */
 	public void startLoader() {
 		boolean bypassPresets = System.getProperty("openrocket.bypass.presets") != null;
 		boolean bypassMotors = System.getProperty("openrocket.bypass.motors") != null;
 
 		if (!bypassPresets) {
-			presetLoader.startLoading();
+			// Setting up the translator also sets the default locale
+			Application.getTranslator();
+			presetLoader.startLoading(Locale.getDefault());
 		} else {
 			presetLoader.markAsLoaded();
 		}
@@ -85,4 +93,13 @@ public class GuiModule extends AbstractModule {
 		}
 	}
 	
+	/**
+	 * Block the current thread until both databases have been loaded.  startLoader must
+	 * have been called before.
+	 */
+	public void blockUntilLoaded() {
+		presetLoader.blockUntilLoaded();
+		motorLoader.blockUntilLoaded();
+	}
+	
 }
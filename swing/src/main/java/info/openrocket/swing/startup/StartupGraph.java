@@ -0,0 +1,198 @@
+package info.openrocket.swing.startup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The startup phases of the application and their dependencies.
+ * <p>
+ * A phase is run as soon as all the phases it depends on have completed, so
+ * independent phases run in parallel.  Phases that use Swing are run in the
+ * EDT, the others in background threads.  The dependencies of a phase must be
+ * added before it, which also makes the graph acyclic.
+ * <p>
+ * If a phase fails, no further phases are started and {@link #run()} throws
+ * the failure once the phases already running have ended.
+ */
+public class StartupGraph {
+
+	private static final Logger log = LoggerFactory.getLogger(StartupGraph.class);
+
+	/**
+	 * The work of a startup phase.
+	 */
+	public interface Task {
+		void run() throws Exception;
+	}
+
+	private final StartupTrace trace;
+	private final Map<String, Phase> phases = new LinkedHashMap<>();
+
+	private ExecutorService executor;
+	private int running = 0;
+	private int completed = 0;
+	private Phase failed = null;
+	private Throwable failure = null;
+
+	/**
+	 * @param trace		the trace to record the timing of the phases to.
+	 */
+	public StartupGraph(StartupTrace trace) {
+		this.trace = trace;
+	}
+
+	/**
+	 * Add a phase that is run in a background thread.
+	 *
+	 * @param name			the unique name of the phase.
+	 * @param task			the work of the phase.
+	 * @param dependencies	the names of the phases that must complete before this one.
+	 */
+	public void addPhase(String name, Task task, String... dependencies) {
+		add(name, false, task, dependencies);
+	}
+
+	/**
+	 * Add a phase that is run in the EDT.
+	 *
+	 * @param name			the unique name of the phase.
+	 * @param task			the work of the phase.
+	 * @param dependencies	the names of the phases that must complete before this one.
+	 */
+	public void addEDTPhase(String name, Task task, String... dependencies) {
+		add(name, true, task, dependencies);
+	}
+
+	private void add(String name, boolean edt, Task task, String... dependencies) {
+		if (phases.containsKey(name)) {
+			throw new IllegalArgumentException("Startup phase " + name + " already added");
+		}
+		Phase phase = new Phase(name, edt, task, dependencies.length);
+		for (String dependency : dependencies) {
+			Phase d = phases.get(dependency);
+			if (d == null) {
+				throw new IllegalArgumentException("Startup phase " + name + " depends on unknown phase " + dependency);
+			}
+			d.dependents.add(phase);
+		}
+		phases.put(name, phase);
+	}
+
+	/**
+	 * Run all the phases and wait for them to complete.  This must not be called in the EDT.
+	 *
+	 * @throws ExecutionException	if a phase failed, with the failure as the cause.
+	 * @throws InterruptedException	if the current thread was interrupted while waiting.
+	 */
+	public void run() throws ExecutionException, InterruptedException {
+		if (SwingUtilities.isEventDispatchThread()) {
+			throw new IllegalStateException("The startup phases cannot be run in the EDT");
+		}
+
+		final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		final AtomicInteger threads = new AtomicInteger();
+		executor = Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, "StartupThread-" + threads.incrementAndGet());
+			t.setDaemon(true);
+			t.setContextClassLoader(contextClassLoader);
+			return t;
+		});
+
+		try {
+			synchronized (this) {
+				long now = System.nanoTime();
+				for (Phase phase : phases.values()) {
+					if (phase.remaining == 0) {
+						schedule(phase, now);
+					}
+				}
+				while (running > 0) {
+					wait();
+				}
+				if (failure != null) {
+					throw new ExecutionException("Startup phase " + failed.name + " failed", failure);
+				}
+				if (completed != phases.size()) {
+					throw new IllegalStateException("Only " + completed + " of " + phases.size() +
+							" startup phases completed");
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Start a phase whose dependencies have completed.  Must be called holding the lock.
+	 */
+	private void schedule(final Phase phase, final long ready) {
+		running++;
+		Runnable runnable = () -> execute(phase, ready);
+		if (phase.edt) {
+			SwingUtilities.invokeLater(runnable);
+		} else {
+			executor.execute(runnable);
+		}
+	}
+
+	private void execute(Phase phase, long ready) {
+		long start = System.nanoTime();
+		Throwable error = null;
+		try {
+			phase.task.run();
+		} catch (Throwable t) {
+			error = t;
+		}
+		long end = System.nanoTime();
+		trace.record(phase.name, Thread.currentThread().getName(), ready, start, end);
+		log.info("Startup phase " + phase.name + " took " + (end - start) / 1000000 + " ms" +
+				(error != null ? " and failed" : ""));
+
+		synchronized (this) {
+			running--;
+			if (error != null) {
+				if (failure == null) {
+					failed = phase;
+					failure = error;
+				}
+			} else {
+				completed++;
+				if (failure == null) {
+					for (Phase dependent : phase.dependents) {
+						dependent.remaining--;
+						if (dependent.remaining == 0) {
+							schedule(dependent, end);
+						}
+					}
+				}
+			}
+			notifyAll();
+		}
+	}
+
+	private static class Phase {
+		private final String name;
+		private final boolean edt;
+		private final Task task;
+		private final List<Phase> dependents = new ArrayList<>();
+		private int remaining;
+
+		private Phase(String name, boolean edt, Task task, int dependencies) {
+			this.name = name;
+			this.edt = edt;
+			this.task = task;
+			this.remaining = dependencies;
+		}
+	}
+}
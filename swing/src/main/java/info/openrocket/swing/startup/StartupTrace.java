@@ -0,0 +1,98 @@
+package info.openrocket.swing.startup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Timing of the startup phases, for finding what slows down the startup.
+ * <p>
+ * Each phase records when it became ready to run (all its dependencies were
+ * completed), when it started and when it ended.  The times are reported in
+ * milliseconds since the creation of the trace.  The report is printed when
+ * OpenRocket is started with the <code>--startup-trace</code> option.
+ */
+public class StartupTrace {
+
+	private final long origin;
+	private final List<Entry> entries = new ArrayList<>();
+
+	public StartupTrace() {
+		this.origin = System.nanoTime();
+	}
+
+	/**
+	 * Record a phase.
+	 *
+	 * @param name		the name of the phase.
+	 * @param thread	the name of the thread the phase was run in.
+	 * @param ready		the time the phase was ready to run, from {@link System#nanoTime()}.
+	 * @param start		the time the phase was started.
+	 * @param end		the time the phase ended.
+	 */
+	public void record(String name, String thread, long ready, long start, long end) {
+		synchronized (entries) {
+			entries.add(new Entry(name, thread, ready, start, end));
+		}
+	}
+
+	/**
+	 * @return	the duration of the phase in milliseconds, or NaN if it has not been recorded.
+	 */
+	public double getDuration(String name) {
+		synchronized (entries) {
+			for (Entry e : entries) {
+				if (e.name.equals(name)) {
+					return toMillis(e.end - e.start);
+				}
+			}
+		}
+		return Double.NaN;
+	}
+
+	/**
+	 * @return	a table of the recorded phases in the order they were started.
+	 */
+	public String getReport() {
+		List<Entry> list;
+		synchronized (entries) {
+			list = new ArrayList<>(entries);
+		}
+		list.sort(Comparator.comparingLong((Entry e) -> e.start).thenComparingLong(e -> e.end));
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("Startup trace (ms since startup):\n");
+		sb.append(String.format(Locale.ROOT, "%-24s %-24s %9s %9s %9s %9s%n",
+				"Phase", "Thread", "Ready", "Start", "End", "Duration"));
+		long last = origin;
+		for (Entry e : list) {
+			sb.append(String.format(Locale.ROOT, "%-24s %-24s %9.1f %9.1f %9.1f %9.1f%n", e.name, e.thread,
+					toMillis(e.ready - origin), toMillis(e.start - origin), toMillis(e.end - origin),
+					toMillis(e.end - e.start)));
+			last = Math.max(last, e.end);
+		}
+		sb.append(String.format(Locale.ROOT, "Total %.1f ms%n", toMillis(last - origin)));
+		return sb.toString();
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1e6;
+	}
+
+	private static class Entry {
+		private final String name;
+		private final String thread;
+		private final long ready;
+		private final long start;
+		private final long end;
+
+		private Entry(String name, String thread, long ready, long start, long end) {
+			this.name = name;
+			this.thread = thread;
+			this.ready = ready;
+			this.start = start;
+			this.end = end;
+		}
+	}
+}
@@ -4,13 +4,19 @@ import java.awt.GraphicsEnvironment;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.IntStream;
 
 import javax.swing.JOptionPane;
-import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 import javax.swing.ToolTipManager;
 
@@ -53,10 +59,32 @@ public class SwingStartup {
 	
 	private final static Logger log = LoggerFactory.getLogger(SwingStartup.class);
 	
+	/** Command line option that prints the startup trace, or writes it to a file with --startup-trace=file */
+	private static final String STARTUP_TRACE_OPTION = "--startup-trace";
+	
+	private final StartupTrace trace;
+	private final GuiModule guiModule = new GuiModule();
+	private UpdateInfoRetriever updateRetriever;
+	private long databaseLoadingStart;
+	
 	/**
 	 * OpenRocket startup main method.
 	 */
-	public static void main(final String[] args) throws Exception {
+	public static void main(final String[] arguments) throws Exception {
+		final StartupTrace trace = new StartupTrace();
+		final long start = System.nanoTime();
+		
+		// The startup trace option is not a file to open
+		final List<String> files = new ArrayList<>();
+		String traceOption = null;
+		for (String arg : arguments) {
+			if (arg.equals(STARTUP_TRACE_OPTION) || arg.startsWith(STARTUP_TRACE_OPTION + "=")) {
+				traceOption = arg.substring(STARTUP_TRACE_OPTION.length());
+			} else {
+				files.add(arg);
+			}
+		}
+		final String[] args = files.toArray(new String[0]);
 
 		// Check for "openrocket.debug" property before anything else
 		checkDebugStatus();
@@ -84,19 +112,23 @@ public class SwingStartup {
 			OSXSetup.setupOSX();
 		}
 		
-		final SwingStartup runner = new SwingStartup();
+		final SwingStartup runner = new SwingStartup(trace);
+		trace.record("preparation", Thread.currentThread().getName(), start, start, System.nanoTime());
 		
-		// Run the actual startup method in the EDT since it can use progress dialogs etc.
-		log.info("Moving startup to EDT");
-		SwingUtilities.invokeAndWait(new Runnable() {
-			@Override
-			public void run() {
-				runner.runInEDT(args);
-			}
-		});
+		// Run the startup phases, the ones using Swing in the EDT since they can use progress dialogs etc.
+		log.info("Running startup phases");
+		runner.runStartup(args);
 		
 		log.info("Startup complete");
 		
+		if (traceOption != null) {
+			runner.reportStartupTrace(traceOption);
+		}
+		
+	}
+
+	private SwingStartup(StartupTrace trace) {
+		this.trace = trace;
 	}
 
 	/**
@@ -172,71 +204,120 @@ public class SwingStartup {
 	}
 	
 	/**
-	 * Run in the EDT when starting up OpenRocket.
+	 * Run the startup phases.  Phases that do not depend on each other run in parallel,
+	 * the phases using Swing in the EDT and the others in background threads.
 	 *
 	 * @param args	command line arguments
 	 */
-	private void runInEDT(String[] args) {
+	private void runStartup(final String[] args) throws ExecutionException, InterruptedException {
+		StartupGraph graph = new StartupGraph(trace);
 		
 		// Initialize the splash screen with version info
-		log.info("Initializing the splash screen");
-		Splash.init();
+		graph.addEDTPhase("splash", Splash::init);
 		
 		// Setup the uncaught exception handler
-		log.info("Registering exception handler");
-		SwingExceptionHandler exceptionHandler = new SwingExceptionHandler();
-		Application.setExceptionHandler(exceptionHandler);
-		exceptionHandler.registerExceptionHandler();
+		graph.addEDTPhase("exceptionHandler", () -> {
+			SwingExceptionHandler exceptionHandler = new SwingExceptionHandler();
+			Application.setExceptionHandler(exceptionHandler);
+			exceptionHandler.registerExceptionHandler();
+		});
 		
-		// Load motors etc.
-		log.info("Loading databases");
+		// Create the injector, this also finds the plugins
+		graph.addPhase("injector", () -> {
+			Module pluginModule = new PluginModule();
+			Injector injector = Guice.createInjector(guiModule, pluginModule);
+			Application.setInjector(injector);
+		});
 		
-		GuiModule guiModule = new GuiModule();
-		Module pluginModule = new PluginModule();
-		Injector injector = Guice.createInjector(guiModule, pluginModule);
-		Application.setInjector(injector);
+		// Set up the translator, which also sets the default locale
+		graph.addPhase("translator", Application::getTranslator, "injector");
 		
-		guiModule.startLoader();
+		// Load motors etc.  The loaders use the translator and the default locale, so they wait for them
+		graph.addPhase("databases", () -> {
+			log.info("Loading databases");
+			databaseLoadingStart = System.nanoTime();
+			guiModule.startLoader();
+		}, "translator");
 		
 		// Start update info fetching
-		final UpdateInfoRetriever updateRetriever = startUpdateChecker();
+		graph.addPhase("updateCheck", () -> updateRetriever = startUpdateChecker(), "injector");
 		
-		// Set the look-and-feel
-		log.info("Setting LAF");
-		String cmdLAF = System.getProperty("openrocket.laf");
-		if (cmdLAF != null) {
-			log.info("Setting cmd line LAF '{}'", cmdLAF);
-			ApplicationPreferences prefs = Application.getPreferences();
-			prefs.setUITheme(UITheme.Themes.valueOf(cmdLAF));
-		}
-		GUIUtil.applyLAF();
+		// Load the material database and defaults
+		graph.addPhase("materials", Databases::fakeMethod, "translator");
+		graph.addPhase("defaults", () -> {
+			((SwingPreferences) Application.getPreferences()).loadDefaultUnits();
+			((SwingPreferences) Application.getPreferences()).loadDefaultComponentMaterials();
+		}, "materials");
 		
-		// Set tooltip delay time.  Tooltips are used in MotorChooserDialog extensively.
-		ToolTipManager.sharedInstance().setDismissDelay(30000);
+		// Set the look-and-feel
+		graph.addEDTPhase("lookAndFeel", () -> {
+			log.info("Setting LAF");
+			String cmdLAF = System.getProperty("openrocket.laf");
+			if (cmdLAF != null) {
+				log.info("Setting cmd line LAF '{}'", cmdLAF);
+				ApplicationPreferences prefs = Application.getPreferences();
+				prefs.setUITheme(UITheme.Themes.valueOf(cmdLAF));
+			}
+			GUIUtil.applyLAF();
+			
+			// Set tooltip delay time.  Tooltips are used in MotorChooserDialog extensively.
+			ToolTipManager.sharedInstance().setDismissDelay(30000);
+		}, "translator");
 		
-		// Load defaults
-		((SwingPreferences) Application.getPreferences()).loadDefaultUnits();
-		((SwingPreferences) Application.getPreferences()).loadDefaultComponentMaterials();
-
-		Databases.fakeMethod();
-
 		// Set up the OSX file open handler here so that it can handle files that are opened when OR is not yet running.
+		String[] ready = { "splash", "exceptionHandler", "databases", "defaults", "lookAndFeel" };
 		if (SystemInfo.getPlatform() == Platform.MAC_OS) {
-			OSXSetup.setupOSXOpenFileHandler();
+			graph.addEDTPhase("osxOpenFileHandler", OSXSetup::setupOSXOpenFileHandler, ready);
+			ready = new String[] { "osxOpenFileHandler" };
 		}
 		
 		// Starting action (load files or open new document)
-		log.info("Opening main application window");
-		if (!handleCommandLine(args)) {
-			BasicFrame startupFrame = BasicFrame.reopen();
-			BasicFrame.setStartupFrame(startupFrame);
-			showWelcomeDialog();
-		}
+		graph.addEDTPhase("mainWindow", () -> {
+			log.info("Opening main application window");
+			if (!handleCommandLine(args)) {
+				BasicFrame startupFrame = BasicFrame.reopen();
+				BasicFrame.setStartupFrame(startupFrame);
+				showWelcomeDialog();
+			}
+		}, ready);
 		
 		// Check whether update info has been fetched or whether it needs more time
-		log.info("Checking update status");
-		checkUpdateStatus(updateRetriever);
+		graph.addEDTPhase("updateStatus", () -> {
+			log.info("Checking update status");
+			checkUpdateStatus(updateRetriever);
+		}, "mainWindow", "updateCheck");
 		
+		graph.run();
+	}
+	
+	/**
+	 * Report the startup trace once the databases have been loaded.
+	 *
+	 * @param option	the value of the startup trace option, either empty to print the trace
+	 * 					or "=file" to write it to a file.
+	 */
+	private void reportStartupTrace(final String option) {
+		Thread thread = new Thread(() -> {
+			guiModule.blockUntilLoaded();
+			trace.record("databaseLoading", "DatabaseLoadingThread", databaseLoadingStart, databaseLoadingStart,
+					System.nanoTime());
+			
+			String report = trace.getReport();
+			log.info(report);
+			if (option.isEmpty()) {
+				System.out.print(report);
+				System.out.flush();
+				return;
+			}
+			File file = new File(option.substring(1));
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+				writer.write(report);
+			} catch (IOException e) {
+				log.warn("Unable to write startup trace to " + file, e);
+			}
+		}, "StartupTraceThread");
+		thread.setDaemon(true);
+		thread.start();
 	}
 	
 	/**
@@ -11,20 +11,12 @@ import info.openrocket.core.util.BugException;
 
 public class PluginClasspathProvider implements ClasspathProvider {
 	
-	private static final String CUSTOM_PLUGIN_PROPERTY = "openrocket.plugins";
-	
 	@Override
 	public List<URL> getUrls() {
 		List<URL> urls = new ArrayList<>();
 		
-		findPluginDirectoryUrls(urls);
-		findCustomPlugins(urls);
-		
-		return urls;
-	}
-	
-	private void findPluginDirectoryUrls(List<URL> urls) {
-		List<File> files = PluginHelper.getPluginJars();
+		// The plugin directory jars and the files listed in the openrocket.plugins property
+		List<File> files = PluginHelper.getPluginClasspath();
 		for (File f : files) {
 			try {
 				urls.add(f.toURI().toURL());
@@ -32,25 +24,8 @@ public class PluginClasspathProvider implements ClasspathProvider {
 				throw new BugException(e);
 			}
 		}
-	}
-	
-	private void findCustomPlugins(List<URL> urls) {
-		String prop = System.getProperty(CUSTOM_PLUGIN_PROPERTY);
-		if (prop == null) {
-			return;
-		}
 		
-		String[] array = prop.split(File.pathSeparator);
-		for (String s : array) {
-			s = s.trim();
-			if (s.length() > 0) {
-				try {
-					urls.add(new File(s).toURI().toURL());
-				} catch (MalformedURLException e) {
-					throw new BugException(e);
-				}
-			}
-		}
+		return urls;
 	}
 	
 }
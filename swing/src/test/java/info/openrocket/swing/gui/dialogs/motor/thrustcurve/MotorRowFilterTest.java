@@ -220,5 +220,73 @@ public class MotorRowFilterTest {
 		
 		testMotor(emptyMotor, new ArrayList(), ImpulseClass.A, ImpulseClass.A, ImpulseClass.B);
 	}
-}
 
+	private ThrustCurveMotor createMotor(String manufacturer, String designation, double diameter) {
+		return new ThrustCurveMotor.Builder()
+			.setDesignation(designation)
+			.setDiameter(diameter)
+			.setLength(0.10)
+			.setDigest(manufacturer + designation)
+			.setManufacturer(Manufacturer.getManufacturer(manufacturer))
+			.setTimePoints(new double[] {0, 1})
+			.setThrustPoints(new double[] {0, 2})
+			.setCGPoints(new Coordinate[] {
+					new Coordinate(0.05,0,0,0.05),
+					new Coordinate(0.03,0,0,0.03)})
+			.build();
+	}
+
+	@Test
+	public void TestSearchTerms() {
+		String[][] motors = {
+			{ "AeroTech", "H123" },
+			{ "AeroTech", "H128" },
+			{ "Cesaroni", "H123" },
+			{ "Estes", "C6" },
+		};
+		List<ThrustCurveMotorSet> motorList = new ArrayList<>();
+		for (String[] m : motors) {
+			ThrustCurveMotorSet motorSet = new ThrustCurveMotorSet();
+			motorSet.addMotor(createMotor(m[0], m[1], 0.038));
+			motorList.add(motorSet);
+		}
+		ThrustCurveMotorDatabaseModel model = new ThrustCurveMotorDatabaseModel(motorList);
+		MotorRowFilter filter = new MotorRowFilter(model);
+
+		// Search as the terms are typed, so the previous matches are refined
+		assertIncluded(filter, model, List.of("h"), true, true, true, false);
+		assertIncluded(filter, model, List.of("h12"), true, true, true, false);
+		assertIncluded(filter, model, List.of("h123"), true, false, true, false);
+		assertIncluded(filter, model, List.of("h123", "aero"), true, false, false, false);
+		assertIncluded(filter, model, List.of("h12", "AERO"), true, true, false, false);
+		// A term that is not present at all
+		assertIncluded(filter, model, List.of("h12h"), false, false, false, false);
+		// A term must match within a single column
+		assertIncluded(filter, model, List.of("techh"), false, false, false, false);
+		assertIncluded(filter, model, List.of(), true, true, true, true);
+
+		filter.setSearchTerms(List.of("h12"));
+		filter.setMaximumImpulse(ImpulseClass.A);
+		assertIncluded(filter, model, List.of("h12"), true, true, true, false);
+		filter.setMaximumDiameter(0.029);
+		assertIncluded(filter, model, List.of("h12"), false, false, false, false);
+	}
+
+	private void assertIncluded(MotorRowFilter filter, ThrustCurveMotorDatabaseModel model, List<String> searchTerms,
+			boolean... expected) {
+		filter.setSearchTerms(searchTerms);
+		boolean[] updated = new boolean[1];
+		filter.update(() -> updated[0] = true);
+		assertTrue(updated[0]);
+		for (int i = 0; i < expected.length; i++) {
+			final int row = i;
+			MotorEntry entry = new MotorEntry(model) {
+				@Override
+				public Integer getIdentifier() {
+					return row;
+				}
+			};
+			assertEquals(expected[i], filter.include(entry), "row " + row + " for " + searchTerms);
+		}
+	}
+}
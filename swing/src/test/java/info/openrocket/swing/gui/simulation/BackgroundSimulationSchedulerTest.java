@@ -0,0 +1,194 @@
+package info.openrocket.swing.gui.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.FlightConfigurationId;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.RK4SimulationStepper;
+import info.openrocket.core.simulation.listeners.SimulationListener;
+import info.openrocket.core.util.ModID;
+import info.openrocket.core.util.TestRockets;
+import info.openrocket.swing.util.BaseTestCase;
+
+public class BackgroundSimulationSchedulerTest extends BaseTestCase {
+
+	/** The debounce timer never fires during a test, the tests start the pending requests themselves. */
+	private static final int DEBOUNCE_DELAY = 3600000;
+
+	private final List<Runnable> tasks = new ArrayList<>();
+	private final List<Simulation> done = new ArrayList<>();
+	private final List<Boolean> previews = new ArrayList<>();
+	private final List<Throwable> failures = new ArrayList<>();
+
+	private BackgroundSimulationScheduler createScheduler() {
+		return new BackgroundSimulationScheduler(tasks::add, DEBOUNCE_DELAY, () -> new SimulationListener[0],
+				new BackgroundSimulationScheduler.Callback() {
+					@Override
+					public void simulationDone(Simulation simulation, boolean preview) {
+						done.add(simulation);
+						previews.add(preview);
+					}
+
+					@Override
+					public void simulationFailed(Simulation simulation, Throwable t) {
+						failures.add(t);
+					}
+				});
+	}
+
+	private static List<Simulation> createSimulations(int count) {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		List<Simulation> simulations = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Simulation simulation = new Simulation(document, rocket);
+			// The test preferences give no usable simulation defaults
+			simulation.getOptions().setISAAtmosphere(true);
+			simulation.getOptions().setTimeStep(RK4SimulationStepper.RECOMMENDED_TIME_STEP);
+			simulation.getOptions().setMaxSimulationTime(1200);
+			if (i > 0) {
+				FlightConfigurationId id = new FlightConfigurationId();
+				rocket.createFlightConfiguration(id);
+				simulation.setFlightConfigurationId(id);
+			}
+			simulations.add(simulation);
+		}
+		return simulations;
+	}
+
+	private static SwingWorker<?, ?> worker(Runnable task) {
+		return (SwingWorker<?, ?>) task;
+	}
+
+	/**
+	 * Run a task on this thread, and wait until its completion has been handled on the EDT,
+	 * i.e. the callback has been called the given number of times.  SwingWorker delivers the
+	 * completion through a timer, so it is not handled immediately.
+	 */
+	private void run(Runnable task, int callbacks) throws Exception {
+		task.run();
+		long end = System.currentTimeMillis() + 10000;
+		int[] count = new int[1];
+		do {
+			Thread.sleep(10);
+			SwingUtilities.invokeAndWait(() -> count[0] = done.size() + failures.size());
+		} while (count[0] < callbacks && System.currentTimeMillis() < end);
+	}
+
+	@Test
+	public void testDebounceCoalescing() {
+		BackgroundSimulationScheduler scheduler = createScheduler();
+		Simulation simulation = createSimulations(1).get(0);
+		ModID modID = new ModID();
+
+		// A burst of requests results in a single run
+		for (int i = 0; i < 5; i++) {
+			scheduler.schedule(modID, List.of(simulation));
+		}
+		assertTrue(tasks.isEmpty());
+		assertEquals(1, scheduler.getQueueDepth());
+		assertEquals(5, scheduler.getRequestCount());
+		assertEquals(4, scheduler.getCoalescedCount());
+
+		scheduler.startNext();
+		assertEquals(1, tasks.size());
+		assertEquals(0, scheduler.getQueueDepth());
+		assertTrue(scheduler.isBusy());
+
+		// A request for the simulation in progress with the same rocket is dropped
+		scheduler.schedule(modID, List.of(simulation));
+		assertEquals(0, scheduler.getQueueDepth());
+		assertEquals(5, scheduler.getCoalescedCount());
+		assertEquals(0, scheduler.getCancelledCount());
+		scheduler.cancel();
+	}
+
+	@Test
+	public void testCancelOnModIDChange() {
+		BackgroundSimulationScheduler scheduler = createScheduler();
+		Simulation simulation = createSimulations(1).get(0);
+
+		scheduler.schedule(new ModID(), List.of(simulation));
+		scheduler.startNext();
+		assertEquals(1, tasks.size());
+
+		// A request for a newer rocket cancels the run in progress
+		scheduler.schedule(new ModID(), List.of(simulation));
+		assertTrue(worker(tasks.get(0)).isCancelled());
+		assertEquals(1, scheduler.getCancelledCount());
+		assertEquals(1, scheduler.getQueueDepth());
+
+		// The new request is started, the cancelled run reports nothing
+		scheduler.startNext();
+		assertEquals(2, tasks.size());
+		assertFalse(worker(tasks.get(1)).isCancelled());
+
+		scheduler.cancel();
+		assertTrue(worker(tasks.get(1)).isCancelled());
+		assertEquals(2, scheduler.getCancelledCount());
+		assertFalse(scheduler.isBusy());
+		assertTrue(done.isEmpty());
+	}
+
+	@Test
+	public void testPerConfigurationCoalescing() {
+		BackgroundSimulationScheduler scheduler = createScheduler();
+		List<Simulation> simulations = createSimulations(2);
+		Simulation a = simulations.get(0);
+		Simulation b = simulations.get(1);
+		ModID modID = new ModID();
+
+		scheduler.schedule(modID, List.of(a, b));
+		scheduler.schedule(modID, List.of(a));
+		assertEquals(2, scheduler.getQueueDepth());
+		assertEquals(1, scheduler.getCoalescedCount());
+
+		// The requests are started one at a time, a re-requested configuration runs last
+		scheduler.startNext();
+		scheduler.startNext();
+		assertEquals(1, tasks.size());
+		assertSame(b, ((SimulationWorker) tasks.get(0)).simulation);
+		assertEquals(1, scheduler.getQueueDepth());
+		scheduler.cancel();
+	}
+
+	@Test
+	public void testPreviewBeforeFullSimulation() throws Exception {
+		BackgroundSimulationScheduler scheduler = createScheduler();
+		scheduler.setPreviewEnabled(true);
+		Simulation simulation = createSimulations(1).get(0);
+
+		scheduler.schedule(new ModID(), List.of(simulation));
+		scheduler.startNext();
+		assertEquals(1, tasks.size());
+
+		// The preview is run on a copy, and is followed by the full simulation
+		run(tasks.get(0), 1);
+		assertEquals(List.of(true), previews);
+		assertNotSame(simulation, done.get(0));
+		assertEquals(2, tasks.size());
+		assertEquals(0, scheduler.getCompletedCount());
+
+		run(tasks.get(1), 2);
+		assertEquals(List.of(true, false), previews);
+		assertSame(simulation, done.get(1));
+		assertEquals(1, scheduler.getCompletedCount());
+		assertFalse(scheduler.isBusy());
+		assertTrue(failures.isEmpty());
+	}
+}
@@ -0,0 +1,132 @@
+package info.openrocket.swing.logging;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * Measures the throughput of the log {@link CyclicBuffer} with many producer threads, compared
+ * to the synchronized buffer it replaced.  This is not a unit test; run the main method with
+ * the test classpath, optionally giving the number of lines logged per producer as the argument.
+ */
+public class CyclicBufferBenchmark {
+
+	private static final int SIZE = 1000;
+
+	public static void main(String[] args) throws Exception {
+		int lines = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
+		// Warm up
+		measure(() -> new CyclicBuffer<>(SIZE), threads, lines / 4);
+		measure(() -> new SynchronizedCyclicBuffer<>(SIZE), threads, lines / 4);
+
+		for (int producers : new int[] { 1, 2, threads }) {
+			System.gc();
+			double lockFree = measure(() -> new CyclicBuffer<>(SIZE), producers, lines);
+			System.gc();
+			double synchronizedBuffer = measure(() -> new SynchronizedCyclicBuffer<>(SIZE), producers, lines);
+			System.out.println(String.format(Locale.ROOT, "%2d producers: lock-free %6.2f M lines/s, " +
+					"synchronized %6.2f M lines/s", producers, lockFree, synchronizedBuffer));
+		}
+	}
+
+	/**
+	 * @return the number of lines offered per second, in millions
+	 */
+	private static double measure(Supplier<Queue<Object>> factory, int producers, int lines) throws Exception {
+		Queue<Object> buffer = factory.get();
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] workers = new Thread[producers];
+		for (int p = 0; p < producers; p++) {
+			workers[p] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				Object line = new Object();
+				for (int i = 0; i < lines; i++) {
+					buffer.offer(line);
+				}
+			});
+			workers[p].start();
+		}
+
+		long t0 = System.nanoTime();
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		double seconds = (System.nanoTime() - t0) / 1e9;
+		return (double) producers * lines / seconds / 1e6;
+	}
+
+	/**
+	 * The cyclic buffer as it was before it was made lock-free, with every operation
+	 * synchronized on the buffer.
+	 */
+	private static class SynchronizedCyclicBuffer<E> extends AbstractQueue<E> {
+
+		private final ArrayList<E> buffer;
+		private final int maxSize;
+
+		private int startPosition = 0;
+		private int size = 0;
+
+		public SynchronizedCyclicBuffer(int size) {
+			this.buffer = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				this.buffer.add(null);
+			}
+			this.maxSize = size;
+		}
+
+		@Override
+		public synchronized boolean offer(E e) {
+			buffer.set((startPosition + size) % maxSize, e);
+			if (size < maxSize) {
+				size++;
+			} else {
+				startPosition = (startPosition + 1) % maxSize;
+			}
+			return true;
+		}
+
+		@Override
+		public synchronized E peek() {
+			if (size == 0)
+				return null;
+			return buffer.get(startPosition);
+		}
+
+		@Override
+		public synchronized E poll() {
+			if (size == 0)
+				return null;
+			E element = buffer.get(startPosition);
+			startPosition = (startPosition + 1) % maxSize;
+			size--;
+			return element;
+		}
+
+		@Override
+		public synchronized int size() {
+			return size;
+		}
+
+		@Override
+		public synchronized Iterator<E> iterator() {
+			List<E> list = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				list.add(buffer.get((startPosition + i) % maxSize));
+			}
+			return list.iterator();
+		}
+	}
+}
@@ -2,11 +2,14 @@ package info.openrocket.swing.logging;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
 
 import org.junit.jupiter.api.Test;
 
@@ -135,6 +138,120 @@ public class CyclicBufferTest {
 	}
 	
 	
+	@Test
+	public void testConcurrentProducers() throws Exception {
+		final int size = 1000;
+		final int lines = 200000;
+		final int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
+		for (int producers : new int[] { 1, threads }) {
+			CyclicBuffer<long[]> buffer = new CyclicBuffer<>(size);
+			CountDownLatch start = new CountDownLatch(1);
+			Thread[] workers = new Thread[producers];
+			for (int p = 0; p < producers; p++) {
+				final int producer = p;
+				workers[p] = new Thread(() -> {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int i = 0; i < lines; i++) {
+						buffer.offer(new long[] { producer, i });
+					}
+				});
+				workers[p].start();
+			}
+
+			// Take snapshots while the producers are writing
+			start.countDown();
+			while (workers[0].isAlive()) {
+				assertOrdered(buffer.asList(), producers);
+			}
+			for (Thread worker : workers) {
+				worker.join();
+			}
+
+			List<long[]> list = buffer.asList();
+			assertEquals(size, list.size());
+			assertEquals(size, buffer.size());
+			assertEquals((long) producers * lines - size, buffer.getOverwriteCount());
+			assertOrdered(list, producers);
+		}
+	}
+
+	/**
+	 * With more producers than slots, a producer may write its slot only after a later
+	 * producer has already written the same slot.  The older element must not replace the
+	 * newer one, or the slot is never current again and readers wait for it forever.
+	 */
+	@Test
+	public void testMoreProducersThanSlots() {
+		final int size = 2;
+		final int lines = 1000;
+		final int producers = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
+		assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+			for (int round = 0; round < 200; round++) {
+				CyclicBuffer<long[]> buffer = new CyclicBuffer<>(size);
+				CountDownLatch start = new CountDownLatch(1);
+				Thread[] workers = new Thread[producers];
+				for (int p = 0; p < producers; p++) {
+					final int producer = p;
+					workers[p] = new Thread(() -> {
+						try {
+							start.await();
+						} catch (InterruptedException e) {
+							return;
+						}
+						for (int i = 0; i < lines; i++) {
+							buffer.offer(new long[] { producer, i });
+						}
+					});
+					workers[p].start();
+				}
+
+				// Consume while the producers are writing
+				start.countDown();
+				long[] last = new long[producers];
+				Arrays.fill(last, -1);
+				while (workers[0].isAlive()) {
+					buffer.peek();
+					long[] line = buffer.poll();
+					if (line != null) {
+						assertTrue(line[1] > last[(int) line[0]]);
+						last[(int) line[0]] = line[1];
+					}
+				}
+				for (Thread worker : workers) {
+					worker.join();
+				}
+
+				// Every slot holds its current element
+				assertEquals(buffer.size(), buffer.asList().size());
+				while (buffer.poll() != null) {
+					// Empty the buffer
+				}
+				assertEquals(0, buffer.size());
+				assertNull(buffer.peek());
+			}
+		});
+	}
+
+	/**
+	 * Check that the lines of each producer are in the order they were inserted.
+	 */
+	private void assertOrdered(List<long[]> list, int producers) {
+		long[] last = new long[producers];
+		Arrays.fill(last, -1);
+		for (long[] line : list) {
+			int producer = (int) line[0];
+			assertTrue(line[1] > last[producer], "Line " + line[1] + " after " + last[producer]);
+			last[producer] = line[1];
+		}
+	}
+
+
 	private void testContents(CyclicBuffer<Integer> buffer, int ... values) {
 		
 		// Test using iterator
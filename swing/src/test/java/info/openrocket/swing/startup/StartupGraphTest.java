@@ -0,0 +1,86 @@
+package info.openrocket.swing.startup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.Test;
+
+public class StartupGraphTest {
+
+	@Test
+	public void testDependencies() throws Exception {
+		StartupTrace trace = new StartupTrace();
+		StartupGraph graph = new StartupGraph(trace);
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+		AtomicBoolean edt = new AtomicBoolean();
+
+		graph.addPhase("a", () -> order.add("a"));
+		graph.addPhase("b", () -> order.add("b"), "a");
+		graph.addEDTPhase("c", () -> {
+			edt.set(SwingUtilities.isEventDispatchThread());
+			order.add("c");
+		}, "a");
+		graph.addPhase("d", () -> order.add("d"), "b", "c");
+		graph.run();
+
+		assertEquals(4, order.size());
+		assertEquals("a", order.get(0));
+		assertEquals("d", order.get(3));
+		assertTrue(edt.get());
+		assertTrue(trace.getDuration("d") >= 0);
+		assertTrue(trace.getReport().contains("d"));
+	}
+
+	@Test
+	public void testIndependentPhasesRunInParallel() throws Exception {
+		StartupGraph graph = new StartupGraph(new StartupTrace());
+		CountDownLatch latch = new CountDownLatch(3);
+
+		// Each phase waits for the others to start
+		StartupGraph.Task task = () -> {
+			latch.countDown();
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+		};
+		graph.addPhase("a", task);
+		graph.addPhase("b", task);
+		graph.addEDTPhase("c", task);
+		graph.run();
+	}
+
+	@Test
+	public void testFailureStopsDependents() {
+		StartupGraph graph = new StartupGraph(new StartupTrace());
+		IllegalStateException error = new IllegalStateException("test");
+		AtomicBoolean dependentRun = new AtomicBoolean();
+
+		graph.addPhase("a", () -> {
+			throw error;
+		});
+		graph.addPhase("b", () -> dependentRun.set(true), "a");
+
+		ExecutionException e = assertThrows(ExecutionException.class, graph::run);
+		assertSame(error, e.getCause());
+		assertFalse(dependentRun.get());
+	}
+
+	@Test
+	public void testUnknownDependency() {
+		StartupGraph graph = new StartupGraph(new StartupTrace());
+		graph.addPhase("a", () -> { });
+		assertThrows(IllegalArgumentException.class, () -> graph.addPhase("b", () -> { }, "c"));
+		assertThrows(IllegalArgumentException.class, () -> graph.addPhase("a", () -> { }));
+	}
+}